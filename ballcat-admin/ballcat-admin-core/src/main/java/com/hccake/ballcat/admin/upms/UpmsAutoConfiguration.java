@@ -1,13 +1,20 @@
 package com.hccake.ballcat.admin.upms;
 
 import com.hccake.ballcat.admin.upms.log.LogConfiguration;
+import com.hccake.ballcat.admin.upms.security.OpaqueTokenRevocationBroadcaster;
+import com.hccake.ballcat.admin.upms.security.TokenReplacementBroadcastingAuthorizationService;
+import com.hccake.ballcat.autoconfigure.redis.MessageEventListenerAutoConfiguration;
+import com.hccake.ballcat.notify.properties.NotifyProperties;
 import com.hccake.ballcat.system.authentication.*;
 import com.hccake.ballcat.system.properties.SystemProperties;
 import com.hccake.ballcat.system.service.SysUserService;
 import org.ballcat.security.properties.SecurityProperties;
+import org.ballcat.springsecurity.oauth2.server.resource.introspection.OpaqueTokenIntrospectionCache;
 import org.ballcat.springsecurity.oauth2.server.resource.introspection.SpringAuthorizationServerSharedStoredOpaqueTokenIntrospector;
 import org.ballcat.springsecurity.oauth2.server.resource.introspection.SpringOAuth2SharedStoredOpaqueTokenIntrospector;
 import org.mybatis.spring.annotation.MapperScan;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
@@ -17,6 +24,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.oauth2.provider.token.TokenEnhancer;
@@ -29,11 +37,11 @@ import org.springframework.security.oauth2.server.resource.introspection.OpaqueT
  * @author Hccake 2020/5/25 21:01
  */
 @EnableAsync
-@AutoConfiguration
+@AutoConfiguration(before = MessageEventListenerAutoConfiguration.class)
 @MapperScan("com.hccake.ballcat.**.mapper")
 @ComponentScan({ "com.hccake.ballcat.admin.upms", "com.hccake.ballcat.auth.controller", "com.hccake.ballcat.system",
 		"com.hccake.ballcat.log", "com.hccake.ballcat.file", "com.hccake.ballcat.notify" })
-@EnableConfigurationProperties({ SystemProperties.class, SecurityProperties.class })
+@EnableConfigurationProperties({ SystemProperties.class, SecurityProperties.class, NotifyProperties.class })
 @Import(LogConfiguration.class)
 public class UpmsAutoConfiguration {
 
@@ -129,8 +137,47 @@ public class UpmsAutoConfiguration {
 		@ConditionalOnProperty(prefix = "ballcat.security.oauth2.resourceserver", name = "shared-stored-token",
 				havingValue = "true", matchIfMissing = true)
 		public OpaqueTokenIntrospector sharedStoredOpaqueTokenIntrospector(
-				OAuth2AuthorizationService authorizationService) {
-			return new SpringAuthorizationServerSharedStoredOpaqueTokenIntrospector(authorizationService);
+				OAuth2AuthorizationService authorizationService,
+				ObjectProvider<OpaqueTokenIntrospectionCache> introspectionCacheProvider) {
+			SpringAuthorizationServerSharedStoredOpaqueTokenIntrospector introspector = new SpringAuthorizationServerSharedStoredOpaqueTokenIntrospector(
+					authorizationService);
+			introspectionCacheProvider.ifAvailable(introspector::setIntrospectionCache);
+			return introspector;
+		}
+
+		/**
+		 * 开启令牌鉴定缓存时，登出后广播被撤销的令牌，由各资源服务器节点移除鉴定缓存
+		 * @return OpaqueTokenRevocationBroadcaster
+		 */
+		@Bean
+		@ConditionalOnMissingBean
+		@ConditionalOnProperty(prefix = "ballcat.security.oauth2.resourceserver.introspection-cache", name = "enabled",
+				havingValue = "true")
+		public OpaqueTokenRevocationBroadcaster opaqueTokenRevocationBroadcaster(
+				StringRedisTemplate stringRedisTemplate) {
+			return new OpaqueTokenRevocationBroadcaster(stringRedisTemplate);
+		}
+
+		/**
+		 * 开启令牌鉴定缓存时，包装 OAuth2AuthorizationService，刷新令牌替换了旧的 access token 后广播旧令牌
+		 * @return BeanPostProcessor
+		 */
+		@Bean
+		@ConditionalOnProperty(prefix = "ballcat.security.oauth2.resourceserver.introspection-cache", name = "enabled",
+				havingValue = "true")
+		public static BeanPostProcessor tokenReplacementBroadcastingPostProcessor(
+				ObjectProvider<OpaqueTokenRevocationBroadcaster> broadcasterProvider) {
+			return new BeanPostProcessor() {
+				@Override
+				public Object postProcessAfterInitialization(Object bean, String beanName) {
+					if (bean instanceof OAuth2AuthorizationService
+							&& !(bean instanceof TokenReplacementBroadcastingAuthorizationService)) {
+						return new TokenReplacementBroadcastingAuthorizationService((OAuth2AuthorizationService) bean,
+								broadcasterProvider);
+					}
+					return bean;
+				}
+			};
 		}
 
 	}
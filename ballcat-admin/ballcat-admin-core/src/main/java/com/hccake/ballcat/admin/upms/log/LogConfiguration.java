@@ -10,6 +10,7 @@ import com.hccake.ballcat.log.service.AccessLogService;
 import com.hccake.ballcat.log.service.LoginLogService;
 import com.hccake.ballcat.log.service.OperationLogService;
 import com.hccake.ballcat.log.thread.AccessLogSaveThread;
+import com.hccake.ballcat.log.thread.OperationLogSaveThread;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
@@ -39,15 +40,31 @@ public class LogConfiguration {
 	}
 
 	/**
-	 * 操作日志处理器
+	 * 操作日志批量存储线程，应用关闭时将剩余日志入库
+	 * <p>
+	 * 关闭由 destroyMethod 负责，不依赖 ContextComponent 的关闭监听；线程内部保证只会关闭一次
+	 * </p>
 	 * @param operationLogService 操作日志Service
+	 * @return OperationLogSaveThread
+	 */
+	@Bean(destroyMethod = "onApplicationStop")
+	@ConditionalOnBean(OperationLogService.class)
+	@ConditionalOnMissingBean(OperationLogHandler.class)
+	public OperationLogSaveThread operationLogSaveThread(OperationLogService operationLogService) {
+		return new OperationLogSaveThread(operationLogService);
+	}
+
+	/**
+	 * 操作日志处理器
+	 * @param operationLogSaveThread 操作日志批量存储线程
 	 * @return CustomOperationLogHandler
 	 */
 	@Bean
 	@ConditionalOnBean(OperationLogService.class)
 	@ConditionalOnMissingBean(OperationLogHandler.class)
-	public OperationLogHandler<OperationLog> customOperationLogHandler(OperationLogService operationLogService) {
-		return new CustomOperationLogHandler(operationLogService);
+	public OperationLogHandler<OperationLog> customOperationLogHandler(
+			OperationLogSaveThread operationLogSaveThread) {
+		return new CustomOperationLogHandler(operationLogSaveThread);
 	}
 
 	@ConditionalOnClass(TokenEnhancer.class)
@@ -0,0 +1,60 @@
+package com.hccake.ballcat.admin.upms.security;
+
+import com.hccake.ballcat.common.util.JsonUtils;
+import lombok.RequiredArgsConstructor;
+import org.ballcat.springsecurity.oauth2.server.authorization.authentication.OAuth2TokenRevocationAuthenticationToken;
+import org.ballcat.springsecurity.oauth2.server.resource.introspection.OpaqueTokenIntrospectionCache;
+import org.ballcat.springsecurity.oauth2.server.resource.introspection.OpaqueTokenRevocationListener;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.security.authentication.event.LogoutSuccessEvent;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
+
+/**
+ * 令牌撤销广播
+ * <p>
+ * 登出（撤销令牌）或刷新令牌替换了旧的 access token 时，通过 redis 将令牌摘要广播至所有节点，由各资源服务器节点的
+ * {@link OpaqueTokenRevocationListener} 移除本地的令牌鉴定缓存。
+ * </p>
+ *
+ * @author hccake
+ */
+@RequiredArgsConstructor
+public class OpaqueTokenRevocationBroadcaster {
+
+	private final StringRedisTemplate stringRedisTemplate;
+
+	/**
+	 * 登出成功事件监听，广播被撤销的 access token
+	 * @param event the event
+	 */
+	@EventListener(LogoutSuccessEvent.class)
+	public void onLogoutSuccessEvent(LogoutSuccessEvent event) {
+		Object source = event.getSource();
+		if (!(source instanceof OAuth2TokenRevocationAuthenticationToken)) {
+			return;
+		}
+		OAuth2TokenRevocationAuthenticationToken revocationToken = (OAuth2TokenRevocationAuthenticationToken) source;
+		OAuth2Authorization authorization = revocationToken.getAuthorization();
+		if (authorization == null) {
+			return;
+		}
+
+		// 撤销 refresh token 时 access token 也会一并失效，所以总是广播 access token
+		OAuth2Authorization.Token<OAuth2AccessToken> accessToken = authorization.getAccessToken();
+		String tokenValue = accessToken != null ? accessToken.getToken().getTokenValue() : revocationToken.getToken();
+		broadcast(tokenValue);
+	}
+
+	/**
+	 * 广播失效的令牌
+	 * @param tokenValue 令牌原文，只会广播其摘要
+	 */
+	public void broadcast(String tokenValue) {
+		String tokenHash = OpaqueTokenIntrospectionCache.hash(tokenValue);
+		stringRedisTemplate.convertAndSend(OpaqueTokenRevocationListener.CHANNEL_OPAQUE_TOKEN_REVOKED,
+				JsonUtils.toJson(tokenHash));
+	}
+
+}
@@ -0,0 +1,70 @@
+package com.hccake.ballcat.admin.upms.security;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.lang.Nullable;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationService;
+import org.springframework.security.oauth2.server.authorization.OAuth2TokenType;
+
+/**
+ * 广播被替换的 access token 的 OAuth2AuthorizationService
+ * <p>
+ * 刷新令牌时，授权服务器会用新的 access token 覆盖授权信息中旧的 access token，此时旧令牌已不可用，但各节点的令牌鉴定缓存中仍可能保留着旧令牌的鉴定结果。
+ * 这里在保存授权信息前比对旧的 access token，若发生了替换，则在保存后广播旧令牌。
+ * </p>
+ *
+ * @author hccake
+ */
+@RequiredArgsConstructor
+public class TokenReplacementBroadcastingAuthorizationService implements OAuth2AuthorizationService {
+
+	private final OAuth2AuthorizationService delegate;
+
+	private final ObjectProvider<OpaqueTokenRevocationBroadcaster> broadcasterProvider;
+
+	@Override
+	public void save(OAuth2Authorization authorization) {
+		String replacedTokenValue = getReplacedAccessTokenValue(authorization);
+		delegate.save(authorization);
+		if (replacedTokenValue != null) {
+			broadcasterProvider.ifAvailable(broadcaster -> broadcaster.broadcast(replacedTokenValue));
+		}
+	}
+
+	/**
+	 * 获取将被替换的 access token
+	 * @param authorization 待保存的授权信息
+	 * @return 未发生替换时返回 null
+	 */
+	@Nullable
+	private String getReplacedAccessTokenValue(OAuth2Authorization authorization) {
+		OAuth2Authorization.Token<OAuth2AccessToken> accessToken = authorization.getAccessToken();
+		if (accessToken == null) {
+			return null;
+		}
+		OAuth2Authorization previous = delegate.findById(authorization.getId());
+		if (previous == null || previous.getAccessToken() == null) {
+			return null;
+		}
+		String previousTokenValue = previous.getAccessToken().getToken().getTokenValue();
+		return previousTokenValue.equals(accessToken.getToken().getTokenValue()) ? null : previousTokenValue;
+	}
+
+	@Override
+	public void remove(OAuth2Authorization authorization) {
+		delegate.remove(authorization);
+	}
+
+	@Override
+	public OAuth2Authorization findById(String id) {
+		return delegate.findById(id);
+	}
+
+	@Override
+	public OAuth2Authorization findByToken(String token, @Nullable OAuth2TokenType tokenType) {
+		return delegate.findByToken(token, tokenType);
+	}
+
+}
@@ -4,10 +4,12 @@ import com.hccake.ballcat.autoconfigure.i18n.I18nMessageSourceAutoConfiguration;
 import com.hccake.ballcat.autoconfigure.redis.MessageEventListenerAutoConfiguration;
 import com.hccake.ballcat.common.i18n.I18nMessageProvider;
 import com.hccake.ballcat.i18n.provider.CustomI18nMessageProvider;
+import com.hccake.ballcat.i18n.provider.PreloadI18nMessageProvider;
 import com.hccake.ballcat.i18n.service.I18nDataService;
 import org.mybatis.spring.annotation.MapperScan;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 
@@ -21,6 +23,18 @@ import org.springframework.context.annotation.ComponentScan;
 @ComponentScan("com.hccake.ballcat.i18n")
 public class AdminI18nAutoConfiguration {
 
+	/**
+	 * 按语言一次性预加载所有国际化数据，不存在的 code 也不会再查询数据库
+	 * @param i18nDataService 国际化数据服务
+	 * @return PreloadI18nMessageProvider
+	 */
+	@Bean
+	@ConditionalOnMissingBean(I18nMessageProvider.class)
+	@ConditionalOnProperty(prefix = "ballcat.i18n", name = "preload-messages", havingValue = "true")
+	public PreloadI18nMessageProvider preloadI18nMessageProvider(I18nDataService i18nDataService) {
+		return new PreloadI18nMessageProvider(i18nDataService);
+	}
+
 	@Bean
 	@ConditionalOnMissingBean(I18nMessageProvider.class)
 	public CustomI18nMessageProvider i18nMessageProvider(I18nDataService i18nDataService) {
@@ -1,11 +1,15 @@
 package com.hccake.ballcat.common.i18n;
 
+import lombok.EqualsAndHashCode;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.support.AbstractMessageSource;
 import org.springframework.lang.Nullable;
+import org.springframework.util.ObjectUtils;
 
 import java.text.MessageFormat;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 动态获取的 MessageSource，比如从数据库 或者 redis 中获取 message 信息
@@ -19,14 +23,59 @@ public class DynamicMessageSource extends AbstractMessageSource {
 
 	private final I18nMessageProvider i18nMessageProvider;
 
+	/**
+	 * MessageFormat 缓存的最大数量，locale 来自客户端请求，超出后清空缓存，防止内存无限增长
+	 */
+	static final int MAX_CACHED_MESSAGE_FORMATS = 4096;
+
+	/**
+	 * 已编译的 MessageFormat 缓存：(code, locale) -> MessageFormat
+	 */
+	private final Map<CacheKey, CachedMessageFormat> cachedMessageFormats = new ConcurrentHashMap<>();
+
 	@Override
 	@Nullable
 	protected MessageFormat resolveCode(String code, Locale locale) {
 		I18nMessage i18nMessage = i18nMessageProvider.getI18nMessage(code, locale);
-		if (i18nMessage != null) {
-			return createMessageFormat(i18nMessage.getMessage(), locale);
+		if (i18nMessage == null) {
+			return null;
+		}
+
+		String message = i18nMessage.getMessage();
+		CacheKey key = new CacheKey(code, locale);
+		CachedMessageFormat cached = cachedMessageFormats.get(key);
+		// 消息文本变化时重新编译
+		if (cached == null || !ObjectUtils.nullSafeEquals(cached.message, message)) {
+			cached = new CachedMessageFormat(message, createMessageFormat(message, locale));
+			if (cachedMessageFormats.size() >= MAX_CACHED_MESSAGE_FORMATS) {
+				cachedMessageFormats.clear();
+			}
+			cachedMessageFormats.put(key, cached);
 		}
-		return null;
+		return cached.messageFormat;
+	}
+
+	int cachedMessageFormatSize() {
+		return cachedMessageFormats.size();
+	}
+
+	@EqualsAndHashCode
+	@RequiredArgsConstructor
+	private static final class CacheKey {
+
+		private final String code;
+
+		private final Locale locale;
+
+	}
+
+	@RequiredArgsConstructor
+	private static final class CachedMessageFormat {
+
+		private final String message;
+
+		private final MessageFormat messageFormat;
+
 	}
 
 }
@@ -3,7 +3,6 @@ package com.hccake.ballcat.common.i18n;
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.lang.Assert;
 import cn.hutool.core.text.CharSequenceUtil;
-import cn.hutool.core.util.ReflectUtil;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.MessageSource;
 import org.springframework.context.NoSuchMessageException;
@@ -11,8 +10,6 @@ import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.core.MethodParameter;
 import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.expression.Expression;
-import org.springframework.expression.ExpressionParser;
-import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.server.ServerHttpRequest;
@@ -21,11 +18,8 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
 
 import java.lang.reflect.AnnotatedElement;
-import java.lang.reflect.Field;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.Locale;
-import java.util.Map;
 
 /**
  * 利用 ResponseBodyAdvice 对返回结果进行国际化处理
@@ -43,16 +37,6 @@ public class I18nResponseAdvice implements ResponseBodyAdvice<Object> {
 
 	private Locale fallbackLocale = null;
 
-	/**
-	 * SpEL 解析器
-	 */
-	private static final ExpressionParser PARSER = new SpelExpressionParser();
-
-	/**
-	 * 表达式缓存
-	 */
-	private static final Map<String, Expression> EXPRESSION_CACHE = new HashMap<>();
-
 	public I18nResponseAdvice(MessageSource messageSource, I18nOptions i18nOptions) {
 		this.messageSource = messageSource;
 
@@ -105,37 +89,32 @@ public class I18nResponseAdvice implements ResponseBodyAdvice<Object> {
 		if (source == null) {
 			return;
 		}
-		Class<?> sourceClass = source.getClass();
-		// 只对添加了 I18nClass 注解的类进行处理
-		I18nClass i18nClass = sourceClass.getAnnotation(I18nClass.class);
-		if (i18nClass == null) {
+		// 只对添加了 I18nClass 注解的类进行处理，处理计划按类缓存
+		I18nTranslationPlan plan = I18nTranslationPlan.of(source.getClass());
+		if (plan.isEmpty()) {
 			return;
 		}
 
-		for (Field field : ReflectUtil.getFields(sourceClass)) {
-			Class<?> fieldType = field.getType();
-			Object fieldValue = ReflectUtil.getFieldValue(source, field);
+		for (I18nTranslationPlan.FieldAccessor accessor : plan.getFieldAccessors()) {
+			Object fieldValue = accessor.getValue(source);
 
 			if (fieldValue instanceof String) {
 				// 若不存在国际化注解 直接跳过
-				I18nField i18nField = field.getAnnotation(I18nField.class);
-				if (i18nField == null) {
+				if (!accessor.isTranslatable()) {
 					continue;
 				}
 
 				// 国际化条件判断
-				String conditionExpression = i18nField.condition();
-				if (CharSequenceUtil.isNotEmpty(conditionExpression)) {
-					Expression expression = EXPRESSION_CACHE.computeIfAbsent(conditionExpression,
-							PARSER::parseExpression);
-					Boolean needI18n = expression.getValue(source, Boolean.class);
+				Expression conditionExpression = accessor.getConditionExpression();
+				if (conditionExpression != null) {
+					Boolean needI18n = conditionExpression.getValue(source, Boolean.class);
 					if (needI18n != null && !needI18n) {
 						continue;
 					}
 				}
 
 				// 获取国际化标识
-				String code = parseMessageCode(source, (String) fieldValue, i18nField);
+				String code = parseMessageCode(source, (String) fieldValue, accessor.getCodeExpression());
 				if (CharSequenceUtil.isEmpty(code)) {
 					continue;
 				}
@@ -143,7 +122,10 @@ public class I18nResponseAdvice implements ResponseBodyAdvice<Object> {
 				// 把当前 field 的值更新为国际化后的属性
 				Locale locale = LocaleContextHolder.getLocale();
 				String message = codeToMessage(code, locale, (String) fieldValue, fallbackLocale);
-				ReflectUtil.setFieldValue(source, field, message);
+				accessor.setValue(source, message);
+			}
+			else if (fieldValue == null || !accessor.isDescendable()) {
+				continue;
 			}
 			else if (fieldValue instanceof Collection) {
 				@SuppressWarnings("unchecked")
@@ -156,11 +138,8 @@ public class I18nResponseAdvice implements ResponseBodyAdvice<Object> {
 					switchLanguage(element);
 				}
 			}
-			else if (fieldType.isArray()) {
+			else if (fieldValue instanceof Object[]) {
 				Object[] elements = (Object[]) fieldValue;
-				if (elements == null || elements.length == 0) {
-					continue;
-				}
 				// 数组 递归处理
 				for (Object element : elements) {
 					switchLanguage(element);
@@ -181,19 +160,17 @@ public class I18nResponseAdvice implements ResponseBodyAdvice<Object> {
 	 * </ul>
 	 * @param source 源对象
 	 * @param fieldValue 属性值
-	 * @param i18nField 国际化注解
+	 * @param codeExpression 国际化 code 的 SpEL 表达式
 	 * @return String 国际化 code
 	 */
-	private String parseMessageCode(Object source, String fieldValue, I18nField i18nField) {
+	private String parseMessageCode(Object source, String fieldValue, Expression codeExpression) {
 		// 如果没有指定 spel，则直接返回属性值
-		String codeExpression = i18nField.code();
-		if (CharSequenceUtil.isEmpty(codeExpression)) {
+		if (codeExpression == null) {
 			return fieldValue;
 		}
 
 		// 否则解析 spel
-		Expression expression = EXPRESSION_CACHE.computeIfAbsent(codeExpression, PARSER::parseExpression);
-		return expression.getValue(source, String.class);
+		return codeExpression.getValue(source, String.class);
 	}
 
 	/**
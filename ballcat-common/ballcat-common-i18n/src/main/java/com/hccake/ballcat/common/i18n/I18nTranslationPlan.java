@@ -0,0 +1,250 @@
+package com.hccake.ballcat.common.i18n;
+
+import cn.hutool.core.text.CharSequenceUtil;
+import cn.hutool.core.util.ReflectUtil;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 国际化处理计划，每个类只解析一次。
+ * <p>
+ * 记录类中需要翻译的 {@link I18nField} 属性，以及可能包含 {@link I18nClass} 对象、需要递归处理的属性， 属性的读写通过预先生成的
+ * {@link MethodHandle} 完成，避免每次响应都进行反射查找。没有任何需要处理的属性的类将得到一个空计划，直接跳过。
+ * </p>
+ *
+ * @author hccake
+ */
+@Slf4j
+final class I18nTranslationPlan {
+
+	/**
+	 * 空计划，未标注 {@link I18nClass} 或没有需要处理属性的类共享此实例
+	 */
+	static final I18nTranslationPlan EMPTY = new I18nTranslationPlan(Collections.emptyList());
+
+	/**
+	 * SpEL 解析器
+	 */
+	private static final ExpressionParser PARSER = new SpelExpressionParser();
+
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+	/**
+	 * 处理计划缓存，默认使用软引用，内存不足时可被回收，不会阻止类卸载
+	 */
+	private static final Map<Class<?>, I18nTranslationPlan> PLAN_CACHE = new ConcurrentReferenceHashMap<>();
+
+	@Getter
+	private final List<FieldAccessor> fieldAccessors;
+
+	private I18nTranslationPlan(List<FieldAccessor> fieldAccessors) {
+		this.fieldAccessors = fieldAccessors;
+	}
+
+	/**
+	 * 当前计划是否无需任何处理
+	 * @return true: 无需处理
+	 */
+	boolean isEmpty() {
+		return fieldAccessors.isEmpty();
+	}
+
+	/**
+	 * 获取指定类的国际化处理计划
+	 * @param clazz 待处理的类
+	 * @return I18nTranslationPlan 处理计划，不会为 null
+	 */
+	static I18nTranslationPlan of(Class<?> clazz) {
+		I18nTranslationPlan plan = PLAN_CACHE.get(clazz);
+		if (plan == null) {
+			plan = build(clazz);
+			PLAN_CACHE.putIfAbsent(clazz, plan);
+		}
+		return plan;
+	}
+
+	private static I18nTranslationPlan build(Class<?> clazz) {
+		// 只对添加了 I18nClass 注解的类进行处理
+		if (clazz.getAnnotation(I18nClass.class) == null) {
+			return EMPTY;
+		}
+
+		List<FieldAccessor> accessors = new ArrayList<>();
+		for (Field field : ReflectUtil.getFields(clazz)) {
+			if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()) {
+				continue;
+			}
+
+			Class<?> fieldType = field.getType();
+			I18nField i18nField = AnnotationUtils.getAnnotation(field, I18nField.class);
+			// 注解了 I18nField，且属性类型可以容纳 String 值
+			boolean translatable = i18nField != null && fieldType.isAssignableFrom(String.class);
+			// String 值之外，属性值可能包含 I18nClass 对象
+			boolean descendable = fieldType != String.class && mayContainI18nClass(field.getGenericType());
+			if (!translatable && !descendable) {
+				continue;
+			}
+
+			FieldAccessor accessor = FieldAccessor.of(field, translatable ? i18nField : null, descendable);
+			if (accessor != null) {
+				accessors.add(accessor);
+			}
+		}
+
+		return accessors.isEmpty() ? EMPTY : new I18nTranslationPlan(Collections.unmodifiableList(accessors));
+	}
+
+	/**
+	 * 根据声明类型判断属性值是否可能包含需要国际化处理的对象
+	 * @param type 属性声明类型
+	 * @return false: 一定不需要递归处理
+	 */
+	private static boolean mayContainI18nClass(Type type) {
+		if (type instanceof Class) {
+			Class<?> clazz = (Class<?>) type;
+			if (clazz.isArray()) {
+				Class<?> componentType = clazz.getComponentType();
+				// 基本类型数组无需处理
+				return !componentType.isPrimitive() && mayContainI18nClass(componentType);
+			}
+			if (clazz.isPrimitive() || BeanUtils.isSimpleValueType(clazz) || Map.class.isAssignableFrom(clazz)) {
+				return false;
+			}
+			// final 类无法被继承，没有 I18nClass 注解时其实例一定不需要处理
+			return !Modifier.isFinal(clazz.getModifiers()) || clazz.getAnnotation(I18nClass.class) != null;
+		}
+		if (type instanceof ParameterizedType) {
+			ParameterizedType parameterizedType = (ParameterizedType) type;
+			Type rawType = parameterizedType.getRawType();
+			if (rawType instanceof Class && Collection.class.isAssignableFrom((Class<?>) rawType)) {
+				Type[] typeArguments = parameterizedType.getActualTypeArguments();
+				return typeArguments.length != 1 || mayContainI18nClass(typeArguments[0]);
+			}
+			return mayContainI18nClass(rawType);
+		}
+		if (type instanceof GenericArrayType) {
+			return mayContainI18nClass(((GenericArrayType) type).getGenericComponentType());
+		}
+		// 泛型变量、通配符等无法静态确定的类型
+		return true;
+	}
+
+	/**
+	 * 单个属性的访问器
+	 */
+	@Getter
+	static final class FieldAccessor {
+
+		private final Field field;
+
+		private final MethodHandle getter;
+
+		/**
+		 * 仅在属性需要翻译时存在
+		 */
+		private final MethodHandle setter;
+
+		/**
+		 * 仅在属性需要翻译时存在
+		 */
+		private final I18nField i18nField;
+
+		/**
+		 * 国际化 code 的 SpEL 表达式，未指定时为 null
+		 */
+		private final Expression codeExpression;
+
+		/**
+		 * 国际化条件的 SpEL 表达式，未指定时为 null
+		 */
+		private final Expression conditionExpression;
+
+		/**
+		 * 属性值是否需要递归处理
+		 */
+		private final boolean descendable;
+
+		private FieldAccessor(Field field, MethodHandle getter, MethodHandle setter, I18nField i18nField,
+				boolean descendable) {
+			this.field = field;
+			this.getter = getter;
+			this.setter = setter;
+			this.i18nField = i18nField;
+			this.descendable = descendable;
+			this.codeExpression = i18nField == null ? null : parseExpression(i18nField.code());
+			this.conditionExpression = i18nField == null ? null : parseExpression(i18nField.condition());
+		}
+
+		private static FieldAccessor of(Field field, I18nField i18nField, boolean descendable) {
+			MethodHandles.Lookup lookup = MethodHandles.lookup();
+			MethodHandle getter;
+			MethodHandle setter = null;
+			try {
+				field.setAccessible(true);
+				getter = lookup.unreflectGetter(field).asType(GETTER_TYPE);
+				if (i18nField != null) {
+					setter = lookup.unreflectSetter(field).asType(SETTER_TYPE);
+				}
+			}
+			catch (IllegalAccessException | RuntimeException ex) {
+				log.warn("[国际化]无法访问属性 {}.{}，已忽略该属性", field.getDeclaringClass().getName(), field.getName(), ex);
+				return null;
+			}
+			return new FieldAccessor(field, getter, setter, i18nField, descendable);
+		}
+
+		private static Expression parseExpression(String expressionString) {
+			return CharSequenceUtil.isEmpty(expressionString) ? null : PARSER.parseExpression(expressionString);
+		}
+
+		/**
+		 * 是否是需要翻译的属性
+		 * @return boolean
+		 */
+		boolean isTranslatable() {
+			return i18nField != null;
+		}
+
+		Object getValue(Object source) {
+			try {
+				return getter.invokeExact(source);
+			}
+			catch (Throwable ex) {
+				throw new IllegalStateException("Failed to read field: " + field, ex);
+			}
+		}
+
+		void setValue(Object source, Object value) {
+			try {
+				setter.invokeExact(source, value);
+			}
+			catch (Throwable ex) {
+				throw new IllegalStateException("Failed to write field: " + field, ex);
+			}
+		}
+
+	}
+
+}
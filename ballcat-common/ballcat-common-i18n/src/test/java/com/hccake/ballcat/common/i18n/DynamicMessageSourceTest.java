@@ -0,0 +1,33 @@
+package com.hccake.ballcat.common.i18n;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+
+/**
+ * @author hccake
+ */
+class DynamicMessageSourceTest {
+
+	private static I18nMessage message(String code, Locale locale) {
+		I18nMessage i18nMessage = new I18nMessage();
+		i18nMessage.setCode(code);
+		i18nMessage.setLanguageTag(locale.toLanguageTag());
+		i18nMessage.setMessage("hello {0}");
+		return i18nMessage;
+	}
+
+	@Test
+	void cachedMessageFormatsBounded() {
+		DynamicMessageSource messageSource = new DynamicMessageSource(DynamicMessageSourceTest::message);
+		for (int i = 0; i < DynamicMessageSource.MAX_CACHED_MESSAGE_FORMATS * 2; i++) {
+			Locale locale = Locale.forLanguageTag("x-client-" + i);
+			Assertions.assertEquals("hello ballcat",
+					messageSource.getMessage("test", new Object[] { "ballcat" }, locale));
+		}
+		Assertions.assertTrue(
+				messageSource.cachedMessageFormatSize() <= DynamicMessageSource.MAX_CACHED_MESSAGE_FORMATS);
+	}
+
+}
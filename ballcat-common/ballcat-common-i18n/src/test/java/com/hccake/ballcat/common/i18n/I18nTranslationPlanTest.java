@@ -0,0 +1,185 @@
+package com.hccake.ballcat.common.i18n;
+
+import cn.hutool.core.util.ReflectUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.NoSuchMessageException;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 缓存的处理计划与逐个属性反射处理的结果需保持一致
+ *
+ * @author hccake
+ */
+class I18nTranslationPlanTest {
+
+	private final StaticMessageSource messageSource = new StaticMessageSource();
+
+	private I18nResponseAdvice advice;
+
+	@BeforeEach
+	void setUp() {
+		messageSource.addMessage("title", Locale.SIMPLIFIED_CHINESE, "标题");
+		messageSource.addMessage("name", Locale.SIMPLIFIED_CHINESE, "名称");
+		messageSource.addMessage("prefix.code", Locale.SIMPLIFIED_CHINESE, "前缀");
+		messageSource.addMessage("fallback", Locale.SIMPLIFIED_CHINESE, "回退");
+		advice = new I18nResponseAdvice(messageSource, new I18nOptions());
+		LocaleContextHolder.setLocale(Locale.SIMPLIFIED_CHINESE);
+	}
+
+	@AfterEach
+	void tearDown() {
+		LocaleContextHolder.resetLocaleContext();
+	}
+
+	@Test
+	void planTranslatesSameAsReflection() {
+		Assertions.assertEquals(translateByReflection(sample()).toString(), translateByPlan(sample()).toString());
+	}
+
+	@Test
+	void planCachedPerClass() {
+		Assertions.assertSame(I18nTranslationPlan.of(Item.class), I18nTranslationPlan.of(Item.class));
+		Assertions.assertTrue(I18nTranslationPlan.of(String.class).isEmpty());
+		Assertions.assertTrue(I18nTranslationPlan.of(Plain.class).isEmpty());
+	}
+
+	private Object translateByPlan(Object source) {
+		advice.switchLanguage(source);
+		return source;
+	}
+
+	private Object translateByReflection(Object source) {
+		reflect(source);
+		return source;
+	}
+
+	private static Item item(String title, String name, boolean skip) {
+		Item item = new Item();
+		item.title = title;
+		item.name = name;
+		item.skip = skip;
+		item.untranslated = "title";
+		item.code = "code";
+		return item;
+	}
+
+	private static Root sample() {
+		Root root = new Root();
+		root.title = "title";
+		root.item = item("name", "title", false);
+		root.items = new ArrayList<>(Arrays.asList(item("title", "missing", true), item("fallback", "name", false)));
+		root.array = new Item[] { item("name", "name", false), null };
+		root.plain = new Plain();
+		root.plain.title = "title";
+		return root;
+	}
+
+	/**
+	 * 不使用处理计划，每次通过反射逐个处理属性，作为对照
+	 */
+	private void reflect(Object source) {
+		if (source == null || source.getClass().getAnnotation(I18nClass.class) == null) {
+			return;
+		}
+		SpelExpressionParser parser = new SpelExpressionParser();
+		for (Field field : ReflectUtil.getFields(source.getClass())) {
+			Object fieldValue = ReflectUtil.getFieldValue(source, field);
+			if (fieldValue instanceof String) {
+				I18nField i18nField = field.getAnnotation(I18nField.class);
+				if (i18nField == null) {
+					continue;
+				}
+				String condition = i18nField.condition();
+				if (!condition.isEmpty()
+						&& Boolean.FALSE.equals(parser.parseExpression(condition).getValue(source, Boolean.class))) {
+					continue;
+				}
+				String code = i18nField.code().isEmpty() ? (String) fieldValue
+						: parser.parseExpression(i18nField.code()).getValue(source, String.class);
+				String message;
+				try {
+					message = messageSource.getMessage(code, null, LocaleContextHolder.getLocale());
+				}
+				catch (NoSuchMessageException e) {
+					message = code;
+				}
+				ReflectUtil.setFieldValue(source, field, message);
+			}
+			else if (fieldValue instanceof Collection) {
+				((Collection<?>) fieldValue).forEach(this::reflect);
+			}
+			else if (fieldValue instanceof Object[]) {
+				Arrays.stream((Object[]) fieldValue).forEach(this::reflect);
+			}
+			else {
+				reflect(fieldValue);
+			}
+		}
+	}
+
+	@I18nClass
+	static class Root {
+
+		@I18nField
+		String title;
+
+		Item item;
+
+		List<Item> items;
+
+		Item[] array;
+
+		Plain plain;
+
+		@Override
+		public String toString() {
+			return title + "|" + item + "|" + items + "|" + Arrays.toString(array) + "|" + plain.title;
+		}
+
+	}
+
+	@I18nClass
+	static class Item {
+
+		@I18nField
+		String title;
+
+		@I18nField(condition = "!skip")
+		String name;
+
+		@I18nField(code = "'prefix.' + code")
+		String withPrefix = "x";
+
+		String untranslated;
+
+		String code;
+
+		boolean skip;
+
+		@Override
+		public String toString() {
+			return title + "," + name + "," + withPrefix + "," + untranslated;
+		}
+
+	}
+
+	static class Plain {
+
+		@I18nField
+		String title;
+
+	}
+
+}
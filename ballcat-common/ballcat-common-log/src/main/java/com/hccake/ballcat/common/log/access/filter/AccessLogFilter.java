@@ -1,15 +1,13 @@
 package com.hccake.ballcat.common.log.access.filter;
 
-import com.hccake.ballcat.common.core.request.wrapper.RepeatBodyRequestWrapper;
 import com.hccake.ballcat.common.log.access.handler.AccessLogHandler;
+import com.hccake.ballcat.common.log.access.wrapper.BodyCaptureRequestWrapper;
+import com.hccake.ballcat.common.log.access.wrapper.BodyCaptureResponseWrapper;
 import com.hccake.ballcat.common.log.constant.LogConstant;
 import com.hccake.ballcat.common.log.util.LogUtils;
-import lombok.RequiredArgsConstructor;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.MDC;
-import org.springframework.util.AntPathMatcher;
 import org.springframework.web.filter.OncePerRequestFilter;
-import org.springframework.web.util.ContentCachingResponseWrapper;
 import org.springframework.web.util.UrlPathHelper;
 
 import javax.servlet.FilterChain;
@@ -24,23 +22,44 @@ import java.util.List;
  * @version 1.0
  * @date 2019/10/15 21:53
  */
-@RequiredArgsConstructor
 public class AccessLogFilter extends OncePerRequestFilter {
 
-	private final AccessLogHandler<?> accessLogService;
-
-	private final List<String> ignoreUrlPatterns;
-
 	/**
-	 * 针对需忽略的Url的规则匹配器
+	 * 视为异常请求的最小响应状态码
 	 */
-	private static final AntPathMatcher ANT_PATH_MATCHER = new AntPathMatcher();
+	private static final int ERROR_STATUS = 400;
 
 	/**
 	 * URL 路径匹配的帮助类
 	 */
 	private static final UrlPathHelper URL_PATH_HELPER = new UrlPathHelper();
 
+	private final AccessLogHandler<?> accessLogService;
+
+	/**
+	 * 针对需忽略的Url的规则匹配器，启动时预编译
+	 */
+	private final IgnoreUrlMatcher ignoreUrlMatcher;
+
+	private final BodyCaptureSettings bodyCaptureSettings;
+
+	/**
+	 * 请求体和响应体的采样器，启动时预编译采样规则
+	 */
+	private final BodySampler bodySampler;
+
+	public AccessLogFilter(AccessLogHandler<?> accessLogService, List<String> ignoreUrlPatterns) {
+		this(accessLogService, ignoreUrlPatterns, new BodyCaptureSettings());
+	}
+
+	public AccessLogFilter(AccessLogHandler<?> accessLogService, List<String> ignoreUrlPatterns,
+			BodyCaptureSettings bodyCaptureSettings) {
+		this.accessLogService = accessLogService;
+		this.ignoreUrlMatcher = new IgnoreUrlMatcher(ignoreUrlPatterns);
+		this.bodyCaptureSettings = bodyCaptureSettings;
+		this.bodySampler = new BodySampler(bodyCaptureSettings);
+	}
+
 	/**
 	 * Same contract as for {@code doFilter}, but guaranteed to be just invoked once per
 	 * request within a single request thread. See {@link #shouldNotFilterAsyncDispatch()}
@@ -59,23 +78,30 @@ public class AccessLogFilter extends OncePerRequestFilter {
 
 		// 跳过部分忽略 url
 		String lookupPathForRequest = URL_PATH_HELPER.getLookupPathForRequest(request);
-		for (String ignoreUrlPattern : ignoreUrlPatterns) {
-			if (ANT_PATH_MATCHER.match(ignoreUrlPattern, lookupPathForRequest)) {
-				filterChain.doFilter(request, response);
-				return;
-			}
+		if (ignoreUrlMatcher.matches(lookupPathForRequest)) {
+			filterChain.doFilter(request, response);
+			return;
 		}
 
-		// 包装request，以保证可以重复读取body 但不对文件上传请求body进行处理
-		HttpServletRequest requestWrapper;
-		if (LogUtils.isMultipartContent(request)) {
-			requestWrapper = request;
+		// 未被采样且不需要记录异常请求时，不包装 request/response，无额外开销
+		int maxLength = bodyCaptureSettings.getMaxLength();
+		boolean sampled = bodySampler.isSampled(lookupPathForRequest);
+		boolean captureBody = maxLength > 0 && (sampled || bodyCaptureSettings.isAlwaysOnError());
+
+		// 包装request，在业务读取 body 的同时进行记录，但不对文件上传请求body进行处理
+		HttpServletRequest requestWrapper = request;
+		BodyCaptureRequestWrapper requestCapture = null;
+		if (captureBody && !LogUtils.isMultipartContent(request)) {
+			requestCapture = new BodyCaptureRequestWrapper(request, maxLength);
+			requestWrapper = requestCapture;
 		}
-		else {
-			requestWrapper = new RepeatBodyRequestWrapper(request);
+		// 包装 response，在写出 body 的同时进行记录
+		HttpServletResponse responseWrapper = response;
+		BodyCaptureResponseWrapper responseCapture = null;
+		if (captureBody) {
+			responseCapture = new BodyCaptureResponseWrapper(response, maxLength);
+			responseWrapper = responseCapture;
 		}
-		// 包装 response，便于重复获取 body
-		ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
 
 		// 开始时间
 		Long startTime = System.currentTimeMillis();
@@ -104,6 +130,16 @@ public class AccessLogFilter extends OncePerRequestFilter {
 			if (throwable != null) {
 				myThrowable = throwable;
 			}
+			if (responseCapture != null) {
+				responseCapture.finish();
+			}
+			// 未被采样的请求，只在出现异常时记录 body
+			if (captureBody && !sampled && myThrowable == null && responseWrapper.getStatus() < ERROR_STATUS) {
+				if (requestCapture != null) {
+					requestCapture.discard();
+				}
+				responseCapture.discard();
+			}
 			// 生产一个日志并记录
 			try {
 				accessLogService.handleLog(requestWrapper, responseWrapper, executionTime, myThrowable);
@@ -111,8 +147,6 @@ public class AccessLogFilter extends OncePerRequestFilter {
 			catch (Exception e) {
 				logger.error("logging access_log error!", e);
 			}
-			// 重新写入数据到响应信息中
-			responseWrapper.copyBodyToResponse();
 		}
 	}
 
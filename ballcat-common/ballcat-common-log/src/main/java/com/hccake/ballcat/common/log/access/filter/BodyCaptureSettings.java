@@ -0,0 +1,57 @@
+package com.hccake.ballcat.common.log.access.filter;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 访问日志中请求体和响应体的记录配置
+ *
+ * @author hccake
+ */
+@Data
+public class BodyCaptureSettings {
+
+	/**
+	 * 请求体/响应体最多记录的字节数，超出部分截断，小于等于 0 时不记录
+	 */
+	private int maxLength = 10 * 1024;
+
+	/**
+	 * 默认的采样率，取值 0 ~ 1
+	 */
+	private double sampleRate = 1.0;
+
+	/**
+	 * 按 url 设置采样率，按顺序匹配，第一个匹配的规则生效，规则在过滤器创建时预编译
+	 */
+	private List<SampleRule> sampleRules = new ArrayList<>();
+
+	/**
+	 * 请求异常或响应状态码 >= 400 时，无论是否被采样都记录
+	 * <p>
+	 * 是否出错在请求结束后才能知道，开启后未被采样的请求也需要包装并记录 body，默认关闭
+	 * </p>
+	 */
+	private boolean alwaysOnError = false;
+
+	/**
+	 * 采样规则
+	 */
+	@Data
+	public static class SampleRule {
+
+		/**
+		 * url 匹配规则，Ant 风格
+		 */
+		private String pattern;
+
+		/**
+		 * 采样率，取值 0 ~ 1
+		 */
+		private double rate = 1.0;
+
+	}
+
+}
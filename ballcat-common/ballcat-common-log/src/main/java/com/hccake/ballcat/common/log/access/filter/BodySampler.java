@@ -0,0 +1,103 @@
+package com.hccake.ballcat.common.log.access.filter;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import org.springframework.web.util.pattern.PatternParseException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 请求体和响应体的采样器，启动时将 {@link BodyCaptureSettings} 中的采样规则预编译为 {@link PathPattern}，
+ * 无法编译的规则使用 {@link AntPathMatcher}。
+ *
+ * @author hccake
+ */
+final class BodySampler {
+
+	private static final PathMatcher ANT_PATH_MATCHER = new AntPathMatcher();
+
+	private final double defaultRate;
+
+	private final List<CompiledRule> rules;
+
+	BodySampler(BodyCaptureSettings bodyCaptureSettings) {
+		this.defaultRate = bodyCaptureSettings.getSampleRate();
+		List<BodyCaptureSettings.SampleRule> sampleRules = bodyCaptureSettings.getSampleRules();
+		this.rules = new ArrayList<>(sampleRules.size());
+		PathPatternParser parser = new PathPatternParser();
+		// 与 AntPathMatcher 保持一致，/a/* 不匹配 /a/b/
+		parser.setMatchOptionalTrailingSeparator(false);
+		for (BodyCaptureSettings.SampleRule sampleRule : sampleRules) {
+			String pattern = sampleRule.getPattern();
+			PathPattern pathPattern;
+			try {
+				pathPattern = parser.parse(pattern);
+			}
+			catch (PatternParseException e) {
+				// PathPattern 不支持的写法，如路径中间的 **
+				pathPattern = null;
+			}
+			rules.add(new CompiledRule(pathPattern, pattern, sampleRule.getRate()));
+		}
+	}
+
+	/**
+	 * 当前请求是否被采样
+	 * @param lookupPath 请求路径
+	 * @return boolean
+	 */
+	boolean isSampled(String lookupPath) {
+		double rate = getRate(lookupPath);
+		if (rate >= 1) {
+			return true;
+		}
+		return rate > 0 && ThreadLocalRandom.current().nextDouble() < rate;
+	}
+
+	/**
+	 * 获取请求路径对应的采样率，按顺序匹配，第一个匹配的规则生效，没有匹配的规则时使用默认采样率
+	 * @param lookupPath 请求路径
+	 * @return 采样率
+	 */
+	double getRate(String lookupPath) {
+		PathContainer pathContainer = null;
+		for (CompiledRule rule : rules) {
+			boolean matched;
+			if (rule.pathPattern != null) {
+				if (pathContainer == null) {
+					pathContainer = PathContainer.parsePath(lookupPath);
+				}
+				matched = rule.pathPattern.matches(pathContainer);
+			}
+			else {
+				matched = ANT_PATH_MATCHER.match(rule.antPattern, lookupPath);
+			}
+			if (matched) {
+				return rule.rate;
+			}
+		}
+		return defaultRate;
+	}
+
+	private static final class CompiledRule {
+
+		private final PathPattern pathPattern;
+
+		private final String antPattern;
+
+		private final double rate;
+
+		private CompiledRule(PathPattern pathPattern, String antPattern, double rate) {
+			this.pathPattern = pathPattern;
+			this.antPattern = antPattern;
+			this.rate = rate;
+		}
+
+	}
+
+}
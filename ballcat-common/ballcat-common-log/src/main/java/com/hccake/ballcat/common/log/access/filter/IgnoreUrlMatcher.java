@@ -0,0 +1,153 @@
+package com.hccake.ballcat.common.log.access.filter;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import org.springframework.web.util.pattern.PatternParseException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 忽略 url 的匹配器，启动时将 Ant 风格的匹配规则预编译：
+ * <ul>
+ * <li>不含通配符的规则放入 HashSet 精确匹配</li>
+ * <li>形如 /xxx/** 且前缀不含通配符的规则放入前缀树，按路径段匹配</li>
+ * <li>其余规则编译为 {@link PathPattern}，无法编译的规则使用 {@link AntPathMatcher}</li>
+ * </ul>
+ * 匹配只依赖预编译的结果，不按请求路径缓存：带路径参数的请求路径数量没有上限，按路径缓存要么无限增长，要么很快被占满。
+ * PathPattern 关闭了可选尾部分隔符的匹配，与 {@link AntPathMatcher} 的语义保持一致。
+ *
+ * @author hccake
+ */
+public class IgnoreUrlMatcher {
+
+	private static final String PATH_SEPARATOR = "/";
+
+	private static final String MATCH_ALL_SUFFIX = "/**";
+
+	private final Set<String> exactPaths = new HashSet<>();
+
+	private final PrefixNode prefixRoot = new PrefixNode();
+
+	private final List<PathPattern> pathPatterns = new ArrayList<>();
+
+	private final List<String> antPatterns = new ArrayList<>();
+
+	private final PathMatcher antPathMatcher = new AntPathMatcher();
+
+	private final boolean empty;
+
+	public IgnoreUrlMatcher(List<String> patterns) {
+		this.empty = CollectionUtils.isEmpty(patterns);
+		if (empty) {
+			return;
+		}
+		PathPatternParser parser = new PathPatternParser();
+		// AntPathMatcher 中 /a/* 不匹配 /a/b/，保持一致
+		parser.setMatchOptionalTrailingSeparator(false);
+		for (String pattern : patterns) {
+			if (!antPathMatcher.isPattern(pattern)) {
+				exactPaths.add(pattern);
+			}
+			else if (pattern.endsWith(MATCH_ALL_SUFFIX) && !antPathMatcher
+				.isPattern(pattern.substring(0, pattern.length() - MATCH_ALL_SUFFIX.length()))) {
+				addPrefix(pattern.substring(0, pattern.length() - MATCH_ALL_SUFFIX.length()));
+			}
+			else {
+				try {
+					pathPatterns.add(parser.parse(pattern));
+				}
+				catch (PatternParseException e) {
+					// PathPattern 不支持的写法，如路径中间的 **
+					antPatterns.add(pattern);
+				}
+			}
+		}
+	}
+
+	/**
+	 * 判断请求路径是否需要忽略
+	 * @param lookupPath 请求路径
+	 * @return true: 需要忽略
+	 */
+	public boolean matches(String lookupPath) {
+		if (empty) {
+			return false;
+		}
+		if (exactPaths.contains(lookupPath) || matchPrefix(lookupPath)) {
+			return true;
+		}
+		if (!pathPatterns.isEmpty()) {
+			PathContainer pathContainer = PathContainer.parsePath(lookupPath);
+			for (PathPattern pathPattern : pathPatterns) {
+				if (pathPattern.matches(pathContainer)) {
+					return true;
+				}
+			}
+		}
+		for (String antPattern : antPatterns) {
+			if (antPathMatcher.match(antPattern, lookupPath)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void addPrefix(String prefix) {
+		PrefixNode node = prefixRoot;
+		for (String segment : prefix.split(PATH_SEPARATOR)) {
+			if (!segment.isEmpty()) {
+				node = node.children.computeIfAbsent(segment, k -> new PrefixNode());
+			}
+		}
+		node.terminal = true;
+	}
+
+	/**
+	 * 沿前缀树逐段匹配，任一经过的节点是某个 /xxx/** 规则的终点即匹配成功
+	 * @param lookupPath 请求路径
+	 * @return boolean
+	 */
+	private boolean matchPrefix(String lookupPath) {
+		PrefixNode node = prefixRoot;
+		if (node.terminal) {
+			return true;
+		}
+		int length = lookupPath.length();
+		int start = 0;
+		while (start < length) {
+			int end = lookupPath.indexOf('/', start);
+			if (end < 0) {
+				end = length;
+			}
+			if (end > start) {
+				node = node.children.get(lookupPath.substring(start, end));
+				if (node == null) {
+					return false;
+				}
+				if (node.terminal) {
+					return true;
+				}
+			}
+			start = end + 1;
+		}
+		return false;
+	}
+
+	private static final class PrefixNode {
+
+		private final Map<String, PrefixNode> children = new HashMap<>();
+
+		private boolean terminal;
+
+	}
+
+}
@@ -0,0 +1,148 @@
+package com.hccake.ballcat.common.log.access.wrapper;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 记录请求体的 Request 包装类
+ * <p>
+ * 不预先读取请求体，而是在业务代码读取请求体的同时复制一份，最多保存 maxLength 个字节，超出部分截断。 业务代码未读取的请求体不会被记录。
+ * </p>
+ *
+ * @author hccake
+ */
+public class BodyCaptureRequestWrapper extends HttpServletRequestWrapper {
+
+	private final int maxLength;
+
+	private BoundedBodyBuffer buffer;
+
+	private ServletInputStream inputStream;
+
+	private BufferedReader reader;
+
+	private boolean discarded;
+
+	public BodyCaptureRequestWrapper(HttpServletRequest request, int maxLength) {
+		super(request);
+		this.maxLength = maxLength;
+	}
+
+	@Override
+	public ServletInputStream getInputStream() throws IOException {
+		if (inputStream == null) {
+			buffer = new BoundedBodyBuffer(maxLength);
+			inputStream = new TeeServletInputStream(super.getInputStream(), buffer);
+		}
+		return inputStream;
+	}
+
+	@Override
+	public BufferedReader getReader() throws IOException {
+		if (reader == null) {
+			reader = new BufferedReader(new InputStreamReader(getInputStream(), getCharset()));
+		}
+		return reader;
+	}
+
+	/**
+	 * 获取已读取的请求体
+	 * @return 请求体，未读取过请求体或已丢弃时返回 null
+	 */
+	public String getCapturedBody() {
+		return discarded || buffer == null ? null : buffer.toString(getCharset());
+	}
+
+	/**
+	 * 丢弃已记录的请求体，用于未被采样的请求
+	 */
+	public void discard() {
+		discarded = true;
+	}
+
+	private Charset getCharset() {
+		String characterEncoding = getCharacterEncoding();
+		if (characterEncoding != null) {
+			try {
+				return Charset.forName(characterEncoding);
+			}
+			catch (IllegalArgumentException e) {
+				// 无法识别的字符集，使用默认字符集
+			}
+		}
+		return StandardCharsets.UTF_8;
+	}
+
+	private static final class TeeServletInputStream extends ServletInputStream {
+
+		private final ServletInputStream delegate;
+
+		private final BoundedBodyBuffer buffer;
+
+		private TeeServletInputStream(ServletInputStream delegate, BoundedBodyBuffer buffer) {
+			this.delegate = delegate;
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() throws IOException {
+			int b = delegate.read();
+			if (b != -1) {
+				buffer.write(b);
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int n = delegate.read(b, off, len);
+			if (n > 0) {
+				buffer.write(b, off, n);
+			}
+			return n;
+		}
+
+		@Override
+		public int readLine(byte[] b, int off, int len) throws IOException {
+			int n = delegate.readLine(b, off, len);
+			if (n > 0) {
+				buffer.write(b, off, n);
+			}
+			return n;
+		}
+
+		@Override
+		public int available() throws IOException {
+			return delegate.available();
+		}
+
+		@Override
+		public void close() throws IOException {
+			delegate.close();
+		}
+
+		@Override
+		public boolean isFinished() {
+			return delegate.isFinished();
+		}
+
+		@Override
+		public boolean isReady() {
+			return delegate.isReady();
+		}
+
+		@Override
+		public void setReadListener(ReadListener readListener) {
+			delegate.setReadListener(readListener);
+		}
+
+	}
+
+}
@@ -0,0 +1,161 @@
+package com.hccake.ballcat.common.log.access.wrapper;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 记录响应体的 Response 包装类
+ * <p>
+ * 响应数据直接写入原始响应，同时复制一份，最多保存 maxLength 个字节，超出部分截断。 与
+ * {@link org.springframework.web.util.ContentCachingResponseWrapper} 不同，不会缓存完整的响应体，也无需在请求结束后回写。
+ * </p>
+ *
+ * @author hccake
+ */
+public class BodyCaptureResponseWrapper extends HttpServletResponseWrapper {
+
+	private final BoundedBodyBuffer buffer;
+
+	private ServletOutputStream outputStream;
+
+	private PrintWriter writer;
+
+	private boolean discarded;
+
+	public BodyCaptureResponseWrapper(HttpServletResponse response, int maxLength) {
+		super(response);
+		this.buffer = new BoundedBodyBuffer(maxLength);
+	}
+
+	@Override
+	public ServletOutputStream getOutputStream() throws IOException {
+		if (outputStream == null) {
+			outputStream = new TeeServletOutputStream(super.getOutputStream(), buffer);
+		}
+		return outputStream;
+	}
+
+	@Override
+	public PrintWriter getWriter() throws IOException {
+		if (writer == null) {
+			writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharset()));
+		}
+		return writer;
+	}
+
+	@Override
+	public void flushBuffer() throws IOException {
+		if (writer != null) {
+			writer.flush();
+		}
+		super.flushBuffer();
+	}
+
+	@Override
+	public void resetBuffer() {
+		super.resetBuffer();
+		buffer.reset();
+	}
+
+	@Override
+	public void reset() {
+		super.reset();
+		buffer.reset();
+	}
+
+	/**
+	 * 请求处理结束时调用，将 writer 中残留的数据写出
+	 */
+	public void finish() {
+		if (writer != null) {
+			writer.flush();
+		}
+	}
+
+	/**
+	 * 获取已写出的响应体
+	 * @return 响应体，已丢弃时返回 null
+	 */
+	public String getCapturedBody() {
+		if (discarded) {
+			return null;
+		}
+		if (writer != null) {
+			writer.flush();
+		}
+		return buffer.toString(getCharset());
+	}
+
+	/**
+	 * 丢弃已记录的响应体，用于未被采样的请求
+	 */
+	public void discard() {
+		discarded = true;
+	}
+
+	private Charset getCharset() {
+		String characterEncoding = getCharacterEncoding();
+		if (characterEncoding != null) {
+			try {
+				return Charset.forName(characterEncoding);
+			}
+			catch (IllegalArgumentException e) {
+				// 无法识别的字符集，使用默认字符集
+			}
+		}
+		return StandardCharsets.UTF_8;
+	}
+
+	private static final class TeeServletOutputStream extends ServletOutputStream {
+
+		private final ServletOutputStream delegate;
+
+		private final BoundedBodyBuffer buffer;
+
+		private TeeServletOutputStream(ServletOutputStream delegate, BoundedBodyBuffer buffer) {
+			this.delegate = delegate;
+			this.buffer = buffer;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			delegate.write(b);
+			buffer.write(b);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			delegate.write(b, off, len);
+			buffer.write(b, off, len);
+		}
+
+		@Override
+		public void flush() throws IOException {
+			delegate.flush();
+		}
+
+		@Override
+		public void close() throws IOException {
+			delegate.close();
+		}
+
+		@Override
+		public boolean isReady() {
+			return delegate.isReady();
+		}
+
+		@Override
+		public void setWriteListener(WriteListener writeListener) {
+			delegate.setWriteListener(writeListener);
+		}
+
+	}
+
+}
@@ -0,0 +1,89 @@
+package com.hccake.ballcat.common.log.access.wrapper;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * 有最大长度限制的 body 缓冲区，超出部分只计数不保存
+ *
+ * @author hccake
+ */
+final class BoundedBodyBuffer {
+
+	/**
+	 * 截断标记
+	 */
+	private static final String TRUNCATED_MARKER = "...[truncated, %d bytes in total]";
+
+	private static final int INITIAL_CAPACITY = 256;
+
+	private static final byte[] EMPTY = new byte[0];
+
+	private final int limit;
+
+	private byte[] buf = EMPTY;
+
+	private int count;
+
+	private long total;
+
+	BoundedBodyBuffer(int limit) {
+		this.limit = Math.max(limit, 0);
+	}
+
+	void write(int b) {
+		total++;
+		if (count < limit) {
+			ensureCapacity(count + 1);
+			buf[count++] = (byte) b;
+		}
+	}
+
+	void write(byte[] b, int off, int len) {
+		if (len <= 0) {
+			return;
+		}
+		total += len;
+		int n = Math.min(len, limit - count);
+		if (n > 0) {
+			ensureCapacity(count + n);
+			System.arraycopy(b, off, buf, count, n);
+			count += n;
+		}
+	}
+
+	/**
+	 * 清空已保存的数据
+	 */
+	void reset() {
+		count = 0;
+		total = 0;
+	}
+
+	/**
+	 * 是否发生了截断
+	 * @return boolean
+	 */
+	boolean isTruncated() {
+		return total > count;
+	}
+
+	/**
+	 * 转换为字符串，发生截断时追加截断标记
+	 * @param charset 字符集
+	 * @return 字符串
+	 */
+	String toString(Charset charset) {
+		String content = new String(buf, 0, count, charset);
+		return isTruncated() ? content + String.format(TRUNCATED_MARKER, total) : content;
+	}
+
+	private void ensureCapacity(int minCapacity) {
+		if (minCapacity > buf.length) {
+			int newCapacity = Math.max(INITIAL_CAPACITY, buf.length << 1);
+			newCapacity = Math.max(Math.min(newCapacity, limit), minCapacity);
+			buf = Arrays.copyOf(buf, newCapacity);
+		}
+	}
+
+}
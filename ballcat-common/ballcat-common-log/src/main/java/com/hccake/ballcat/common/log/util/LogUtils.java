@@ -1,5 +1,8 @@
 package com.hccake.ballcat.common.log.util;
 
+import com.hccake.ballcat.common.core.request.wrapper.RepeatBodyRequestWrapper;
+import com.hccake.ballcat.common.log.access.wrapper.BodyCaptureRequestWrapper;
+import com.hccake.ballcat.common.log.access.wrapper.BodyCaptureResponseWrapper;
 import lombok.experimental.UtilityClass;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpMethod;
@@ -26,8 +29,13 @@ public class LogUtils {
 	 * @return requestBody
 	 */
 	public String getRequestBody(HttpServletRequest request) {
+		// 边读边记录的请求，直接获取已记录的请求体
+		if (request instanceof BodyCaptureRequestWrapper) {
+			return ((BodyCaptureRequestWrapper) request).getCapturedBody();
+		}
+		// 其他请求的 body 流只能读取一次，只有可重复读取的请求才进行读取
 		String body = null;
-		if (!request.getMethod().equals(HttpMethod.GET.name())) {
+		if (request instanceof RepeatBodyRequestWrapper && !request.getMethod().equals(HttpMethod.GET.name())) {
 			try {
 				BufferedReader reader = request.getReader();
 				if (reader != null) {
@@ -50,13 +58,16 @@ public class LogUtils {
 	 */
 	public String getResponseBody(HttpServletRequest request, HttpServletResponse response) {
 		try {
+			if (response instanceof BodyCaptureResponseWrapper) {
+				return ((BodyCaptureResponseWrapper) response).getCapturedBody();
+			}
 			if (response instanceof ContentCachingResponseWrapper) {
 				ContentCachingResponseWrapper responseWrapper = (ContentCachingResponseWrapper) response;
 				// 获取响应体
 				byte[] contentAsByteArray = responseWrapper.getContentAsByteArray();
 				return new String(contentAsByteArray, StandardCharsets.UTF_8);
 			}
-			log.warn("对于未包装的响应体，默认不进行读取请求体，请求 uri: [{}]", request.getRequestURI());
+			log.debug("对于未包装的响应体，默认不进行读取响应体，请求 uri: [{}]", request.getRequestURI());
 		}
 		catch (Exception exception) {
 			log.error("获取响应体信息失败，请求 uri: [{}]", request.getRequestURI());
@@ -0,0 +1,101 @@
+package com.hccake.ballcat.common.log.access.filter;
+
+import com.hccake.ballcat.common.log.access.handler.AccessLogHandler;
+import com.hccake.ballcat.common.log.access.wrapper.BodyCaptureRequestWrapper;
+import com.hccake.ballcat.common.log.access.wrapper.BodyCaptureResponseWrapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.StreamUtils;
+
+import javax.servlet.FilterChain;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+/**
+ * @author hccake
+ */
+class AccessLogFilterTest {
+
+	private final RecordingAccessLogHandler handler = new RecordingAccessLogHandler();
+
+	private static MockHttpServletRequest request() {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/system/user");
+		request.setContent("request-body".getBytes(StandardCharsets.UTF_8));
+		return request;
+	}
+
+	private static FilterChain chain(int status) {
+		return (request, response) -> {
+			StreamUtils.copyToByteArray(request.getInputStream());
+			((HttpServletResponse) response).setStatus(status);
+			response.getOutputStream().write("response-body".getBytes(StandardCharsets.UTF_8));
+		};
+	}
+
+	private void doFilter(BodyCaptureSettings settings, MockHttpServletRequest request, int status)
+			throws Exception {
+		AccessLogFilter filter = new AccessLogFilter(handler, Collections.emptyList(), settings);
+		filter.doFilter(request, new MockHttpServletResponse(), chain(status));
+	}
+
+	@Test
+	void unsampledRequestIsNotWrapped() throws Exception {
+		BodyCaptureSettings settings = new BodyCaptureSettings();
+		settings.setSampleRate(0);
+		MockHttpServletRequest request = request();
+		doFilter(settings, request, 500);
+
+		// 默认不开启 alwaysOnError，未被采样的请求没有任何包装开销
+		Assertions.assertSame(request, handler.request);
+		Assertions.assertTrue(handler.response instanceof MockHttpServletResponse);
+	}
+
+	@Test
+	void sampledRequestCapturesBody() throws Exception {
+		doFilter(new BodyCaptureSettings(), request(), 200);
+
+		Assertions.assertEquals("request-body", ((BodyCaptureRequestWrapper) handler.request).getCapturedBody());
+		Assertions.assertEquals("response-body", ((BodyCaptureResponseWrapper) handler.response).getCapturedBody());
+	}
+
+	@Test
+	void alwaysOnErrorKeepsOnlyFailedRequestBody() throws Exception {
+		BodyCaptureSettings settings = new BodyCaptureSettings();
+		settings.setSampleRate(0);
+		settings.setAlwaysOnError(true);
+
+		doFilter(settings, request(), 200);
+		Assertions.assertNull(((BodyCaptureRequestWrapper) handler.request).getCapturedBody());
+		Assertions.assertNull(((BodyCaptureResponseWrapper) handler.response).getCapturedBody());
+
+		doFilter(settings, request(), 500);
+		Assertions.assertEquals("request-body", ((BodyCaptureRequestWrapper) handler.request).getCapturedBody());
+		Assertions.assertEquals("response-body", ((BodyCaptureResponseWrapper) handler.response).getCapturedBody());
+	}
+
+	private static class RecordingAccessLogHandler implements AccessLogHandler<Object> {
+
+		private HttpServletRequest request;
+
+		private HttpServletResponse response;
+
+		@Override
+		public Object buildLog(HttpServletRequest request, HttpServletResponse response, Long executionTime,
+				Throwable throwable) {
+			this.request = request;
+			this.response = response;
+			return null;
+		}
+
+		@Override
+		public void saveLog(Object accessLog) {
+			// 只记录传入的 request 和 response
+		}
+
+	}
+
+}
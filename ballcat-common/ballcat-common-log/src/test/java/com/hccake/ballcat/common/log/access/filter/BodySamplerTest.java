@@ -0,0 +1,48 @@
+package com.hccake.ballcat.common.log.access.filter;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+/**
+ * @author hccake
+ */
+class BodySamplerTest {
+
+	private static BodyCaptureSettings.SampleRule rule(String pattern, double rate) {
+		BodyCaptureSettings.SampleRule sampleRule = new BodyCaptureSettings.SampleRule();
+		sampleRule.setPattern(pattern);
+		sampleRule.setRate(rate);
+		return sampleRule;
+	}
+
+	@Test
+	void firstMatchedRuleWins() {
+		BodyCaptureSettings settings = new BodyCaptureSettings();
+		settings.setSampleRate(0.5);
+		// 第三条规则使用了 PathPattern 不支持的写法，回退到 AntPathMatcher
+		settings.setSampleRules(Arrays.asList(rule("/system/user/{id}", 0), rule("/system/**", 0.2),
+				rule("/api/**/export", 1)));
+		BodySampler bodySampler = new BodySampler(settings);
+
+		Assertions.assertEquals(0.0, bodySampler.getRate("/system/user/1"));
+		Assertions.assertEquals(0.2, bodySampler.getRate("/system/user/1/roles"));
+		Assertions.assertEquals(1.0, bodySampler.getRate("/api/v1/order/export"));
+		Assertions.assertEquals(0.5, bodySampler.getRate("/api/v1/order"));
+	}
+
+	@Test
+	void boundaryRates() {
+		BodyCaptureSettings settings = new BodyCaptureSettings();
+		settings.setSampleRules(Arrays.asList(rule("/never/**", 0), rule("/always/**", 1)));
+		BodySampler bodySampler = new BodySampler(settings);
+
+		for (int i = 0; i < 100; i++) {
+			Assertions.assertFalse(bodySampler.isSampled("/never/a"));
+			Assertions.assertTrue(bodySampler.isSampled("/always/a"));
+			Assertions.assertTrue(bodySampler.isSampled("/other"));
+		}
+	}
+
+}
@@ -0,0 +1,69 @@
+package com.hccake.ballcat.common.log.access.filter;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * 预编译的匹配结果需要与逐条使用 {@link AntPathMatcher} 的结果一致
+ *
+ * @author hccake
+ */
+class IgnoreUrlMatcherTest {
+
+	/**
+	 * 访问日志默认的忽略规则
+	 */
+	private static final List<String> DEFAULT_PATTERNS = Arrays.asList("/actuator/**", "/webjars/**",
+			"/favicon.ico", "/swagger-ui/**", "/bycdao-ui/**", "/captcha/get");
+
+	/**
+	 * 覆盖各个匹配分支的规则：前缀树、PathPattern 以及回退到 AntPathMatcher 的规则
+	 */
+	private static final List<String> EDGE_PATTERNS = Arrays.asList("/**", "/api/*", "/api/*/detail", "/user/{id}",
+			"/files/*.png", "/static/**/*.js", "/a/b/**");
+
+	private static final List<String> PATHS = Arrays.asList("/", "/actuator", "/actuator/", "/actuator/health",
+			"/actuator/health/db", "/actuatorx", "/webjars", "//webjars/x", "/favicon.ico", "/favicon.ico/x",
+			"/swagger-ui/index.html", "/captcha/get", "/captcha/get/", "/captcha", "/api", "/api/", "/api/x",
+			"/api/x/", "/api/x/y", "/api/x/detail", "/api/x/detail/", "/user/1", "/user/", "/user/1/2",
+			"/files/a.png", "/files/a.jpg", "/files/x/a.png", "/static/a.js", "/static/x/y/a.js", "/static/a.css",
+			"/a/b", "/a/b/c", "/a/bc", "/a");
+
+	private static final AntPathMatcher ANT_PATH_MATCHER = new AntPathMatcher();
+
+	static Stream<Arguments> defaultPatternsWithPath() {
+		return PATHS.stream().map(path -> Arguments.of(DEFAULT_PATTERNS, path));
+	}
+
+	static Stream<Arguments> edgePatternWithPath() {
+		List<Arguments> arguments = new ArrayList<>();
+		for (String pattern : EDGE_PATTERNS) {
+			for (String path : PATHS) {
+				arguments.add(Arguments.of(Collections.singletonList(pattern), path));
+			}
+		}
+		return arguments.stream();
+	}
+
+	private static boolean antMatches(List<String> patterns, String path) {
+		return patterns.stream().anyMatch(pattern -> ANT_PATH_MATCHER.match(pattern, path));
+	}
+
+	@ParameterizedTest
+	@MethodSource({ "defaultPatternsWithPath", "edgePatternWithPath" })
+	void sameAsAntPathMatcher(List<String> patterns, String path) {
+		IgnoreUrlMatcher ignoreUrlMatcher = new IgnoreUrlMatcher(patterns);
+		Assertions.assertEquals(antMatches(patterns, path), ignoreUrlMatcher.matches(path),
+				() -> patterns + " -> " + path);
+	}
+
+}
@@ -8,6 +8,7 @@ import com.hccake.ballcat.common.util.json.JsonTool;
 import com.hccake.ballcat.common.util.json.TypeReference;
 import lombok.Getter;
 
+import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 
 /**
@@ -25,6 +26,19 @@ public final class JsonUtils {
 
 	private static final String FAST_JSON_CLASS = "com.alibaba.fastjson.JSON";
 
+	/**
+	 * 各 json 库是否存在，类加载时只检测一次
+	 */
+	private static final boolean JACKSON_PRESENT = classIsPresent(JACKSON_CLASS);
+
+	private static final boolean GSON_PRESENT = classIsPresent(GSON_CLASS);
+
+	private static final boolean HUTOOL_JSON_PRESENT = classIsPresent(HUTOOL_JSON_CLASS);
+
+	private static final boolean HUTOOL_TYPE_REFERENCE_PRESENT = classIsPresent(HUTOOL_JSON_TYPE_REFERENCE_CLASS);
+
+	private static final boolean FAST_JSON_PRESENT = classIsPresent(FAST_JSON_CLASS);
+
 	private JsonUtils() {
 	}
 
@@ -32,16 +46,16 @@ public final class JsonUtils {
 	private static JsonTool jsonTool;
 
 	static {
-		if (classIsPresent(JACKSON_CLASS)) {
+		if (JACKSON_PRESENT) {
 			jsonTool = new JacksonJsonToolAdapter();
 		}
-		else if (classIsPresent(GSON_CLASS)) {
+		else if (GSON_PRESENT) {
 			jsonTool = new GsonJsonToolAdapter();
 		}
-		else if (classIsPresent(HUTOOL_JSON_CLASS)) {
+		else if (HUTOOL_JSON_PRESENT) {
 			jsonTool = new HuToolJsonToolAdapter();
 		}
-		else if (classIsPresent(FAST_JSON_CLASS)) {
+		else if (FAST_JSON_PRESENT) {
 			jsonTool = new FastjsonJsonToolAdapter();
 		}
 	}
@@ -63,38 +77,35 @@ public final class JsonUtils {
 
 	public static <T> T toObj(String json, Type t) {
 		// 防止误传入其他类型的 typeReference 走这个方法然后转换出错
-		if (classIsPresent(HUTOOL_JSON_TYPE_REFERENCE_CLASS) && t instanceof cn.hutool.core.lang.TypeReference) {
-			return toObj(json, new TypeReference<T>() {
-				@Override
-				public Type getType() {
-					return ((cn.hutool.core.lang.TypeReference<?>) t).getType();
-				}
-			});
-		}
-		else if (classIsPresent(FAST_JSON_CLASS) && t instanceof com.alibaba.fastjson.TypeReference) {
-			return toObj(json, new TypeReference<T>() {
-				@Override
-				public Type getType() {
-					return ((com.alibaba.fastjson.TypeReference<?>) t).getType();
-				}
-			});
-		}
-		else if (classIsPresent(JACKSON_CLASS) && t instanceof com.fasterxml.jackson.core.type.TypeReference) {
-			return toObj(json, new TypeReference<T>() {
-				@Override
-				public Type getType() {
-					return ((com.fasterxml.jackson.core.type.TypeReference<?>) t).getType();
-				}
-			});
-		}
-
-		return jsonTool.toObj(json, t);
+		return jsonTool.toObj(json, resolveType(t));
 	}
 
 	public static <T> T toObj(String json, TypeReference<T> t) {
 		return jsonTool.toObj(json, t);
 	}
 
+	/**
+	 * 解析出实际的类型，其他 json 库的 TypeReference 将被拆解为其持有的类型
+	 * @param t 类型
+	 * @return 实际的类型
+	 */
+	private static Type resolveType(Type t) {
+		// 常见的 Class 和泛型类型直接返回，无需判断
+		if (t instanceof Class || t instanceof ParameterizedType) {
+			return t;
+		}
+		if (HUTOOL_TYPE_REFERENCE_PRESENT && t instanceof cn.hutool.core.lang.TypeReference) {
+			return ((cn.hutool.core.lang.TypeReference<?>) t).getType();
+		}
+		if (FAST_JSON_PRESENT && t instanceof com.alibaba.fastjson.TypeReference) {
+			return ((com.alibaba.fastjson.TypeReference<?>) t).getType();
+		}
+		if (JACKSON_PRESENT && t instanceof com.fasterxml.jackson.core.type.TypeReference) {
+			return ((com.fasterxml.jackson.core.type.TypeReference<?>) t).getType();
+		}
+		return t;
+	}
+
 	private static boolean classIsPresent(String className) {
 		return ClassUtils.isPresent(className, JsonUtils.class.getClassLoader());
 	}
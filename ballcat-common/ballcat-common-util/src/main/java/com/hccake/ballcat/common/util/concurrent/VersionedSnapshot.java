@@ -0,0 +1,124 @@
+package com.hccake.ballcat.common.util.concurrent;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 带版本号的内存快照，适用于一次性加载、读多写少的数据
+ * <p>
+ * 失效时只递增版本号而不清除快照，快照的版本号落后于失效次数即视为已失效。重建由一个线程完成，重建期间其他线程继续使用旧快照，
+ * 避免失效瞬间的并发请求同时加载；没有旧快照时等待重建完成。
+ * </p>
+ * <p>
+ * 快照的版本号取加载前的失效次数，加载期间发生失效时，该快照在下次读取时即被视为已失效，不会覆盖失效后的修改。
+ * </p>
+ *
+ * @param <T> 快照类型，应当不可变
+ * @author hccake
+ */
+public class VersionedSnapshot<T> {
+
+	private final Supplier<T> loader;
+
+	private volatile Versioned<T> current;
+
+	/**
+	 * 快照的失效次数，同时作为快照的版本号
+	 */
+	private final AtomicLong generation = new AtomicLong();
+
+	/**
+	 * 快照加载锁，保证同一时间只有一个线程加载快照
+	 */
+	private final ReentrantLock loadLock = new ReentrantLock();
+
+	/**
+	 * @param loader 快照加载方法
+	 */
+	public VersionedSnapshot(Supplier<T> loader) {
+		this.loader = loader;
+	}
+
+	/**
+	 * 获取快照，已失效时重建。已有其他线程在重建时直接返回旧快照，没有旧快照时等待重建完成
+	 * @return 快照
+	 */
+	public T get() {
+		Versioned<T> versioned = current;
+		if (versioned != null && versioned.version == generation.get()) {
+			return versioned.value;
+		}
+		return load(versioned);
+	}
+
+	/**
+	 * 获取最近一次加载的快照，不检查是否已失效，也不会触发加载
+	 * @return 快照，从未加载过时返回 null
+	 */
+	public T getIfPresent() {
+		Versioned<T> versioned = current;
+		return versioned == null ? null : versioned.value;
+	}
+
+	/**
+	 * 失效快照，下次获取时重建
+	 */
+	public void invalidate() {
+		generation.incrementAndGet();
+	}
+
+	/**
+	 * 失效快照并立即重新加载，其他线程正在加载时等待其完成，保证失效前的修改被加载
+	 * @return 重新加载的快照
+	 */
+	public T reload() {
+		invalidate();
+		return load(null);
+	}
+
+	/**
+	 * 加载快照
+	 * @param stale 已失效的旧快照，不为 null 时，其他线程正在加载则直接返回旧快照；为 null 时等待加载完成
+	 * @return 快照
+	 */
+	private T load(Versioned<T> stale) {
+		if (stale == null) {
+			loadLock.lock();
+		}
+		else if (!loadLock.tryLock()) {
+			return stale.value;
+		}
+		try {
+			// 等待锁期间可能已被其他线程加载
+			Versioned<T> versioned = current;
+			long currentGeneration = generation.get();
+			if (versioned != null && versioned.version == currentGeneration) {
+				return versioned.value;
+			}
+			T value = loader.get();
+			current = new Versioned<>(currentGeneration, value);
+			return value;
+		}
+		finally {
+			loadLock.unlock();
+		}
+	}
+
+	private static final class Versioned<T> {
+
+		/**
+		 * 快照版本号，即加载前快照的失效次数
+		 */
+		private final long version;
+
+		private final T value;
+
+		private Versioned(long version, T value) {
+			this.version = version;
+			this.value = value;
+		}
+
+	}
+
+}
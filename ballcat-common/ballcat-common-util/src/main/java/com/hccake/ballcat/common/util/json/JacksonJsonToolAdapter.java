@@ -4,11 +4,14 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import lombok.Getter;
-import lombok.Setter;
 import lombok.SneakyThrows;
 
 import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 
 /**
@@ -16,45 +19,85 @@ import java.util.function.Consumer;
  */
 public class JacksonJsonToolAdapter implements JsonTool {
 
+	/**
+	 * ObjectReader 缓存的最大数量，超出后不再缓存，防止动态生成的类型导致内存泄漏
+	 */
+	private static final int MAX_READER_CACHE_SIZE = 1024;
+
+	/**
+	 * 请通过 {@link #setMapper(ObjectMapper)} 或 {@link #config(Consumer)} 修改配置，直接修改将不会对已缓存的
+	 * ObjectReader/ObjectWriter 生效
+	 */
 	@Getter
-	@Setter
 	static ObjectMapper mapper = new ObjectMapper();
 
+	/**
+	 * 每个类型对应的 ObjectReader，ObjectReader 不可变且线程安全，可以复用
+	 */
+	private static final Map<Type, ObjectReader> READER_CACHE = new ConcurrentHashMap<>();
+
+	private static volatile ObjectWriter writer;
+
 	static {
 		mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+		writer = mapper.writer();
+	}
+
+	/**
+	 * 替换 ObjectMapper，同时清空根据旧 ObjectMapper 生成的 ObjectReader/ObjectWriter
+	 * @param mapper ObjectMapper
+	 */
+	public static void setMapper(ObjectMapper mapper) {
+		JacksonJsonToolAdapter.mapper = mapper;
+		resetCache();
 	}
 
 	public void config(Consumer<ObjectMapper> consumer) {
 		consumer.accept(mapper);
+		resetCache();
+	}
+
+	/**
+	 * ObjectReader/ObjectWriter 在创建时复制了 ObjectMapper 的配置，配置修改后需要重新生成
+	 */
+	private static void resetCache() {
+		writer = mapper.writer();
+		READER_CACHE.clear();
+	}
+
+	private static ObjectReader reader(Type type) {
+		ObjectReader reader = READER_CACHE.get(type);
+		if (reader == null) {
+			reader = mapper.readerFor(mapper.constructType(type));
+			if (READER_CACHE.size() < MAX_READER_CACHE_SIZE) {
+				READER_CACHE.putIfAbsent(type, reader);
+			}
+		}
+		return reader;
 	}
 
 	@SneakyThrows(JsonProcessingException.class)
 	@Override
 	public String toJson(Object obj) {
-		return mapper.writeValueAsString(obj);
+		return writer.writeValueAsString(obj);
 	}
 
 	@SneakyThrows({ JsonMappingException.class, JsonProcessingException.class })
 	@Override
 	public <T> T toObj(String json, Class<T> r) {
-		return mapper.readValue(json, r);
+		return reader(r).readValue(json);
 	}
 
 	@SneakyThrows({ JsonMappingException.class, JsonProcessingException.class })
 	@Override
 	public <T> T toObj(String json, Type t) {
-		return mapper.readValue(json, mapper.constructType(t));
+		return reader(t).readValue(json);
 	}
 
 	@SneakyThrows({ JsonMappingException.class, JsonProcessingException.class })
 	@Override
 	public <T> T toObj(String json, TypeReference<T> t) {
-		return mapper.readValue(json, new com.fasterxml.jackson.core.type.TypeReference<T>() {
-			@Override
-			public Type getType() {
-				return t.getType();
-			}
-		});
+		return reader(t.getType()).readValue(json);
 	}
 
 }
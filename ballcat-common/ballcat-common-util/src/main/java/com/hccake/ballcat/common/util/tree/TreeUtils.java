@@ -4,14 +4,14 @@ import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.lang.Assert;
 import lombok.experimental.UtilityClass;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
-import java.util.LinkedHashMap;
-import java.util.LinkedList;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -77,44 +77,102 @@ public class TreeUtils {
 	 */
 	public <T extends TreeNode<I>, I, R> List<T> buildTree(List<R> list, I rootId, Function<R, T> convertToTree,
 			Comparator<? super T> comparator) {
+		return doBuildTree(list, rootId, convertToTree, comparator, false);
+	}
+
+	/**
+	 * 根据源数据列表并行转换为树，节点的转换、排序以及子节点的赋值使用并行流处理，适用于数据量非常大的场景， 结果与
+	 * {@link #buildTree(List, Object, Function, Comparator)} 一致
+	 * @param list 源数据列表
+	 * @param rootId 根节点Id
+	 * @param convertToTree 转换方法，需要是线程安全的
+	 * @param comparator 树节点排序规则
+	 * @param <T> TreeNode的子类
+	 * @param <I> TreeNodeId的类型
+	 * @param <R> 源数据类型
+	 * @return 树列表
+	 */
+	public <T extends TreeNode<I>, I, R> List<T> buildTreeParallel(List<R> list, I rootId,
+			Function<R, T> convertToTree, Comparator<? super T> comparator) {
+		return doBuildTree(list, rootId, convertToTree, comparator, true);
+	}
+
+	/**
+	 * 构建树：按 parentId 建立子节点索引后，直接为每个节点赋值其子节点列表，时间复杂度为 O(n)，不使用递归。
+	 * 父节点不存在的孤儿节点（包括成环的节点）不会出现在结果中，子节点顺序与源数据（或排序后）的顺序一致
+	 */
+	private <T extends TreeNode<I>, I, R> List<T> doBuildTree(List<R> list, I rootId, Function<R, T> convertToTree,
+			Comparator<? super T> comparator, boolean parallel) {
 		if (list == null || list.isEmpty()) {
 			return new ArrayList<>();
 		}
 
-		// 转换为 TreeNode
-		Stream<T> tStream = list.stream().map(convertToTree);
-		// 如果需要排序，则在收集时进行排序处理
-		if (comparator != null) {
-			tStream = tStream.sorted(comparator);
+		// 转换为 TreeNode，如果需要排序，则在转换后进行排序处理
+		List<T> nodes;
+		if (parallel) {
+			Stream<T> tStream = list.parallelStream().map(convertToTree);
+			if (comparator != null) {
+				tStream = tStream.sorted(comparator);
+			}
+			nodes = tStream.collect(Collectors.toList());
+		}
+		else {
+			nodes = new ArrayList<>(list.size());
+			for (R r : list) {
+				nodes.add(convertToTree.apply(r));
+			}
+			if (comparator != null) {
+				nodes.sort(comparator);
+			}
+		}
+
+		// 根据 parentId 进行分组，HashMap 允许 parentId 为 null
+		Map<I, List<T>> childrenMap = new HashMap<>(Math.max(16, nodes.size() / 2));
+		for (T node : nodes) {
+			childrenMap.computeIfAbsent(node.getParentKey(), k -> new ArrayList<>()).add(node);
 		}
-		// 根据 parentId 进行分组
-		Map<I, List<T>> childrenMap = tStream
-			.collect(Collectors.groupingBy(T::getParentKey, LinkedHashMap::new, Collectors.toList()));
 
 		// 根据根节点ID拿到一级节点
 		List<T> treeList = childrenMap.get(rootId);
 		// 异常数据校验
 		Assert.notEmpty(treeList, "错误的数据，找不到根节点的子节点");
-		// 遍历所有一级节点，赋值其子节点
-		treeList.forEach(node -> TreeUtils.setChildren(node, childrenMap));
+
+		// 每个节点只需要赋值一次子节点，无需从根节点开始递归
+		if (parallel) {
+			nodes.parallelStream().forEach(node -> assignChildren(node, childrenMap));
+		}
+		else {
+			for (T node : nodes) {
+				assignChildren(node, childrenMap);
+			}
+		}
 		return treeList;
 	}
 
+	private <T extends TreeNode<I>, I> void assignChildren(T node, Map<I, List<T>> childrenMap) {
+		List<T> children = childrenMap.get(node.getKey());
+		node.setChildren(children == null ? new ArrayList<>() : children);
+	}
+
 	/**
 	 * 从所有节点列表中查找并设置parent的所有子节点
 	 * @param parent 父节点
 	 * @param childrenMap 子节点集合Map(k: parentId, v: Node)
 	 */
 	public <T extends TreeNode<I>, I> void setChildren(T parent, Map<I, List<T>> childrenMap) {
-		I parentId = parent.getKey();
-		List<T> children = childrenMap.get(parentId);
-		// 如果有孩子节点则赋值，且给孩子节点的孩子节点赋值
-		if (CollUtil.isNotEmpty(children)) {
-			parent.setChildren(children);
-			children.forEach(node -> TreeUtils.setChildren(node, childrenMap));
-		}
-		else {
-			parent.setChildren(new ArrayList<>());
+		Deque<T> stack = new ArrayDeque<>();
+		stack.push(parent);
+		while (!stack.isEmpty()) {
+			T node = stack.pop();
+			List<T> children = childrenMap.get(node.getKey());
+			// 如果有孩子节点则赋值，且给孩子节点的孩子节点赋值
+			if (CollUtil.isNotEmpty(children)) {
+				node.setChildren(children);
+				children.forEach(stack::push);
+			}
+			else {
+				node.setChildren(new ArrayList<>());
+			}
 		}
 	}
 
@@ -138,15 +196,18 @@ public class TreeUtils {
 	 * @param <T> 实际节点类型
 	 */
 	public <T extends TreeNode<I>, I> void fillLeaf(T parent, List<T> leafs) {
-		List<T> children = parent.getChildren();
-		// 如果节点没有子节点则说明为叶子节点
-		if (CollUtil.isEmpty(children)) {
-			leafs.add(parent);
-			return;
-		}
-		// 递归调用子节点，查找叶子节点
-		for (T child : children) {
-			fillLeaf(child, leafs);
+		Deque<T> stack = new ArrayDeque<>();
+		stack.push(parent);
+		while (!stack.isEmpty()) {
+			T node = stack.pop();
+			List<T> children = node.getChildren();
+			// 如果节点没有子节点则说明为叶子节点
+			if (CollUtil.isEmpty(children)) {
+				leafs.add(node);
+				continue;
+			}
+			// 逆序入栈，保证叶子节点按从左到右的顺序输出
+			pushReversed(stack, children);
 		}
 	}
 
@@ -175,11 +236,27 @@ public class TreeUtils {
 		if (CollUtil.isEmpty(treeList)) {
 			return;
 		}
-		for (T treeNode : treeList) {
+		// 先序遍历
+		Deque<T> stack = new ArrayDeque<>();
+		pushReversed(stack, treeList);
+		while (!stack.isEmpty()) {
+			T treeNode = stack.pop();
 			ids.add(treeNode.getKey());
 			List<T> children = treeNode.getChildren();
 			if (CollUtil.isNotEmpty(children)) {
-				fillTreeNodeIds(ids, children);
+				pushReversed(stack, children);
+			}
+		}
+	}
+
+	/**
+	 * 将节点逆序压入栈中，使得出栈顺序与列表顺序一致，忽略 null 元素
+	 */
+	private <T> void pushReversed(Deque<T> stack, List<T> nodes) {
+		for (int i = nodes.size() - 1; i >= 0; i--) {
+			T node = nodes.get(i);
+			if (node != null) {
+				stack.push(node);
 			}
 		}
 	}
@@ -208,20 +285,23 @@ public class TreeUtils {
 		List<R> list = new ArrayList<>();
 
 		// 使用队列存储未处理的树节点
-		Queue<T> queue = new LinkedList<>();
-		queue.add(treeNode);
+		Deque<T> queue = new ArrayDeque<>();
+		if (treeNode != null) {
+			queue.add(treeNode);
+		}
 
 		while (!queue.isEmpty()) {
 			// 弹出一个树节点
 			T node = queue.poll();
-			if (node == null) {
-				continue;
-			}
 
 			// 如果当前节点的含有子节点，则添加到队列中
 			List<T> children = node.getChildren();
 			if (CollUtil.isNotEmpty(children)) {
-				queue.addAll(children);
+				for (T child : children) {
+					if (child != null) {
+						queue.add(child);
+					}
+				}
 			}
 
 			// 不再保留对子节点的引用
@@ -253,10 +333,11 @@ public class TreeUtils {
 	 * @return 所有树节点组成的列表
 	 */
 	public <T extends TreeNode<I>, I, R> List<R> treeToList(List<T> treeNodes, Function<T, R> converter) {
-		return treeNodes.stream()
-			.map(node -> treeToList(node, converter))
-			.flatMap(Collection::stream)
-			.collect(Collectors.toList());
+		List<R> list = new ArrayList<>();
+		for (T treeNode : treeNodes) {
+			list.addAll(treeToList(treeNode, converter));
+		}
+		return list;
 	}
 
 	/**
@@ -267,22 +348,75 @@ public class TreeUtils {
 	 * @return 剪枝完成后的树节点列表
 	 */
 	public <T extends TreeNode<I>, I> List<T> pruneTree(List<T> treeNodes, Predicate<T> matcher) {
-		List<T> result = new ArrayList<>();
 		if (CollUtil.isEmpty(treeNodes)) {
-			return result;
+			return new ArrayList<>();
 		}
-		for (T treeNode : treeNodes) {
-			List<T> children = pruneTree(treeNode.getChildren(), matcher);
-			if (CollUtil.isNotEmpty(children)) {
-				treeNode.setChildren(children);
-				result.add(treeNode);
+		// 后序遍历，子节点处理完成后再决定父节点的去留，根帧的 node 为 null
+		Deque<PruneFrame<T>> stack = new ArrayDeque<>();
+		PruneFrame<T> rootFrame = new PruneFrame<>(null, treeNodes);
+		stack.push(rootFrame);
+		while (!stack.isEmpty()) {
+			PruneFrame<T> frame = stack.peek();
+			if (frame.hasNext()) {
+				T child = frame.next();
+				stack.push(new PruneFrame<>(child, child.getChildren()));
+				continue;
+			}
+			stack.pop();
+			if (frame == rootFrame) {
+				break;
+			}
+			T treeNode = frame.node;
+			PruneFrame<T> parentFrame = stack.peek();
+			if (!frame.matched.isEmpty()) {
+				treeNode.setChildren(frame.matched);
+				parentFrame.matched.add(treeNode);
 			}
 			else if (matcher.test(treeNode)) {
 				treeNode.setChildren(null);
-				result.add(treeNode);
+				parentFrame.matched.add(treeNode);
 			}
 		}
-		return result;
+		return rootFrame.matched;
+	}
+
+	/**
+	 * 深度优先遍历时的栈帧，记录当前节点及其子节点的遍历位置
+	 */
+	private static class TraverseFrame<T> {
+
+		final T node;
+
+		private final List<T> children;
+
+		private int index;
+
+		TraverseFrame(T node, List<T> children) {
+			this.node = node;
+			this.children = children;
+		}
+
+		boolean hasNext() {
+			return children != null && index < children.size();
+		}
+
+		T next() {
+			return children.get(index++);
+		}
+
+	}
+
+	/**
+	 * 剪枝时的栈帧，额外记录保留下来的子节点
+	 */
+	private static final class PruneFrame<T> extends TraverseFrame<T> {
+
+		private final List<T> matched = new ArrayList<>();
+
+		PruneFrame(T node, List<T> children) {
+			super(node, children);
+		}
+
 	}
 
 	/**
@@ -302,26 +436,74 @@ public class TreeUtils {
 		return (nodeMatched || childrenMatched) ? treeNode : null;
 	}
 
+	/**
+	 * 按指定规则过滤树，不满足规则的节点连同其子树一起移除，与剪枝不同，父节点不满足规则时不会因为子节点满足而被保留
+	 * @param treeNodes 待过滤的树节点列表
+	 * @param filter 过滤规则，返回 true 的节点会被保留
+	 * @param <T> TreeNode
+	 * @param <I> TreeNodeId 类型
+	 * @return 过滤完成后的树节点列表
+	 */
+	public <T extends TreeNode<I>, I> List<T> filterTree(List<T> treeNodes, Predicate<T> filter) {
+		List<T> result = filterNodes(treeNodes, filter);
+		Deque<T> stack = new ArrayDeque<>(result);
+		while (!stack.isEmpty()) {
+			T treeNode = stack.pop();
+			List<T> children = treeNode.getChildren();
+			if (CollUtil.isNotEmpty(children)) {
+				List<T> filteredChildren = filterNodes(children, filter);
+				treeNode.setChildren(filteredChildren);
+				filteredChildren.forEach(stack::push);
+			}
+		}
+		return result;
+	}
+
+	private <T> List<T> filterNodes(List<T> nodes, Predicate<T> filter) {
+		List<T> result = new ArrayList<>();
+		if (nodes == null) {
+			return result;
+		}
+		for (T node : nodes) {
+			if (node != null && filter.test(node)) {
+				result.add(node);
+			}
+		}
+		return result;
+	}
+
 	/**
 	 * 遍历树节点（深度优先）
+	 * @param treeNode 开始遍历的节点
+	 * @param parentTreeNode 开始遍历的节点的父节点
+	 * @param action 遍历操作，参数为当前节点和其父节点
 	 */
 	public <T extends TreeNode<I>, I> void forEachDFS(T treeNode, T parentTreeNode, BiConsumer<T, T> action) {
-		action.accept(treeNode, parentTreeNode);
-		List<T> children = treeNode.getChildren();
-		forEachDFS(children, parentTreeNode, action);
+		forEachDFS(Collections.singletonList(treeNode), parentTreeNode, action);
 	}
 
 	/**
 	 * 遍历树节点（深度优先）
+	 * @param treeNodes 开始遍历的节点列表
+	 * @param parentTreeNode 开始遍历的节点列表的父节点
+	 * @param action 遍历操作，参数为当前节点和其父节点
 	 */
 	public <T extends TreeNode<I>, I> void forEachDFS(List<T> treeNodes, T parentTreeNode, BiConsumer<T, T> action) {
 		if (treeNodes == null || treeNodes.isEmpty()) {
 			return;
 		}
-		for (T treeNode : treeNodes) {
-			List<T> children = treeNode.getChildren();
-			action.accept(treeNode, parentTreeNode);
-			forEachDFS(children, treeNode, action);
+		// 先序遍历，栈帧的 node 即为其子节点的父节点，子节点在访问完当前节点后才获取
+		Deque<TraverseFrame<T>> stack = new ArrayDeque<>();
+		stack.push(new TraverseFrame<>(parentTreeNode, treeNodes));
+		while (!stack.isEmpty()) {
+			TraverseFrame<T> frame = stack.peek();
+			if (!frame.hasNext()) {
+				stack.pop();
+				continue;
+			}
+			T treeNode = frame.next();
+			action.accept(treeNode, frame.node);
+			stack.push(new TraverseFrame<>(treeNode, treeNode.getChildren()));
 		}
 	}
 
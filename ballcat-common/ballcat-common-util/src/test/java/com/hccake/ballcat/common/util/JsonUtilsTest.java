@@ -0,0 +1,58 @@
+package com.hccake.ballcat.common.util;
+
+import com.hccake.ballcat.common.util.json.TypeReference;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author hccake
+ */
+class JsonUtilsTest {
+
+	private static final String JSON = "[{\"name\":\"ballcat\",\"unknown\":1}]";
+
+	@Test
+	void toObjWithType() {
+		List<Map<String, Object>> list = JsonUtils.toObj(JSON, new TypeReference<List<Map<String, Object>>>() {
+		}.getType());
+		Assertions.assertEquals("ballcat", list.get(0).get("name"));
+
+		// 重复调用命中缓存
+		List<Map<String, Object>> again = JsonUtils.toObj(JSON, new TypeReference<List<Map<String, Object>>>() {
+		}.getType());
+		Assertions.assertEquals(list, again);
+	}
+
+	@Test
+	void toObjWithForeignTypeReference() {
+		List<Map<String, Object>> hutool = JsonUtils.toObj(JSON,
+				new cn.hutool.core.lang.TypeReference<List<Map<String, Object>>>() {
+				});
+		Assertions.assertEquals("ballcat", hutool.get(0).get("name"));
+	}
+
+	@Test
+	void toObjWithClass() {
+		Item item = JsonUtils.toObj("{\"name\":\"ballcat\",\"unknown\":1}", Item.class);
+		Assertions.assertEquals("ballcat", item.getName());
+		Assertions.assertEquals("{\"name\":\"ballcat\"}", JsonUtils.toJson(item));
+	}
+
+	static class Item {
+
+		private String name;
+
+		public String getName() {
+			return name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+	}
+
+}
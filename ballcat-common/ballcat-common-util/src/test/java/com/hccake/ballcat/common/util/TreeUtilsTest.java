@@ -9,6 +9,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
+import java.util.function.Function;
 
 /**
  * @author hccake
@@ -58,6 +59,74 @@ class TreeUtilsTest {
 		Assertions.assertEquals(list, abstractIdTreeNodes);
 	}
 
+	@Test
+	void orphanNodesExcluded() {
+		List<TreeNode<Integer>> list = buildTreeNodes(Arrays.asList(2, 1, 1));
+		TestTreeNode orphan = new TestTreeNode();
+		orphan.setId(100);
+		orphan.setParentId(99);
+		list.add(orphan);
+		TestTreeNode nullParent = new TestTreeNode();
+		nullParent.setId(101);
+		list.add(nullParent);
+
+		List<TreeNode<Integer>> nodes = TreeUtils.buildTree(list, 0);
+		List<Integer> ids = TreeUtils.getTreeNodeIds(nodes);
+
+		// 父节点不存在的节点不会出现在树中，且不影响其他节点
+		Assertions.assertEquals(Arrays.asList(1, 3, 2, 4), ids);
+	}
+
+	@Test
+	void deepTreeWithoutStackOverflow() {
+		// 深度为 10 万的单链树，递归实现会栈溢出
+		int depth = 100_000;
+		List<TreeNode<Integer>> list = new ArrayList<>(depth);
+		for (int i = 1; i <= depth; i++) {
+			TestTreeNode node = new TestTreeNode();
+			node.setId(i);
+			node.setParentId(i - 1);
+			list.add(node);
+		}
+
+		List<TreeNode<Integer>> nodes = TreeUtils.buildTree(list, 0);
+		Assertions.assertEquals(depth, TreeUtils.getTreeNodeIds(nodes).size());
+		Assertions.assertEquals(depth, TreeUtils.getLeafs(nodes.get(0)).get(0).getKey());
+
+		int[] visited = new int[1];
+		TreeUtils.forEachDFS(nodes, null, (node, parent) -> visited[0]++);
+		Assertions.assertEquals(depth, visited[0]);
+
+		List<TreeNode<Integer>> pruned = TreeUtils.pruneTree(nodes, node -> node.getKey() == depth);
+		Assertions.assertEquals(1, pruned.size());
+		Assertions.assertEquals(depth, TreeUtils.treeToList(pruned).size());
+	}
+
+	@Test
+	void pruneAndFilterTree() {
+		// 1 -> (3 -> 5, 4), 2
+		List<TreeNode<Integer>> list = buildTreeNodes(Arrays.asList(2, 2, 0, 1));
+
+		List<TreeNode<Integer>> pruned = TreeUtils.pruneTree(TreeUtils.buildTree(list, 0),
+				node -> node.getKey() == 5 || node.getKey() == 2);
+		Assertions.assertEquals(Arrays.asList(1, 3, 5, 2), TreeUtils.getTreeNodeIds(pruned));
+
+		List<TreeNode<Integer>> filtered = TreeUtils.filterTree(TreeUtils.buildTree(list, 0),
+				node -> node.getKey() != 3);
+		Assertions.assertEquals(Arrays.asList(1, 4, 2), TreeUtils.getTreeNodeIds(filtered));
+	}
+
+	@Test
+	void parallelBuildSameAsSequential() {
+		List<TreeNode<Integer>> list = buildTreeNodes(Arrays.asList(5, 4, 3, 2, 1, 6, 7, 8, 9, 10));
+		Comparator<TreeNode<Integer>> comparator = Comparator.comparing(TreeNode::getKey, Comparator.reverseOrder());
+
+		List<Integer> sequential = TreeUtils.getTreeNodeIds(TreeUtils.buildTree(list, 0, comparator));
+		List<Integer> parallel = TreeUtils
+			.getTreeNodeIds(TreeUtils.buildTreeParallel(list, 0, Function.identity(), comparator));
+		Assertions.assertEquals(sequential, parallel);
+	}
+
 	static class TestTreeNode implements TreeNode<Integer> {
 
 		/**
@@ -0,0 +1,111 @@
+package com.hccake.ballcat.common.util;
+
+import com.hccake.ballcat.common.util.concurrent.VersionedSnapshot;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * @author hccake
+ */
+class VersionedSnapshotTest {
+
+	private final AtomicInteger loadCount = new AtomicInteger();
+
+	@Test
+	void loadOnceUntilInvalidated() {
+		VersionedSnapshot<Integer> snapshot = new VersionedSnapshot<>(loadCount::incrementAndGet);
+		Assertions.assertNull(snapshot.getIfPresent());
+		Assertions.assertEquals(1, snapshot.get());
+		Assertions.assertEquals(1, snapshot.get());
+
+		snapshot.invalidate();
+		Assertions.assertEquals(1, snapshot.getIfPresent());
+		Assertions.assertEquals(2, snapshot.get());
+		Assertions.assertEquals(2, loadCount.get());
+	}
+
+	@Test
+	void reloadImmediately() {
+		VersionedSnapshot<Integer> snapshot = new VersionedSnapshot<>(loadCount::incrementAndGet);
+		snapshot.get();
+		Assertions.assertEquals(2, snapshot.reload());
+		Assertions.assertEquals(2, snapshot.get());
+	}
+
+	@Test
+	void invalidateDuringLoad() {
+		AtomicReference<VersionedSnapshot<Integer>> holder = new AtomicReference<>();
+		holder.set(new VersionedSnapshot<>(() -> {
+			int count = loadCount.incrementAndGet();
+			if (count == 1) {
+				// 加载完成前数据被修改
+				holder.get().invalidate();
+			}
+			return count;
+		}));
+
+		Assertions.assertEquals(1, holder.get().get());
+		// 加载期间发生了失效，下次读取时重新加载
+		Assertions.assertEquals(2, holder.get().get());
+		Assertions.assertEquals(2, holder.get().get());
+	}
+
+	@Test
+	void staleServedWhileReloading() throws Exception {
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		VersionedSnapshot<Integer> snapshot = new VersionedSnapshot<>(() -> {
+			int count = loadCount.incrementAndGet();
+			if (count == 2) {
+				loading.countDown();
+				awaitQuietly(release);
+			}
+			return count;
+		});
+		snapshot.get();
+		snapshot.invalidate();
+
+		CompletableFuture<Integer> reloading = CompletableFuture.supplyAsync(snapshot::get);
+		Assertions.assertTrue(loading.await(5, TimeUnit.SECONDS));
+		// 重建期间其他线程直接使用旧快照，不会并发加载
+		Assertions.assertEquals(1, snapshot.get());
+
+		release.countDown();
+		Assertions.assertEquals(2, reloading.get(5, TimeUnit.SECONDS));
+		Assertions.assertEquals(2, snapshot.get());
+		Assertions.assertEquals(2, loadCount.get());
+	}
+
+	@Test
+	void failedLoadKeepsOldSnapshot() {
+		VersionedSnapshot<Integer> snapshot = new VersionedSnapshot<>(() -> {
+			if (loadCount.incrementAndGet() == 2) {
+				throw new IllegalStateException("db down");
+			}
+			return loadCount.get();
+		});
+		snapshot.get();
+		snapshot.invalidate();
+
+		Assertions.assertThrows(IllegalStateException.class, snapshot::get);
+		Assertions.assertEquals(1, snapshot.getIfPresent());
+		// 加载失败后由下次读取重试
+		Assertions.assertEquals(3, snapshot.get());
+	}
+
+	private static void awaitQuietly(CountDownLatch latch) {
+		try {
+			latch.await();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
@@ -0,0 +1,253 @@
+package com.hccake.extend.dingtalk;
+
+import cn.hutool.core.thread.ThreadFactoryBuilder;
+import com.hccake.ballcat.common.core.markdown.MarkdownBuilder;
+import com.hccake.extend.dingtalk.message.AbstractDingTalkMessage;
+import com.hccake.extend.dingtalk.message.DingTalkMarkDownMessage;
+import com.hccake.extend.dingtalk.message.DingTalkMessage;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 带频率限制的钉钉异步消息发送，钉钉机器人每分钟最多发送 20 条消息，超出后将被限流。
+ * <p>
+ * 未达到频率上限时消息直接异步发送；达到上限后消息进入等待队列，待窗口内有空余额度时，将等待中的消息合并为一条 markdown 消息发送。
+ *
+ * @author hccake
+ */
+public class DingTalkRateLimitSender implements AutoCloseable {
+
+	/**
+	 * 钉钉机器人默认的频率限制: 每分钟 20 条
+	 */
+	public static final int DEFAULT_PERMITS = 20;
+
+	public static final long DEFAULT_WINDOW_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+	/**
+	 * 单条合并消息中最多包含的消息数量，避免超出钉钉消息长度限制
+	 */
+	public static final int DEFAULT_MAX_MERGE_SIZE = 50;
+
+	@Getter
+	private final DingTalkSender sender;
+
+	private final int permits;
+
+	private final long windowMillis;
+
+	private final int maxMergeSize;
+
+	/**
+	 * 窗口内已发送请求的时间戳
+	 */
+	private final Deque<Long> sentTimestamps = new ArrayDeque<>();
+
+	private final List<PendingMessage> pendingMessages = new ArrayList<>();
+
+	private final ScheduledExecutorService scheduler;
+
+	private boolean drainScheduled = false;
+
+	private boolean closed = false;
+
+	public DingTalkRateLimitSender(DingTalkSender sender) {
+		this(sender, DEFAULT_PERMITS, DEFAULT_WINDOW_MILLIS, DEFAULT_MAX_MERGE_SIZE);
+	}
+
+	public DingTalkRateLimitSender(DingTalkSender sender, int permits, long windowMillis, int maxMergeSize) {
+		this.sender = sender;
+		this.permits = permits;
+		this.windowMillis = windowMillis;
+		this.maxMergeSize = maxMergeSize;
+		ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1,
+				new ThreadFactoryBuilder().setNamePrefix("dingtalk-sender-").setDaemon(true).build());
+		executor.setRemoveOnCancelPolicy(true);
+		this.scheduler = executor;
+	}
+
+	/**
+	 * 异步发送消息，被合并发送的消息将共享同一个发送结果
+	 * @param message 消息内容
+	 * @return 发送结果
+	 */
+	public CompletableFuture<DingTalkResponse> send(DingTalkMessage message) {
+		CompletableFuture<DingTalkResponse> future = new CompletableFuture<>();
+		synchronized (this) {
+			if (closed) {
+				throw new IllegalStateException("DingTalkRateLimitSender 已关闭!");
+			}
+			pendingMessages.add(new PendingMessage(message, future));
+			if (!drainScheduled) {
+				drainScheduled = true;
+				scheduler.execute(this::drain);
+			}
+		}
+		return future;
+	}
+
+	private void drain() {
+		List<PendingMessage> batch;
+		synchronized (this) {
+			long now = System.currentTimeMillis();
+			while (!sentTimestamps.isEmpty() && now - sentTimestamps.peekFirst() >= windowMillis) {
+				sentTimestamps.pollFirst();
+			}
+			if (sentTimestamps.size() >= permits) {
+				// 等待窗口内最早的一次请求过期
+				long delay = sentTimestamps.peekFirst() + windowMillis - now;
+				scheduler.schedule(this::drain, delay, TimeUnit.MILLISECONDS);
+				return;
+			}
+			batch = takeBatch();
+			sentTimestamps.addLast(now);
+			if (pendingMessages.isEmpty()) {
+				drainScheduled = false;
+			}
+			else {
+				scheduler.execute(this::drain);
+			}
+		}
+		dispatch(batch);
+	}
+
+	private List<PendingMessage> takeBatch() {
+		int size = Math.min(pendingMessages.size(), maxMergeSize);
+		List<PendingMessage> subList = pendingMessages.subList(0, size);
+		List<PendingMessage> batch = new ArrayList<>(subList);
+		subList.clear();
+		return batch;
+	}
+
+	private void dispatch(List<PendingMessage> batch) {
+		DingTalkMessage message = batch.size() == 1 ? batch.get(0).message : merge(batch);
+		CompletableFuture<DingTalkResponse> result;
+		try {
+			result = sender.sendMessageAsync(message);
+		}
+		catch (Exception e) {
+			result = new CompletableFuture<>();
+			result.completeExceptionally(e);
+		}
+		result.whenComplete((response, throwable) -> {
+			for (PendingMessage pending : batch) {
+				if (throwable != null) {
+					pending.future.completeExceptionally(throwable);
+				}
+				else {
+					pending.future.complete(response);
+				}
+			}
+		});
+	}
+
+	/**
+	 * 将多条消息合并为一条 markdown 消息
+	 */
+	private DingTalkMarkDownMessage merge(List<PendingMessage> batch) {
+		DingTalkMarkDownMessage merged = new DingTalkMarkDownMessage();
+		MarkdownBuilder builder = new MarkdownBuilder();
+		String firstTitle = null;
+		for (PendingMessage pending : batch) {
+			DingTalkMessage message = pending.message;
+			DingTalkParams params = message instanceof AbstractDingTalkMessage
+					? ((AbstractDingTalkMessage) message).put(new DingTalkParams()) : null;
+			String title = title(params);
+			if (firstTitle == null && title != null) {
+				firstTitle = title;
+			}
+			if (title != null) {
+				builder.title4(title);
+			}
+			String text = text(params);
+			if (text != null) {
+				builder.append(text).lineBreak();
+			}
+			else if (params == null) {
+				builder.code("json", message.generate());
+			}
+			builder.forceLineBreak();
+
+			if (message instanceof AbstractDingTalkMessage) {
+				AbstractDingTalkMessage atMessage = (AbstractDingTalkMessage) message;
+				if (atMessage.isAtAll()) {
+					merged.atAll();
+				}
+				atMessage.getAtPhones().forEach(merged::addPhone);
+			}
+		}
+		String title = String.format("[%d 条消息合并发送]", batch.size());
+		return merged.setTitle(firstTitle == null ? title : title + firstTitle).setText(builder);
+	}
+
+	private static String title(DingTalkParams params) {
+		if (params == null) {
+			return null;
+		}
+		if (params.getMarkdown() != null) {
+			return params.getMarkdown().getTitle();
+		}
+		if (params.getLink() != null) {
+			return params.getLink().getTitle();
+		}
+		if (params.getActionCard() != null) {
+			return params.getActionCard().getTitle();
+		}
+		return null;
+	}
+
+	private static String text(DingTalkParams params) {
+		if (params == null) {
+			return null;
+		}
+		if (params.getText() != null) {
+			return params.getText().getContent();
+		}
+		if (params.getMarkdown() != null) {
+			return params.getMarkdown().getText();
+		}
+		if (params.getLink() != null) {
+			return String.format("[%s](%s)", params.getLink().getText(), params.getLink().getMessageUrl());
+		}
+		if (params.getActionCard() != null) {
+			return params.getActionCard().getText();
+		}
+		return null;
+	}
+
+	/**
+	 * 关闭发送器，等待中的消息将忽略频率限制立即合并发送
+	 */
+	@Override
+	public void close() {
+		List<PendingMessage> remaining;
+		synchronized (this) {
+			closed = true;
+			remaining = new ArrayList<>(pendingMessages);
+			pendingMessages.clear();
+		}
+		scheduler.shutdownNow();
+		for (int i = 0; i < remaining.size(); i += maxMergeSize) {
+			dispatch(remaining.subList(i, Math.min(remaining.size(), i + maxMergeSize)));
+		}
+	}
+
+	@RequiredArgsConstructor
+	private static final class PendingMessage {
+
+		private final DingTalkMessage message;
+
+		private final CompletableFuture<DingTalkResponse> future;
+
+	}
+
+}
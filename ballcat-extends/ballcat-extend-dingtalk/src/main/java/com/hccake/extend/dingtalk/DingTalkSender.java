@@ -4,11 +4,14 @@ import cn.hutool.core.codec.Base64;
 import cn.hutool.core.text.CharSequenceUtil;
 import com.hccake.extend.dingtalk.message.DingTalkMessage;
 import com.sun.nio.sctp.IllegalReceiveException;
+import lombok.AccessLevel;
 import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import lombok.SneakyThrows;
 import lombok.experimental.Accessors;
 import okhttp3.Call;
+import okhttp3.Callback;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
@@ -25,6 +28,7 @@ import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * 订单消息发送
@@ -45,6 +49,8 @@ public class DingTalkSender {
 	 */
 	private static final MediaType MEDIA_TYPE = MediaType.parse("application/json");
 
+	private static final String ALGORITHM = "HmacSHA256";
+
 	@Setter
 	private OkHttpClient client = HTTP_CLIENT;
 
@@ -58,12 +64,11 @@ public class DingTalkSender {
 	 */
 	private String secret;
 
-	private final Mac mac;
+	@Getter(AccessLevel.NONE)
+	private volatile Signer signer;
 
-	@SneakyThrows(NoSuchAlgorithmException.class)
 	public DingTalkSender(String url) {
 		this.url = url;
-		mac = Mac.getInstance("HmacSHA256");
 	}
 
 	/**
@@ -79,6 +84,15 @@ public class DingTalkSender {
 		}
 	}
 
+	/**
+	 * 异步发送消息 根据参数值判断使用哪种发送方式
+	 * @param message 消息内容
+	 * @return 发送结果
+	 */
+	public CompletableFuture<DingTalkResponse> sendMessageAsync(DingTalkMessage message) {
+		return requestAsync(message, CharSequenceUtil.isNotEmpty(secret));
+	}
+
 	/**
 	 * 未使用 加签 安全设置 直接发送
 	 */
@@ -96,11 +110,10 @@ public class DingTalkSender {
 	/**
 	 * 设置密钥
 	 */
-	@SneakyThrows(InvalidKeyException.class)
 	public DingTalkSender setSecret(String secret) {
 		if (StringUtils.hasText(secret)) {
 			this.secret = secret;
-			mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+			this.signer = new Signer(url, secret);
 		}
 		return this;
 	}
@@ -108,13 +121,26 @@ public class DingTalkSender {
 	/**
 	 * 获取签名后的请求路径
 	 * @param timestamp 当前时间戳
+	 * @throws IllegalStateException 未设置密钥时
 	 */
-	@SneakyThrows(UnsupportedEncodingException.class)
 	public String secret(long timestamp) {
-		byte[] secretBytes = (timestamp + "\n" + secret).getBytes(StandardCharsets.UTF_8);
-		String secretBase64 = Base64.encode(mac.doFinal(secretBytes));
-		String sign = URLEncoder.encode(secretBase64, "UTF-8");
-		return String.format("%s&timestamp=%s&sign=%s", url, timestamp, sign);
+		return requireSigner().sign(timestamp);
+	}
+
+	/**
+	 * 获取当前时间签名后的请求路径，同一秒内复用相同的签名
+	 * @throws IllegalStateException 未设置密钥时
+	 */
+	public String secretUrl() {
+		return requireSigner().signedUrl(System.currentTimeMillis());
+	}
+
+	private Signer requireSigner() {
+		Signer currentSigner = signer;
+		if (currentSigner == null) {
+			throw new IllegalStateException("钉钉机器人未设置密钥，无法签名! url: " + url);
+		}
+		return currentSigner;
 	}
 
 	/**
@@ -125,23 +151,126 @@ public class DingTalkSender {
 	 */
 	@SneakyThrows(IOException.class)
 	public DingTalkResponse request(DingTalkMessage dingTalkMessage, boolean isSecret) {
-		String message = dingTalkMessage.generate();
+		Call call = client.newCall(buildRequest(dingTalkMessage, isSecret));
+
+		try (Response response = call.execute()) {
+			return toResponse(response);
+		}
+	}
+
+	/**
+	 * 异步发起消息请求，不会阻塞当前线程
+	 * @param dingTalkMessage 消息内容
+	 * @param isSecret 是否签名 true 签名
+	 * @return 发送结果
+	 */
+	public CompletableFuture<DingTalkResponse> requestAsync(DingTalkMessage dingTalkMessage, boolean isSecret) {
+		CompletableFuture<DingTalkResponse> future = new CompletableFuture<>();
+		client.newCall(buildRequest(dingTalkMessage, isSecret)).enqueue(new Callback() {
+			@Override
+			public void onFailure(Call call, IOException e) {
+				future.completeExceptionally(e);
+			}
 
-		String requestUrl = isSecret ? secret(System.currentTimeMillis()) : getUrl();
+			@Override
+			public void onResponse(Call call, Response response) {
+				try (Response r = response) {
+					future.complete(toResponse(r));
+				}
+				catch (Exception e) {
+					future.completeExceptionally(e);
+				}
+			}
+		});
+		return future;
+	}
+
+	private Request buildRequest(DingTalkMessage dingTalkMessage, boolean isSecret) {
+		String message = dingTalkMessage.generate();
+		String requestUrl = isSecret ? secretUrl() : getUrl();
 		RequestBody requestBody = RequestBody.create(message, MEDIA_TYPE);
+		return new Request.Builder().url(requestUrl).post(requestBody).build();
+	}
 
-		Request request = new Request.Builder().url(requestUrl).post(requestBody).build();
+	@SneakyThrows(IOException.class)
+	private static DingTalkResponse toResponse(Response response) {
+		ResponseBody responseBody = response.body();
+		if (responseBody == null) {
+			throw new IllegalReceiveException("钉钉发送消息接口返回值为 null!");
+		}
+		String dingTalkResponse = responseBody.string();
+		return DingTalkResponse.of(dingTalkResponse);
+	}
 
-		Call call = client.newCall(request);
+	/**
+	 * 签名器，Mac 非线程安全，每个线程持有一份 clone 的 Mac 实例
+	 */
+	private static final class Signer {
 
-		try (Response response = call.execute()) {
-			ResponseBody responseBody = response.body();
-			if (responseBody == null) {
-				throw new IllegalReceiveException("钉钉发送消息接口返回值为 null!");
+		private final String url;
+
+		private final String secret;
+
+		private final SecretKeySpec key;
+
+		private final Mac prototype;
+
+		private final ThreadLocal<Mac> macHolder = ThreadLocal.withInitial(this::newMac);
+
+		/**
+		 * 最近一次签名结果，钉钉只要求时间戳与服务器相差在一小时内，所以同一秒内的请求可以共用
+		 */
+		private volatile SignedUrl lastSigned;
+
+		@SneakyThrows({ NoSuchAlgorithmException.class, InvalidKeyException.class })
+		Signer(String url, String secret) {
+			this.url = url;
+			this.secret = secret;
+			this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+			this.prototype = Mac.getInstance(ALGORITHM);
+			this.prototype.init(key);
+		}
+
+		String signedUrl(long currentTimeMillis) {
+			long timestamp = currentTimeMillis - currentTimeMillis % 1000;
+			SignedUrl signed = lastSigned;
+			if (signed == null || signed.timestamp != timestamp) {
+				signed = new SignedUrl(timestamp, sign(timestamp));
+				lastSigned = signed;
+			}
+			return signed.url;
+		}
+
+		@SneakyThrows(UnsupportedEncodingException.class)
+		String sign(long timestamp) {
+			byte[] secretBytes = (timestamp + "\n" + secret).getBytes(StandardCharsets.UTF_8);
+			String secretBase64 = Base64.encode(macHolder.get().doFinal(secretBytes));
+			String sign = URLEncoder.encode(secretBase64, "UTF-8");
+			return String.format("%s&timestamp=%s&sign=%s", url, timestamp, sign);
+		}
+
+		@SneakyThrows({ NoSuchAlgorithmException.class, InvalidKeyException.class })
+		private Mac newMac() {
+			try {
+				return (Mac) prototype.clone();
+			}
+			catch (CloneNotSupportedException e) {
+				// 部分 provider 不支持 clone, 重新创建
+				Mac mac = Mac.getInstance(ALGORITHM);
+				mac.init(key);
+				return mac;
 			}
-			String dingTalkResponse = responseBody.string();
-			return DingTalkResponse.of(dingTalkResponse);
 		}
+
+	}
+
+	@RequiredArgsConstructor
+	private static final class SignedUrl {
+
+		private final long timestamp;
+
+		private final String url;
+
 	}
 
 }
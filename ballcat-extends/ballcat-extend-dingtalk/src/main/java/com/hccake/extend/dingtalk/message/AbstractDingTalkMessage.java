@@ -36,6 +36,17 @@ public abstract class AbstractDingTalkMessage implements DingTalkMessage {
 		return this;
 	}
 
+	/**
+	 * 获取 at 对象的手机号
+	 */
+	public Set<String> getAtPhones() {
+		return atPhones;
+	}
+
+	public boolean isAtAll() {
+		return atAll;
+	}
+
 	/**
 	 * 获取消息类型
 	 * @return 返回消息类型
@@ -0,0 +1,119 @@
+package com.hccake.extend.dingtalk;
+
+import com.hccake.extend.dingtalk.message.DingTalkTextMessage;
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author hccake
+ */
+class DingTalkSenderTest {
+
+	private static final String SUCCESS = "{\"errcode\":0,\"errmsg\":\"ok\"}";
+
+	MockWebServer server;
+
+	DingTalkSender sender;
+
+	@BeforeEach
+	void before() throws Exception {
+		server = new MockWebServer();
+		server.start();
+		sender = new DingTalkSender(server.url("/robot/send?access_token=test").toString()).setSecret("secret");
+	}
+
+	@AfterEach
+	void after() throws Exception {
+		server.shutdown();
+	}
+
+	@Test
+	void concurrentSign() throws Exception {
+		long timestamp = System.currentTimeMillis();
+		String expected = sender.secret(timestamp);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<String>> futures = new ArrayList<>();
+			for (int i = 0; i < 1000; i++) {
+				futures.add(executor.submit(() -> sender.secret(timestamp)));
+			}
+			for (Future<String> future : futures) {
+				Assertions.assertEquals(expected, future.get());
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void signWithoutSecret() {
+		DingTalkSender noSecretSender = new DingTalkSender(server.url("/robot/send?access_token=test").toString());
+		Assertions.assertThrows(IllegalStateException.class, () -> noSecretSender.secret(System.currentTimeMillis()));
+		Assertions.assertThrows(IllegalStateException.class, noSecretSender::secretUrl);
+	}
+
+	@Test
+	void sendAsync() throws Exception {
+		server.enqueue(new MockResponse().setBody(SUCCESS));
+		DingTalkResponse response = sender.sendMessageAsync(new DingTalkTextMessage().setContent("test"))
+			.get(5, TimeUnit.SECONDS);
+		Assertions.assertTrue(response.isSuccess());
+
+		RecordedRequest request = server.takeRequest();
+		HttpUrl url = request.getRequestUrl();
+		Assertions.assertNotNull(url);
+		Assertions.assertNotNull(url.queryParameter("sign"));
+		Assertions.assertEquals(0, Long.parseLong(url.queryParameter("timestamp")) % 1000);
+		Assertions.assertTrue(request.getBody().readUtf8().contains("\"content\":\"test\""));
+	}
+
+	@Test
+	void rateLimitMerge() throws Exception {
+		for (int i = 0; i < 3; i++) {
+			server.enqueue(new MockResponse().setBody(SUCCESS));
+		}
+		try (DingTalkRateLimitSender limitSender = new DingTalkRateLimitSender(sender, 2, 500, 50)) {
+			List<CompletableFuture<DingTalkResponse>> futures = new ArrayList<>();
+			for (int i = 0; i < 10; i++) {
+				futures.add(limitSender.send(new DingTalkTextMessage().setContent("message-" + i)));
+			}
+			for (CompletableFuture<DingTalkResponse> future : futures) {
+				Assertions.assertTrue(future.get(5, TimeUnit.SECONDS).isSuccess());
+			}
+		}
+
+		// 10 条消息在频率限制下被合并为不超过 3 次请求，且每条消息都被发送
+		Set<String> contents = new HashSet<>();
+		StringBuilder bodies = new StringBuilder();
+		RecordedRequest request;
+		while ((request = server.takeRequest(100, TimeUnit.MILLISECONDS)) != null) {
+			bodies.append(request.getBody().readUtf8());
+		}
+		Assertions.assertTrue(server.getRequestCount() <= 3);
+		for (int i = 0; i < 10; i++) {
+			if (bodies.indexOf("message-" + i) >= 0) {
+				contents.add("message-" + i);
+			}
+		}
+		Assertions.assertEquals(10, contents.size());
+		Assertions.assertTrue(bodies.indexOf("markdown") >= 0);
+	}
+
+}
@@ -8,12 +8,20 @@ import org.springframework.asm.ClassWriter;
 import org.springframework.asm.FieldVisitor;
 import org.springframework.asm.MethodVisitor;
 import org.springframework.asm.Opcodes;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StreamUtils;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 分页请求参数对应的 class 创建器
@@ -63,22 +71,95 @@ public final class PageableRequestClassCreator {
 
 	}
 
+	/**
+	 * 预生成 class 文件在 classpath 中的存放目录
+	 */
+	public static final String PRE_GENERATED_CLASS_LOCATION = "META-INF/ballcat/openapi/pageable/";
+
+	/**
+	 * 已生成的 class 缓存，key 为字段重命名映射
+	 */
+	private static final Map<Map<String, String>, Class<?>> CLASS_CACHE = new ConcurrentHashMap<>();
+
+	/**
+	 * 获取字段重命名后的 PageableRequest class，相同的映射关系只会生成一次。
+	 * <p>
+	 * 若 classpath 中存在预生成的 class 文件（参看 {@link #write(Map, Path)}），则直接加载，不再进行 asm 字节码修改
+	 * @param modifyFiledMap 字段重命名映射，key 为原字段名，value 为新字段名
+	 * @return 生成的 class
+	 */
 	public static Class<?> create(Map<String, String> modifyFiledMap) throws IOException {
+		Map<String, String> key = Collections.unmodifiableMap(new TreeMap<>(modifyFiledMap));
+		Class<?> clazz = CLASS_CACHE.get(key);
+		if (clazz != null) {
+			return clazz;
+		}
+		synchronized (CLASS_CACHE) {
+			clazz = CLASS_CACHE.get(key);
+			if (clazz == null) {
+				clazz = defineClass(key);
+				CLASS_CACHE.put(key, clazz);
+			}
+			return clazz;
+		}
+	}
+
+	/**
+	 * 生成字段重命名后的 PageableRequest 字节码
+	 * @param modifyFiledMap 字段重命名映射
+	 * @return class 字节码
+	 */
+	public static byte[] generate(Map<String, String> modifyFiledMap) throws IOException {
 		String className = PageableRequest.class.getCanonicalName();
 		String classFilePath = className.replace('.', '/') + ".class";
-		ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+		ClassLoader classLoader = PageableRequest.class.getClassLoader();
 
-		try (InputStream resourceAsStream = contextClassLoader.getResourceAsStream(classFilePath)) {
+		try (InputStream resourceAsStream = classLoader.getResourceAsStream(classFilePath)) {
 			Objects.requireNonNull(resourceAsStream, className + " 必须存在");
 			ClassReader classReader = new ClassReader(resourceAsStream);
 			ClassWriter classWriter = new ClassWriter(classReader, 0);
 			ModifyFieldNameAdapter modifyFieldNameAdapter = new ModifyFieldNameAdapter(Opcodes.ASM9, classWriter,
 					modifyFiledMap);
 			classReader.accept(modifyFieldNameAdapter, 0);
+			return classWriter.toByteArray();
+		}
+	}
+
+	/**
+	 * 将生成的 class 文件写入指定目录，一般在构建期写入 resources 目录，运行时即可跳过 asm 字节码修改
+	 * @param modifyFiledMap 字段重命名映射
+	 * @param outputDirectory 输出的根目录，如 src/main/resources
+	 * @return 写入的文件路径
+	 */
+	public static Path write(Map<String, String> modifyFiledMap, Path outputDirectory) throws IOException {
+		Path target = outputDirectory.resolve(getResourcePath(modifyFiledMap));
+		Files.createDirectories(target.getParent());
+		return Files.write(target, generate(modifyFiledMap));
+	}
+
+	/**
+	 * 获取预生成 class 文件在 classpath 中的路径，文件名由排序后的映射关系摘要而来
+	 * @param modifyFiledMap 字段重命名映射
+	 * @return class 文件路径
+	 */
+	public static String getResourcePath(Map<String, String> modifyFiledMap) {
+		StringBuilder sb = new StringBuilder();
+		for (Map.Entry<String, String> entry : new TreeMap<>(modifyFiledMap).entrySet()) {
+			sb.append(entry.getKey()).append('=').append(entry.getValue()).append(';');
+		}
+		String digest = DigestUtils.md5DigestAsHex(sb.toString().getBytes(StandardCharsets.UTF_8));
+		return PRE_GENERATED_CLASS_LOCATION + PageableRequest.class.getSimpleName() + "-" + digest + ".class";
+	}
 
-			ByteClassLoader myClassLoader = new ByteClassLoader(contextClassLoader);
-			return myClassLoader.defineClass(classWriter.toByteArray());
+	private static Class<?> defineClass(Map<String, String> modifyFiledMap) throws IOException {
+		ClassLoader classLoader = PageableRequest.class.getClassLoader();
+		byte[] bytes;
+		try (InputStream preGenerated = classLoader.getResourceAsStream(getResourcePath(modifyFiledMap))) {
+			bytes = preGenerated == null ? generate(modifyFiledMap) : StreamUtils.copyToByteArray(preGenerated);
 		}
+		// 生成的 class 与 PageableRequest 同名，同一个 ClassLoader 中无法重复定义，所以每种映射关系使用一个独立的 ClassLoader
+		ByteClassLoader byteClassLoader = new ByteClassLoader(classLoader);
+		return byteClassLoader.defineClass(bytes);
 	}
 
 }
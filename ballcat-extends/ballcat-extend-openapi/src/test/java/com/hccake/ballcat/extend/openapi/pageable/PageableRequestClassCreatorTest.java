@@ -0,0 +1,66 @@
+package com.hccake.ballcat.extend.openapi.pageable;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @author hccake
+ */
+class PageableRequestClassCreatorTest {
+
+	private static final int TIMES = 200;
+
+	@Test
+	void cache() throws Exception {
+		Map<String, String> map = new HashMap<>();
+		map.put("page", "current");
+		map.put("size", "pageSize");
+		Class<?> clazz = PageableRequestClassCreator.create(map);
+		Assertions.assertNotNull(clazz.getDeclaredField("current"));
+		Assertions.assertNotNull(clazz.getMethod("getPageSize"));
+
+		// 相同的映射关系，与 key 的顺序无关
+		Map<String, String> sameMap = new HashMap<>();
+		sameMap.put("size", "pageSize");
+		sameMap.put("page", "current");
+		Assertions.assertSame(clazz, PageableRequestClassCreator.create(sameMap));
+
+		Map<String, String> otherMap = new HashMap<>();
+		otherMap.put("page", "pageNo");
+		Assertions.assertNotSame(clazz, PageableRequestClassCreator.create(otherMap));
+	}
+
+	@Test
+	void write(@TempDir Path dir) throws Exception {
+		Map<String, String> map = new HashMap<>();
+		map.put("page", "current");
+		Path path = PageableRequestClassCreator.write(map, dir);
+		Assertions.assertEquals(dir.resolve(PageableRequestClassCreator.getResourcePath(map)), path);
+		Assertions.assertArrayEquals(PageableRequestClassCreator.generate(map), Files.readAllBytes(path));
+	}
+
+	@Test
+	void cachedCreateDefinesNoClass() throws Exception {
+		Map<String, String> map = new HashMap<>();
+		map.put("size", "limit");
+		Class<?> clazz = PageableRequestClassCreator.create(map);
+
+		ClassLoadingMXBean classLoadingMXBean = ManagementFactory.getClassLoadingMXBean();
+		long loadedClassCount = classLoadingMXBean.getTotalLoadedClassCount();
+		boolean allSame = true;
+		for (int i = 0; i < TIMES; i++) {
+			allSame &= clazz == PageableRequestClassCreator.create(map);
+		}
+		Assertions.assertEquals(loadedClassCount, classLoadingMXBean.getTotalLoadedClassCount());
+		Assertions.assertTrue(allSame);
+	}
+
+}
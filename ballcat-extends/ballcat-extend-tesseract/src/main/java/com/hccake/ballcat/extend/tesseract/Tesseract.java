@@ -13,6 +13,10 @@ import java.util.function.Consumer;
  * <p>
  * Tesseract class.
  * </p>
+ * <p>
+ * 单张图片通过标准输入传递给 tesseract, 需要 tesseract 4.0 及以上版本; 单张识别默认最长执行 1 分钟, 批量识别按每张图片 1 分钟计算, 可通过
+ * {@link #run(Consumer)} 设置 {@link TesseractCommand#getTimeout()}. 需要限制并发进程数时请使用 {@link TesseractExecutor}.
+ * </p>
  *
  * @author lingting
  */
@@ -71,6 +75,25 @@ public class Tesseract {
 		return run(builder -> builder.lang(lang).image(image));
 	}
 
+	/**
+	 * 批量识别, 只启动一次 tesseract 进程
+	 * @param images 图片列表
+	 * @return 按图片顺序返回每张图片识别出的文本行
+	 */
+	public List<List<String>> toStrings(List<TesseractImage> images) {
+		return toStrings(images, getLang());
+	}
+
+	/**
+	 * 批量识别, 只启动一次 tesseract 进程
+	 * @param images 图片列表
+	 * @param lang a {@link java.lang.String} object.
+	 * @return 按图片顺序返回每张图片识别出的文本行
+	 */
+	public List<List<String>> toStrings(List<TesseractImage> images, String lang) {
+		return TesseractBatchCommand.builder().tesseract(tesseractPath).images(images).lang(lang).build().run();
+	}
+
 	/**
 	 * <p>
 	 * toBoxes.
@@ -0,0 +1,144 @@
+package com.hccake.ballcat.extend.tesseract;
+
+import com.hccake.ballcat.extend.tesseract.exception.OcrException;
+import lombok.Builder;
+import lombok.Getter;
+
+import javax.imageio.ImageIO;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 批量识别命令. 通过 tesseract 的文件列表输入, 一次进程启动(一次语言模型加载)识别多张图片
+ *
+ * @author hccake
+ */
+@Getter
+@Builder
+public class TesseractBatchCommand {
+
+	private static final File DIR = new File(System.getProperty("java.io.tmpdir"), "ballcat/tesseract");
+
+	/**
+	 * tesseract 输出文本时, 每张图片的结果以换页符结尾
+	 */
+	private static final String PAGE_SEPARATOR = "\f";
+
+	private String tesseract;
+
+	private List<TesseractImage> images;
+
+	private String lang;
+
+	/**
+	 * 页面分割模式. 值范围 1-13; 默认 3
+	 */
+	private Integer psm;
+
+	/**
+	 * 整批识别的超时时间, 超时后强制结束 tesseract 进程. 为 null 时按每张图片 1 分钟计算
+	 */
+	private Duration timeout;
+
+	/**
+	 * 执行批量识别
+	 * @return 按图片顺序返回每张图片识别出的文本行
+	 */
+	public List<List<String>> run() {
+		List<File> files = new ArrayList<>(images.size() + 1);
+		try {
+			List<String> paths = new ArrayList<>(images.size());
+			for (TesseractImage image : images) {
+				File file = writeTempFile(image);
+				files.add(file);
+				paths.add(file.getAbsolutePath());
+			}
+			File listFile = File.createTempFile("batch", ".txt", dir());
+			files.add(listFile);
+			Files.write(listFile.toPath(), paths, StandardCharsets.UTF_8);
+
+			final String output = TesseractProcess.execute(getArgs(listFile), null, getEffectiveTimeout());
+			return split(output);
+		}
+		catch (IOException e) {
+			throw new OcrException("图片加载异常!", e);
+		}
+		finally {
+			for (File file : files) {
+				try {
+					Files.deleteIfExists(file.toPath());
+				}
+				catch (IOException ignore) {
+					// 临时文件删除失败不影响识别结果
+				}
+			}
+		}
+	}
+
+	/**
+	 * 未指定超时时间时, 默认超时时间随图片数量增加, 避免大批量识别在中途被结束
+	 * @return 整批识别的超时时间
+	 */
+	Duration getEffectiveTimeout() {
+		if (timeout != null) {
+			return timeout;
+		}
+		return TesseractProcess.DEFAULT_TIMEOUT.multipliedBy(Math.max(1, images.size()));
+	}
+
+	private List<String> getArgs(File listFile) {
+		List<String> args = new ArrayList<>();
+		args.add(tesseract);
+		args.add(listFile.getAbsolutePath());
+		args.add("stdout");
+
+		if (TesseractProcess.hasText(lang)) {
+			args.add("-l");
+			args.add(lang);
+		}
+
+		if (psm != null) {
+			args.add("--psm");
+			args.add(String.valueOf(psm));
+		}
+		return args;
+	}
+
+	/**
+	 * 按换页符拆分每张图片的结果
+	 * @param output 标准输出
+	 * @return 每张图片的文本行
+	 */
+	private List<List<String>> split(String output) {
+		String[] pages = output.split(PAGE_SEPARATOR, -1);
+		List<List<String>> result = new ArrayList<>(images.size());
+		for (int i = 0; i < images.size(); i++) {
+			result.add(i < pages.length ? TesseractProcess.lines(pages[i]) : new ArrayList<>());
+		}
+		return result;
+	}
+
+	private static File writeTempFile(TesseractImage image) throws IOException {
+		String type = image.getType();
+		File file = File.createTempFile("batch", "." + type, dir());
+		if (!ImageIO.write(image.getBuffer(), type, file)) {
+			Files.deleteIfExists(file.toPath());
+			file = File.createTempFile("batch", ".png", dir());
+			ImageIO.write(image.getBuffer(), "png", file);
+		}
+		return file;
+	}
+
+	private static File dir() throws IOException {
+		if (!DIR.exists() && !DIR.mkdirs() && !DIR.exists()) {
+			throw new IOException("临时目录创建失败: " + DIR.getPath());
+		}
+		return DIR;
+	}
+
+}
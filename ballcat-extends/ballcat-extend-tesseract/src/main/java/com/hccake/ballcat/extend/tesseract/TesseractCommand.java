@@ -4,10 +4,9 @@ import com.hccake.ballcat.extend.tesseract.exception.OcrException;
 import lombok.Builder;
 import lombok.Getter;
 
-import java.io.BufferedReader;
+import javax.imageio.ImageIO;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -37,6 +36,11 @@ public class TesseractCommand {
 	 */
 	private Integer psm;
 
+	/**
+	 * 识别的超时时间, 超时后强制结束 tesseract 进程. 为 null 时默认 1 分钟
+	 */
+	private Duration timeout;
+
 	/**
 	 * <p>
 	 * getCommand.
@@ -69,39 +73,44 @@ public class TesseractCommand {
 	}
 
 	/**
-	 * <p>
-	 * run.
-	 * </p>
+	 * 命令参数. 图片通过标准输入传递, 不再写入临时文件, 需要 tesseract 4.0 及以上版本
 	 * @return a {@link java.util.List} object.
 	 */
-	public List<String> run() {
-		try {
-			final Process process = Runtime.getRuntime().exec(getCommand());
-			final InputStream in = process.getInputStream();
+	public List<String> getArgs() {
+		List<String> args = new ArrayList<>();
+		args.add(tesseract);
+		args.add("stdin");
+		args.add("stdout");
 
-			final BufferedReader reader = new BufferedReader(new InputStreamReader(in));
-			List<String> lines = new ArrayList<>();
-			String line;
-
-			while ((line = reader.readLine()) != null) {
-				if (hasText(line)) {
-					lines.add(line);
-				}
-			}
-
-			process.waitFor();
-			in.close();
-			reader.close();
-			process.destroy();
-			return lines;
+		if (hasText(lang)) {
+			args.add("-l");
+			args.add(lang);
 		}
-		catch (InterruptedException e) {
-			Thread.currentThread().interrupt();
-			throw new OcrException("识别被中断!", e);
+
+		if (psm != null) {
+			args.add("--psm");
+			args.add(String.valueOf(psm));
 		}
-		catch (Exception e) {
-			throw new OcrException("识别异常!", e);
+
+		if (boxes) {
+			args.add("makebox");
 		}
+
+		return args;
+	}
+
+	/**
+	 * 执行识别, 图片通过标准输入传递, 需要 tesseract 4.0 及以上版本. 3.x 版本请使用 {@link #getCommand()} 生成的命令自行执行
+	 * @return a {@link java.util.List} object.
+	 */
+	public List<String> run() {
+		final String output = TesseractProcess.execute(getArgs(), stdin -> {
+			// 无法按原格式写出时使用 png 格式
+			if (!ImageIO.write(image.getBuffer(), image.getType(), stdin)) {
+				ImageIO.write(image.getBuffer(), "png", stdin);
+			}
+		}, timeout);
+		return TesseractProcess.lines(output);
 	}
 
 	/**
@@ -112,17 +121,7 @@ public class TesseractCommand {
 	 * @return a boolean.
 	 */
 	protected boolean hasText(String str) {
-		if (str == null || str.length() == 0) {
-			return false;
-		}
-
-		for (int i = 0; i < str.length(); i++) {
-			if (!Character.isWhitespace(str.charAt(i))) {
-				return true;
-			}
-		}
-
-		return false;
+		return TesseractProcess.hasText(str);
 	}
 
 }
@@ -0,0 +1,108 @@
+package com.hccake.ballcat.extend.tesseract;
+
+import com.hccake.ballcat.extend.tesseract.exception.OcrException;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * tesseract 识别执行器
+ * <p>
+ * 由固定数量的工作线程执行识别, 同一时间运行的 tesseract 进程数不超过工作线程数, 等待执行的任务数不超过队列容量.
+ * 多张图片可以通过批量识别只启动一次进程.
+ * </p>
+ *
+ * @author hccake
+ */
+public class TesseractExecutor implements AutoCloseable {
+
+	private final ExecutorService executor;
+
+	/**
+	 * @param parallelism 最大并行识别数
+	 * @param queueCapacity 等待执行的最大任务数
+	 */
+	public TesseractExecutor(int parallelism, int queueCapacity) {
+		final AtomicInteger index = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(parallelism, parallelism, 0L, TimeUnit.MILLISECONDS,
+				new LinkedBlockingQueue<>(queueCapacity), r -> {
+					Thread thread = new Thread(r, "tesseract-worker-" + index.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+	}
+
+	/**
+	 * 异步执行识别
+	 * @param command 识别命令
+	 * @return 识别出的文本行
+	 */
+	public CompletableFuture<List<String>> submit(TesseractCommand command) {
+		return submit(command::run);
+	}
+
+	/**
+	 * 异步执行批量识别
+	 * @param command 批量识别命令
+	 * @return 按图片顺序返回每张图片识别出的文本行
+	 */
+	public CompletableFuture<List<List<String>>> submit(TesseractBatchCommand command) {
+		return submit(command::run);
+	}
+
+	/**
+	 * 执行识别, 等待识别完成
+	 * @param command 识别命令
+	 * @return 识别出的文本行
+	 */
+	public List<String> run(TesseractCommand command) {
+		return join(submit(command));
+	}
+
+	/**
+	 * 执行批量识别, 等待识别完成
+	 * @param command 批量识别命令
+	 * @return 按图片顺序返回每张图片识别出的文本行
+	 */
+	public List<List<String>> run(TesseractBatchCommand command) {
+		return join(submit(command));
+	}
+
+	private <T> CompletableFuture<T> submit(Supplier<T> supplier) {
+		try {
+			return CompletableFuture.supplyAsync(supplier, executor);
+		}
+		catch (RejectedExecutionException e) {
+			throw new OcrException("识别任务过多, 请稍后重试!", e);
+		}
+	}
+
+	private static <T> T join(CompletableFuture<T> future) {
+		try {
+			return future.join();
+		}
+		catch (CompletionException e) {
+			if (e.getCause() instanceof OcrException) {
+				throw (OcrException) e.getCause();
+			}
+			throw new OcrException("识别异常!", e.getCause());
+		}
+	}
+
+	/**
+	 * 关闭执行器, 正在执行的识别会继续执行完成
+	 */
+	@Override
+	public void close() {
+		executor.shutdown();
+	}
+
+}
@@ -0,0 +1,183 @@
+package com.hccake.ballcat.extend.tesseract;
+
+import com.hccake.ballcat.extend.tesseract.exception.OcrException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * tesseract 进程的执行工具
+ * <p>
+ * 标准错误流由单独的线程持续读取，避免缓冲区写满导致进程阻塞。 进程运行超过超时时间后会被强制结束，写入标准输入、读取标准输出和等待退出都会随之结束。
+ * </p>
+ *
+ * @author hccake
+ */
+final class TesseractProcess {
+
+	/**
+	 * 错误信息最多保留的字节数
+	 */
+	private static final int MAX_ERROR_LENGTH = 8 * 1024;
+
+	/**
+	 * 默认的超时时间
+	 */
+	static final Duration DEFAULT_TIMEOUT = Duration.ofMinutes(1);
+
+	/**
+	 * 超时后强制结束进程的调度线程
+	 */
+	private static final ScheduledExecutorService WATCHDOG = Executors.newSingleThreadScheduledExecutor(r -> {
+		Thread thread = new Thread(r, "tesseract-watchdog");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private TesseractProcess() {
+	}
+
+	/**
+	 * 执行 tesseract 命令
+	 * @param args 命令及参数
+	 * @param stdinWriter 标准输入的写入方法，为 null 时不写入
+	 * @param timeout 超时时间，为 null 时使用 {@link #DEFAULT_TIMEOUT}
+	 * @return 标准输出的全部内容
+	 */
+	static String execute(List<String> args, StdinWriter stdinWriter, Duration timeout) {
+		final long timeoutMillis = (timeout == null ? DEFAULT_TIMEOUT : timeout).toMillis();
+		final AtomicBoolean timedOut = new AtomicBoolean();
+		Process process = null;
+		ScheduledFuture<?> watchdog = null;
+		try {
+			process = new ProcessBuilder(args).start();
+			final Process startedProcess = process;
+			watchdog = WATCHDOG.schedule(() -> {
+				timedOut.set(true);
+				startedProcess.destroyForcibly();
+			}, timeoutMillis, TimeUnit.MILLISECONDS);
+
+			final InputStream errorStream = process.getErrorStream();
+			final ByteArrayOutputStream error = new ByteArrayOutputStream();
+			Thread errorDrainer = new Thread(() -> drain(errorStream, error, MAX_ERROR_LENGTH), "tesseract-stderr");
+			errorDrainer.setDaemon(true);
+			errorDrainer.start();
+
+			// tesseract 会先读取完整的标准输入再开始识别，所以可以先写入再读取输出
+			IOException writeException = null;
+			try (OutputStream stdin = process.getOutputStream()) {
+				if (stdinWriter != null) {
+					stdinWriter.write(stdin);
+				}
+			}
+			catch (IOException e) {
+				// 进程提前退出时写入会失败，以退出码和错误信息为准
+				writeException = e;
+			}
+
+			final ByteArrayOutputStream output = new ByteArrayOutputStream();
+			drain(process.getInputStream(), output, Integer.MAX_VALUE);
+
+			final int exitCode = process.waitFor();
+			errorDrainer.join();
+			if (timedOut.get()) {
+				throw new OcrException(String.format("tesseract 执行超时! timeout: %dms", timeoutMillis));
+			}
+			if (exitCode != 0) {
+				throw new OcrException(String.format("tesseract 执行失败! exitCode: %d; error: %s", exitCode,
+						new String(error.toByteArray(), StandardCharsets.UTF_8)));
+			}
+			if (writeException != null) {
+				throw writeException;
+			}
+			return new String(output.toByteArray(), StandardCharsets.UTF_8);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new OcrException("识别被中断!", e);
+		}
+		catch (IOException e) {
+			throw new OcrException("识别异常!", e);
+		}
+		finally {
+			if (watchdog != null) {
+				watchdog.cancel(false);
+			}
+			if (process != null) {
+				process.destroy();
+			}
+		}
+	}
+
+	/**
+	 * 按行拆分输出，并去除空白行
+	 * @param output 输出内容
+	 * @return 非空白的行
+	 */
+	static List<String> lines(String output) {
+		List<String> lines = new ArrayList<>();
+		for (String line : output.split("\r?\n")) {
+			if (hasText(line)) {
+				lines.add(line);
+			}
+		}
+		return lines;
+	}
+
+	static boolean hasText(String str) {
+		if (str == null || str.length() == 0) {
+			return false;
+		}
+
+		for (int i = 0; i < str.length(); i++) {
+			if (!Character.isWhitespace(str.charAt(i))) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private static void drain(InputStream in, ByteArrayOutputStream out, int maxLength) {
+		byte[] buffer = new byte[4096];
+		int n;
+		try (InputStream input = in) {
+			while ((n = input.read(buffer)) != -1) {
+				int writable = Math.min(n, maxLength - out.size());
+				if (writable > 0) {
+					out.write(buffer, 0, writable);
+				}
+			}
+		}
+		catch (IOException e) {
+			// 进程被销毁时流会被关闭，忽略即可
+		}
+	}
+
+	/**
+	 * 标准输入的写入方法
+	 */
+	@FunctionalInterface
+	interface StdinWriter {
+
+		/**
+		 * 写入数据到标准输入，无需关闭流
+		 * @param stdin 标准输入
+		 * @throws IOException 写入异常
+		 */
+		void write(OutputStream stdin) throws IOException;
+
+	}
+
+}
@@ -0,0 +1,123 @@
+package com.hccake.ballcat.extend.tesseract;
+
+import com.hccake.ballcat.extend.tesseract.exception.OcrException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 使用输出固定内容的脚本代替 tesseract
+ *
+ * @author hccake
+ */
+class TesseractExecutorTest {
+
+	static final String STUB = "#!/bin/sh\n" + "if [ \"$1\" = \"stdin\" ]; then\n" + "  cat > /dev/null\n"
+			+ "  echo 'warning' >&2\n" + "  printf '10:56 AM\\n\\nline2\\n'\n" + "elif [ \"$1\" = \"fail\" ]; then\n"
+			+ "  echo 'failed' >&2\n" + "  exit 1\n" + "elif [ \"$1\" = \"sleep\" ]; then\n" + "  exec sleep 10\n"
+			+ "else\n" + "  while read -r line; do\n"
+			+ "    printf '%s\\n\\f' \"$(basename \"$line\")\"\n" + "  done < \"$1\"\n" + "fi\n";
+
+	static File stub;
+
+	static TesseractImage image;
+
+	static TesseractExecutor executor;
+
+	@BeforeAll
+	static void init() throws IOException {
+		Assumptions.assumeFalse(System.getProperty("os.name").toLowerCase().contains("win"));
+		stub = File.createTempFile("tesseract-stub", ".sh");
+		Files.write(stub.toPath(), STUB.getBytes(StandardCharsets.UTF_8));
+		Assumptions.assumeTrue(stub.setExecutable(true));
+
+		File imageFile = File.createTempFile("tesseract-image", ".png");
+		ImageIO.write(new BufferedImage(10, 10, BufferedImage.TYPE_INT_RGB), "png", imageFile);
+		image = new TesseractImage(imageFile);
+
+		executor = new TesseractExecutor(2, 16);
+	}
+
+	@AfterAll
+	static void destroy() {
+		if (executor != null) {
+			executor.close();
+		}
+	}
+
+	@Test
+	void run() {
+		List<String> lines = executor
+			.run(TesseractCommand.builder().tesseract(stub.getAbsolutePath()).image(image).build());
+		Assertions.assertEquals(Arrays.asList("10:56 AM", "line2"), lines);
+	}
+
+	@Test
+	void concurrent() {
+		List<CompletableFuture<List<String>>> futures = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			TesseractCommand command = TesseractCommand.builder().tesseract(stub.getAbsolutePath()).image(image).build();
+			futures.add(executor.submit(command));
+		}
+		for (CompletableFuture<List<String>> future : futures) {
+			Assertions.assertEquals("10:56 AM", future.join().get(0));
+		}
+	}
+
+	@Test
+	void batch() {
+		List<List<String>> result = executor.run(TesseractBatchCommand.builder()
+			.tesseract(stub.getAbsolutePath())
+			.images(Arrays.asList(image, image, image))
+			.build());
+		Assertions.assertEquals(3, result.size());
+		for (List<String> lines : result) {
+			Assertions.assertEquals(1, lines.size());
+			Assertions.assertTrue(lines.get(0).startsWith("batch"));
+		}
+	}
+
+	@Test
+	void batchDefaultTimeoutScalesWithImages() {
+		TesseractBatchCommand command = TesseractBatchCommand.builder()
+			.images(Arrays.asList(image, image, image))
+			.build();
+		Assertions.assertEquals(TesseractProcess.DEFAULT_TIMEOUT.multipliedBy(3), command.getEffectiveTimeout());
+
+		Duration timeout = Duration.ofSeconds(30);
+		command = TesseractBatchCommand.builder().images(Arrays.asList(image, image, image)).timeout(timeout).build();
+		Assertions.assertEquals(timeout, command.getEffectiveTimeout());
+	}
+
+	@Test
+	void error() {
+		List<String> args = Arrays.asList(stub.getAbsolutePath(), "fail");
+		OcrException exception = Assertions.assertThrows(OcrException.class,
+				() -> TesseractProcess.execute(args, null, null));
+		Assertions.assertTrue(exception.getMessage().contains("failed"));
+	}
+
+	@Test
+	void timeout() {
+		List<String> args = Arrays.asList(stub.getAbsolutePath(), "sleep");
+		OcrException exception = Assertions.assertTimeoutPreemptively(Duration.ofSeconds(5),
+				() -> Assertions.assertThrows(OcrException.class,
+						() -> TesseractProcess.execute(args, null, Duration.ofMillis(200))));
+		Assertions.assertTrue(exception.getMessage().contains("超时"));
+	}
+
+}
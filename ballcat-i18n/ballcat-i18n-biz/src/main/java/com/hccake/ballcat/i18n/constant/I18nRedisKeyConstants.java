@@ -20,6 +20,15 @@ public final class I18nRedisKeyConstants {
 	 */
 	public static final String I18N_DATA_PREFIX = "i18n-data";
 
+	/**
+	 * i18nData 的全局变更版本号，每次推送变更消息时自增
+	 * <ul>
+	 * <li>type: String</li>
+	 * <li>fullKey: i18n-data-version</li>
+	 * <ul/>
+	 */
+	public static final String I18N_DATA_VERSION = "i18n-data-version";
+
 	/**
 	 * 删除 i18n data 消息的 channel 名
 	 */
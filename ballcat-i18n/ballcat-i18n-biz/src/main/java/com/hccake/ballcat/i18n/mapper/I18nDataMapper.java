@@ -18,6 +18,7 @@ import com.hccake.extend.mybatis.plus.mapper.ExtendMapper;
 import com.hccake.extend.mybatis.plus.toolkit.WrappersX;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * 国际化信息
@@ -73,6 +74,25 @@ public interface I18nDataMapper extends ExtendMapper<I18nData> {
 		return this.selectList(wrapper);
 	}
 
+	/**
+	 * 查询指定语言标签下的所有 i18nData 数据
+	 * @param languageTag 语言标签
+	 * @return List
+	 */
+	default List<I18nData> listByLanguageTag(String languageTag) {
+		Wrapper<I18nData> wrapper = Wrappers.lambdaQuery(I18nData.class).eq(I18nData::getLanguageTag, languageTag);
+		return this.selectList(wrapper);
+	}
+
+	/**
+	 * 查询所有存在数据的语言标签
+	 * @return 语言标签列表
+	 */
+	default List<String> listLanguageTags() {
+		Wrapper<I18nData> wrapper = Wrappers.<I18nData>query().select("DISTINCT language_tag");
+		return this.selectObjs(wrapper).stream().map(String::valueOf).collect(Collectors.toList());
+	}
+
 	/**
 	 * 根据 code 和 languageTag 查询指定的 I18nData
 	 * @param code 国际化标识
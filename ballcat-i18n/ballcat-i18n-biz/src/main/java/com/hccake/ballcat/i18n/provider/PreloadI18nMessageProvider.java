@@ -0,0 +1,232 @@
+package com.hccake.ballcat.i18n.provider;
+
+import cn.hutool.core.util.NumberUtil;
+import com.hccake.ballcat.common.i18n.I18nMessage;
+import com.hccake.ballcat.common.i18n.I18nMessageProvider;
+import com.hccake.ballcat.common.redis.listener.AbstractMessageEventListener;
+import com.hccake.ballcat.i18n.constant.I18nRedisKeyConstants;
+import com.hccake.ballcat.i18n.model.dto.I18nDataChangedMessage;
+import com.hccake.ballcat.i18n.model.entity.I18nData;
+import com.hccake.ballcat.i18n.service.I18nDataService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.Topic;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 按语言预加载的 I18nMessageProvider
+ * <p>
+ * 首次访问某个语言时，一次查询加载该语言下的所有国际化数据，之后的查询全部命中内存。
+ * 由于每个语言的快照是完整的，快照中不存在的 code 即视为不存在，不会再查询数据库（空值缓存）。
+ * 只有数据库中存在数据的语言才会加载快照，其他语言直接返回 null，避免客户端传入任意的语言标签导致反复加载和内存无限增长。
+ * </p>
+ * <p>
+ * 数据变更通过携带版本号的 redis 消息通知各节点更新快照，当发现版本号不连续（消息遗漏）时，丢弃所有快照重新加载。
+ * 加载期间收到的同语言变更消息会使本次加载失效并重新加载。
+ * </p>
+ *
+ * @author hccake
+ */
+@Slf4j
+public class PreloadI18nMessageProvider extends AbstractMessageEventListener<I18nDataChangedMessage>
+		implements I18nMessageProvider {
+
+	/**
+	 * 加载期间快照被连续失效时的最大重试次数，超过后本次加载结果只返回不缓存
+	 */
+	private static final int MAX_LOAD_ATTEMPTS = 3;
+
+	private final I18nDataService i18nDataService;
+
+	/**
+	 * 语言快照：languageTag -> (code -> I18nMessage)
+	 */
+	private final Map<String, Map<String, I18nMessage>> snapshots = new ConcurrentHashMap<>();
+
+	/**
+	 * 每个语言的变更次数，用于判断加载期间该语言是否发生过变更
+	 */
+	private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+	/**
+	 * 所有快照被丢弃的次数
+	 */
+	private final AtomicLong clearGeneration = new AtomicLong();
+
+	/**
+	 * 每个语言的加载锁，保证同一语言同时只有一个线程查询数据库
+	 */
+	private final Map<String, Object> loadLocks = new ConcurrentHashMap<>();
+
+	/**
+	 * 数据库中存在数据的语言标签，首次访问时加载，之后通过变更消息补充
+	 */
+	private volatile Set<String> languageTags;
+
+	/**
+	 * 已处理的最新变更版本号，小于 0 表示未知
+	 */
+	private volatile long version = -1;
+
+	public PreloadI18nMessageProvider(I18nDataService i18nDataService) {
+		this.i18nDataService = i18nDataService;
+	}
+
+	@Override
+	public I18nMessage getI18nMessage(String code, Locale locale) {
+		String languageTag = locale.toLanguageTag();
+		Map<String, I18nMessage> snapshot = snapshots.get(languageTag);
+		if (snapshot == null) {
+			if (!languageTags().contains(languageTag)) {
+				return null;
+			}
+			snapshot = loadSnapshot(languageTag);
+		}
+		return snapshot.get(code);
+	}
+
+	/**
+	 * 获取数据库中存在数据的语言标签，与处理变更消息使用同一把锁，避免加载期间新增的语言被遗漏
+	 * @return 语言标签集合
+	 */
+	private Set<String> languageTags() {
+		Set<String> tags = languageTags;
+		if (tags == null) {
+			synchronized (this) {
+				tags = languageTags;
+				if (tags == null) {
+					tags = ConcurrentHashMap.newKeySet();
+					tags.addAll(i18nDataService.listLanguageTags());
+					languageTags = tags;
+				}
+			}
+		}
+		return tags;
+	}
+
+	private AtomicLong generation(String languageTag) {
+		return generations.computeIfAbsent(languageTag, k -> new AtomicLong());
+	}
+
+	/**
+	 * 加载指定语言的所有国际化数据，数据库查询在锁外进行。
+	 * <p>
+	 * 查询前记录版本号和变更次数，写入快照时在处理消息的同一把锁下校验，若加载期间该语言收到过变更消息则重新加载，避免旧数据被永久缓存。
+	 * </p>
+	 * @param languageTag 语言标签
+	 * @return code -> I18nMessage
+	 */
+	private Map<String, I18nMessage> loadSnapshot(String languageTag) {
+		synchronized (loadLocks.computeIfAbsent(languageTag, k -> new Object())) {
+			Map<String, I18nMessage> existing = snapshots.get(languageTag);
+			if (existing != null) {
+				return existing;
+			}
+			for (int attempt = 1;; attempt++) {
+				long expectedClearGeneration = clearGeneration.get();
+				long expectedGeneration = generation(languageTag).get();
+				// 先记录版本号再查询，版本号不大于它的变更均已提交，一定包含在查询结果中
+				long loadVersion = currentVersion();
+				Map<String, I18nMessage> snapshot = querySnapshot(languageTag);
+				synchronized (this) {
+					if (clearGeneration.get() == expectedClearGeneration
+							&& generation(languageTag).get() == expectedGeneration) {
+						snapshots.put(languageTag, snapshot);
+						version = Math.max(version, loadVersion);
+						return snapshot;
+					}
+				}
+				if (attempt >= MAX_LOAD_ATTEMPTS) {
+					log.warn("[i18n] 语言 {} 加载期间持续发生变更，本次加载结果不缓存", languageTag);
+					return snapshot;
+				}
+			}
+		}
+	}
+
+	private Map<String, I18nMessage> querySnapshot(String languageTag) {
+		List<I18nData> list = i18nDataService.listByLanguageTag(languageTag);
+		Map<String, I18nMessage> snapshot = new ConcurrentHashMap<>(Math.max(16, list.size() * 4 / 3 + 1));
+		for (I18nData i18nData : list) {
+			snapshot.put(i18nData.getCode(), converterToI18nMessage(i18nData));
+		}
+		log.debug("[i18n] 已加载语言 {} 的国际化数据 {} 条", languageTag, list.size());
+		return snapshot;
+	}
+
+	private long currentVersion() {
+		String value = stringRedisTemplate.opsForValue().get(I18nRedisKeyConstants.I18N_DATA_VERSION);
+		return NumberUtil.isLong(value) ? Long.parseLong(value) : 0L;
+	}
+
+	/**
+	 * 转换 i18nData to I18nMessage
+	 * @param i18nData 数据库存储对象
+	 * @return I18nMessage
+	 */
+	private I18nMessage converterToI18nMessage(I18nData i18nData) {
+		I18nMessage i18nMessage = new I18nMessage();
+		i18nMessage.setMessage(i18nData.getMessage());
+		i18nMessage.setCode(i18nData.getCode());
+		i18nMessage.setLanguageTag(i18nData.getLanguageTag());
+		return i18nMessage;
+	}
+
+	@Override
+	protected synchronized void handleMessage(I18nDataChangedMessage message) {
+		Long messageVersion = message.getVersion();
+		if (messageVersion != null) {
+			long lastVersion = version;
+			if (lastVersion >= 0 && messageVersion > lastVersion + 1) {
+				// 版本号不连续，存在遗漏的变更消息，丢弃快照后按需重新加载
+				log.warn("[i18n] 国际化变更消息版本不连续，当前版本: {}, 消息版本: {}，重新加载所有语言", lastVersion, messageVersion);
+				version = messageVersion;
+				clearGeneration.incrementAndGet();
+				snapshots.clear();
+				languageTags = null;
+				return;
+			}
+			version = Math.max(lastVersion, messageVersion);
+		}
+
+		String languageTag = message.getLanguageTag();
+		Set<String> tags = languageTags;
+		if (tags != null) {
+			tags.add(languageTag);
+		}
+		// 正在加载该语言的线程会发现变更并重新加载
+		generation(languageTag).incrementAndGet();
+		Map<String, I18nMessage> snapshot = snapshots.get(languageTag);
+		if (snapshot == null) {
+			// 该语言尚未加载，无需处理
+			return;
+		}
+
+		String code = message.getCode();
+		I18nData i18nData = null;
+		for (I18nData data : i18nDataService.listByCode(code)) {
+			if (languageTag.equals(data.getLanguageTag())) {
+				i18nData = data;
+				break;
+			}
+		}
+		if (i18nData == null) {
+			snapshot.remove(code);
+		}
+		else {
+			snapshot.put(code, converterToI18nMessage(i18nData));
+		}
+	}
+
+	@Override
+	public Topic topic() {
+		return new ChannelTopic(I18nRedisKeyConstants.CHANNEL_I18N_DATA_UPDATED);
+	}
+
+}
@@ -39,6 +39,19 @@ public interface I18nDataService extends ExtendService<I18nData> {
 	 */
 	List<I18nData> listByCode(String code);
 
+	/**
+	 * 查询指定语言标签下的所有 i18nData 数据
+	 * @param languageTag 语言标签
+	 * @return list
+	 */
+	List<I18nData> listByLanguageTag(String languageTag);
+
+	/**
+	 * 查询所有存在数据的语言标签
+	 * @return 语言标签列表
+	 */
+	List<String> listLanguageTags();
+
 	/**
 	 * 根据 code 和 languageTag 查询指定的 I18nData
 	 * @param code 国际化标识
@@ -11,7 +11,7 @@ import com.hccake.ballcat.i18n.constant.I18nRedisKeyConstants;
 import com.hccake.ballcat.i18n.converter.I18nDataConverter;
 import com.hccake.ballcat.i18n.mapper.I18nDataMapper;
 import com.hccake.ballcat.i18n.model.dto.I18nDataDTO;
-import com.hccake.ballcat.i18n.model.dto.I18nDataUnique;
+import com.hccake.ballcat.i18n.model.dto.I18nDataChangedMessage;
 import com.hccake.ballcat.i18n.model.entity.I18nData;
 import com.hccake.ballcat.i18n.model.qo.I18nDataQO;
 import com.hccake.ballcat.i18n.model.vo.I18nDataPageVO;
@@ -23,6 +23,8 @@ import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Component;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -68,6 +70,16 @@ public class I18nDataServiceImpl extends ExtendServiceImpl<I18nDataMapper, I18nD
 		return baseMapper.listByCode(code);
 	}
 
+	@Override
+	public List<I18nData> listByLanguageTag(String languageTag) {
+		return baseMapper.listByLanguageTag(languageTag);
+	}
+
+	@Override
+	public List<String> listLanguageTags() {
+		return baseMapper.listLanguageTags();
+	}
+
 	/**
 	 * 根据 code 和 languageTag 查询指定的 I18nData
 	 * @param code 唯一标识
@@ -88,7 +100,11 @@ public class I18nDataServiceImpl extends ExtendServiceImpl<I18nDataMapper, I18nD
 	@CacheDel(key = I18nRedisKeyConstants.I18N_DATA_PREFIX, keyJoint = "#p0.code + ':' + #p0.languageTag")
 	@Override
 	public boolean save(I18nData entity) {
-		return SqlHelper.retBool(getBaseMapper().insert(entity));
+		boolean saveSuccess = SqlHelper.retBool(getBaseMapper().insert(entity));
+		if (saveSuccess) {
+			pushUpdateMessage(entity.getCode(), entity.getLanguageTag());
+		}
+		return saveSuccess;
 	}
 
 	/**
@@ -133,6 +149,10 @@ public class I18nDataServiceImpl extends ExtendServiceImpl<I18nDataMapper, I18nD
 		// 落库
 		if (CollUtil.isNotEmpty(list)) {
 			baseMapper.insertBatchSomeColumn(list);
+			// 新增数据也需要推送，以便清除内存中的空值缓存
+			for (I18nData i18nData : list) {
+				this.pushUpdateMessage(i18nData.getCode(), i18nData.getLanguageTag());
+			}
 		}
 		return existsI18nData;
 	}
@@ -165,6 +185,9 @@ public class I18nDataServiceImpl extends ExtendServiceImpl<I18nDataMapper, I18nD
 			String languageTag = i18nDataDTO.getLanguageTag();
 			this.pushUpdateMessage(code, languageTag);
 		}
+		for (I18nData i18nData : insertList) {
+			this.pushUpdateMessage(i18nData.getCode(), i18nData.getLanguageTag());
+		}
 	}
 
 	/**
@@ -177,16 +200,40 @@ public class I18nDataServiceImpl extends ExtendServiceImpl<I18nDataMapper, I18nD
 			keyJoint = "#p0.![#this.code + ':' + #this.languageTag]")
 	@Transactional(rollbackFor = Exception.class)
 	public boolean saveBatch(Collection<I18nData> list) {
-		return super.saveBatch(list);
+		boolean saveSuccess = super.saveBatch(list);
+		if (saveSuccess) {
+			for (I18nData i18nData : list) {
+				this.pushUpdateMessage(i18nData.getCode(), i18nData.getLanguageTag());
+			}
+		}
+		return saveSuccess;
 	}
 
 	/**
-	 * 通过 redis 推送 i18nData 变更消息
+	 * 通过 redis 推送 i18nData 变更消息，消息携带全局递增的版本号。
+	 * <p>
+	 * 存在事务时，在事务提交后推送，防止监听者读取到未提交的数据
+	 * </p>
 	 * @param code 国际化标识
 	 * @param languageTag 语言标签
 	 */
 	private void pushUpdateMessage(String code, String languageTag) {
-		I18nDataUnique channelBody = new I18nDataUnique(code, languageTag);
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					doPushUpdateMessage(code, languageTag);
+				}
+			});
+		}
+		else {
+			doPushUpdateMessage(code, languageTag);
+		}
+	}
+
+	private void doPushUpdateMessage(String code, String languageTag) {
+		Long version = stringRedisTemplate.opsForValue().increment(I18nRedisKeyConstants.I18N_DATA_VERSION);
+		I18nDataChangedMessage channelBody = new I18nDataChangedMessage(code, languageTag, version);
 		String str = JsonUtils.toJson(channelBody);
 		stringRedisTemplate.convertAndSend(I18nRedisKeyConstants.CHANNEL_I18N_DATA_UPDATED, str);
 	}
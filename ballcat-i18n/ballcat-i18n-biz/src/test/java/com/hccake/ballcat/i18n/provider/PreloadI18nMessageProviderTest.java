@@ -0,0 +1,135 @@
+package com.hccake.ballcat.i18n.provider;
+
+import com.hccake.ballcat.i18n.constant.I18nRedisKeyConstants;
+import com.hccake.ballcat.i18n.model.dto.I18nDataChangedMessage;
+import com.hccake.ballcat.i18n.model.entity.I18nData;
+import com.hccake.ballcat.i18n.service.I18nDataService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * @author hccake
+ */
+class PreloadI18nMessageProviderTest {
+
+	private static final String LANGUAGE_TAG = "zh-CN";
+
+	private final I18nDataService i18nDataService = Mockito.mock(I18nDataService.class);
+
+	private final ValueOperations<String, String> valueOperations = mockValueOperations();
+
+	private PreloadI18nMessageProvider provider;
+
+	@SuppressWarnings("unchecked")
+	private static ValueOperations<String, String> mockValueOperations() {
+		return Mockito.mock(ValueOperations.class);
+	}
+
+	@BeforeEach
+	void setUp() {
+		StringRedisTemplate stringRedisTemplate = Mockito.mock(StringRedisTemplate.class);
+		Mockito.when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+		Mockito.when(valueOperations.get(I18nRedisKeyConstants.I18N_DATA_VERSION)).thenReturn("5");
+		Mockito.when(i18nDataService.listLanguageTags()).thenReturn(Arrays.asList(LANGUAGE_TAG, "en-US"));
+		provider = new PreloadI18nMessageProvider(i18nDataService);
+		ReflectionTestUtils.setField(provider, "stringRedisTemplate", stringRedisTemplate);
+	}
+
+	private static List<I18nData> data(String message) {
+		I18nData i18nData = new I18nData();
+		i18nData.setCode("title");
+		i18nData.setLanguageTag(LANGUAGE_TAG);
+		i18nData.setMessage(message);
+		return Collections.singletonList(i18nData);
+	}
+
+	private String getMessage() {
+		return provider.getI18nMessage("title", Locale.forLanguageTag(LANGUAGE_TAG)).getMessage();
+	}
+
+	@Test
+	void messageDuringLoadTriggersReload() {
+		// 第一次加载读到旧数据，读取完成前收到了该语言的变更消息
+		Mockito.when(i18nDataService.listByLanguageTag(LANGUAGE_TAG)).thenAnswer(invocation -> {
+			provider.handleMessage(new I18nDataChangedMessage("title", LANGUAGE_TAG, 6L));
+			return data("旧标题");
+		}).thenReturn(data("新标题"));
+
+		Assertions.assertEquals("新标题", getMessage());
+		Mockito.verify(i18nDataService, Mockito.times(2)).listByLanguageTag(LANGUAGE_TAG);
+
+		// 之后命中快照，不再查询
+		Assertions.assertEquals("新标题", getMessage());
+		Mockito.verify(i18nDataService, Mockito.times(2)).listByLanguageTag(LANGUAGE_TAG);
+	}
+
+	@Test
+	void sequentialMessagePatchesSnapshot() {
+		Mockito.when(i18nDataService.listByLanguageTag(LANGUAGE_TAG)).thenReturn(data("旧标题"));
+		Assertions.assertEquals("旧标题", getMessage());
+
+		Mockito.when(i18nDataService.listByCode("title")).thenReturn(data("新标题"));
+		provider.handleMessage(new I18nDataChangedMessage("title", LANGUAGE_TAG, 6L));
+
+		Assertions.assertEquals("新标题", getMessage());
+		Mockito.verify(i18nDataService, Mockito.times(1)).listByLanguageTag(LANGUAGE_TAG);
+	}
+
+	@Test
+	void versionGapReloadsAllLanguages() {
+		Mockito.when(i18nDataService.listByLanguageTag(LANGUAGE_TAG)).thenReturn(data("旧标题"), data("新标题"));
+		Assertions.assertEquals("旧标题", getMessage());
+
+		// 加载时的版本为 5，版本 6 的消息遗漏
+		provider.handleMessage(new I18nDataChangedMessage("other", "en-US", 7L));
+
+		Assertions.assertEquals("新标题", getMessage());
+		Mockito.verify(i18nDataService, Mockito.times(2)).listByLanguageTag(LANGUAGE_TAG);
+		Mockito.verify(i18nDataService, Mockito.never()).listByCode(Mockito.anyString());
+	}
+
+	@Test
+	void versionRecordedOnEveryLoad() {
+		Mockito.when(i18nDataService.listByLanguageTag(Mockito.anyString())).thenReturn(Collections.emptyList());
+		provider.getI18nMessage("title", Locale.forLanguageTag(LANGUAGE_TAG));
+
+		// 版本 5 -> 10 期间的变更已包含在第二个语言的加载结果中
+		Mockito.when(valueOperations.get(I18nRedisKeyConstants.I18N_DATA_VERSION)).thenReturn("10");
+		provider.getI18nMessage("title", Locale.forLanguageTag("en-US"));
+		Assertions.assertEquals(10L, ReflectionTestUtils.getField(provider, "version"));
+
+		// 版本 11 是连续的，不会丢弃快照
+		provider.handleMessage(new I18nDataChangedMessage("other", "en-US", 11L));
+		provider.getI18nMessage("title", Locale.forLanguageTag(LANGUAGE_TAG));
+		Mockito.verify(i18nDataService, Mockito.times(1)).listByLanguageTag(LANGUAGE_TAG);
+	}
+
+	@Test
+	void unknownLanguageNotLoaded() {
+		for (int i = 0; i < 100; i++) {
+			Assertions.assertNull(provider.getI18nMessage("title", Locale.forLanguageTag("x-attack-" + i)));
+		}
+		Mockito.verify(i18nDataService, Mockito.times(1)).listLanguageTags();
+		Mockito.verify(i18nDataService, Mockito.never()).listByLanguageTag(Mockito.anyString());
+		Assertions.assertEquals(0, ((Map<?, ?>) ReflectionTestUtils.getField(provider, "snapshots")).size());
+		Assertions.assertEquals(0, ((Map<?, ?>) ReflectionTestUtils.getField(provider, "loadLocks")).size());
+
+		// 新增语言的数据后，通过变更消息即可加载
+		Mockito.when(i18nDataService.listByLanguageTag("ja-JP")).thenReturn(Collections.emptyList());
+		provider.handleMessage(new I18nDataChangedMessage("title", "ja-JP", 6L));
+		provider.getI18nMessage("title", Locale.forLanguageTag("ja-JP"));
+		Mockito.verify(i18nDataService, Mockito.times(1)).listByLanguageTag("ja-JP");
+	}
+
+}
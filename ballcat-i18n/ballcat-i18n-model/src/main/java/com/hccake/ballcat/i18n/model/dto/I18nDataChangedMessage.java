@@ -0,0 +1,28 @@
+package com.hccake.ballcat.i18n.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 国际化信息变更消息，携带全局递增的版本号，用于各节点发现遗漏的变更
+ *
+ * @author hccake
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(title = "国际化信息变更消息")
+public class I18nDataChangedMessage {
+
+	@Schema(title = "国际化标识")
+	private String code;
+
+	@Schema(title = "语言标签")
+	private String languageTag;
+
+	@Schema(title = "变更版本号")
+	private Long version;
+
+}
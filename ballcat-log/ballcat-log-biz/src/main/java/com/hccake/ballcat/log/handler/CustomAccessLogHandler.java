@@ -35,6 +35,21 @@ public class CustomAccessLogHandler implements AccessLogHandler<AccessLog> {
 
 	private static final String APPLICATION_JSON = "application/json";
 
+	/**
+	 * 没有请求参数时记录的值
+	 */
+	private static final String EMPTY_PARAMS = "{}";
+
+	/**
+	 * 单个参数值最多记录的字符数
+	 */
+	private static final int MAX_PARAM_VALUE_LENGTH = 1024;
+
+	/**
+	 * 参数值截断标记
+	 */
+	private static final String TRUNCATED_MARKER = "...[truncated, %d chars in total]";
+
 	private final AccessLogSaveThread accessLogSaveThread;
 
 	public CustomAccessLogHandler(AccessLogSaveThread accessLogSaveThread) {
@@ -105,22 +120,32 @@ public class CustomAccessLogHandler implements AccessLogHandler<AccessLog> {
 
 	/**
 	 * 获取参数信息
+	 * <p>
+	 * 没有参数时直接返回空对象；只有存在需要脱敏或者超长的参数时才复制参数 map，超长的参数值会被截断
+	 * </p>
 	 * @param request 请求信息
 	 * @return 请求参数
 	 */
 	public String getParams(HttpServletRequest request) {
 		String params;
 		try {
-			Map<String, String[]> parameterMap = new HashMap<>(request.getParameterMap());
-			for (String paramKey : needDesensitizeParams) {
-				String[] values = parameterMap.get(paramKey);
-				if (values != null && values.length != 0) {
-					String value = DesensitizationHandlerHolder.getRegexDesensitizationHandler()
-						.handle(values[0], RegexDesensitizationTypeEnum.ENCRYPTED_PASSWORD);
-					parameterMap.put(paramKey, new String[] { value });
+			Map<String, String[]> parameterMap = request.getParameterMap();
+			if (parameterMap.isEmpty()) {
+				return EMPTY_PARAMS;
+			}
+			Map<String, String[]> recordMap = parameterMap;
+			for (Map.Entry<String, String[]> entry : parameterMap.entrySet()) {
+				String[] values = entry.getValue();
+				String[] recordValues = needDesensitizeParams.contains(entry.getKey()) ? desensitize(values)
+						: truncate(values);
+				if (recordValues != values) {
+					if (recordMap == parameterMap) {
+						recordMap = new HashMap<>(parameterMap);
+					}
+					recordMap.put(entry.getKey(), recordValues);
 				}
 			}
-			params = JsonUtils.toJson(parameterMap);
+			params = JsonUtils.toJson(recordMap);
 		}
 		catch (Exception e) {
 			params = "记录参数异常";
@@ -129,6 +154,38 @@ public class CustomAccessLogHandler implements AccessLogHandler<AccessLog> {
 		return params;
 	}
 
+	private static String[] desensitize(String[] values) {
+		if (values == null || values.length == 0) {
+			return values;
+		}
+		String value = DesensitizationHandlerHolder.getRegexDesensitizationHandler()
+			.handle(values[0], RegexDesensitizationTypeEnum.ENCRYPTED_PASSWORD);
+		return new String[] { value };
+	}
+
+	/**
+	 * 截断超长的参数值
+	 * @param values 参数值
+	 * @return 没有超长的参数值时返回原数组
+	 */
+	private static String[] truncate(String[] values) {
+		if (values == null) {
+			return null;
+		}
+		String[] result = values;
+		for (int i = 0; i < values.length; i++) {
+			String value = values[i];
+			if (value != null && value.length() > MAX_PARAM_VALUE_LENGTH) {
+				if (result == values) {
+					result = values.clone();
+				}
+				result[i] = value.substring(0, MAX_PARAM_VALUE_LENGTH)
+						+ String.format(TRUNCATED_MARKER, value.length());
+			}
+		}
+		return result;
+	}
+
 	/**
 	 * 记录日志
 	 * @param accessLog 访问日志
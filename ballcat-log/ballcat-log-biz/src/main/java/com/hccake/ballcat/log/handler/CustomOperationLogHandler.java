@@ -11,9 +11,10 @@ import com.hccake.ballcat.common.util.IpUtils;
 import com.hccake.ballcat.common.util.JsonUtils;
 import com.hccake.ballcat.log.model.entity.OperationLog;
 import com.hccake.ballcat.log.service.OperationLogService;
-import lombok.RequiredArgsConstructor;
+import com.hccake.ballcat.log.thread.OperationLogSaveThread;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.slf4j.MDC;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.http.HttpHeaders;
 
 import javax.servlet.http.HttpServletRequest;
@@ -25,10 +26,49 @@ import java.util.Optional;
  * @version 1.0
  * @date 2020/5/25 20:38
  */
-@RequiredArgsConstructor
-public class CustomOperationLogHandler extends AbstractOperationLogHandler<OperationLog> {
+public class CustomOperationLogHandler extends AbstractOperationLogHandler<OperationLog> implements DisposableBean {
 
-	private final OperationLogService operationLogService;
+	private final OperationLogSaveThread operationLogSaveThread;
+
+	/**
+	 * 存储线程是否由当前处理器创建，是则由当前处理器负责关闭
+	 */
+	private final boolean ownsSaveThread;
+
+	/**
+	 * @param operationLogService 操作日志Service
+	 * @deprecated 存储线程由处理器自行创建，只能随处理器的销毁而关闭，请将 {@link OperationLogSaveThread} 注册为 bean 后使用
+	 * {@link #CustomOperationLogHandler(OperationLogSaveThread)}
+	 */
+	@Deprecated
+	public CustomOperationLogHandler(OperationLogService operationLogService) {
+		this(new OperationLogSaveThread(operationLogService), true);
+	}
+
+	/**
+	 * @param operationLogSaveThread 操作日志存储线程，由调用方负责关闭
+	 */
+	public CustomOperationLogHandler(OperationLogSaveThread operationLogSaveThread) {
+		this(operationLogSaveThread, false);
+	}
+
+	private CustomOperationLogHandler(OperationLogSaveThread operationLogSaveThread, boolean ownsSaveThread) {
+		if (!operationLogSaveThread.isAlive()) {
+			operationLogSaveThread.start();
+		}
+		this.operationLogSaveThread = operationLogSaveThread;
+		this.ownsSaveThread = ownsSaveThread;
+	}
+
+	/**
+	 * 关闭由当前处理器创建的存储线程，将剩余日志入库
+	 */
+	@Override
+	public void destroy() {
+		if (ownsSaveThread) {
+			operationLogSaveThread.onApplicationStop();
+		}
+	}
 
 	@Override
 	public OperationLog buildLog(OperationLogging operationLogging, ProceedingJoinPoint joinPoint) {
@@ -75,8 +115,8 @@ public class CustomOperationLogHandler extends AbstractOperationLogHandler<Opera
 
 	@Override
 	public void handleLog(OperationLog operationLog) {
-		// 异步保存
-		operationLogService.saveAsync(operationLog);
+		// 放入队列，异步批量保存
+		operationLogSaveThread.put(operationLog);
 	}
 
 }
@@ -1,7 +1,6 @@
 package com.hccake.ballcat.log.handler;
 
 import cn.hutool.http.useragent.UserAgent;
-import cn.hutool.http.useragent.UserAgentUtil;
 import com.hccake.ballcat.common.core.util.WebUtils;
 import com.hccake.ballcat.common.log.constant.LogConstant;
 import com.hccake.ballcat.common.log.operation.enums.LogStatusEnum;
@@ -34,7 +33,7 @@ public final class LoginLogUtils {
 			.setTraceId(MDC.get(LogConstant.TRACE_ID))
 			.setUsername(username);
 		// 根据 ua 获取浏览器和操作系统
-		UserAgent ua = UserAgentUtil.parse(request.getHeader("user-agent"));
+		UserAgent ua = UserAgentParser.parse(request.getHeader("user-agent"));
 		if (ua != null) {
 			loginLog.setBrowser(ua.getBrowser().getName()).setOs(ua.getOs().getName());
 		}
@@ -0,0 +1,90 @@
+package com.hccake.ballcat.log.handler;
+
+import cn.hutool.core.text.CharSequenceUtil;
+import cn.hutool.http.useragent.UserAgent;
+import cn.hutool.http.useragent.UserAgentUtil;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 带 LRU 缓存的 user-agent 解析器
+ * <p>
+ * hutool 的 user-agent 解析需要逐个执行大量正则，而实际访问的 user-agent 种类很少，缓存解析结果可以避免重复解析。
+ * </p>
+ *
+ * @author hccake
+ */
+public final class UserAgentParser {
+
+	/**
+	 * 缓存的最大数量
+	 */
+	static final int MAX_CACHE_SIZE = 1024;
+
+	/**
+	 * 超过该长度的 user-agent 不缓存，防止构造的超长 user-agent 占用缓存
+	 */
+	private static final int MAX_CACHEABLE_LENGTH = 512;
+
+	private static final Map<String, UserAgent> CACHE = new LinkedHashMap<String, UserAgent>(MAX_CACHE_SIZE, 0.75f,
+			true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, UserAgent> eldest) {
+			return size() > MAX_CACHE_SIZE;
+		}
+	};
+
+	private UserAgentParser() {
+	}
+
+	/**
+	 * 解析 user-agent，优先从缓存中获取。返回的对象为共享实例，请勿修改
+	 * @param userAgentString user-agent 字符串
+	 * @return UserAgent，user-agent 为空时返回 null
+	 */
+	public static UserAgent parse(String userAgentString) {
+		if (CharSequenceUtil.isBlank(userAgentString)) {
+			return null;
+		}
+		if (userAgentString.length() > MAX_CACHEABLE_LENGTH) {
+			return UserAgentUtil.parse(userAgentString);
+		}
+
+		UserAgent userAgent;
+		synchronized (CACHE) {
+			userAgent = CACHE.get(userAgentString);
+		}
+		if (userAgent != null) {
+			return userAgent;
+		}
+
+		userAgent = UserAgentUtil.parse(userAgentString);
+		if (userAgent != null) {
+			synchronized (CACHE) {
+				CACHE.put(userAgentString, userAgent);
+			}
+		}
+		return userAgent;
+	}
+
+	/**
+	 * 当前缓存数量
+	 * @return int
+	 */
+	public static int getCacheSize() {
+		synchronized (CACHE) {
+			return CACHE.size();
+		}
+	}
+
+	/**
+	 * 清空缓存
+	 */
+	public static void clear() {
+		synchronized (CACHE) {
+			CACHE.clear();
+		}
+	}
+
+}
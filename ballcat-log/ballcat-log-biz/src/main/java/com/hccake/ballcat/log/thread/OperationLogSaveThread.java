@@ -0,0 +1,193 @@
+package com.hccake.ballcat.log.thread;
+
+import com.hccake.ballcat.common.core.thread.AbstractQueueThread;
+import com.hccake.ballcat.log.model.entity.OperationLog;
+import com.hccake.ballcat.log.service.OperationLogService;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 操作日志批量存储线程
+ * <p>
+ * 操作日志先进入有界队列，达到批量数量或等待超时后通过一条多行 insert 语句批量入库。 队列已满时由调用线程直接入库，避免日志丢失；
+ * 应用关闭时会将队列中剩余的日志全部入库。
+ * </p>
+ *
+ * @author hccake
+ */
+@Slf4j
+public class OperationLogSaveThread extends AbstractQueueThread<OperationLog> {
+
+	/**
+	 * 默认队列容量
+	 */
+	public static final int DEFAULT_QUEUE_CAPACITY = 10000;
+
+	/**
+	 * 批量入库的最大数量
+	 */
+	private static final int BATCH_SIZE = 200;
+
+	/**
+	 * 已有数据时的最长等待时长，单位毫秒
+	 */
+	private static final long BATCH_TIMEOUT_MS = 3 * 1000L;
+
+	/**
+	 * 获取数据时的超时时间，单位毫秒
+	 */
+	private static final long POLL_TIMEOUT_MS = 1000L;
+
+	/**
+	 * 应用关闭时等待剩余日志入库的最长时间，单位毫秒
+	 */
+	private static final long SHUTDOWN_TIMEOUT_MS = 10 * 1000L;
+
+	private final OperationLogService operationLogService;
+
+	private final BlockingQueue<OperationLog> queue;
+
+	/**
+	 * 保证入队和关闭时的清空队列互斥，关闭后不再入队
+	 */
+	private final Object queueLock = new Object();
+
+	/**
+	 * 是否已清空队列，由 queueLock 保护
+	 */
+	private boolean stopped;
+
+	private final AtomicBoolean stopRequested = new AtomicBoolean();
+
+	public OperationLogSaveThread(OperationLogService operationLogService) {
+		this(operationLogService, DEFAULT_QUEUE_CAPACITY);
+	}
+
+	public OperationLogSaveThread(OperationLogService operationLogService, int queueCapacity) {
+		this.operationLogService = operationLogService;
+		this.queue = new ArrayBlockingQueue<>(queueCapacity);
+		setName(getClass().getSimpleName());
+	}
+
+	@Override
+	public int getBatchSize() {
+		return BATCH_SIZE;
+	}
+
+	@Override
+	public long getBatchTimeout() {
+		return BATCH_TIMEOUT_MS;
+	}
+
+	@Override
+	public long getPollTimeout() {
+		return POLL_TIMEOUT_MS;
+	}
+
+	/**
+	 * 线程启动时的日志打印
+	 */
+	@Override
+	public void init() {
+		log.info("操作日志存储线程已启动===");
+	}
+
+	/**
+	 * 放入队列，队列已满或者线程已停止时直接入库
+	 * @param operationLog 操作日志
+	 */
+	@Override
+	public void put(OperationLog operationLog) {
+		if (operationLog == null) {
+			return;
+		}
+		synchronized (queueLock) {
+			if (!stopped && isAlive() && queue.offer(operationLog)) {
+				return;
+			}
+		}
+		try {
+			operationLogService.save(operationLog);
+		}
+		catch (Exception e) {
+			log.error("操作日志记录异常, [msg]:{}, [data]:{}", e.getMessage(), operationLog);
+		}
+	}
+
+	@Override
+	protected OperationLog poll(long time) throws InterruptedException {
+		return queue.poll(time, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * 错误日志打印
+	 * @param e 错误堆栈
+	 * @param list 操作日志列表
+	 */
+	@Override
+	public void error(Throwable e, List<OperationLog> list) {
+		log.error("操作日志记录异常, [msg]:{}, [data]:{}", e.getMessage(), list);
+	}
+
+	/**
+	 * 数据保存，一批数据只执行一条 insert 语句
+	 * @param list 操作日志列表
+	 */
+	@Override
+	public void process(List<OperationLog> list) throws Exception {
+		if (!list.isEmpty()) {
+			operationLogService.saveBatchSomeColumn(list, BATCH_SIZE);
+		}
+	}
+
+	/**
+	 * 线程关闭时，将当前批次和队列中剩余的日志全部入库
+	 * @param list 当前数据
+	 */
+	@Override
+	protected void shutdown(List<OperationLog> list) {
+		List<OperationLog> remaining = new ArrayList<>(list);
+		synchronized (queueLock) {
+			stopped = true;
+			queue.drainTo(remaining);
+		}
+		log.info("操作日志存储线程关闭，剩余 {} 条日志入库", remaining.size());
+		// 清除中断标记，避免获取数据库连接时因线程中断而失败
+		boolean interrupted = Thread.interrupted();
+		try {
+			process(remaining);
+		}
+		catch (Exception e) {
+			error(e, remaining);
+		}
+		finally {
+			if (interrupted) {
+				interrupt();
+			}
+		}
+	}
+
+	/**
+	 * 中断线程并等待剩余日志入库，重复调用时直接返回，避免再次中断正在入库的线程
+	 */
+	@Override
+	public void onApplicationStop() {
+		if (!stopRequested.compareAndSet(false, true)) {
+			return;
+		}
+		super.onApplicationStop();
+		try {
+			join(SHUTDOWN_TIMEOUT_MS);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
@@ -0,0 +1,65 @@
+package com.hccake.ballcat.log.handler;
+
+import cn.hutool.http.useragent.UserAgent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author hccake
+ */
+class UserAgentParserTest {
+
+	private static final String CHROME = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 "
+			+ "(KHTML, like Gecko) Chrome/114.0.0.0 Safari/537.36";
+
+	@AfterEach
+	void after() {
+		UserAgentParser.clear();
+	}
+
+	private static String userAgent(int i) {
+		return CHROME + " client/" + i;
+	}
+
+	@Test
+	void cacheHit() {
+		UserAgent userAgent = UserAgentParser.parse(CHROME);
+		Assertions.assertNotNull(userAgent);
+		Assertions.assertEquals("Chrome", userAgent.getBrowser().getName());
+		// 命中缓存时返回同一实例
+		Assertions.assertSame(userAgent, UserAgentParser.parse(CHROME));
+		Assertions.assertEquals(1, UserAgentParser.getCacheSize());
+	}
+
+	@Test
+	void blankOrOversizedNotCached() {
+		Assertions.assertNull(UserAgentParser.parse(" "));
+		StringBuilder oversized = new StringBuilder(CHROME);
+		while (oversized.length() <= 512) {
+			oversized.append(" padding");
+		}
+		UserAgent userAgent = UserAgentParser.parse(oversized.toString());
+		Assertions.assertNotSame(userAgent, UserAgentParser.parse(oversized.toString()));
+		Assertions.assertEquals(0, UserAgentParser.getCacheSize());
+	}
+
+	@Test
+	void leastRecentlyUsedEvicted() {
+		UserAgent first = UserAgentParser.parse(userAgent(0));
+		UserAgent second = UserAgentParser.parse(userAgent(1));
+		for (int i = 2; i < UserAgentParser.MAX_CACHE_SIZE; i++) {
+			UserAgentParser.parse(userAgent(i));
+			// 持续访问第一个，使其保持为最近使用
+			Assertions.assertSame(first, UserAgentParser.parse(userAgent(0)));
+		}
+		Assertions.assertEquals(UserAgentParser.MAX_CACHE_SIZE, UserAgentParser.getCacheSize());
+
+		// 超出容量后淘汰最久未使用的第二个
+		UserAgentParser.parse(userAgent(UserAgentParser.MAX_CACHE_SIZE));
+		Assertions.assertEquals(UserAgentParser.MAX_CACHE_SIZE, UserAgentParser.getCacheSize());
+		Assertions.assertSame(first, UserAgentParser.parse(userAgent(0)));
+		Assertions.assertNotSame(second, UserAgentParser.parse(userAgent(1)));
+	}
+
+}
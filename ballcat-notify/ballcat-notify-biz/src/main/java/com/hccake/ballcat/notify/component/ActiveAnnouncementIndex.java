@@ -0,0 +1,119 @@
+package com.hccake.ballcat.notify.component;
+
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.hccake.ballcat.common.core.constant.enums.BooleanEnum;
+import com.hccake.ballcat.common.redis.listener.AbstractMessageEventListener;
+import com.hccake.ballcat.common.util.JsonUtils;
+import com.hccake.ballcat.common.util.concurrent.VersionedSnapshot;
+import com.hccake.ballcat.notify.enums.AnnouncementStatusEnum;
+import com.hccake.ballcat.notify.event.AnnouncementCloseEvent;
+import com.hccake.ballcat.notify.event.NotifyPublishEvent;
+import com.hccake.ballcat.notify.mapper.AnnouncementMapper;
+import com.hccake.ballcat.notify.model.domain.AnnouncementNotifyInfo;
+import com.hccake.ballcat.notify.model.entity.Announcement;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.Topic;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 发布中公告的内存索引
+ * <p>
+ * 公告采用读时扩散：公告的接收者筛选规则只保存一份，用户获取公告时从索引中取出所有发布中的公告，在内存中按用户属性过滤。
+ * 公告发布、关闭或删除时失效本地索引，并通过 redis 广播至其他节点。索引由 {@link VersionedSnapshot} 持有，
+ * 失效后由一个线程重建，重建期间其他请求继续使用旧索引，避免失效瞬间的并发请求同时查询数据库。
+ * </p>
+ *
+ * @author hccake
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ActiveAnnouncementIndex extends AbstractMessageEventListener<Long> {
+
+	/**
+	 * 公告变更通知的 redis channel
+	 */
+	public static final String CHANNEL_ANNOUNCEMENT_CHANGED = "channel:notify-announcement-changed";
+
+	private final AnnouncementMapper announcementMapper;
+
+	private final VersionedSnapshot<List<Announcement>> announcements = new VersionedSnapshot<>(this::load);
+
+	/**
+	 * 获取所有发布中且未过期的公告
+	 * @return 公告列表
+	 */
+	public List<Announcement> listActive() {
+		List<Announcement> list = announcements.get();
+		LocalDateTime now = LocalDateTime.now();
+		List<Announcement> result = new ArrayList<>(list.size());
+		for (Announcement announcement : list) {
+			if (!isExpired(announcement, now)) {
+				result.add(announcement);
+			}
+		}
+		return result;
+	}
+
+	private List<Announcement> load() {
+		List<Announcement> list = announcementMapper.selectList(Wrappers.lambdaQuery(Announcement.class)
+			.eq(Announcement::getStatus, AnnouncementStatusEnum.ENABLED.getValue()));
+		return Collections.unmodifiableList(list);
+	}
+
+	private static boolean isExpired(Announcement announcement, LocalDateTime now) {
+		if (BooleanEnum.TRUE.intValue().equals(announcement.getImmortal())) {
+			return false;
+		}
+		return announcement.getDeadline() != null && !announcement.getDeadline().isAfter(now);
+	}
+
+	/**
+	 * 公告发布事件，事务提交后失效索引
+	 * @param event 通知发布事件
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onNotifyPublishEvent(NotifyPublishEvent event) {
+		if (event.getNotifyInfo() instanceof AnnouncementNotifyInfo) {
+			evictAndBroadcast(((AnnouncementNotifyInfo) event.getNotifyInfo()).getId());
+		}
+	}
+
+	/**
+	 * 公告关闭或删除事件
+	 * @param event 公告关闭事件
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onAnnouncementCloseEvent(AnnouncementCloseEvent event) {
+		evictAndBroadcast(event.getId());
+	}
+
+	private void evictAndBroadcast(Long announcementId) {
+		evict(announcementId);
+		stringRedisTemplate.convertAndSend(CHANNEL_ANNOUNCEMENT_CHANGED, JsonUtils.toJson(announcementId));
+	}
+
+	@Override
+	protected void handleMessage(Long announcementId) {
+		evict(announcementId);
+	}
+
+	private void evict(Long announcementId) {
+		announcements.invalidate();
+		log.debug("[ActiveAnnouncementIndex] 公告 [{}] 变更，公告索引已失效", announcementId);
+	}
+
+	@Override
+	public Topic topic() {
+		return new ChannelTopic(CHANNEL_ANNOUNCEMENT_CHANGED);
+	}
+
+}
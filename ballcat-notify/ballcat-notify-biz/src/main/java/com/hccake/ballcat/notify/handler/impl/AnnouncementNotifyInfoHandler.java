@@ -2,13 +2,9 @@ package com.hccake.ballcat.notify.handler.impl;
 
 import com.hccake.ballcat.notify.handler.AbstractNotifyInfoHandler;
 import com.hccake.ballcat.notify.model.domain.AnnouncementNotifyInfo;
-import com.hccake.ballcat.notify.model.entity.UserAnnouncement;
-import com.hccake.ballcat.notify.service.UserAnnouncementService;
 import com.hccake.ballcat.system.model.entity.SysUser;
-import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -17,23 +13,17 @@ import java.util.List;
  * @author huyuanzhi
  */
 @Component
-@RequiredArgsConstructor
 public class AnnouncementNotifyInfoHandler
 		extends AbstractNotifyInfoHandler<AnnouncementNotifyInfo, AnnouncementPushMessage> {
 
-	private final UserAnnouncementService userAnnouncementService;
-
+	/**
+	 * 公告采用读时扩散，目标用户在查询时根据公告的接收条件实时匹配，用户公告仅在已读时写入，这里无需持久化
+	 * @param userList 推送用户列表
+	 * @param announcementNotifyInfo 公告通知信息
+	 */
 	@Override
 	protected void persistMessage(List<SysUser> userList, AnnouncementNotifyInfo announcementNotifyInfo) {
-		List<UserAnnouncement> userAnnouncements = new ArrayList<>(userList.size());
-		// 向指定用户推送
-		for (SysUser sysUser : userList) {
-			Integer userId = sysUser.getUserId();
-			UserAnnouncement userAnnouncement = userAnnouncementService.prodUserAnnouncement(userId,
-					announcementNotifyInfo.getId());
-			userAnnouncements.add(userAnnouncement);
-		}
-		userAnnouncementService.saveBatch(userAnnouncements);
+		// do nothing
 	}
 
 	@Override
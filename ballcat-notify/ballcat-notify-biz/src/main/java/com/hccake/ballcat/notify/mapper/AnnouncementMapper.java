@@ -17,8 +17,6 @@ import com.hccake.extend.mybatis.plus.mapper.ExtendMapper;
 import com.hccake.extend.mybatis.plus.toolkit.WrappersX;
 import org.apache.ibatis.annotations.Param;
 
-import java.util.List;
-
 /**
  * 公告信息
  *
@@ -65,12 +63,4 @@ public interface AnnouncementMapper extends ExtendMapper<Announcement> {
 		return SqlHelper.retBool(flag);
 	}
 
-	/**
-	 * 根据参数获取当前用户拉取过，或者未拉取过的有效的公告信息
-	 * @param userId 用户ID
-	 * @param pulled 当前用户是否拉取过
-	 * @return 公告信息列表
-	 */
-	List<Announcement> listUserAnnouncements(@Param("userId") Integer userId, @Param("pulled") boolean pulled);
-
 }
\ No newline at end of file
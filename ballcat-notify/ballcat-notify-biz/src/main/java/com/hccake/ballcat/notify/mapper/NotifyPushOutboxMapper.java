@@ -0,0 +1,80 @@
+package com.hccake.ballcat.notify.mapper;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.baomidou.mybatisplus.extension.toolkit.SqlHelper;
+import com.hccake.ballcat.notify.model.entity.NotifyPushOutbox;
+import com.hccake.extend.mybatis.plus.mapper.ExtendMapper;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 通知推送失败重试表
+ *
+ * @author hccake
+ */
+public interface NotifyPushOutboxMapper extends ExtendMapper<NotifyPushOutbox> {
+
+	/**
+	 * 查询已到重试时间且未超出最大重试次数的记录
+	 * @param now 当前时间
+	 * @param maxRetries 最大重试次数
+	 * @param limit 最大记录数
+	 * @return 待重试记录
+	 */
+	default List<NotifyPushOutbox> listDue(LocalDateTime now, int maxRetries, int limit) {
+		LambdaQueryWrapper<NotifyPushOutbox> wrapper = Wrappers.lambdaQuery(NotifyPushOutbox.class)
+			.le(NotifyPushOutbox::getNextRetryTime, now)
+			.lt(NotifyPushOutbox::getRetryCount, maxRetries)
+			.orderByAsc(NotifyPushOutbox::getNextRetryTime)
+			.last("limit " + limit);
+		return this.selectList(wrapper);
+	}
+
+	/**
+	 * 领取一条重试记录，重试次数未被其他节点修改时才能领取成功，同时推迟下次重试时间作为租约
+	 * @param id 记录ID
+	 * @param retryCount 查询时的重试次数
+	 * @param nextRetryTime 下次重试时间
+	 * @return 是否领取成功
+	 */
+	default boolean claim(Long id, Integer retryCount, LocalDateTime nextRetryTime) {
+		LambdaUpdateWrapper<NotifyPushOutbox> wrapper = Wrappers.lambdaUpdate(NotifyPushOutbox.class)
+			.set(NotifyPushOutbox::getRetryCount, retryCount + 1)
+			.set(NotifyPushOutbox::getNextRetryTime, nextRetryTime)
+			.set(NotifyPushOutbox::getUpdateTime, LocalDateTime.now())
+			.eq(NotifyPushOutbox::getId, id)
+			.eq(NotifyPushOutbox::getRetryCount, retryCount);
+		return SqlHelper.retBool(this.update(null, wrapper));
+	}
+
+	/**
+	 * 记录最近一次失败原因
+	 * @param id 记录ID
+	 * @param lastError 失败原因
+	 */
+	default void updateLastError(Long id, String lastError) {
+		LambdaUpdateWrapper<NotifyPushOutbox> wrapper = Wrappers.lambdaUpdate(NotifyPushOutbox.class)
+			.set(NotifyPushOutbox::getLastError, lastError)
+			.set(NotifyPushOutbox::getUpdateTime, LocalDateTime.now())
+			.eq(NotifyPushOutbox::getId, id);
+		this.update(null, wrapper);
+	}
+
+	/**
+	 * 清空下次重试时间并记录失败原因，记录不再被 {@link #listDue} 查询到
+	 * @param id 记录ID
+	 * @param lastError 失败原因
+	 */
+	default void suspend(Long id, String lastError) {
+		LambdaUpdateWrapper<NotifyPushOutbox> wrapper = Wrappers.lambdaUpdate(NotifyPushOutbox.class)
+			.set(NotifyPushOutbox::getNextRetryTime, null)
+			.set(NotifyPushOutbox::getLastError, lastError)
+			.set(NotifyPushOutbox::getUpdateTime, LocalDateTime.now())
+			.eq(NotifyPushOutbox::getId, id);
+		this.update(null, wrapper);
+	}
+
+}
@@ -3,6 +3,7 @@ package com.hccake.ballcat.notify.mapper;
 import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.baomidou.mybatisplus.extension.toolkit.SqlHelper;
 import com.hccake.ballcat.notify.enums.UserAnnouncementStateEnum;
 import com.hccake.ballcat.notify.converter.UserAnnouncementConverter;
 import com.hccake.ballcat.notify.model.entity.UserAnnouncement;
@@ -32,7 +33,9 @@ public interface UserAnnouncementMapper extends ExtendMapper<UserAnnouncement> {
 	default PageResult<UserAnnouncementPageVO> queryPage(PageParam pageParam, UserAnnouncementQO qo) {
 		IPage<UserAnnouncement> page = this.prodPage(pageParam);
 		LambdaQueryWrapperX<UserAnnouncement> wrapperX = WrappersX.lambdaAliasQueryX(UserAnnouncement.class)
-			.eqIfPresent(UserAnnouncement::getId, qo.getId());
+			.eqIfPresent(UserAnnouncement::getId, qo.getId())
+			.eqIfPresent(UserAnnouncement::getAnnouncementId, qo.getAnnouncementId())
+			.eqIfPresent(UserAnnouncement::getUserId, qo.getUserId());
 		this.selectPage(page, wrapperX);
 		IPage<UserAnnouncementPageVO> voPage = page.convert(UserAnnouncementConverter.INSTANCE::poToPageVo);
 		return new PageResult<>(voPage.getRecords(), voPage.getTotal());
@@ -42,14 +45,15 @@ public interface UserAnnouncementMapper extends ExtendMapper<UserAnnouncement> {
 	 * 更新用户公共信息至已读状态
 	 * @param userId 用户ID
 	 * @param announcementId 公告ID
+	 * @return 是否存在对应的用户公告
 	 */
-	default void updateToReadState(Integer userId, Long announcementId) {
+	default boolean updateToReadState(Integer userId, Long announcementId) {
 		LambdaUpdateWrapper<UserAnnouncement> wrapper = Wrappers.<UserAnnouncement>lambdaUpdate()
 			.set(UserAnnouncement::getState, UserAnnouncementStateEnum.READ.getValue())
 			.set(UserAnnouncement::getReadTime, LocalDateTime.now())
 			.eq(UserAnnouncement::getAnnouncementId, announcementId)
 			.eq(UserAnnouncement::getUserId, userId);
-		this.update(null, wrapper);
+		return SqlHelper.retBool(this.update(null, wrapper));
 	}
 
 }
\ No newline at end of file
@@ -0,0 +1,112 @@
+package com.hccake.ballcat.notify.properties;
+
+import com.hccake.ballcat.notify.enums.NotifyChannelEnum;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 通知推送相关配置
+ *
+ * @author hccake
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = NotifyProperties.PREFIX)
+public class NotifyProperties {
+
+	public static final String PREFIX = "ballcat.notify";
+
+	/**
+	 * 未单独配置的推送渠道使用的默认配置
+	 */
+	private Channel defaultChannel = new Channel();
+
+	/**
+	 * 各推送渠道的独立配置，key 为推送渠道标识
+	 * @see NotifyChannelEnum
+	 */
+	private Map<Integer, Channel> channels = new HashMap<>();
+
+	/**
+	 * 推送失败重试配置
+	 */
+	private Outbox outbox = new Outbox();
+
+	/**
+	 * 获取指定推送渠道的配置
+	 * @param notifyChannel 推送渠道
+	 * @return 渠道配置，未单独配置时返回默认配置
+	 */
+	public Channel getChannel(Integer notifyChannel) {
+		return channels.getOrDefault(notifyChannel, defaultChannel);
+	}
+
+	@Getter
+	@Setter
+	public static class Channel {
+
+		/**
+		 * 渠道最大并发推送数
+		 */
+		private int concurrency = 2;
+
+		/**
+		 * 队列中等待推送的最大接收者数量，超出后推送线程等待队列名额，重放的批次直接拒绝并保留在重试表中。按接收者而不是批次计数，队列的内存占用与批次大小无关
+		 */
+		private int maxQueuedRecipients = 10000;
+
+		/**
+		 * 单个批次的推送超时时间，超时后中断推送。超时的批次可能已部分送达，写入重试表等待人工处理，不自动重放
+		 */
+		private Duration timeout = Duration.ofSeconds(30);
+
+	}
+
+	/**
+	 * 推送失败重试配置
+	 * <p>
+	 * 开启前需要先创建 notify_push_outbox 表，建表语句见 doc/update_sql/1.0.0-to-1.1.0.sql。未开启时推送失败的批次只记录日志
+	 * </p>
+	 */
+	@Getter
+	@Setter
+	public static class Outbox {
+
+		/**
+		 * 是否开启推送失败重试，开启前需要先创建 notify_push_outbox 表
+		 */
+		private boolean enabled = false;
+
+		/**
+		 * 重放的检查间隔
+		 */
+		private Duration replayInterval = Duration.ofSeconds(30);
+
+		/**
+		 * 每次重放的最大记录数
+		 */
+		private int batchSize = 100;
+
+		/**
+		 * 最大重试次数，超出后记录保留在重试表中等待人工处理
+		 */
+		private int maxRetries = 5;
+
+		/**
+		 * 首次重试的等待时间，之后每次翻倍
+		 */
+		private Duration initialBackoff = Duration.ofSeconds(30);
+
+		/**
+		 * 重试的最大等待时间
+		 */
+		private Duration maxBackoff = Duration.ofHours(1);
+
+	}
+
+}
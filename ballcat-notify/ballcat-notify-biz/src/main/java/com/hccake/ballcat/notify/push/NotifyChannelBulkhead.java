@@ -0,0 +1,261 @@
+package com.hccake.ballcat.notify.push;
+
+import cn.hutool.core.thread.ThreadFactoryBuilder;
+import com.hccake.ballcat.notify.properties.NotifyProperties;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 推送渠道的隔离执行器，每个渠道独占有界的线程池及队列，慢渠道或异常渠道不会影响其他渠道的推送
+ * <p>
+ * 队列按等待推送的接收者数量限流，而不是按批次数量，保证队列的内存占用与单批次大小无关。队列已满时按需阻塞调用线程或直接拒绝，
+ * 超时回调在回调线程池中执行，避免失败处理阻塞超时计时器
+ * </p>
+ *
+ * @author hccake
+ */
+class NotifyChannelBulkhead {
+
+	private final Integer notifyChannel;
+
+	private final ThreadPoolExecutor executor;
+
+	private final ScheduledExecutorService timer;
+
+	private final Executor callbackExecutor;
+
+	private final long timeoutMillis;
+
+	private final int maxQueuedRecipients;
+
+	/**
+	 * 队列名额，按接收者数量计，公平模式保证等待中的调用线程按顺序入队
+	 */
+	private final Semaphore queuePermits;
+
+	/**
+	 * 队列中等待推送的接收者数量
+	 */
+	private final AtomicLong queuedRecipients = new AtomicLong();
+
+	private final LongAdder successCount = new LongAdder();
+
+	private final LongAdder failureCount = new LongAdder();
+
+	private final LongAdder timeoutCount = new LongAdder();
+
+	private final LongAdder rejectedCount = new LongAdder();
+
+	private final LongAdder completedCount = new LongAdder();
+
+	private final LongAdder totalLatencyNanos = new LongAdder();
+
+	private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+	NotifyChannelBulkhead(Integer notifyChannel, NotifyProperties.Channel config, ScheduledExecutorService timer,
+			Executor callbackExecutor) {
+		this.notifyChannel = notifyChannel;
+		this.timer = timer;
+		this.callbackExecutor = callbackExecutor;
+		this.timeoutMillis = config.getTimeout().toMillis();
+		this.maxQueuedRecipients = Math.max(1, config.getMaxQueuedRecipients());
+		this.queuePermits = new Semaphore(this.maxQueuedRecipients, true);
+		int concurrency = Math.max(1, config.getConcurrency());
+		// 队列长度由 maxQueuedRecipients 限制
+		this.executor = new ThreadPoolExecutor(concurrency, concurrency, 60, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(),
+				new ThreadFactoryBuilder().setNamePrefix("notify-push-" + notifyChannel + "-")
+					.setDaemon(true)
+					.build());
+		this.executor.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * 提交推送任务，队列已满时阻塞调用线程直到有空余名额，调用方可以等待时使用，避免批次因队列已满而丢失
+	 * @param task 推送任务
+	 * @param recipients 该批次的接收者数量
+	 * @param onFailure 推送异常、超时或等待被中断时的回调，超时时为 {@link TimeoutException}，该批次可能已部分送达
+	 */
+	void submit(Runnable task, int recipients, Consumer<Throwable> onFailure) {
+		int permits = permits(recipients);
+		try {
+			queuePermits.acquire(permits);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			rejectedCount.increment();
+			onFailure.accept(e);
+			return;
+		}
+		execute(new DeliveryTask(task, recipients, permits, () -> {
+		}, onFailure));
+	}
+
+	/**
+	 * 提交推送任务，不阻塞调用线程，队列已满时直接拒绝。仅用于失败后仍可再次重放的批次
+	 * @param task 推送任务
+	 * @param recipients 该批次的接收者数量
+	 * @param onSuccess 推送成功回调
+	 * @param onFailure 推送异常、超时或队列已满时的回调，超时时为 {@link TimeoutException}，该批次可能已部分送达
+	 */
+	void trySubmit(Runnable task, int recipients, Runnable onSuccess, Consumer<Throwable> onFailure) {
+		int permits = permits(recipients);
+		if (!queuePermits.tryAcquire(permits)) {
+			rejectedCount.increment();
+			onFailure.accept(new RejectedExecutionException("notify push queue is full in channel [" + notifyChannel
+					+ "], queued recipients: " + queuedRecipients.get()));
+			return;
+		}
+		execute(new DeliveryTask(task, recipients, permits, onSuccess, onFailure));
+	}
+
+	/**
+	 * 批次占用的队列名额，超出上限的单个批次只占用全部名额，在队列为空时入队，避免永远无法推送
+	 * @param recipients 该批次的接收者数量
+	 * @return 队列名额
+	 */
+	private int permits(int recipients) {
+		return Math.min(recipients, maxQueuedRecipients);
+	}
+
+	private void execute(DeliveryTask deliveryTask) {
+		queuedRecipients.addAndGet(deliveryTask.recipients);
+		try {
+			executor.execute(deliveryTask);
+		}
+		catch (RejectedExecutionException e) {
+			deliveryTask.dequeue();
+			rejectedCount.increment();
+			deliveryTask.onFailure.accept(e);
+		}
+	}
+
+	NotifyChannelMetrics metrics() {
+		long completed = completedCount.sum();
+		long averageLatencyNanos = completed == 0 ? 0 : totalLatencyNanos.sum() / completed;
+		return new NotifyChannelMetrics(notifyChannel, successCount.sum(), failureCount.sum(), timeoutCount.sum(),
+				rejectedCount.sum(), TimeUnit.NANOSECONDS.toMillis(averageLatencyNanos),
+				TimeUnit.NANOSECONDS.toMillis(maxLatencyNanos.get()), executor.getActiveCount(),
+				executor.getQueue().size(), queuedRecipients.get());
+	}
+
+	void shutdown() {
+		executor.shutdown();
+		// 唤醒等待队列名额的调用线程，提交时将被线程池拒绝
+		queuePermits.release(maxQueuedRecipients);
+	}
+
+	private void recordLatency(long startNanos) {
+		long latency = System.nanoTime() - startNanos;
+		completedCount.increment();
+		totalLatencyNanos.add(latency);
+		maxLatencyNanos.accumulateAndGet(latency, Math::max);
+	}
+
+	/**
+	 * 推送任务包装，超时计时从任务开始执行时计算，队列中的等待时间由队列容量限制
+	 */
+	private final class DeliveryTask implements Runnable {
+
+		private final Runnable task;
+
+		private final int recipients;
+
+		private final int permits;
+
+		private final Runnable onSuccess;
+
+		private final Consumer<Throwable> onFailure;
+
+		private Thread worker;
+
+		private boolean finished;
+
+		private boolean timedOut;
+
+		private DeliveryTask(Runnable task, int recipients, int permits, Runnable onSuccess,
+				Consumer<Throwable> onFailure) {
+			this.task = task;
+			this.recipients = recipients;
+			this.permits = permits;
+			this.onSuccess = onSuccess;
+			this.onFailure = onFailure;
+		}
+
+		private void dequeue() {
+			queuedRecipients.addAndGet(-recipients);
+			queuePermits.release(permits);
+		}
+
+		@Override
+		public void run() {
+			dequeue();
+			long startNanos = System.nanoTime();
+			synchronized (this) {
+				worker = Thread.currentThread();
+			}
+			ScheduledFuture<?> timeout = timer.schedule(() -> onTimeout(startNanos), timeoutMillis,
+					TimeUnit.MILLISECONDS);
+			Throwable error = null;
+			try {
+				task.run();
+			}
+			catch (Throwable e) {
+				error = e;
+			}
+			finally {
+				timeout.cancel(false);
+			}
+
+			boolean alreadyTimedOut;
+			synchronized (this) {
+				finished = true;
+				alreadyTimedOut = timedOut;
+			}
+			if (alreadyTimedOut) {
+				// 超时时已中断当前线程，清除中断标记，避免影响线程池中的后续任务
+				Thread.interrupted();
+				return;
+			}
+
+			recordLatency(startNanos);
+			if (error == null) {
+				successCount.increment();
+				onSuccess.run();
+			}
+			else {
+				failureCount.increment();
+				onFailure.accept(error);
+			}
+		}
+
+		private void onTimeout(long startNanos) {
+			synchronized (this) {
+				if (finished) {
+					return;
+				}
+				timedOut = true;
+				worker.interrupt();
+			}
+			timeoutCount.increment();
+			recordLatency(startNanos);
+			TimeoutException e = new TimeoutException(
+					"notify push timeout in channel [" + notifyChannel + "] after " + timeoutMillis + "ms");
+			// 失败回调可能写入重试表，不在计时器线程中执行
+			callbackExecutor.execute(() -> onFailure.accept(e));
+		}
+
+	}
+
+}
@@ -0,0 +1,69 @@
+package com.hccake.ballcat.notify.push;
+
+import com.hccake.ballcat.notify.enums.NotifyChannelEnum;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * 推送渠道的统计快照
+ *
+ * @author hccake
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class NotifyChannelMetrics {
+
+	/**
+	 * 推送渠道
+	 * @see NotifyChannelEnum
+	 */
+	private final Integer notifyChannel;
+
+	/**
+	 * 推送成功的批次数
+	 */
+	private final long successCount;
+
+	/**
+	 * 推送异常的批次数
+	 */
+	private final long failureCount;
+
+	/**
+	 * 推送超时的批次数
+	 */
+	private final long timeoutCount;
+
+	/**
+	 * 因队列已满或等待队列名额被中断而拒绝的批次数
+	 */
+	private final long rejectedCount;
+
+	/**
+	 * 已完成批次的平均推送耗时，单位毫秒
+	 */
+	private final long averageLatencyMillis;
+
+	/**
+	 * 已完成批次的最大推送耗时，单位毫秒
+	 */
+	private final long maxLatencyMillis;
+
+	/**
+	 * 正在推送的批次数
+	 */
+	private final int activeCount;
+
+	/**
+	 * 等待推送的批次数
+	 */
+	private final int queueSize;
+
+	/**
+	 * 等待推送的接收者数量
+	 */
+	private final long queuedRecipients;
+
+}
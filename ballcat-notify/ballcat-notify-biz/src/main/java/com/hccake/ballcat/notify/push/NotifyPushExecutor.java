@@ -1,32 +1,96 @@
 package com.hccake.ballcat.notify.push;
 
 import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.thread.ThreadFactoryBuilder;
 import com.hccake.ballcat.notify.model.domain.NotifyInfo;
+import com.hccake.ballcat.notify.model.entity.NotifyPushOutbox;
+import com.hccake.ballcat.notify.properties.NotifyProperties;
 import com.hccake.ballcat.notify.recipient.RecipientHandler;
+import com.hccake.ballcat.notify.service.NotifyPushOutboxService;
 import com.hccake.ballcat.system.model.entity.SysUser;
+import com.hccake.ballcat.system.service.SysUserService;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * 通知消息推送执行器
+ * <p>
+ * 每个推送渠道在独立的有界线程池中推送，渠道之间互不阻塞。渠道队列已满时推送线程等待队列名额，推送异常的批次写入重试表，由定时任务按指数退避重放。
+ * 中断无法停止阻塞中的 smtp、短信等 IO，超时的批次可能已部分送达，整批重放会重复推送，只写入重试表等待人工处理，不自动重放。
+ * </p>
  *
  * @author Hccake 2020/12/21
  * @version 1.0
  */
 @Slf4j
 @Component
-public class NotifyPushExecutor {
+public class NotifyPushExecutor implements InitializingBean, DisposableBean {
 
 	private final RecipientHandler recipientHandler;
 
+	private final NotifyPushOutboxService notifyPushOutboxService;
+
+	private final SysUserService sysUserService;
+
+	private final NotifyProperties notifyProperties;
+
+	/**
+	 * 默认每批推送的用户数量
+	 */
+	public static final int DEFAULT_CHUNK_SIZE = 1000;
+
 	private final Map<Integer, NotifyPusher> notifyPusherMap = new LinkedHashMap<>();
 
-	public NotifyPushExecutor(RecipientHandler recipientHandler, List<NotifyPusher> notifyPusherList) {
+	private final Map<Integer, NotifyChannelBulkhead> bulkheadMap = new ConcurrentHashMap<>();
+
+	/**
+	 * 推送超时计时器
+	 */
+	private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(
+			new ThreadFactoryBuilder().setNamePrefix("notify-push-timer-").setDaemon(true).build());
+
+	/**
+	 * 推送超时等失败回调的执行线程，失败回调会写入重试表，不能在计时器线程中执行
+	 */
+	private final ExecutorService callbackExecutor = Executors.newSingleThreadExecutor(
+			new ThreadFactoryBuilder().setNamePrefix("notify-push-callback-").setDaemon(true).build());
+
+	/**
+	 * 重试表重放调度器
+	 */
+	private final ScheduledExecutorService replayScheduler = Executors.newSingleThreadScheduledExecutor(
+			new ThreadFactoryBuilder().setNamePrefix("notify-push-replay-").setDaemon(true).build());
+
+	/**
+	 * 每批推送的用户数量，每批用户独立持久化及推送
+	 */
+	@Setter
+	private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+	public NotifyPushExecutor(RecipientHandler recipientHandler, List<NotifyPusher> notifyPusherList,
+			NotifyPushOutboxService notifyPushOutboxService, SysUserService sysUserService,
+			ObjectProvider<NotifyProperties> notifyPropertiesProvider) {
 		this.recipientHandler = recipientHandler;
+		this.notifyPushOutboxService = notifyPushOutboxService;
+		this.sysUserService = sysUserService;
+		this.notifyProperties = notifyPropertiesProvider.getIfAvailable(NotifyProperties::new);
 		if (CollUtil.isNotEmpty(notifyPusherList)) {
 			for (NotifyPusher notifyPusher : notifyPusherList) {
 				this.addNotifyPusher(notifyPusher);
@@ -39,11 +103,15 @@ public class NotifyPushExecutor {
 	 * @param notifyPusher 通知推送者
 	 */
 	public void addNotifyPusher(NotifyPusher notifyPusher) {
-		this.notifyPusherMap.put(notifyPusher.notifyChannel(), notifyPusher);
+		Integer notifyChannel = notifyPusher.notifyChannel();
+		this.notifyPusherMap.put(notifyChannel, notifyPusher);
+		this.bulkheadMap.computeIfAbsent(notifyChannel,
+				channel -> new NotifyChannelBulkhead(channel, notifyProperties.getChannel(channel), timer,
+						callbackExecutor));
 	}
 
 	/**
-	 * 执行通知推送
+	 * 执行通知推送，接收者按批次查询并推送，内存占用与接收者总数无关。渠道队列已满时阻塞当前线程，直到有空余名额
 	 * @param notifyInfo 通知信息
 	 *
 	 */
@@ -51,27 +119,143 @@ public class NotifyPushExecutor {
 		// 获取通知接收人
 		Integer recipientFilterType = notifyInfo.getRecipientFilterType();
 		List<Object> recipientFilterCondition = notifyInfo.getRecipientFilterCondition();
-		List<SysUser> userList = recipientHandler.query(recipientFilterType, recipientFilterCondition);
+		recipientHandler.query(recipientFilterType, recipientFilterCondition, chunkSize,
+				userList -> push(notifyInfo, userList));
+	}
 
-		// 执行推送
-		// TODO 返回推送失败渠道信息，以便重试
+	/**
+	 * 向一批用户执行推送，各渠道异步推送，失败的渠道批次写入重试表
+	 * @param notifyInfo 通知信息
+	 * @param userList 当前批次的用户
+	 */
+	private void push(NotifyInfo notifyInfo, List<SysUser> userList) {
 		for (Integer notifyChannel : notifyInfo.getReceiveMode()) {
+			NotifyPusher notifyPusher = notifyPusherMap.get(notifyChannel);
+			if (notifyPusher == null) {
+				log.error("Unknown notify channel：[{}]，notifyInfo title：[{}]", notifyChannel, notifyInfo.getTitle());
+				continue;
+			}
+			bulkheadMap.get(notifyChannel)
+				.submit(() -> notifyPusher.push(notifyInfo, userList), userList.size(),
+						e -> onPushFailure(notifyChannel, notifyInfo, userList, e));
+		}
+	}
+
+	private void onPushFailure(Integer notifyChannel, NotifyInfo notifyInfo, List<SysUser> userList, Throwable e) {
+		log.error("push notify error in channel：[{}]，notifyInfo title：[{}]", notifyChannel, notifyInfo.getTitle(), e);
+		NotifyProperties.Outbox outbox = notifyProperties.getOutbox();
+		if (!outbox.isEnabled()) {
+			return;
+		}
+		// 超时的批次可能已部分送达，不设置下次重试时间，等待人工处理
+		LocalDateTime nextRetryTime = e instanceof TimeoutException ? null : nextRetryTime(0);
+		try {
+			notifyPushOutboxService.saveFailed(notifyChannel, notifyInfo, userList, nextRetryTime, e);
+		}
+		catch (Exception ex) {
+			log.error("save notify push outbox error in channel：[{}]，notifyInfo title：[{}]", notifyChannel,
+					notifyInfo.getTitle(), ex);
+		}
+	}
+
+	/**
+	 * 重放重试表中已到重试时间的记录
+	 */
+	public void replay() {
+		NotifyProperties.Outbox outboxProperties = notifyProperties.getOutbox();
+		List<NotifyPushOutbox> outboxList = notifyPushOutboxService.listDue(outboxProperties.getMaxRetries(),
+				outboxProperties.getBatchSize());
+		for (NotifyPushOutbox outbox : outboxList) {
+			// 领取时即推迟下次重试时间，本次重放失败或节点宕机时，到期后会被再次重放
+			if (!notifyPushOutboxService.claim(outbox, nextRetryTime(outbox.getRetryCount() + 1))) {
+				continue;
+			}
+			Integer notifyChannel = outbox.getNotifyChannel();
+			NotifyPusher notifyPusher = notifyPusherMap.get(notifyChannel);
+			if (notifyPusher == null) {
+				log.error("Unknown notify channel：[{}]，notify push outbox id：[{}]", notifyChannel, outbox.getId());
+				continue;
+			}
+			Long id = outbox.getId();
+			try {
+				NotifyInfo notifyInfo = notifyPushOutboxService.readNotifyInfo(outbox);
+				List<SysUser> userList = CollUtil.isEmpty(outbox.getUserIds()) ? new ArrayList<>()
+						: sysUserService.listByIds(outbox.getUserIds());
+				// 重放失败的记录仍保留在重试表中，队列已满时直接拒绝，不阻塞重放调度线程
+				bulkheadMap.get(notifyChannel)
+					.trySubmit(() -> notifyPusher.push(notifyInfo, userList), userList.size(),
+							() -> notifyPushOutboxService.removeById(id), e -> onReplayFailure(id, e));
+			}
+			catch (Exception e) {
+				onReplayFailure(id, e);
+			}
+		}
+	}
+
+	private void onReplayFailure(Long id, Throwable e) {
+		log.error("replay notify push outbox error, id：[{}]", id, e);
+		try {
+			if (e instanceof TimeoutException) {
+				// 超时的批次可能已部分送达，不再自动重放
+				notifyPushOutboxService.suspend(id, e);
+				return;
+			}
+			notifyPushOutboxService.recordError(id, e);
+		}
+		catch (Exception ex) {
+			log.error("record notify push outbox error failed, id：[{}]", id, ex);
+		}
+	}
+
+	/**
+	 * 根据已重试次数计算下次重试时间，等待时间指数增长
+	 * @param retryCount 已重试次数
+	 * @return 下次重试时间
+	 */
+	private LocalDateTime nextRetryTime(int retryCount) {
+		NotifyProperties.Outbox outbox = notifyProperties.getOutbox();
+		long maxBackoffMillis = outbox.getMaxBackoff().toMillis();
+		long backoffMillis = outbox.getInitialBackoff().toMillis() << Math.min(retryCount, 20);
+		return LocalDateTime.now().plus(Duration.ofMillis(Math.min(backoffMillis, maxBackoffMillis)));
+	}
+
+	/**
+	 * 获取各推送渠道的统计快照
+	 * @return 推送渠道统计
+	 */
+	public List<NotifyChannelMetrics> getChannelMetrics() {
+		List<NotifyChannelMetrics> metrics = new ArrayList<>(bulkheadMap.size());
+		for (NotifyChannelBulkhead bulkhead : bulkheadMap.values()) {
+			metrics.add(bulkhead.metrics());
+		}
+		return metrics;
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		NotifyProperties.Outbox outbox = notifyProperties.getOutbox();
+		if (!outbox.isEnabled()) {
+			return;
+		}
+		long interval = outbox.getReplayInterval().toMillis();
+		replayScheduler.scheduleWithFixedDelay(() -> {
 			try {
-				NotifyPusher notifyPusher = notifyPusherMap.get(notifyChannel);
-
-				if (notifyPusher == null) {
-					log.error("Unknown notify channel：[{}]，notifyInfo title：[{}]", notifyChannel,
-							notifyInfo.getTitle());
-				}
-				else {
-					notifyPusher.push(notifyInfo, userList);
-				}
+				replay();
 			}
 			catch (Exception e) {
-				log.error("push notify error in channel：[{}]，notifyInfo title：[{}]", notifyChannel,
-						notifyInfo.getTitle(), e);
+				log.error("replay notify push outbox error", e);
 			}
+		}, interval, interval, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public void destroy() {
+		replayScheduler.shutdownNow();
+		for (NotifyChannelBulkhead bulkhead : bulkheadMap.values()) {
+			bulkhead.shutdown();
 		}
+		timer.shutdown();
+		callbackExecutor.shutdown();
 	}
 
 }
@@ -7,6 +7,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * @author Hccake 2020/12/21
@@ -38,6 +39,17 @@ public class AllRecipientFilter implements RecipientFilter {
 		return sysUserService.list();
 	}
 
+	/**
+	 * 按用户 id 分批筛选接收者
+	 * @param filterCondition 筛选条件
+	 * @param chunkSize 每批数量
+	 * @param consumer 每批接收者的处理
+	 */
+	@Override
+	public void filter(List<Object> filterCondition, int chunkSize, Consumer<List<SysUser>> consumer) {
+		RecipientChunks.forEach(sysUserService::listRecipients, chunkSize, consumer);
+	}
+
 	/**
 	 * 获取当前用户的过滤属性
 	 * @param sysUser 系统用户
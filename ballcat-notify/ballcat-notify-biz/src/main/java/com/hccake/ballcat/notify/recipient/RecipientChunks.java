@@ -0,0 +1,40 @@
+package com.hccake.ballcat.notify.recipient;
+
+import com.hccake.ballcat.system.model.entity.SysUser;
+
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * 按用户 id 分批查询接收者
+ *
+ * @author hccake
+ */
+final class RecipientChunks {
+
+	private RecipientChunks() {
+	}
+
+	/**
+	 * 按用户 id 升序逐批查询接收者，每次查询以上一批最后一个用户 id 作为起点，内存中只保留当前批次的数据
+	 * @param query 查询函数，入参为上一批最后一个用户 id（首批为 null）及每批数量
+	 * @param chunkSize 每批数量
+	 * @param consumer 每批接收者的处理
+	 */
+	static void forEach(BiFunction<Integer, Integer, List<SysUser>> query, int chunkSize,
+			Consumer<List<SysUser>> consumer) {
+		Integer lastUserId = null;
+		List<SysUser> chunk;
+		do {
+			chunk = query.apply(lastUserId, chunkSize);
+			if (chunk.isEmpty()) {
+				return;
+			}
+			consumer.accept(chunk);
+			lastUserId = chunk.get(chunk.size() - 1).getUserId();
+		}
+		while (chunk.size() >= chunkSize);
+	}
+
+}
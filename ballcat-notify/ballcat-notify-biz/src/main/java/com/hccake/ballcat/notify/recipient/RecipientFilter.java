@@ -1,9 +1,12 @@
 package com.hccake.ballcat.notify.recipient;
 
+import cn.hutool.core.collection.ListUtil;
+import com.hccake.ballcat.common.security.userdetails.User;
 import com.hccake.ballcat.notify.enums.NotifyRecipientFilterTypeEnum;
 import com.hccake.ballcat.system.model.entity.SysUser;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * 接收者筛选器
@@ -27,6 +30,20 @@ public interface RecipientFilter {
 	 */
 	List<SysUser> filter(List<Object> filterCondition);
 
+	/**
+	 * 分批筛选接收者，每批接收者交由 consumer 处理，避免一次性加载所有接收者。
+	 * <p>
+	 * 默认实现为全量筛选后再分批，大数据量的筛选器应当重写此方法
+	 * @param filterCondition 筛选条件
+	 * @param chunkSize 每批数量
+	 * @param consumer 每批接收者的处理
+	 */
+	default void filter(List<Object> filterCondition, int chunkSize, Consumer<List<SysUser>> consumer) {
+		for (List<SysUser> chunk : ListUtil.partition(filter(filterCondition), chunkSize)) {
+			consumer.accept(chunk);
+		}
+	}
+
 	/**
 	 * 获取当前用户的过滤属性
 	 * @param sysUser 系统用户
@@ -34,6 +51,22 @@ public interface RecipientFilter {
 	 */
 	Object getFilterAttr(SysUser sysUser);
 
+	/**
+	 * 获取当前登录用户的过滤属性，直接使用登录信息中的用户属性，无需查询数据库
+	 * <p>
+	 * 默认使用登录信息中的用户ID、组织ID和用户类型构建系统用户，依赖其他用户属性的筛选器应当重写此方法
+	 * @param user 登录用户
+	 * @return 该用户所对应筛选条件的属性
+	 */
+	default Object getFilterAttr(User user) {
+		SysUser sysUser = new SysUser();
+		sysUser.setUserId(user.getUserId());
+		sysUser.setUsername(user.getUsername());
+		sysUser.setOrganizationId(user.getOrganizationId());
+		sysUser.setType(user.getType());
+		return getFilterAttr(sysUser);
+	}
+
 	/**
 	 * 是否匹配当前用户
 	 * @param filterAttr 筛选属性
@@ -1,5 +1,6 @@
 package com.hccake.ballcat.notify.recipient;
 
+import com.hccake.ballcat.common.security.userdetails.User;
 import com.hccake.ballcat.system.model.entity.SysUser;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
@@ -31,6 +32,23 @@ public class RecipientHandler {
 		return recipientFilter.filter(filterCondition);
 	}
 
+	/**
+	 * 分批查询接收者，每批接收者交由 consumer 处理
+	 * @param filterType 筛选类型
+	 * @param filterCondition 筛选条件
+	 * @param chunkSize 每批数量
+	 * @param consumer 每批接收者的处理
+	 */
+	public void query(Integer filterType, List<Object> filterCondition, int chunkSize,
+			Consumer<List<SysUser>> consumer) {
+		RecipientFilter recipientFilter = recipientFilterMap.get(filterType);
+		if (recipientFilter == null) {
+			log.error("Unknown recipient filter：[{}]，filterCondition：{}", filterType, filterCondition);
+			return;
+		}
+		recipientFilter.filter(filterCondition, chunkSize, consumer);
+	}
+
 	/**
 	 * 判断当前是否匹配
 	 * @param recipientFilterType 筛选类型
@@ -43,6 +61,28 @@ public class RecipientHandler {
 		return recipientFilter != null && recipientFilter.match(filterAttr, recipientFilterCondition);
 	}
 
+	/**
+	 * 获取当前用户指定筛选器对应的属性
+	 * @param filterType 筛选类型
+	 * @param sysUser 系统用户
+	 * @return 该用户所对应筛选条件的属性，筛选器不存在时返回 null
+	 */
+	public Object getFilterAttr(Integer filterType, SysUser sysUser) {
+		RecipientFilter recipientFilter = recipientFilterMap.get(filterType);
+		return recipientFilter == null ? null : recipientFilter.getFilterAttr(sysUser);
+	}
+
+	/**
+	 * 获取当前登录用户指定筛选器对应的属性
+	 * @param filterType 筛选类型
+	 * @param user 登录用户
+	 * @return 该用户所对应筛选条件的属性，筛选器不存在时返回 null
+	 */
+	public Object getFilterAttr(Integer filterType, User user) {
+		RecipientFilter recipientFilter = recipientFilterMap.get(filterType);
+		return recipientFilter == null ? null : recipientFilter.getFilterAttr(user);
+	}
+
 	/**
 	 * 获取当前用户的各个筛选器对应的属性
 	 * @param sysUser 系统用户
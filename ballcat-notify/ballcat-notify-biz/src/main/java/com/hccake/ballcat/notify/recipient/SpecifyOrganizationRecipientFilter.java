@@ -7,6 +7,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -40,6 +41,20 @@ public class SpecifyOrganizationRecipientFilter implements RecipientFilter {
 		return sysUserService.listByOrganizationIds(organizationIds);
 	}
 
+	/**
+	 * 按用户 id 分批筛选接收者
+	 * @param filterCondition 筛选条件
+	 * @param chunkSize 每批数量
+	 * @param consumer 每批接收者的处理
+	 */
+	@Override
+	public void filter(List<Object> filterCondition, int chunkSize, Consumer<List<SysUser>> consumer) {
+		List<Integer> organizationIds = filterCondition.stream().map(Integer.class::cast).collect(Collectors.toList());
+		RecipientChunks.forEach(
+				(lastUserId, limit) -> sysUserService.listRecipientsByOrganizationIds(organizationIds, lastUserId, limit),
+				chunkSize, consumer);
+	}
+
 	/**
 	 * 获取当前用户的过滤属性
 	 * @param sysUser 系统用户
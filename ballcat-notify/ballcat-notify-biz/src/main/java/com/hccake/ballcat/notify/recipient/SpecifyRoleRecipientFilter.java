@@ -1,13 +1,19 @@
 package com.hccake.ballcat.notify.recipient;
 
 import cn.hutool.core.collection.CollUtil;
+import com.hccake.ballcat.common.security.constant.UserAttributeNameConstants;
+import com.hccake.ballcat.common.security.userdetails.User;
 import com.hccake.ballcat.notify.enums.NotifyRecipientFilterTypeEnum;
 import com.hccake.ballcat.system.model.entity.SysUser;
 import com.hccake.ballcat.system.service.SysUserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -41,6 +47,20 @@ public class SpecifyRoleRecipientFilter implements RecipientFilter {
 		return sysUserService.listByRoleCodes(roleCodes);
 	}
 
+	/**
+	 * 按用户 id 分批筛选接收者
+	 * @param filterCondition 筛选条件
+	 * @param chunkSize 每批数量
+	 * @param consumer 每批接收者的处理
+	 */
+	@Override
+	public void filter(List<Object> filterCondition, int chunkSize, Consumer<List<SysUser>> consumer) {
+		List<String> roleCodes = filterCondition.stream().map(String.class::cast).collect(Collectors.toList());
+		RecipientChunks.forEach(
+				(lastUserId, limit) -> sysUserService.listRecipientsByRoleCodes(roleCodes, lastUserId, limit),
+				chunkSize, consumer);
+	}
+
 	/**
 	 * 获取当前用户的过滤属性
 	 * @param sysUser 系统用户
@@ -51,6 +71,21 @@ public class SpecifyRoleRecipientFilter implements RecipientFilter {
 		return sysUserService.listRoleCodes(sysUser.getUserId());
 	}
 
+	/**
+	 * 获取当前登录用户的过滤属性，优先使用登录信息中的角色标识
+	 * @param user 登录用户
+	 * @return 该用户的角色标识
+	 */
+	@Override
+	public Object getFilterAttr(User user) {
+		Map<String, Object> attributes = user.getAttributes();
+		Object roleCodes = attributes == null ? null : attributes.get(UserAttributeNameConstants.ROLE_CODES);
+		if (roleCodes instanceof Collection) {
+			return new ArrayList<>((Collection<?>) roleCodes);
+		}
+		return sysUserService.listRoleCodes(user.getUserId());
+	}
+
 	/**
 	 * 是否匹配当前用户
 	 * @param filterAttr 筛选属性
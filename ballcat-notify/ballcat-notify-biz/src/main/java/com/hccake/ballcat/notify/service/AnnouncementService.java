@@ -7,6 +7,7 @@ import com.hccake.ballcat.notify.model.vo.AnnouncementPageVO;
 import com.hccake.ballcat.common.model.domain.PageParam;
 import com.hccake.ballcat.common.model.domain.PageResult;
 import com.hccake.extend.mybatis.plus.service.ExtendService;
+import com.hccake.ballcat.common.security.userdetails.User;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
@@ -62,17 +63,18 @@ public interface AnnouncementService extends ExtendService<Announcement> {
 	List<String> uploadImages(List<MultipartFile> files);
 
 	/**
-	 * 当前用户未拉取过的发布中，且满足失效时间的公告信息
-	 * @param userId 用户id
+	 * 获取当前用户可见的发布中，且满足失效时间的公告信息
+	 * @param user 登录用户
 	 * @return List<Announcement>
 	 */
-	List<Announcement> listUnPulled(Integer userId);
+	List<Announcement> listActiveAnnouncements(User user);
 
 	/**
-	 * 获取用户拉取过的发布中，且满足失效时间的公告信息
-	 * @param userId 用户id
-	 * @return List<Announcement>
+	 * 获取当前用户可见的发布中，且满足失效时间的指定公告
+	 * @param user 登录用户
+	 * @param announcementId 公告ID
+	 * @return 公告信息，公告不存在、未发布、已失效或者用户不在接收范围内时返回 null
 	 */
-	List<Announcement> listActiveAnnouncements(Integer userId);
+	Announcement getActiveAnnouncement(User user, Long announcementId);
 
 }
\ No newline at end of file
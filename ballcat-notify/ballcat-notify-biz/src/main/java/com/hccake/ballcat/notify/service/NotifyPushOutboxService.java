@@ -0,0 +1,66 @@
+package com.hccake.ballcat.notify.service;
+
+import com.hccake.ballcat.notify.model.domain.NotifyInfo;
+import com.hccake.ballcat.notify.model.entity.NotifyPushOutbox;
+import com.hccake.ballcat.system.model.entity.SysUser;
+import com.hccake.extend.mybatis.plus.service.ExtendService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 通知推送失败重试表
+ *
+ * @author hccake
+ */
+public interface NotifyPushOutboxService extends ExtendService<NotifyPushOutbox> {
+
+	/**
+	 * 保存推送失败的批次
+	 * @param notifyChannel 推送渠道
+	 * @param notifyInfo 通知信息
+	 * @param userList 推送失败的用户
+	 * @param nextRetryTime 下次重试时间，为 null 时不自动重放，等待人工处理
+	 * @param cause 失败原因
+	 */
+	void saveFailed(Integer notifyChannel, NotifyInfo notifyInfo, List<SysUser> userList, LocalDateTime nextRetryTime,
+			Throwable cause);
+
+	/**
+	 * 查询已到重试时间且未超出最大重试次数的记录
+	 * @param maxRetries 最大重试次数
+	 * @param limit 最大记录数
+	 * @return 待重试记录
+	 */
+	List<NotifyPushOutbox> listDue(int maxRetries, int limit);
+
+	/**
+	 * 领取一条重试记录，多节点部署时保证同一记录同一时间只被一个节点重放
+	 * @param outbox 重试记录
+	 * @param nextRetryTime 本次重放失败后的下次重试时间
+	 * @return 是否领取成功
+	 */
+	boolean claim(NotifyPushOutbox outbox, LocalDateTime nextRetryTime);
+
+	/**
+	 * 记录重放失败原因
+	 * @param id 记录ID
+	 * @param cause 失败原因
+	 */
+	void recordError(Long id, Throwable cause);
+
+	/**
+	 * 挂起重试记录，记录保留在重试表中不再自动重放，等待人工处理
+	 * @param id 记录ID
+	 * @param cause 失败原因
+	 */
+	void suspend(Long id, Throwable cause);
+
+	/**
+	 * 还原重试记录中的通知信息
+	 * @param outbox 重试记录
+	 * @return 通知信息
+	 */
+	NotifyInfo readNotifyInfo(NotifyPushOutbox outbox);
+
+}
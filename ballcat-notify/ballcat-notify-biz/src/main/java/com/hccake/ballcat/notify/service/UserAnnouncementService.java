@@ -6,6 +6,7 @@ import com.hccake.ballcat.notify.model.vo.UserAnnouncementPageVO;
 import com.hccake.ballcat.common.model.domain.PageParam;
 import com.hccake.ballcat.common.model.domain.PageResult;
 import com.hccake.extend.mybatis.plus.service.ExtendService;
+import com.hccake.ballcat.common.security.userdetails.User;
 
 /**
  * 用户公告表
@@ -31,10 +32,10 @@ public interface UserAnnouncementService extends ExtendService<UserAnnouncement>
 	UserAnnouncement prodUserAnnouncement(Integer userId, Long announcementId);
 
 	/**
-	 * 对用户公告进行已读标记
-	 * @param userId 用户id
+	 * 对用户公告进行已读标记，只允许标记当前用户可见的发布中的公告
+	 * @param user 登录用户
 	 * @param announcementId 公告id
 	 */
-	void readAnnouncement(Integer userId, Long announcementId);
+	void readAnnouncement(User user, Long announcementId);
 
 }
\ No newline at end of file
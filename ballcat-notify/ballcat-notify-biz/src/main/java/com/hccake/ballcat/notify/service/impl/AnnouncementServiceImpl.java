@@ -1,5 +1,6 @@
 package com.hccake.ballcat.notify.service.impl;
 
+import cn.hutool.core.convert.Convert;
 import cn.hutool.core.io.FileUtil;
 import cn.hutool.core.text.StrPool;
 import cn.hutool.core.util.IdUtil;
@@ -10,10 +11,13 @@ import com.hccake.ballcat.common.model.domain.PageParam;
 import com.hccake.ballcat.common.model.domain.PageResult;
 import com.hccake.ballcat.common.model.result.BaseResultCode;
 import com.hccake.ballcat.common.model.result.SystemResultCode;
+import com.hccake.ballcat.common.security.userdetails.User;
 import com.hccake.ballcat.file.service.FileService;
+import com.hccake.ballcat.notify.component.ActiveAnnouncementIndex;
 import com.hccake.ballcat.notify.converter.AnnouncementConverter;
 import com.hccake.ballcat.notify.converter.NotifyInfoConverter;
 import com.hccake.ballcat.notify.enums.AnnouncementStatusEnum;
+import com.hccake.ballcat.notify.enums.NotifyChannelEnum;
 import com.hccake.ballcat.notify.event.AnnouncementCloseEvent;
 import com.hccake.ballcat.notify.event.NotifyPublishEvent;
 import com.hccake.ballcat.notify.mapper.AnnouncementMapper;
@@ -22,6 +26,7 @@ import com.hccake.ballcat.notify.model.dto.AnnouncementDTO;
 import com.hccake.ballcat.notify.model.entity.Announcement;
 import com.hccake.ballcat.notify.model.qo.AnnouncementQO;
 import com.hccake.ballcat.notify.model.vo.AnnouncementPageVO;
+import com.hccake.ballcat.notify.recipient.RecipientHandler;
 import com.hccake.ballcat.notify.service.AnnouncementService;
 import com.hccake.extend.mybatis.plus.service.impl.ExtendServiceImpl;
 import lombok.RequiredArgsConstructor;
@@ -32,11 +37,14 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.Serializable;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 公告信息
@@ -53,6 +61,10 @@ public class AnnouncementServiceImpl extends ExtendServiceImpl<AnnouncementMappe
 
 	private final FileService fileService;
 
+	private final ActiveAnnouncementIndex activeAnnouncementIndex;
+
+	private final RecipientHandler recipientHandler;
+
 	/**
 	 * 根据QueryObject查询分页数据
 	 * @param pageParam 分页参数
@@ -184,22 +196,68 @@ public class AnnouncementServiceImpl extends ExtendServiceImpl<AnnouncementMappe
 	}
 
 	/**
-	 * 当前用户未拉取过的发布中，且满足失效时间的公告信息
+	 * 获取当前用户可见的发布中，且满足失效时间的公告信息
+	 * <p>
+	 * 公告采用读时扩散，从内存索引中取出发布中的公告后按照接收者筛选规则实时过滤，无需为每个接收者持久化关联数据。
+	 * 筛选属性取自登录信息，轮询公告时无需查询用户信息
+	 * @param user 登录用户
 	 * @return List<Announcement>
 	 */
 	@Override
-	public List<Announcement> listUnPulled(Integer userId) {
-		return baseMapper.listUserAnnouncements(userId, false);
+	public List<Announcement> listActiveAnnouncements(User user) {
+		List<Announcement> activeAnnouncements = activeAnnouncementIndex.listActive();
+		if (activeAnnouncements.isEmpty()) {
+			return activeAnnouncements;
+		}
+		// 筛选属性按需获取，同一筛选类型只获取一次
+		Map<Integer, Object> filterAttrs = new HashMap<>();
+		List<Announcement> result = new ArrayList<>();
+		for (Announcement announcement : activeAnnouncements) {
+			if (isRecipient(announcement, user, filterAttrs)) {
+				result.add(announcement);
+			}
+		}
+		return result;
 	}
 
 	/**
-	 * 获取用户拉取过的发布中，且满足失效时间的公告信息
-	 * @param userId 用户id
-	 * @return List<Announcement>
+	 * 获取当前用户可见的发布中，且满足失效时间的指定公告
+	 * @param user 登录用户
+	 * @param announcementId 公告ID
+	 * @return 公告信息，公告不存在、未发布、已失效或者用户不在接收范围内时返回 null
 	 */
 	@Override
-	public List<Announcement> listActiveAnnouncements(Integer userId) {
-		return baseMapper.listUserAnnouncements(userId, true);
+	public Announcement getActiveAnnouncement(User user, Long announcementId) {
+		for (Announcement announcement : activeAnnouncementIndex.listActive()) {
+			if (announcement.getId().equals(announcementId)) {
+				return isRecipient(announcement, user, new HashMap<>(2)) ? announcement : null;
+			}
+		}
+		return null;
+	}
+
+	private boolean isRecipient(Announcement announcement, User user, Map<Integer, Object> filterAttrs) {
+		List<Integer> receiveMode = announcement.getReceiveMode();
+		if (receiveMode == null || !receiveMode.contains(NotifyChannelEnum.STATION.getValue())) {
+			return false;
+		}
+		Integer filterType = announcement.getRecipientFilterType();
+		Object filterAttr = filterAttrs.computeIfAbsent(filterType, type -> recipientHandler.getFilterAttr(type, user));
+		return recipientHandler.match(filterType, filterAttr, announcement.getRecipientFilterCondition());
+	}
+
+	/**
+	 * 删除公告，发布中的公告删除后需要通知关闭
+	 * @param id 公告ID
+	 * @return boolean
+	 */
+	@Override
+	public boolean removeById(Serializable id) {
+		boolean removed = super.removeById(id);
+		if (removed) {
+			publisher.publishEvent(new AnnouncementCloseEvent(Convert.toLong(id)));
+		}
+		return removed;
 	}
 
 	/**
@@ -0,0 +1,112 @@
+package com.hccake.ballcat.notify.service.impl;
+
+import cn.hutool.core.text.CharSequenceUtil;
+import cn.hutool.core.util.ClassUtil;
+import com.hccake.ballcat.common.util.JsonUtils;
+import com.hccake.ballcat.notify.mapper.NotifyPushOutboxMapper;
+import com.hccake.ballcat.notify.model.domain.NotifyInfo;
+import com.hccake.ballcat.notify.model.entity.NotifyPushOutbox;
+import com.hccake.ballcat.notify.service.NotifyPushOutboxService;
+import com.hccake.ballcat.system.model.entity.SysUser;
+import com.hccake.extend.mybatis.plus.service.impl.ExtendServiceImpl;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 通知推送失败重试表
+ *
+ * @author hccake
+ */
+@Service
+public class NotifyPushOutboxServiceImpl extends ExtendServiceImpl<NotifyPushOutboxMapper, NotifyPushOutbox>
+		implements NotifyPushOutboxService {
+
+	/**
+	 * 失败原因的最大长度，与表字段长度保持一致
+	 */
+	private static final int MAX_ERROR_LENGTH = 500;
+
+	/**
+	 * 保存推送失败的批次
+	 * @param notifyChannel 推送渠道
+	 * @param notifyInfo 通知信息
+	 * @param userList 推送失败的用户
+	 * @param nextRetryTime 下次重试时间，为 null 时不自动重放，等待人工处理
+	 * @param cause 失败原因
+	 */
+	@Override
+	public void saveFailed(Integer notifyChannel, NotifyInfo notifyInfo, List<SysUser> userList,
+			LocalDateTime nextRetryTime, Throwable cause) {
+		NotifyPushOutbox outbox = new NotifyPushOutbox();
+		outbox.setNotifyChannel(notifyChannel);
+		outbox.setNotifyInfoType(notifyInfo.getClass().getName());
+		outbox.setNotifyInfo(JsonUtils.toJson(notifyInfo));
+		outbox.setUserIds(userList.stream().map(SysUser::getUserId).collect(Collectors.toList()));
+		outbox.setRetryCount(0);
+		outbox.setNextRetryTime(nextRetryTime);
+		outbox.setLastError(errorMessage(cause));
+		baseMapper.insert(outbox);
+	}
+
+	/**
+	 * 查询已到重试时间且未超出最大重试次数的记录
+	 * @param maxRetries 最大重试次数
+	 * @param limit 最大记录数
+	 * @return 待重试记录
+	 */
+	@Override
+	public List<NotifyPushOutbox> listDue(int maxRetries, int limit) {
+		return baseMapper.listDue(LocalDateTime.now(), maxRetries, limit);
+	}
+
+	/**
+	 * 领取一条重试记录，多节点部署时保证同一记录同一时间只被一个节点重放
+	 * @param outbox 重试记录
+	 * @param nextRetryTime 本次重放失败后的下次重试时间
+	 * @return 是否领取成功
+	 */
+	@Override
+	public boolean claim(NotifyPushOutbox outbox, LocalDateTime nextRetryTime) {
+		return baseMapper.claim(outbox.getId(), outbox.getRetryCount(), nextRetryTime);
+	}
+
+	/**
+	 * 记录重放失败原因
+	 * @param id 记录ID
+	 * @param cause 失败原因
+	 */
+	@Override
+	public void recordError(Long id, Throwable cause) {
+		baseMapper.updateLastError(id, errorMessage(cause));
+	}
+
+	/**
+	 * 挂起重试记录，记录保留在重试表中不再自动重放，等待人工处理
+	 * @param id 记录ID
+	 * @param cause 失败原因
+	 */
+	@Override
+	public void suspend(Long id, Throwable cause) {
+		baseMapper.suspend(id, errorMessage(cause));
+	}
+
+	/**
+	 * 还原重试记录中的通知信息
+	 * @param outbox 重试记录
+	 * @return 通知信息
+	 */
+	@Override
+	public NotifyInfo readNotifyInfo(NotifyPushOutbox outbox) {
+		Class<NotifyInfo> notifyInfoClass = ClassUtil.loadClass(outbox.getNotifyInfoType());
+		return JsonUtils.toObj(outbox.getNotifyInfo(), notifyInfoClass);
+	}
+
+	private static String errorMessage(Throwable cause) {
+		String message = cause.getClass().getName() + ": " + cause.getMessage();
+		return CharSequenceUtil.maxLength(message, MAX_ERROR_LENGTH - 3);
+	}
+
+}
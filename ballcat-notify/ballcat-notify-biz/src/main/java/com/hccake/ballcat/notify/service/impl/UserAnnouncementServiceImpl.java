@@ -5,10 +5,16 @@ import com.hccake.ballcat.notify.mapper.UserAnnouncementMapper;
 import com.hccake.ballcat.notify.model.entity.UserAnnouncement;
 import com.hccake.ballcat.notify.model.qo.UserAnnouncementQO;
 import com.hccake.ballcat.notify.model.vo.UserAnnouncementPageVO;
+import com.hccake.ballcat.notify.service.AnnouncementService;
 import com.hccake.ballcat.notify.service.UserAnnouncementService;
 import com.hccake.ballcat.common.model.domain.PageParam;
 import com.hccake.ballcat.common.model.domain.PageResult;
+import com.hccake.ballcat.common.core.exception.BusinessException;
+import com.hccake.ballcat.common.model.result.SystemResultCode;
+import com.hccake.ballcat.common.security.userdetails.User;
 import com.hccake.extend.mybatis.plus.service.impl.ExtendServiceImpl;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -19,11 +25,16 @@ import java.time.LocalDateTime;
  * @author hccake 2020-12-25 08:04:53
  */
 @Service
+@RequiredArgsConstructor
 public class UserAnnouncementServiceImpl extends ExtendServiceImpl<UserAnnouncementMapper, UserAnnouncement>
 		implements UserAnnouncementService {
 
+	private final AnnouncementService announcementService;
+
 	/**
 	 * 根据QueryObject查询分页数据
+	 * <p>
+	 * 公告采用读时扩散，用户公告只在首次已读时写入，查询结果为公告的已读记录
 	 * @param pageParam 分页参数
 	 * @param qo 查询参数对象
 	 * @return PageResult<UserAnnouncementVO> 分页数据
@@ -50,13 +61,30 @@ public class UserAnnouncementServiceImpl extends ExtendServiceImpl<UserAnnouncem
 	}
 
 	/**
-	 * 对用户公告进行已读标记
-	 * @param userId 用户id
+	 * 对用户公告进行已读标记，只允许标记当前用户可见的发布中的公告
+	 * @param user 登录用户
 	 * @param announcementId 公告id
 	 */
 	@Override
-	public void readAnnouncement(Integer userId, Long announcementId) {
-		baseMapper.updateToReadState(userId, announcementId);
+	public void readAnnouncement(User user, Long announcementId) {
+		if (announcementService.getActiveAnnouncement(user, announcementId) == null) {
+			throw new BusinessException(SystemResultCode.BAD_REQUEST.getCode(), "公告不存在或已失效！");
+		}
+		Integer userId = user.getUserId();
+		if (baseMapper.updateToReadState(userId, announcementId)) {
+			return;
+		}
+		// 公告采用读时扩散，用户公告只在首次已读时写入
+		UserAnnouncement userAnnouncement = prodUserAnnouncement(userId, announcementId);
+		userAnnouncement.setState(UserAnnouncementStateEnum.READ.getValue());
+		userAnnouncement.setReadTime(userAnnouncement.getCreateTime());
+		try {
+			baseMapper.insert(userAnnouncement);
+		}
+		catch (DuplicateKeyException e) {
+			// 并发已读上报，已由其他请求写入
+			baseMapper.updateToReadState(userId, announcementId);
+		}
 	}
 
 }
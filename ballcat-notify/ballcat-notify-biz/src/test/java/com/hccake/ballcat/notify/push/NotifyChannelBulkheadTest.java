@@ -0,0 +1,144 @@
+package com.hccake.ballcat.notify.push;
+
+import com.hccake.ballcat.notify.properties.NotifyProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * @author hccake
+ */
+class NotifyChannelBulkheadTest {
+
+	private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+
+	private final ExecutorService callbackExecutor = Executors
+		.newSingleThreadExecutor(r -> new Thread(r, "test-callback"));
+
+	private NotifyChannelBulkhead bulkhead;
+
+	@AfterEach
+	void after() {
+		bulkhead.shutdown();
+		timer.shutdownNow();
+		callbackExecutor.shutdownNow();
+	}
+
+	private static NotifyProperties.Channel channel(int maxQueuedRecipients, Duration timeout) {
+		NotifyProperties.Channel channel = new NotifyProperties.Channel();
+		channel.setConcurrency(1);
+		channel.setMaxQueuedRecipients(maxQueuedRecipients);
+		channel.setTimeout(timeout);
+		return channel;
+	}
+
+	@Test
+	void queueBoundedByRecipients() throws Exception {
+		bulkhead = new NotifyChannelBulkhead(1, channel(10, Duration.ofSeconds(10)), timer, callbackExecutor);
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		bulkhead.submit(() -> {
+			started.countDown();
+			awaitQuietly(release);
+		}, 5, Assertions::fail);
+		Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+
+		// 正在推送的批次不占用队列名额
+		bulkhead.trySubmit(NotifyChannelBulkheadTest::noop, 6, NotifyChannelBulkheadTest::noop, Assertions::fail);
+		CompletableFuture<Throwable> rejected = new CompletableFuture<>();
+		bulkhead.trySubmit(NotifyChannelBulkheadTest::noop, 5, NotifyChannelBulkheadTest::noop, rejected::complete);
+		bulkhead.trySubmit(NotifyChannelBulkheadTest::noop, 4, NotifyChannelBulkheadTest::noop, Assertions::fail);
+
+		Assertions.assertInstanceOf(RejectedExecutionException.class, rejected.get(5, TimeUnit.SECONDS));
+		NotifyChannelMetrics metrics = bulkhead.metrics();
+		Assertions.assertEquals(1, metrics.getRejectedCount());
+		Assertions.assertEquals(10, metrics.getQueuedRecipients());
+		release.countDown();
+	}
+
+	@Test
+	void submitWaitsForQueueSpace() throws Exception {
+		bulkhead = new NotifyChannelBulkhead(1, channel(10, Duration.ofSeconds(10)), timer, callbackExecutor);
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		bulkhead.submit(() -> {
+			started.countDown();
+			awaitQuietly(release);
+		}, 5, Assertions::fail);
+		Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+		bulkhead.submit(NotifyChannelBulkheadTest::noop, 10, Assertions::fail);
+
+		CountDownLatch delivered = new CountDownLatch(1);
+		CompletableFuture<Void> producer = CompletableFuture
+			.runAsync(() -> bulkhead.submit(delivered::countDown, 5, Assertions::fail));
+		// 队列已满时等待队列名额，而不是拒绝
+		Assertions.assertThrows(TimeoutException.class, () -> producer.get(200, TimeUnit.MILLISECONDS));
+
+		release.countDown();
+		producer.get(5, TimeUnit.SECONDS);
+		Assertions.assertTrue(delivered.await(5, TimeUnit.SECONDS));
+		Assertions.assertEquals(0, bulkhead.metrics().getRejectedCount());
+	}
+
+	@Test
+	void waitingSubmitRejectedOnShutdown() throws Exception {
+		bulkhead = new NotifyChannelBulkhead(1, channel(10, Duration.ofSeconds(10)), timer, callbackExecutor);
+		CountDownLatch release = new CountDownLatch(1);
+		bulkhead.submit(() -> awaitQuietly(release), 1, Assertions::fail);
+		bulkhead.submit(NotifyChannelBulkheadTest::noop, 10, Assertions::fail);
+
+		CompletableFuture<Throwable> rejected = new CompletableFuture<>();
+		CompletableFuture.runAsync(() -> bulkhead.submit(NotifyChannelBulkheadTest::noop, 5, rejected::complete));
+		Thread.sleep(100);
+		bulkhead.shutdown();
+
+		Assertions.assertInstanceOf(RejectedExecutionException.class, rejected.get(5, TimeUnit.SECONDS));
+		release.countDown();
+	}
+
+	@Test
+	void oversizedBatchAcceptedWhenQueueEmpty() throws Exception {
+		bulkhead = new NotifyChannelBulkhead(1, channel(10, Duration.ofSeconds(10)), timer, callbackExecutor);
+		CountDownLatch done = new CountDownLatch(1);
+		bulkhead.submit(done::countDown, 100, Assertions::fail);
+		Assertions.assertTrue(done.await(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void timeoutCallbackRunsOutsideTimer() throws Exception {
+		bulkhead = new NotifyChannelBulkhead(1, channel(10, Duration.ofMillis(50)), timer, callbackExecutor);
+		CompletableFuture<Throwable> failure = new CompletableFuture<>();
+		CompletableFuture<String> callbackThread = new CompletableFuture<>();
+		bulkhead.submit(() -> awaitQuietly(new CountDownLatch(1)), 1, e -> {
+			callbackThread.complete(Thread.currentThread().getName());
+			failure.complete(e);
+		});
+
+		Assertions.assertInstanceOf(TimeoutException.class, failure.get(5, TimeUnit.SECONDS));
+		Assertions.assertEquals("test-callback", callbackThread.get());
+		Assertions.assertEquals(1, bulkhead.metrics().getTimeoutCount());
+	}
+
+	private static void noop() {
+	}
+
+	private static void awaitQuietly(CountDownLatch latch) {
+		try {
+			latch.await();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
@@ -0,0 +1,216 @@
+package com.hccake.ballcat.notify.push;
+
+import com.hccake.ballcat.notify.model.domain.AnnouncementNotifyInfo;
+import com.hccake.ballcat.notify.model.domain.NotifyInfo;
+import com.hccake.ballcat.notify.model.entity.NotifyPushOutbox;
+import com.hccake.ballcat.notify.properties.NotifyProperties;
+import com.hccake.ballcat.notify.recipient.RecipientFilter;
+import com.hccake.ballcat.notify.recipient.RecipientHandler;
+import com.hccake.ballcat.notify.service.NotifyPushOutboxService;
+import com.hccake.ballcat.system.model.entity.SysUser;
+import com.hccake.ballcat.system.service.SysUserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * @author hccake
+ */
+class NotifyPushExecutorTest {
+
+	private static final Integer CHANNEL = 1;
+
+	private static final Integer FILTER_TYPE = 1;
+
+	private final NotifyPushOutboxService outboxService = Mockito.mock(NotifyPushOutboxService.class);
+
+	private final SysUserService sysUserService = Mockito.mock(SysUserService.class);
+
+	private final NotifyPusher notifyPusher = Mockito.mock(NotifyPusher.class);
+
+	private final RecipientFilter recipientFilter = Mockito.mock(RecipientFilter.class);
+
+	private final NotifyInfo notifyInfo = new AnnouncementNotifyInfo().setRecipientFilterType(FILTER_TYPE)
+		.setReceiveMode(Collections.singletonList(CHANNEL));
+
+	private final NotifyProperties notifyProperties = new NotifyProperties();
+
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	private NotifyPushExecutor executor;
+
+	@BeforeEach
+	void setUp() {
+		Mockito.when(notifyPusher.notifyChannel()).thenReturn(CHANNEL);
+		Mockito.when(recipientFilter.filterType()).thenReturn(FILTER_TYPE);
+		executor = createExecutor();
+
+		SysUser sysUser = new SysUser();
+		sysUser.setUserId(10);
+		Mockito.when(sysUserService.listByIds(Mockito.anyCollection()))
+			.thenReturn(Collections.singletonList(sysUser));
+		Mockito.when(outboxService.readNotifyInfo(Mockito.any())).thenReturn(notifyInfo);
+	}
+
+	@AfterEach
+	void after() {
+		release.countDown();
+		executor.destroy();
+	}
+
+	@SuppressWarnings("unchecked")
+	private NotifyPushExecutor createExecutor() {
+		ObjectProvider<NotifyProperties> propertiesProvider = Mockito.mock(ObjectProvider.class);
+		Mockito.when(propertiesProvider.getIfAvailable(Mockito.any())).thenReturn(notifyProperties);
+		return new NotifyPushExecutor(new RecipientHandler(Collections.singletonList(recipientFilter)),
+				Collections.singletonList(notifyPusher), outboxService, sysUserService, propertiesProvider);
+	}
+
+	/**
+	 * 修改渠道配置后重新创建执行器，渠道配置在添加推送者时读取
+	 */
+	private void recreateExecutor(int maxQueuedRecipients, Duration timeout, boolean outboxEnabled) {
+		executor.destroy();
+		NotifyProperties.Channel channel = notifyProperties.getDefaultChannel();
+		channel.setConcurrency(1);
+		channel.setMaxQueuedRecipients(maxQueuedRecipients);
+		channel.setTimeout(timeout);
+		notifyProperties.getOutbox().setEnabled(outboxEnabled);
+		executor = createExecutor();
+	}
+
+	private void blockPusher() {
+		Mockito.doAnswer(invocation -> {
+			release.await();
+			return null;
+		}).when(notifyPusher).push(Mockito.any(), Mockito.any());
+	}
+
+	private static NotifyPushOutbox outbox(Long id, int retryCount) {
+		NotifyPushOutbox outbox = new NotifyPushOutbox();
+		outbox.setId(id);
+		outbox.setNotifyChannel(CHANNEL);
+		outbox.setUserIds(Collections.singletonList(10));
+		outbox.setRetryCount(retryCount);
+		return outbox;
+	}
+
+	@Test
+	void replayRemovesDeliveredOutbox() {
+		NotifyPushOutbox outbox = outbox(1L, 2);
+		Mockito.when(outboxService.listDue(Mockito.anyInt(), Mockito.anyInt()))
+			.thenReturn(Collections.singletonList(outbox));
+		Mockito.when(outboxService.claim(Mockito.eq(outbox), Mockito.any())).thenReturn(true);
+
+		LocalDateTime before = LocalDateTime.now();
+		executor.replay();
+
+		Mockito.verify(outboxService, Mockito.timeout(5000)).removeById(1L);
+		Mockito.verify(notifyPusher)
+			.push(Mockito.eq(notifyInfo), Mockito.<List<SysUser>>argThat(userList -> userList.size() == 1));
+		// 领取时即推迟下次重试时间，作为重放的租约
+		ArgumentCaptor<LocalDateTime> nextRetryTime = ArgumentCaptor.forClass(LocalDateTime.class);
+		Mockito.verify(outboxService).claim(Mockito.eq(outbox), nextRetryTime.capture());
+		Assertions.assertTrue(nextRetryTime.getValue().isAfter(before));
+	}
+
+	@Test
+	void replaySkipsOutboxClaimedByOtherNode() {
+		Mockito.when(outboxService.listDue(Mockito.anyInt(), Mockito.anyInt()))
+			.thenReturn(Collections.singletonList(outbox(1L, 0)));
+		Mockito.when(outboxService.claim(Mockito.any(), Mockito.any())).thenReturn(false);
+
+		executor.replay();
+
+		Mockito.verify(outboxService, Mockito.never()).readNotifyInfo(Mockito.any());
+		Mockito.verifyNoInteractions(sysUserService);
+		Mockito.verify(notifyPusher, Mockito.never()).push(Mockito.any(), Mockito.any());
+	}
+
+	@Test
+	void replayFailureRecordsError() {
+		Mockito.when(outboxService.listDue(Mockito.anyInt(), Mockito.anyInt()))
+			.thenReturn(Collections.singletonList(outbox(1L, 0)));
+		Mockito.when(outboxService.claim(Mockito.any(), Mockito.any())).thenReturn(true);
+		IllegalStateException error = new IllegalStateException("push error");
+		Mockito.doThrow(error).when(notifyPusher).push(Mockito.any(), Mockito.any());
+
+		executor.replay();
+
+		Mockito.verify(outboxService, Mockito.timeout(5000)).recordError(1L, error);
+		Mockito.verify(outboxService, Mockito.never()).removeById(Mockito.any(Long.class));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void pushWaitsForQueueSpaceInsteadOfDropping() {
+		recreateExecutor(2, Duration.ofSeconds(10), false);
+		Mockito.doAnswer(invocation -> {
+			Consumer<List<SysUser>> consumer = invocation.getArgument(2);
+			for (int i = 0; i < 20; i++) {
+				SysUser sysUser = new SysUser();
+				sysUser.setUserId(i);
+				consumer.accept(Collections.singletonList(sysUser));
+			}
+			return null;
+		}).when(recipientFilter).filter(Mockito.any(), Mockito.anyInt(), Mockito.any(Consumer.class));
+		Mockito.doAnswer(invocation -> {
+			Thread.sleep(5);
+			return null;
+		}).when(notifyPusher).push(Mockito.any(), Mockito.any());
+
+		executor.push(notifyInfo);
+
+		// 接收者数量远超队列容量时，所有批次均被推送
+		Mockito.verify(notifyPusher, Mockito.timeout(5000).times(20)).push(Mockito.eq(notifyInfo), Mockito.any());
+		Assertions.assertEquals(0, executor.getChannelMetrics().get(0).getRejectedCount());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void pushTimeoutNotReplayed() {
+		recreateExecutor(100, Duration.ofMillis(50), true);
+		Mockito.doAnswer(invocation -> {
+			Consumer<List<SysUser>> consumer = invocation.getArgument(2);
+			consumer.accept(Collections.singletonList(new SysUser()));
+			return null;
+		}).when(recipientFilter).filter(Mockito.any(), Mockito.anyInt(), Mockito.any(Consumer.class));
+		blockPusher();
+
+		executor.push(notifyInfo);
+
+		// 超时的批次可能已部分送达，写入重试表但不设置下次重试时间
+		Mockito.verify(outboxService, Mockito.timeout(5000))
+			.saveFailed(Mockito.eq(CHANNEL), Mockito.eq(notifyInfo), Mockito.anyList(), Mockito.isNull(),
+					Mockito.any(TimeoutException.class));
+	}
+
+	@Test
+	void replayTimeoutSuspended() {
+		recreateExecutor(100, Duration.ofMillis(50), true);
+		Mockito.when(outboxService.listDue(Mockito.anyInt(), Mockito.anyInt()))
+			.thenReturn(Collections.singletonList(outbox(1L, 0)));
+		Mockito.when(outboxService.claim(Mockito.any(), Mockito.any())).thenReturn(true);
+		blockPusher();
+
+		executor.replay();
+
+		Mockito.verify(outboxService, Mockito.timeout(5000))
+			.suspend(Mockito.eq(1L), Mockito.any(TimeoutException.class));
+		Mockito.verify(outboxService, Mockito.never()).recordError(Mockito.any(), Mockito.any());
+		Mockito.verify(outboxService, Mockito.never()).removeById(Mockito.any(Long.class));
+	}
+
+}
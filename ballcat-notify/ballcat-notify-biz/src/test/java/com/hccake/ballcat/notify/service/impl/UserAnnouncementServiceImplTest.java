@@ -0,0 +1,83 @@
+package com.hccake.ballcat.notify.service.impl;
+
+import com.hccake.ballcat.common.core.exception.BusinessException;
+import com.hccake.ballcat.common.security.userdetails.User;
+import com.hccake.ballcat.notify.enums.UserAnnouncementStateEnum;
+import com.hccake.ballcat.notify.mapper.UserAnnouncementMapper;
+import com.hccake.ballcat.notify.model.entity.Announcement;
+import com.hccake.ballcat.notify.model.entity.UserAnnouncement;
+import com.hccake.ballcat.notify.service.AnnouncementService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * @author hccake
+ */
+class UserAnnouncementServiceImplTest {
+
+	private static final Integer USER_ID = 1;
+
+	private static final Long ANNOUNCEMENT_ID = 10L;
+
+	private final AnnouncementService announcementService = Mockito.mock(AnnouncementService.class);
+
+	private final UserAnnouncementMapper userAnnouncementMapper = Mockito.mock(UserAnnouncementMapper.class);
+
+	private final UserAnnouncementServiceImpl userAnnouncementService = new UserAnnouncementServiceImpl(
+			announcementService);
+
+	private final User user = User.builder().userId(USER_ID).username("ballcat").build();
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(userAnnouncementService, "baseMapper", userAnnouncementMapper);
+		Mockito.when(announcementService.getActiveAnnouncement(user, ANNOUNCEMENT_ID)).thenReturn(new Announcement());
+	}
+
+	@Test
+	void invisibleAnnouncementRejected() {
+		Mockito.when(announcementService.getActiveAnnouncement(user, ANNOUNCEMENT_ID)).thenReturn(null);
+
+		Assertions.assertThrows(BusinessException.class,
+				() -> userAnnouncementService.readAnnouncement(user, ANNOUNCEMENT_ID));
+		Mockito.verifyNoInteractions(userAnnouncementMapper);
+	}
+
+	@Test
+	void existingRecordUpdated() {
+		Mockito.when(userAnnouncementMapper.updateToReadState(USER_ID, ANNOUNCEMENT_ID)).thenReturn(true);
+
+		userAnnouncementService.readAnnouncement(user, ANNOUNCEMENT_ID);
+		Mockito.verify(userAnnouncementMapper, Mockito.never()).insert(ArgumentMatchers.any(UserAnnouncement.class));
+	}
+
+	@Test
+	void firstReadInserted() {
+		userAnnouncementService.readAnnouncement(user, ANNOUNCEMENT_ID);
+
+		ArgumentCaptor<UserAnnouncement> captor = ArgumentCaptor.forClass(UserAnnouncement.class);
+		Mockito.verify(userAnnouncementMapper).insert(captor.capture());
+		UserAnnouncement userAnnouncement = captor.getValue();
+		Assertions.assertEquals(USER_ID, userAnnouncement.getUserId());
+		Assertions.assertEquals(ANNOUNCEMENT_ID, userAnnouncement.getAnnouncementId());
+		Assertions.assertEquals(UserAnnouncementStateEnum.READ.getValue(), userAnnouncement.getState());
+		Assertions.assertNotNull(userAnnouncement.getReadTime());
+	}
+
+	@Test
+	void concurrentFirstReadUpdated() {
+		Mockito.when(userAnnouncementMapper.insert(ArgumentMatchers.any(UserAnnouncement.class)))
+			.thenThrow(new DuplicateKeyException("uk_user_announcement"));
+
+		userAnnouncementService.readAnnouncement(user, ANNOUNCEMENT_ID);
+		// 已由其他请求写入时，改为更新已读状态
+		Mockito.verify(userAnnouncementMapper, Mockito.times(2)).updateToReadState(USER_ID, ANNOUNCEMENT_ID);
+	}
+
+}
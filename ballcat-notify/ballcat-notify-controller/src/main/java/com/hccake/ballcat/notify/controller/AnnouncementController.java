@@ -141,8 +141,7 @@ public class AnnouncementController {
 	@PreAuthorize("@per.hasPermission('notify:userannouncement:read')")
 	@Operation(summary = "用户公告信息", description = "用户公告信息")
 	public R<List<Announcement>> getUserAnnouncements() {
-		Integer userId = SecurityUtils.getUser().getUserId();
-		return R.ok(announcementService.listActiveAnnouncements(userId));
+		return R.ok(announcementService.listActiveAnnouncements(SecurityUtils.getUser()));
 	}
 
 }
\ No newline at end of file
@@ -32,14 +32,16 @@ public class UserAnnouncementController {
 	private final UserAnnouncementService userAnnouncementService;
 
 	/**
-	 * 分页查询
+	 * 分页查询公告的已读记录
+	 * <p>
+	 * 公告采用读时扩散，用户公告只在用户首次已读时写入，未读的接收者不会出现在查询结果中
 	 * @param pageParam 分页参数
 	 * @param userAnnouncementQO 用户公告表查询对象
 	 * @return R 通用返回体
 	 */
 	@GetMapping("/page")
 	@PreAuthorize("@per.hasPermission('notify:userannouncement:read')")
-	@Operation(summary = "分页查询", description = "分页查询")
+	@Operation(summary = "已读记录分页查询", description = "公告已读记录分页查询，未读的接收者不会出现在查询结果中")
 	public R<PageResult<UserAnnouncementPageVO>> getUserAnnouncementPage(@Validated PageParam pageParam,
 			UserAnnouncementQO userAnnouncementQO) {
 		return R.ok(userAnnouncementService.queryPage(pageParam, userAnnouncementQO));
@@ -49,8 +51,7 @@ public class UserAnnouncementController {
 	@PreAuthorize("@per.hasPermission('notify:userannouncement:read')")
 	@Operation(summary = "用户公告已读上报", description = "用户公告已读上报")
 	public R<Void> readAnnouncement(@PathVariable("announcementId") Long announcementId) {
-		Integer userId = SecurityUtils.getUser().getUserId();
-		userAnnouncementService.readAnnouncement(userId, announcementId);
+		userAnnouncementService.readAnnouncement(SecurityUtils.getUser(), announcementId);
 		return R.ok();
 	}
 
@@ -0,0 +1,90 @@
+package com.hccake.ballcat.notify.model.entity;
+
+import com.baomidou.mybatisplus.annotation.FieldFill;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.baomidou.mybatisplus.extension.handlers.JacksonTypeHandler;
+import com.hccake.ballcat.notify.enums.NotifyChannelEnum;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 通知推送失败重试表，记录推送失败的渠道及用户批次，由定时任务重放
+ *
+ * @author hccake
+ */
+@Data
+@TableName(value = "notify_push_outbox", autoResultMap = true)
+@Schema(title = "通知推送失败重试表")
+public class NotifyPushOutbox {
+
+	/**
+	 * ID
+	 */
+	@TableId
+	@Schema(title = "ID")
+	private Long id;
+
+	/**
+	 * 推送渠道
+	 * @see NotifyChannelEnum
+	 */
+	@Schema(title = "推送渠道")
+	private Integer notifyChannel;
+
+	/**
+	 * 通知信息类型
+	 */
+	@Schema(title = "通知信息类型")
+	private String notifyInfoType;
+
+	/**
+	 * 通知信息，json 格式
+	 */
+	@Schema(title = "通知信息")
+	private String notifyInfo;
+
+	/**
+	 * 推送失败的用户ID
+	 */
+	@TableField(typeHandler = JacksonTypeHandler.class)
+	@Schema(title = "推送失败的用户ID")
+	private List<Integer> userIds;
+
+	/**
+	 * 已重试次数
+	 */
+	@Schema(title = "已重试次数")
+	private Integer retryCount;
+
+	/**
+	 * 下次重试时间
+	 */
+	@Schema(title = "下次重试时间")
+	private LocalDateTime nextRetryTime;
+
+	/**
+	 * 最近一次失败原因
+	 */
+	@Schema(title = "最近一次失败原因")
+	private String lastError;
+
+	/**
+	 * 创建时间
+	 */
+	@TableField(fill = FieldFill.INSERT)
+	@Schema(title = "创建时间")
+	private LocalDateTime createTime;
+
+	/**
+	 * 更新时间
+	 */
+	@TableField(fill = FieldFill.INSERT_UPDATE)
+	@Schema(title = "更新时间")
+	private LocalDateTime updateTime;
+
+}
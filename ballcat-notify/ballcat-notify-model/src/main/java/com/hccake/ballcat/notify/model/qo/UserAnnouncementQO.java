@@ -23,4 +23,16 @@ public class UserAnnouncementQO {
 	@Parameter(description = "ID")
 	private Long id;
 
+	/**
+	 * 公告id
+	 */
+	@Parameter(description = "公告id")
+	private Long announcementId;
+
+	/**
+	 * 用户ID
+	 */
+	@Parameter(description = "用户ID")
+	private Integer userId;
+
 }
\ No newline at end of file
@@ -0,0 +1,94 @@
+package com.hccake.ballcat.common.security.component;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.util.PatternMatchUtils;
+import org.springframework.util.StringUtils;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 预编译的权限匹配器，每个用户的权限集合只编译一次
+ * <ul>
+ * <li>不含通配符的权限标识：哈希查找</li>
+ * <li>仅以 * 结尾的权限标识：在有序的权限数组上二分查找前缀</li>
+ * <li>其他通配符形式：遍历匹配，并缓存匹配结果</li>
+ * </ul>
+ *
+ * @author hccake
+ */
+final class AuthorityMatcher {
+
+	private static final char WILDCARD = '*';
+
+	private final Set<String> authorities;
+
+	private final String[] sortedAuthorities;
+
+	private final Map<String, Boolean> patternResults = new ConcurrentHashMap<>();
+
+	/**
+	 * @param authorities 权限标识集合，需为不可变集合，见 {@link #toAuthoritySet(Collection)}
+	 */
+	AuthorityMatcher(Set<String> authorities) {
+		this.authorities = authorities;
+		this.sortedAuthorities = authorities.toArray(new String[0]);
+		Arrays.sort(this.sortedAuthorities);
+	}
+
+	/**
+	 * 提取权限标识，忽略空白的权限
+	 * @param grantedAuthorities 权限集合
+	 * @return 不可变的权限标识集合，内容相同的集合 equals 且 hashCode 相等
+	 */
+	static Set<String> toAuthoritySet(Collection<? extends GrantedAuthority> grantedAuthorities) {
+		Set<String> set = new HashSet<>(Math.max(16, grantedAuthorities.size() * 4 / 3 + 1));
+		for (GrantedAuthority grantedAuthority : grantedAuthorities) {
+			String authority = grantedAuthority.getAuthority();
+			if (StringUtils.hasText(authority)) {
+				set.add(authority);
+			}
+		}
+		return Collections.unmodifiableSet(set);
+	}
+
+	/**
+	 * 是否拥有匹配的权限
+	 * @param permission 权限标识，支持 * 通配符
+	 * @return boolean
+	 */
+	boolean matches(String permission) {
+		int firstWildcard = permission.indexOf(WILDCARD);
+		if (firstWildcard == -1) {
+			return authorities.contains(permission);
+		}
+		if (firstWildcard == permission.length() - 1) {
+			return hasPrefix(permission.substring(0, firstWildcard));
+		}
+		return patternResults.computeIfAbsent(permission, this::scan);
+	}
+
+	private boolean hasPrefix(String prefix) {
+		int index = Arrays.binarySearch(sortedAuthorities, prefix);
+		if (index >= 0) {
+			return true;
+		}
+		int insertionPoint = -index - 1;
+		return insertionPoint < sortedAuthorities.length && sortedAuthorities[insertionPoint].startsWith(prefix);
+	}
+
+	private boolean scan(String pattern) {
+		for (String authority : sortedAuthorities) {
+			if (PatternMatchUtils.simpleMatch(pattern, authority)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+}
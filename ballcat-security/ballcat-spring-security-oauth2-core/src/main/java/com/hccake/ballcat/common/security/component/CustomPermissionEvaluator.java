@@ -3,16 +3,26 @@ package com.hccake.ballcat.common.security.component;
 import cn.hutool.core.text.CharSequenceUtil;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.util.PatternMatchUtils;
-import org.springframework.util.StringUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
 
-import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
 
 @Slf4j
 public class CustomPermissionEvaluator {
 
+	/**
+	 * 预编译的权限匹配器缓存，key 为不可变的权限标识集合，权限相同的用户共享同一个匹配器，软引用，内存不足时可被回收
+	 */
+	private final Map<Set<String>, AuthorityMatcher> matcherCache = new ConcurrentReferenceHashMap<>(256,
+			ConcurrentReferenceHashMap.ReferenceType.SOFT);
+
+	/**
+	 * 认证信息 -> 权限匹配器，按对象引用区分且为弱引用，同一认证信息的多次鉴权只需构建一次权限集合，认证信息被回收后自动移除
+	 */
+	private final Map<Authentication, AuthorityMatcher> authenticationMatchers = new AuthenticationMatcherMap();
+
 	/**
 	 * 判断接口是否有xxx:xxx权限
 	 * @param permission 权限
@@ -26,11 +36,39 @@ public class CustomPermissionEvaluator {
 		if (authentication == null) {
 			return false;
 		}
-		Collection<? extends GrantedAuthority> authorities = authentication.getAuthorities();
-		return authorities.stream()
-			.map(GrantedAuthority::getAuthority)
-			.filter(StringUtils::hasText)
-			.anyMatch(x -> PatternMatchUtils.simpleMatch(permission, x));
+		return getAuthorityMatcher(authentication).matches(permission);
+	}
+
+	/**
+	 * 获取当前用户的权限匹配器，同一认证信息只构建一次权限集合，相同的权限集合只编译一次
+	 * @param authentication 当前用户的认证信息
+	 * @return AuthorityMatcher
+	 */
+	private AuthorityMatcher getAuthorityMatcher(Authentication authentication) {
+		AuthorityMatcher matcher = authenticationMatchers.get(authentication);
+		if (matcher == null) {
+			Set<String> authorities = AuthorityMatcher.toAuthoritySet(authentication.getAuthorities());
+			matcher = matcherCache.computeIfAbsent(authorities, AuthorityMatcher::new);
+			authenticationMatchers.put(authentication, matcher);
+		}
+		return matcher;
+	}
+
+	/**
+	 * 按对象引用计算 hash 的弱引用 Map，Authentication 的 hashCode 会遍历所有权限
+	 */
+	private static final class AuthenticationMatcherMap
+			extends ConcurrentReferenceHashMap<Authentication, AuthorityMatcher> {
+
+		AuthenticationMatcherMap() {
+			super(256, ReferenceType.WEAK);
+		}
+
+		@Override
+		protected int getHash(Object o) {
+			return System.identityHashCode(o);
+		}
+
 	}
 
 }
@@ -0,0 +1,100 @@
+package com.hccake.ballcat.common.security.test;
+
+import com.hccake.ballcat.common.security.component.CustomPermissionEvaluator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @author hccake
+ */
+class PermissionEvaluatorTest {
+
+	private final CustomPermissionEvaluator evaluator = new CustomPermissionEvaluator();
+
+	@BeforeEach
+	void setAuthentication() {
+		// 模拟拥有大量权限的管理员用户
+		List<GrantedAuthority> authorities = new ArrayList<>();
+		for (int i = 0; i < 10000; i++) {
+			authorities.add(new SimpleGrantedAuthority("module" + (i / 100) + ":resource" + (i % 100) + ":read"));
+		}
+		authorities.add(new SimpleGrantedAuthority("system:user:edit"));
+		authorities.add(new SimpleGrantedAuthority(" "));
+		TestingAuthenticationToken authentication = new TestingAuthenticationToken(new Object(), null, authorities);
+		SecurityContextHolder.getContext().setAuthentication(authentication);
+	}
+
+	@AfterEach
+	void clearAuthentication() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void exactMatchTest() {
+		Assertions.assertTrue(evaluator.hasPermission("system:user:edit"));
+		Assertions.assertTrue(evaluator.hasPermission("module99:resource99:read"));
+		Assertions.assertFalse(evaluator.hasPermission("system:user:del"));
+		Assertions.assertFalse(evaluator.hasPermission("module100:resource0:read"));
+		Assertions.assertFalse(evaluator.hasPermission(" "));
+	}
+
+	@Test
+	void wildcardMatchTest() {
+		Assertions.assertTrue(evaluator.hasPermission("*"));
+		Assertions.assertTrue(evaluator.hasPermission("system:*"));
+		Assertions.assertTrue(evaluator.hasPermission("module5:*"));
+		Assertions.assertFalse(evaluator.hasPermission("module100:*"));
+		Assertions.assertTrue(evaluator.hasPermission("*:edit"));
+		Assertions.assertTrue(evaluator.hasPermission("module1:*:read"));
+		Assertions.assertFalse(evaluator.hasPermission("module1:*:write"));
+		Assertions.assertFalse(evaluator.hasPermission("*:delete"));
+	}
+
+	@Test
+	void authoritiesChangedWithSameSizeTest() {
+		Object principal = new Object();
+		SecurityContextHolder.getContext()
+			.setAuthentication(new TestingAuthenticationToken(principal, null, "system:user:read"));
+		Assertions.assertTrue(evaluator.hasPermission("system:user:read"));
+
+		// 权限数量不变但内容变化时，不能命中旧的匹配器
+		SecurityContextHolder.getContext()
+			.setAuthentication(new TestingAuthenticationToken(principal, null, "system:user:edit"));
+		Assertions.assertFalse(evaluator.hasPermission("system:user:read"));
+		Assertions.assertTrue(evaluator.hasPermission("system:user:edit"));
+	}
+
+	@Test
+	void authoritiesReadOncePerAuthenticationTest() {
+		Authentication authentication = Mockito.mock(Authentication.class);
+		Mockito.doReturn(Collections.singletonList(new SimpleGrantedAuthority("system:user:edit")))
+			.when(authentication)
+			.getAuthorities();
+		SecurityContextHolder.getContext().setAuthentication(authentication);
+
+		Assertions.assertTrue(evaluator.hasPermission("system:user:edit"));
+		Assertions.assertFalse(evaluator.hasPermission("system:user:del"));
+		Assertions.assertTrue(evaluator.hasPermission("system:*"));
+		Mockito.verify(authentication, Mockito.times(1)).getAuthorities();
+	}
+
+	@Test
+	void noAuthenticationTest() {
+		SecurityContextHolder.clearContext();
+		Assertions.assertFalse(evaluator.hasPermission("system:user:edit"));
+		Assertions.assertFalse(evaluator.hasPermission(""));
+	}
+
+}
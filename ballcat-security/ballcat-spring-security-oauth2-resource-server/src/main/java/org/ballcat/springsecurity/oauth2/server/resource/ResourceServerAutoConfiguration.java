@@ -1,17 +1,23 @@
 package org.ballcat.springsecurity.oauth2.server.resource;
 
+import com.hccake.ballcat.common.redis.listener.AbstractMessageEventListener;
 import com.hccake.ballcat.common.security.component.CustomPermissionEvaluator;
 import org.ballcat.springsecurity.oauth2.server.resource.configurer.ResourceServerWebSecurityConfigurerAdapter;
 import org.ballcat.springsecurity.oauth2.server.resource.introspection.BallcatRemoteOpaqueTokenIntrospector;
+import org.ballcat.springsecurity.oauth2.server.resource.introspection.OpaqueTokenIntrospectionCache;
+import org.ballcat.springsecurity.oauth2.server.resource.introspection.OpaqueTokenRevocationListener;
 import org.ballcat.springsecurity.oauth2.server.resource.web.CustomAuthenticationEntryPoint;
 import lombok.RequiredArgsConstructor;
 import org.ballcat.springsecurity.oauth2.server.resource.properties.OAuth2ResourceServerProperties;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
 import org.springframework.security.oauth2.server.resource.authentication.OpaqueTokenAuthenticationProvider;
 import org.springframework.security.oauth2.server.resource.introspection.OpaqueTokenIntrospector;
@@ -41,6 +47,21 @@ public class ResourceServerAutoConfiguration {
 		return new CustomPermissionEvaluator();
 	}
 
+	/**
+	 * 不透明令牌鉴定结果的本地缓存
+	 * @return OpaqueTokenIntrospectionCache
+	 */
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(prefix = "ballcat.security.oauth2.resourceserver.introspection-cache", name = "enabled",
+			havingValue = "true")
+	public OpaqueTokenIntrospectionCache opaqueTokenIntrospectionCache(
+			OAuth2ResourceServerProperties oAuth2ResourceServerProperties) {
+		OAuth2ResourceServerProperties.IntrospectionCache cacheProperties = oAuth2ResourceServerProperties
+			.getIntrospectionCache();
+		return new OpaqueTokenIntrospectionCache(cacheProperties.getMaximumSize(), cacheProperties.getTimeToLive());
+	}
+
 	/**
 	 * 当资源服务器和授权服务器的 token 存储无法共享时，通过远程调用的方式，向授权服务鉴定 token，并同时获取对应的授权信息
 	 * @return NimbusOpaqueTokenIntrospector
@@ -50,10 +71,13 @@ public class ResourceServerAutoConfiguration {
 	@ConditionalOnProperty(prefix = "ballcat.security.oauth2.resourceserver", name = "shared-stored-token",
 			havingValue = "false")
 	public OpaqueTokenIntrospector opaqueTokenIntrospector(
-			OAuth2ResourceServerProperties oAuth2ResourceServerProperties) {
+			OAuth2ResourceServerProperties oAuth2ResourceServerProperties,
+			ObjectProvider<OpaqueTokenIntrospectionCache> introspectionCacheProvider) {
 		OAuth2ResourceServerProperties.Opaquetoken opaqueToken = oAuth2ResourceServerProperties.getOpaqueToken();
-		return new BallcatRemoteOpaqueTokenIntrospector(opaqueToken.getIntrospectionUri(), opaqueToken.getClientId(),
-				opaqueToken.getClientSecret());
+		BallcatRemoteOpaqueTokenIntrospector introspector = new BallcatRemoteOpaqueTokenIntrospector(
+				opaqueToken.getIntrospectionUri(), opaqueToken.getClientId(), opaqueToken.getClientSecret());
+		introspectionCacheProvider.ifAvailable(introspector::setIntrospectionCache);
+		return introspector;
 	}
 
 	/**
@@ -89,4 +113,30 @@ public class ResourceServerAutoConfiguration {
 		return defaultBearerTokenResolver;
 	}
 
+	/**
+	 * 开启令牌鉴定缓存且引入了 redis 时，监听授权服务器广播的令牌撤销消息，移除本节点的鉴定缓存
+	 */
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnClass({ AbstractMessageEventListener.class, StringRedisTemplate.class })
+	@ConditionalOnProperty(prefix = "ballcat.security.oauth2.resourceserver.introspection-cache", name = "enabled",
+			havingValue = "true")
+	static class OpaqueTokenRevocationListenerConfiguration {
+
+		/**
+		 * 令牌撤销消息的监听器，依赖于令牌鉴定缓存
+		 * <p>
+		 * 注意：内部配置类先于外部类的 bean 方法注册，这里无法使用 ConditionalOnBean 判断缓存是否存在，所以和缓存使用相同的配置开关
+		 * </p>
+		 * @param introspectionCache 令牌鉴定缓存
+		 * @return OpaqueTokenRevocationListener
+		 */
+		@Bean
+		@ConditionalOnMissingBean
+		public OpaqueTokenRevocationListener opaqueTokenRevocationListener(
+				OpaqueTokenIntrospectionCache introspectionCache) {
+			return new OpaqueTokenRevocationListener(introspectionCache);
+		}
+
+	}
+
 }
@@ -60,6 +60,11 @@ public class BallcatRemoteOpaqueTokenIntrospector implements OpaqueTokenIntrospe
 
 	private Converter<String, RequestEntity<?>> requestEntityConverter;
 
+	/**
+	 * 鉴定结果的本地缓存，为 null 时每次都请求授权服务器
+	 */
+	private OpaqueTokenIntrospectionCache introspectionCache;
+
 	private static final List<String> INTROSPECTION_CLAIM_NAMES = Arrays.asList(
 			OAuth2TokenIntrospectionClaimNames.ACTIVE, OAuth2TokenIntrospectionClaimNames.USERNAME,
 			OAuth2TokenIntrospectionClaimNames.CLIENT_ID, OAuth2TokenIntrospectionClaimNames.SCOPE,
@@ -121,13 +126,33 @@ public class BallcatRemoteOpaqueTokenIntrospector implements OpaqueTokenIntrospe
 
 	@Override
 	public OAuth2AuthenticatedPrincipal introspect(String token) {
+		if (this.introspectionCache != null) {
+			OAuth2AuthenticatedPrincipal cachedPrincipal = this.introspectionCache.get(token);
+			if (cachedPrincipal != null) {
+				return cachedPrincipal;
+			}
+		}
 		RequestEntity<?> requestEntity = this.requestEntityConverter.convert(token);
 		if (requestEntity == null) {
 			throw new OAuth2IntrospectionException("requestEntityConverter returned a null entity");
 		}
 		ResponseEntity<Map<String, Object>> responseEntity = makeRequest(requestEntity);
 		Map<String, Object> claims = adaptToNimbusResponse(responseEntity);
-		return convertClaimsSet(claims);
+		OAuth2AuthenticatedPrincipal principal = convertClaimsSet(claims);
+		if (this.introspectionCache != null) {
+			// convertClaimsSet 之后 exp 已转换为 Instant
+			Object expiresAt = claims.get(OAuth2TokenIntrospectionClaimNames.EXP);
+			this.introspectionCache.put(token, principal, expiresAt instanceof Instant ? (Instant) expiresAt : null);
+		}
+		return principal;
+	}
+
+	/**
+	 * 设置鉴定结果的本地缓存，缓存有效期不会超过令牌的剩余有效期
+	 * @param introspectionCache 鉴定结果缓存
+	 */
+	public void setIntrospectionCache(OpaqueTokenIntrospectionCache introspectionCache) {
+		this.introspectionCache = introspectionCache;
 	}
 
 	/**
@@ -0,0 +1,203 @@
+package org.ballcat.springsecurity.oauth2.server.resource.introspection;
+
+import org.springframework.lang.Nullable;
+import org.springframework.security.oauth2.core.OAuth2AuthenticatedPrincipal;
+import org.springframework.util.Assert;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 不透明令牌鉴定结果的本地缓存
+ * <p>
+ * 缓存以 token 的 SHA-256 摘要作为 key，避免在内存中保留令牌原文；缓存的有效期为配置的 ttl 与令牌剩余有效期中的较小值。
+ * 令牌撤销时，需要调用 {@link #evict(String)} 或 {@link #evictByTokenHash(String)} 移除对应缓存， 集群部署时应将
+ * {@link #hash(String)} 的结果广播至所有资源服务器。
+ * </p>
+ * <p>
+ * 撤销时会记录令牌摘要，保留 ttl 时长，期间拒绝写入该令牌的缓存，防止撤销前已发起的鉴定在撤销后写入缓存，导致已撤销的令牌在整个 ttl 内仍然有效。
+ * </p>
+ *
+ * @author hccake
+ */
+public class OpaqueTokenIntrospectionCache {
+
+	private final Map<String, CachedPrincipal> cache = new ConcurrentHashMap<>();
+
+	/**
+	 * 已撤销的令牌摘要 -> 撤销记录的过期时间
+	 */
+	private final Map<String, Instant> revokedTokenHashes = new ConcurrentHashMap<>();
+
+	private final int maximumSize;
+
+	private final Duration timeToLive;
+
+	private Clock clock = Clock.systemUTC();
+
+	/**
+	 * @param maximumSize 最大缓存数量
+	 * @param timeToLive 缓存的最长存活时间
+	 */
+	public OpaqueTokenIntrospectionCache(int maximumSize, Duration timeToLive) {
+		Assert.isTrue(maximumSize > 0, "maximumSize must be greater than 0");
+		Assert.isTrue(timeToLive != null && !timeToLive.isNegative() && !timeToLive.isZero(),
+				"timeToLive must be positive");
+		this.maximumSize = maximumSize;
+		this.timeToLive = timeToLive;
+	}
+
+	/**
+	 * 获取缓存的鉴定结果
+	 * @param token 令牌
+	 * @return 未命中或已过期时返回 null
+	 */
+	@Nullable
+	public OAuth2AuthenticatedPrincipal get(String token) {
+		String tokenHash = hash(token);
+		CachedPrincipal cachedPrincipal = cache.get(tokenHash);
+		if (cachedPrincipal == null) {
+			return null;
+		}
+		if (!cachedPrincipal.expiresAt.isAfter(clock.instant())) {
+			cache.remove(tokenHash, cachedPrincipal);
+			return null;
+		}
+		return cachedPrincipal.principal;
+	}
+
+	/**
+	 * 缓存鉴定结果
+	 * @param token 令牌
+	 * @param principal 鉴定结果
+	 * @param tokenExpiresAt 令牌的过期时间，未知时传 null
+	 */
+	public void put(String token, OAuth2AuthenticatedPrincipal principal, @Nullable Instant tokenExpiresAt) {
+		Instant now = clock.instant();
+		Instant expiresAt = now.plus(timeToLive);
+		if (tokenExpiresAt != null && tokenExpiresAt.isBefore(expiresAt)) {
+			expiresAt = tokenExpiresAt;
+		}
+		if (!expiresAt.isAfter(now)) {
+			return;
+		}
+		String tokenHash = hash(token);
+		if (isRevoked(tokenHash, now)) {
+			return;
+		}
+		if (cache.size() >= maximumSize) {
+			shrink(now);
+		}
+		CachedPrincipal cachedPrincipal = new CachedPrincipal(principal, expiresAt);
+		cache.put(tokenHash, cachedPrincipal);
+		// 撤销记录先于缓存移除写入，写入缓存后再次检查，保证与并发的撤销无论如何交错都不会留下缓存
+		if (isRevoked(tokenHash, now)) {
+			cache.remove(tokenHash, cachedPrincipal);
+		}
+	}
+
+	/**
+	 * 移除指定令牌的缓存
+	 * @param token 令牌
+	 */
+	public void evict(String token) {
+		evictByTokenHash(hash(token));
+	}
+
+	/**
+	 * 根据令牌摘要移除缓存，用于接收其他节点广播的撤销消息
+	 * @param tokenHash {@link #hash(String)} 计算出的令牌摘要
+	 */
+	public void evictByTokenHash(String tokenHash) {
+		Instant now = clock.instant();
+		if (revokedTokenHashes.size() >= maximumSize) {
+			revokedTokenHashes.values().removeIf(revokedUntil -> !revokedUntil.isAfter(now));
+		}
+		revokedTokenHashes.put(tokenHash, now.plus(timeToLive));
+		cache.remove(tokenHash);
+	}
+
+	private boolean isRevoked(String tokenHash, Instant now) {
+		Instant revokedUntil = revokedTokenHashes.get(tokenHash);
+		if (revokedUntil == null) {
+			return false;
+		}
+		if (!revokedUntil.isAfter(now)) {
+			revokedTokenHashes.remove(tokenHash, revokedUntil);
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * 清空缓存
+	 */
+	public void clear() {
+		cache.clear();
+	}
+
+	/**
+	 * 当前缓存数量
+	 * @return int
+	 */
+	public int size() {
+		return cache.size();
+	}
+
+	public void setClock(Clock clock) {
+		Assert.notNull(clock, "clock cannot be null");
+		this.clock = clock;
+	}
+
+	/**
+	 * 缓存已满时，先清理过期数据，仍然不足时再淘汰部分数据，保留 1/10 的空余
+	 * @param now 当前时间
+	 */
+	private void shrink(Instant now) {
+		cache.entrySet().removeIf(entry -> !entry.getValue().expiresAt.isAfter(now));
+		int excess = cache.size() - (maximumSize - maximumSize / 10);
+		Iterator<String> iterator = cache.keySet().iterator();
+		while (excess-- > 0 && iterator.hasNext()) {
+			iterator.next();
+			iterator.remove();
+		}
+	}
+
+	/**
+	 * 计算令牌摘要
+	 * @param token 令牌
+	 * @return SHA-256 摘要的 base64url 编码
+	 */
+	public static String hash(String token) {
+		try {
+			MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+			byte[] digest = messageDigest.digest(token.getBytes(StandardCharsets.UTF_8));
+			return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException("SHA-256 algorithm not available", ex);
+		}
+	}
+
+	private static final class CachedPrincipal {
+
+		private final OAuth2AuthenticatedPrincipal principal;
+
+		private final Instant expiresAt;
+
+		private CachedPrincipal(OAuth2AuthenticatedPrincipal principal, Instant expiresAt) {
+			this.principal = principal;
+			this.expiresAt = expiresAt;
+		}
+
+	}
+
+}
@@ -0,0 +1,37 @@
+package org.ballcat.springsecurity.oauth2.server.resource.introspection;
+
+import com.hccake.ballcat.common.redis.listener.AbstractMessageEventListener;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.Topic;
+
+/**
+ * 令牌撤销消息的监听器
+ * <p>
+ * 授权服务器撤销或替换令牌后，会将令牌摘要（{@link OpaqueTokenIntrospectionCache#hash(String)}）发布至
+ * {@link #CHANNEL_OPAQUE_TOKEN_REVOKED}，各资源服务器节点收到消息后移除本地的令牌鉴定缓存。
+ * </p>
+ *
+ * @author hccake
+ */
+@RequiredArgsConstructor
+public class OpaqueTokenRevocationListener extends AbstractMessageEventListener<String> {
+
+	/**
+	 * 令牌撤销消息的 channel 名
+	 */
+	public static final String CHANNEL_OPAQUE_TOKEN_REVOKED = "channel:opaque-token-revoked";
+
+	private final OpaqueTokenIntrospectionCache introspectionCache;
+
+	@Override
+	protected void handleMessage(String tokenHash) {
+		introspectionCache.evictByTokenHash(tokenHash);
+	}
+
+	@Override
+	public Topic topic() {
+		return new ChannelTopic(CHANNEL_OPAQUE_TOKEN_REVOKED);
+	}
+
+}
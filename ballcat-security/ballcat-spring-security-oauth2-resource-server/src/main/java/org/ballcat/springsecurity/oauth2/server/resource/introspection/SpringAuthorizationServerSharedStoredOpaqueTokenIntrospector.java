@@ -34,17 +34,41 @@ public class SpringAuthorizationServerSharedStoredOpaqueTokenIntrospector implem
 
 	private final OAuth2AuthorizationService authorizationService;
 
+	/**
+	 * 鉴定结果的本地缓存，为 null 时每次都读取共享存储
+	 */
+	private OpaqueTokenIntrospectionCache introspectionCache;
+
 	public SpringAuthorizationServerSharedStoredOpaqueTokenIntrospector(
 			OAuth2AuthorizationService authorizationService) {
 		this.authorizationService = authorizationService;
 	}
 
+	/**
+	 * 设置鉴定结果的本地缓存，缓存有效期不会超过令牌的剩余有效期
+	 * @param introspectionCache 鉴定结果缓存
+	 */
+	public void setIntrospectionCache(OpaqueTokenIntrospectionCache introspectionCache) {
+		this.introspectionCache = introspectionCache;
+	}
+
 	/**
 	 * @param accessTokenValue token
 	 * @return OAuth2AuthenticatedPrincipal
 	 */
 	@Override
 	public OAuth2AuthenticatedPrincipal introspect(String accessTokenValue) {
+		if (introspectionCache == null) {
+			return doIntrospect(accessTokenValue);
+		}
+		OAuth2AuthenticatedPrincipal principal = introspectionCache.get(accessTokenValue);
+		if (principal == null) {
+			principal = doIntrospect(accessTokenValue);
+		}
+		return principal;
+	}
+
+	private OAuth2AuthenticatedPrincipal doIntrospect(String accessTokenValue) {
 		OAuth2Authorization authorization = authorizationService.findByToken(accessTokenValue, null);
 		if (authorization == null) {
 			if (log.isTraceEnabled()) {
@@ -61,15 +85,22 @@ public class SpringAuthorizationServerSharedStoredOpaqueTokenIntrospector implem
 			throw new BadOpaqueTokenException("Provided token isn't active");
 		}
 
+		OAuth2AuthenticatedPrincipal principal;
 		AuthorizationGrantType authorizationGrantType = authorization.getAuthorizationGrantType();
 		if (AuthorizationGrantType.CLIENT_CREDENTIALS.equals(authorizationGrantType)) {
-			return getClientPrincipal(authorization);
+			principal = getClientPrincipal(authorization);
+		}
+		else {
+			UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken = (UsernamePasswordAuthenticationToken) authorization
+				.getAttributes()
+				.get("java.security.Principal");
+			principal = (OAuth2AuthenticatedPrincipal) usernamePasswordAuthenticationToken.getPrincipal();
 		}
 
-		UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken = (UsernamePasswordAuthenticationToken) authorization
-			.getAttributes()
-			.get("java.security.Principal");
-		return (OAuth2AuthenticatedPrincipal) usernamePasswordAuthenticationToken.getPrincipal();
+		if (introspectionCache != null) {
+			introspectionCache.put(accessTokenValue, principal, authorizedToken.getToken().getExpiresAt());
+		}
+		return principal;
 	}
 
 	private ClientPrincipal getClientPrincipal(OAuth2Authorization oAuth2Authentication) {
@@ -4,6 +4,7 @@ import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -38,6 +39,11 @@ public class OAuth2ResourceServerProperties {
 	 */
 	private final Opaquetoken opaqueToken = new Opaquetoken();
 
+	/**
+	 * 不透明令牌鉴定结果的本地缓存配置
+	 */
+	private final IntrospectionCache introspectionCache = new IntrospectionCache();
+
 	@Getter
 	@Setter
 	public static class Opaquetoken {
@@ -59,4 +65,25 @@ public class OAuth2ResourceServerProperties {
 
 	}
 
+	@Getter
+	@Setter
+	public static class IntrospectionCache {
+
+		/**
+		 * 是否开启鉴定结果的本地缓存，开启后令牌撤销需要广播至各资源服务器，否则撤销的令牌在缓存过期前仍然可用
+		 */
+		private boolean enabled = false;
+
+		/**
+		 * 最大缓存数量
+		 */
+		private int maximumSize = 10000;
+
+		/**
+		 * 缓存的最长存活时间，实际存活时间不会超过令牌的剩余有效期
+		 */
+		private Duration timeToLive = Duration.ofMinutes(5);
+
+	}
+
 }
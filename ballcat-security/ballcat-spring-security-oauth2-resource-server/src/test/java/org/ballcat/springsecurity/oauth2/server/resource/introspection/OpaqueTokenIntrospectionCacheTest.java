@@ -0,0 +1,71 @@
+package org.ballcat.springsecurity.oauth2.server.resource.introspection;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.RequestEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.oauth2.core.DefaultOAuth2AuthenticatedPrincipal;
+import org.springframework.security.oauth2.core.OAuth2AuthenticatedPrincipal;
+import org.springframework.web.client.RestOperations;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @author hccake
+ */
+class OpaqueTokenIntrospectionCacheTest {
+
+	private static final String TOKEN = "access-token";
+
+	private final OAuth2AuthenticatedPrincipal principal = new DefaultOAuth2AuthenticatedPrincipal("user",
+			Collections.singletonMap("sub", "user"), Collections.emptyList());
+
+	private final OpaqueTokenIntrospectionCache cache = new OpaqueTokenIntrospectionCache(100, Duration.ofMinutes(5));
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void revocationDuringIntrospectionNotCached() {
+		RestOperations restOperations = Mockito.mock(RestOperations.class);
+		Mockito
+			.when(restOperations.exchange(Mockito.any(RequestEntity.class),
+					Mockito.any(ParameterizedTypeReference.class)))
+			.thenAnswer(invocation -> {
+				// 授权服务器返回鉴定结果前，令牌已被撤销
+				cache.evictByTokenHash(OpaqueTokenIntrospectionCache.hash(TOKEN));
+				Map<String, Object> claims = new HashMap<>();
+				claims.put("active", true);
+				claims.put("sub", "user");
+				return new ResponseEntity<>(claims, HttpStatus.OK);
+			});
+		BallcatRemoteOpaqueTokenIntrospector introspector = new BallcatRemoteOpaqueTokenIntrospector(
+				"https://auth.example.com/oauth2/introspect", restOperations);
+		introspector.setIntrospectionCache(cache);
+
+		Assertions.assertNotNull(introspector.introspect(TOKEN));
+		Assertions.assertNull(cache.get(TOKEN));
+		Assertions.assertEquals(0, cache.size());
+	}
+
+	@Test
+	void revocationRecordExpiresAfterTimeToLive() {
+		Instant now = Instant.parse("2023-01-01T00:00:00Z");
+		cache.setClock(Clock.fixed(now, ZoneOffset.UTC));
+		cache.evict(TOKEN);
+		cache.put(TOKEN, principal, null);
+		Assertions.assertNull(cache.get(TOKEN));
+
+		cache.setClock(Clock.fixed(now.plus(Duration.ofMinutes(6)), ZoneOffset.UTC));
+		cache.put(TOKEN, principal, null);
+		Assertions.assertSame(principal, cache.get(TOKEN));
+	}
+
+}
@@ -0,0 +1,78 @@
+package org.ballcat.springsecurity.oauth2.server.resource.introspection;
+
+import com.hccake.ballcat.common.util.JsonUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.security.oauth2.core.DefaultOAuth2AuthenticatedPrincipal;
+import org.springframework.security.oauth2.core.OAuth2AuthenticatedPrincipal;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+
+/**
+ * @author hccake
+ */
+class OpaqueTokenRevocationListenerTest {
+
+	private static final String TOKEN = "access-token";
+
+	private final OAuth2AuthenticatedPrincipal principal = new DefaultOAuth2AuthenticatedPrincipal("user",
+			Collections.singletonMap("sub", "user"), Collections.emptyList());
+
+	private OpaqueTokenIntrospectionCache nodeACache;
+
+	private OpaqueTokenIntrospectionCache nodeBCache;
+
+	private OpaqueTokenRevocationListener nodeAListener;
+
+	private OpaqueTokenRevocationListener nodeBListener;
+
+	@BeforeEach
+	void setUp() {
+		nodeACache = new OpaqueTokenIntrospectionCache(100, Duration.ofMinutes(5));
+		nodeBCache = new OpaqueTokenIntrospectionCache(100, Duration.ofMinutes(5));
+		nodeACache.put(TOKEN, principal, null);
+		nodeBCache.put(TOKEN, principal, null);
+
+		nodeAListener = listener(nodeACache);
+		nodeBListener = listener(nodeBCache);
+	}
+
+	private static OpaqueTokenRevocationListener listener(OpaqueTokenIntrospectionCache cache) {
+		OpaqueTokenRevocationListener listener = new OpaqueTokenRevocationListener(cache);
+		ReflectionTestUtils.setField(listener, "stringRedisTemplate", new StringRedisTemplate());
+		return listener;
+	}
+
+	private static DefaultMessage message(String channel, String tokenValue) {
+		// 与授权服务器广播的内容一致：令牌摘要的 json
+		String body = JsonUtils.toJson(OpaqueTokenIntrospectionCache.hash(tokenValue));
+		return new DefaultMessage(channel.getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	void revocationEvictsEveryNode() {
+		// 授权服务器广播后，所有订阅的节点（包括发布者自身）都会收到消息并移除本地缓存
+		DefaultMessage message = message(OpaqueTokenRevocationListener.CHANNEL_OPAQUE_TOKEN_REVOKED, TOKEN);
+		nodeAListener.onMessage(message, null);
+		nodeBListener.onMessage(message, null);
+
+		Assertions.assertNull(nodeACache.get(TOKEN));
+		Assertions.assertNull(nodeBCache.get(TOKEN));
+	}
+
+	@Test
+	void otherTokenAndChannelIgnored() {
+		nodeBListener.onMessage(message(OpaqueTokenRevocationListener.CHANNEL_OPAQUE_TOKEN_REVOKED, "other-token"),
+				null);
+		nodeBListener.onMessage(message("channel:other", TOKEN), null);
+
+		Assertions.assertSame(principal, nodeBCache.get(TOKEN));
+	}
+
+}
@@ -4,6 +4,8 @@ import com.hccake.starter.file.ftp.FtpMode;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
+
 /**
  * @author lingting 2021/10/17 19:37
  */
@@ -72,6 +74,46 @@ public class FileProperties {
 		 */
 		private String encoding = "UTF-8";
 
+		/**
+		 * 连接池配置
+		 */
+		private Pool pool = new Pool();
+
+	}
+
+	@Data
+	public static class Pool {
+
+		/**
+		 * 最大连接数
+		 */
+		private int maxTotal = 8;
+
+		/**
+		 * 最大空闲连接数
+		 */
+		private int maxIdle = 8;
+
+		/**
+		 * 最小空闲连接数
+		 */
+		private int minIdle = 0;
+
+		/**
+		 * 获取连接的最长等待时间
+		 */
+		private Duration maxWait = Duration.ofSeconds(10);
+
+		/**
+		 * 空闲连接检测（NOOP 保活及空闲驱逐）的执行间隔
+		 */
+		private Duration timeBetweenEvictionRuns = Duration.ofSeconds(60);
+
+		/**
+		 * 连接空闲超过该时间后将被驱逐
+		 */
+		private Duration minEvictableIdleTime = Duration.ofMinutes(5);
+
 	}
 
 }
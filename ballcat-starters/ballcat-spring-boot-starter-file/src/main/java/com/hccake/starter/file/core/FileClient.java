@@ -1,8 +1,12 @@
 package com.hccake.starter.file.core;
 
+import com.hccake.ballcat.common.util.StreamUtils;
+
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
 
 /**
  * @author lingting 2021/10/17 20:11
@@ -26,6 +30,18 @@ public interface FileClient {
 	 */
 	File download(String relativePath) throws IOException;
 
+	/**
+	 * 下载文件，直接写入到指定的输出流中 - 不会关闭流
+	 * @param relativePath 文件相对 getRoot() 的路径
+	 * @param outputStream 输出流
+	 */
+	default void download(String relativePath, OutputStream outputStream) throws IOException {
+		File file = download(relativePath);
+		try (InputStream inputStream = Files.newInputStream(file.toPath())) {
+			StreamUtils.write(inputStream, outputStream);
+		}
+	}
+
 	/**
 	 * 删除文件
 	 * @param relativePath 文件相对 getRoot() 的路径
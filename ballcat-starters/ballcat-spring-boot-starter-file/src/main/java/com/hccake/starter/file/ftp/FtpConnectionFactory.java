@@ -0,0 +1,82 @@
+package com.hccake.starter.file.ftp;
+
+import cn.hutool.extra.ftp.Ftp;
+import cn.hutool.extra.ftp.FtpConfig;
+import org.apache.commons.pool2.BasePooledObjectFactory;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.impl.DefaultPooledObject;
+
+import java.io.IOException;
+
+/**
+ * ftp 连接的池化工厂
+ * <p>
+ * 一个 ftp 控制连接同一时间只能执行一个操作，所以每次操作都需要从池中独占一个连接。 连接归还时会切换回登录后的初始目录，校验时通过发送 NOOP
+ * 命令保活并剔除已断开的连接。
+ * </p>
+ *
+ * @author hccake
+ */
+public class FtpConnectionFactory extends BasePooledObjectFactory<Ftp> {
+
+	private final FtpConfig config;
+
+	private final cn.hutool.extra.ftp.FtpMode mode;
+
+	/**
+	 * 登录后的初始目录，同一用户的所有连接相同
+	 */
+	private volatile String homeDirectory;
+
+	public FtpConnectionFactory(FtpConfig config, FtpMode mode) {
+		this.config = config;
+		if (mode == FtpMode.ACTIVE) {
+			this.mode = cn.hutool.extra.ftp.FtpMode.Active;
+		}
+		else if (mode == FtpMode.PASSIVE) {
+			this.mode = cn.hutool.extra.ftp.FtpMode.Passive;
+		}
+		else {
+			this.mode = null;
+		}
+	}
+
+	@Override
+	public Ftp create() {
+		Ftp ftp = new Ftp(config, mode);
+		if (homeDirectory == null) {
+			homeDirectory = ftp.pwd();
+		}
+		return ftp;
+	}
+
+	@Override
+	public PooledObject<Ftp> wrap(Ftp ftp) {
+		return new DefaultPooledObject<>(ftp);
+	}
+
+	@Override
+	public boolean validateObject(PooledObject<Ftp> p) {
+		try {
+			return p.getObject().getClient().sendNoOp();
+		}
+		catch (IOException e) {
+			// 连接已失效，由连接池销毁
+			return false;
+		}
+	}
+
+	@Override
+	public void passivateObject(PooledObject<Ftp> p) throws Exception {
+		// 操作过程中可能切换了工作目录，归还时切换回初始目录，避免影响下一次使用
+		if (homeDirectory != null && !p.getObject().getClient().changeWorkingDirectory(homeDirectory)) {
+			throw new IOException("ftp 切换工作目录失败: " + homeDirectory);
+		}
+	}
+
+	@Override
+	public void destroyObject(PooledObject<Ftp> p) throws Exception {
+		p.getObject().close();
+	}
+
+}
@@ -5,45 +5,54 @@ import cn.hutool.core.text.CharSequenceUtil;
 import cn.hutool.extra.ftp.Ftp;
 import cn.hutool.extra.ftp.FtpConfig;
 import com.hccake.starter.file.FileProperties.FtpProperties;
+import com.hccake.starter.file.FileProperties.Pool;
 import com.hccake.starter.file.core.AbstractFileClient;
 import com.hccake.starter.file.exception.FileException;
+import org.apache.commons.pool2.impl.GenericObjectPool;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 import org.springframework.util.StringUtils;
 
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.charset.Charset;
 
 /**
+ * ftp 文件客户端，通过连接池支持并发操作
+ *
  * @author lingting 2021/10/17 20:11
  * @author 疯狂的狮子Li 2022-04-24
  */
-public class FtpFileClient extends AbstractFileClient {
+public class FtpFileClient extends AbstractFileClient implements AutoCloseable {
 
-	private final Ftp client;
+	private final GenericObjectPool<Ftp> pool;
 
 	public FtpFileClient(FtpProperties properties) {
+		if (!StringUtils.hasText(properties.getPath())) {
+			throw new NullPointerException("ftp文件根路径不能为空!");
+		}
+
 		FtpConfig config = new FtpConfig().setHost(properties.getIp())
 			.setPort(properties.getPort())
 			.setUser(properties.getUsername())
 			.setPassword(properties.getPassword())
 			.setCharset(Charset.forName(properties.getEncoding()));
 
-		final FtpMode mode = properties.getMode();
-		if (mode == FtpMode.ACTIVE) {
-			client = new Ftp(config, cn.hutool.extra.ftp.FtpMode.Active);
-		}
-		else if (mode == FtpMode.PASSIVE) {
-			client = new Ftp(config, cn.hutool.extra.ftp.FtpMode.Passive);
-		}
-		else {
-			client = new Ftp(config, null);
-		}
-
-		if (!StringUtils.hasText(properties.getPath())) {
-			throw new NullPointerException("ftp文件根路径不能为空!");
-		}
+		Pool poolProperties = properties.getPool() == null ? new Pool() : properties.getPool();
+		GenericObjectPoolConfig<Ftp> poolConfig = new GenericObjectPoolConfig<>();
+		poolConfig.setMaxTotal(poolProperties.getMaxTotal());
+		poolConfig.setMaxIdle(poolProperties.getMaxIdle());
+		poolConfig.setMinIdle(poolProperties.getMinIdle());
+		poolConfig.setMaxWait(poolProperties.getMaxWait());
+		poolConfig.setTimeBetweenEvictionRuns(poolProperties.getTimeBetweenEvictionRuns());
+		poolConfig.setMinEvictableIdleTime(poolProperties.getMinEvictableIdleTime());
+		// 借出及空闲时通过 NOOP 校验连接，同时起到保活作用
+		poolConfig.setTestOnBorrow(true);
+		poolConfig.setTestWhileIdle(true);
+		poolConfig.setJmxEnabled(false);
+		pool = new GenericObjectPool<>(new FtpConnectionFactory(config, properties.getMode()), poolConfig);
 
 		super.rootPath = properties.getPath().endsWith(super.slash) ? properties.getPath()
 				: properties.getPath() + super.slash;
@@ -61,7 +70,7 @@ public class FtpFileClient extends AbstractFileClient {
 		final String fileName = FileUtil.getName(path);
 		final String dir = CharSequenceUtil.removeSuffix(path, fileName);
 		// 上传失败
-		if (!client.upload(dir, fileName, stream)) {
+		if (!execute(client -> client.upload(dir, fileName, stream))) {
 			throw new FileException(
 					String.format("文件上传失败! 相对路径: %s; 根路径: %s; 请检查此路径是否存在以及登录用户是否拥有操作权限!", relativePath, path));
 		}
@@ -75,27 +84,92 @@ public class FtpFileClient extends AbstractFileClient {
 	 */
 	@Override
 	public File download(String relativePath) throws IOException {
-		final String path = getWholePath(relativePath);
-		final String fileName = FileUtil.getName(path);
-		final String dir = CharSequenceUtil.removeSuffix(path, fileName);
+		final String fileName = FileUtil.getName(getWholePath(relativePath));
 		// 临时文件
 		File tmpFile = FileUtil.createTempFile();
 		tmpFile = FileUtil.rename(tmpFile, fileName, true);
 		// 输出流
 		try (FileOutputStream outputStream = new FileOutputStream(tmpFile)) {
-			client.download(dir, fileName, outputStream);
+			download(relativePath, outputStream);
 		}
 		return tmpFile;
 	}
 
+	/**
+	 * 下载文件，直接写入到指定的输出流中，不经过临时文件 - 不会关闭流
+	 * @param relativePath 文件相对 getRoot() 的路径
+	 * @param outputStream 输出流
+	 */
+	@Override
+	public void download(String relativePath, OutputStream outputStream) throws IOException {
+		final String path = getWholePath(relativePath);
+		final String fileName = FileUtil.getName(path);
+		final String dir = CharSequenceUtil.removeSuffix(path, fileName);
+		execute(client -> {
+			client.download(dir, fileName, outputStream);
+			return null;
+		});
+	}
+
 	/**
 	 * 删除文件
 	 * @param relativePath 文件相对 getRoot() 的路径
 	 * @return boolean
 	 */
 	@Override
-	public boolean delete(String relativePath) {
-		return client.delFile(getWholePath(relativePath));
+	public boolean delete(String relativePath) throws IOException {
+		final String path = getWholePath(relativePath);
+		return execute(client -> client.delFile(path));
+	}
+
+	/**
+	 * 从连接池中借出一个连接执行操作，执行异常的连接将被销毁
+	 * @param callback 操作
+	 * @return 操作结果
+	 */
+	private <T> T execute(FtpCallback<T> callback) throws IOException {
+		Ftp client;
+		try {
+			client = pool.borrowObject();
+		}
+		catch (Exception e) {
+			throw new FileException("获取 ftp 连接失败!", e);
+		}
+
+		T result;
+		try {
+			result = callback.doInFtp(client);
+		}
+		catch (RuntimeException | Error e) {
+			invalidate(client);
+			throw e;
+		}
+		pool.returnObject(client);
+		return result;
+	}
+
+	private void invalidate(Ftp client) {
+		try {
+			pool.invalidateObject(client);
+		}
+		catch (Exception ignore) {
+			// 销毁失败时连接已不可用，忽略即可
+		}
+	}
+
+	/**
+	 * 关闭连接池
+	 */
+	@Override
+	public void close() {
+		pool.close();
+	}
+
+	@FunctionalInterface
+	private interface FtpCallback<T> {
+
+		T doInFtp(Ftp client);
+
 	}
 
 }
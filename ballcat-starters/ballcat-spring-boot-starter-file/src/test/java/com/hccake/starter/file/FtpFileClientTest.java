@@ -9,12 +9,17 @@ import org.apache.ftpserver.usermanager.impl.BaseUser;
 import org.apache.ftpserver.usermanager.impl.WritePermission;
 import org.junit.jupiter.api.*;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * @author lingting 2021/10/18 17:16
@@ -76,6 +81,38 @@ class FtpFileClientTest {
 
 	@Test
 	@Order(3)
+	void downloadToStream() throws IOException {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		client.download(RELATIVE_PATH, outputStream);
+		Assertions.assertEquals(outputStream.toString(StandardCharsets.UTF_8.name()),
+				StreamUtils.toString(Files.newInputStream(OPERATE_FILE.toPath())), "文件内容不匹配!");
+	}
+
+	@Test
+	@Order(4)
+	void concurrentDownload() throws Exception {
+		String expected = StreamUtils.toString(Files.newInputStream(OPERATE_FILE.toPath()));
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<String>> futures = new ArrayList<>();
+			for (int i = 0; i < 16; i++) {
+				futures.add(executor.submit(() -> {
+					ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+					client.download(RELATIVE_PATH, outputStream);
+					return outputStream.toString(StandardCharsets.UTF_8.name());
+				}));
+			}
+			for (Future<String> future : futures) {
+				Assertions.assertEquals(expected, future.get(), "并发下载文件内容不匹配!");
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	@Order(5)
 	void delete() throws IOException {
 		Assertions.assertTrue(client.delete(RELATIVE_PATH), "删除失败. 有问题");
 		Assertions.assertFalse(client.delete(RELATIVE_PATH), "删除成功, 有问题");
@@ -32,7 +32,8 @@ public class AccessLogAutoConfiguration {
 	public FilterRegistrationBean<AccessLogFilter> accessLogFilterRegistrationBean() {
 		log.debug("access log 记录拦截器已开启====");
 		FilterRegistrationBean<AccessLogFilter> registrationBean = new FilterRegistrationBean<>(
-				new AccessLogFilter(accessLogService, accessLogProperties.getIgnoreUrlPatterns()));
+				new AccessLogFilter(accessLogService, accessLogProperties.getIgnoreUrlPatterns(),
+						accessLogProperties.getBody()));
 		registrationBean.setOrder(-1000);
 		return registrationBean;
 	}
@@ -1,5 +1,6 @@
 package com.hccake.ballcat.autoconfigure.log.properties;
 
+import com.hccake.ballcat.common.log.access.filter.BodyCaptureSettings;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
@@ -29,4 +30,9 @@ public class AccessLogProperties {
 	private List<String> ignoreUrlPatterns = Arrays.asList("/actuator/**", "/webjars/**", "/favicon.ico",
 			"/swagger-ui/**", "/bycdao-ui/**", "/captcha/get");
 
+	/**
+	 * 请求体和响应体的记录配置：最大记录长度、采样率等
+	 */
+	private BodyCaptureSettings body = new BodyCaptureSettings();
+
 }
\ No newline at end of file
@@ -1,28 +1,51 @@
 package com.hccake.ballcat.common.mail;
 
+import com.hccake.ballcat.common.mail.sender.AsyncMailSender;
 import com.hccake.ballcat.common.mail.sender.MailSender;
 import com.hccake.ballcat.common.mail.sender.MailSenderImpl;
+import com.hccake.ballcat.common.mail.sender.MailTransportPool;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.mail.MailSenderAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
 
 /**
  * @author Hccake 2021/1/7
  * @version 1.0
  */
 @AutoConfiguration(after = MailSenderAutoConfiguration.class)
+@EnableConfigurationProperties(MailProperties.class)
 public class MailAutoConfiguration {
 
+	@Bean(destroyMethod = "close")
+	@ConditionalOnMissingBean
+	@ConditionalOnBean(JavaMailSenderImpl.class)
+	@ConditionalOnProperty(prefix = MailProperties.PREFIX + ".pool", name = "enabled", havingValue = "true")
+	public MailTransportPool mailTransportPool(JavaMailSenderImpl javaMailSender, MailProperties mailProperties) {
+		return new MailTransportPool(javaMailSender, mailProperties.getPool());
+	}
+
 	@Bean
 	@ConditionalOnMissingBean(MailSender.class)
 	@ConditionalOnProperty(prefix = "spring.mail", name = "host")
-	public MailSender mailSenderImpl(JavaMailSender javaMailSender,
-			ApplicationEventPublisher applicationEventPublisher) {
-		return new MailSenderImpl(javaMailSender, applicationEventPublisher);
+	public MailSenderImpl mailSenderImpl(JavaMailSender javaMailSender,
+			ApplicationEventPublisher applicationEventPublisher, ObjectProvider<MailTransportPool> transportPool) {
+		return new MailSenderImpl(javaMailSender, applicationEventPublisher, transportPool.getIfAvailable());
+	}
+
+	@Bean(destroyMethod = "close")
+	@ConditionalOnMissingBean
+	@ConditionalOnBean(MailSenderImpl.class)
+	@ConditionalOnProperty(prefix = MailProperties.PREFIX + ".async", name = "enabled", havingValue = "true")
+	public AsyncMailSender asyncMailSender(MailSenderImpl mailSender, MailProperties mailProperties) {
+		return new AsyncMailSender(mailSender, mailProperties.getAsync());
 	}
 
 }
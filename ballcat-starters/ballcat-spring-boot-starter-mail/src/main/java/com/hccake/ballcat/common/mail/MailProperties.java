@@ -0,0 +1,108 @@
+package com.hccake.ballcat.common.mail;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 邮件发送属性配置
+ *
+ * @author hccake
+ */
+@Setter
+@Getter
+@ConfigurationProperties(MailProperties.PREFIX)
+public class MailProperties {
+
+	public static final String PREFIX = "ballcat.mail";
+
+	/**
+	 * smtp 连接池配置
+	 */
+	private Pool pool = new Pool();
+
+	/**
+	 * 异步发送配置
+	 */
+	private Async async = new Async();
+
+	@Setter
+	@Getter
+	public static class Pool {
+
+		/**
+		 * 是否开启连接池，开启后邮件将复用已建立的 smtp 连接发送，避免每封邮件都重新建立连接及 TLS 握手
+		 */
+		private boolean enabled = false;
+
+		/**
+		 * 最大连接数
+		 */
+		private int maxTotal = 4;
+
+		/**
+		 * 最大空闲连接数
+		 */
+		private int maxIdle = 4;
+
+		/**
+		 * 最小空闲连接数
+		 */
+		private int minIdle = 0;
+
+		/**
+		 * 获取连接的最大等待时间
+		 */
+		private Duration maxWait = Duration.ofSeconds(10);
+
+		/**
+		 * 空闲连接检测周期
+		 */
+		private Duration timeBetweenEvictionRuns = Duration.ofSeconds(30);
+
+		/**
+		 * 连接最小空闲时间，超出后将被回收，应小于 smtp 服务端的空闲超时时间
+		 */
+		private Duration minEvictableIdleTime = Duration.ofMinutes(1);
+
+	}
+
+	@Setter
+	@Getter
+	public static class Async {
+
+		/**
+		 * 是否开启异步发送
+		 */
+		private boolean enabled = false;
+
+		/**
+		 * 发送线程数
+		 */
+		private int threads = 2;
+
+		/**
+		 * 等待队列容量，队列已满时将拒绝提交
+		 */
+		private int queueCapacity = 1000;
+
+		/**
+		 * 最大发送次数，包含首次发送
+		 */
+		private int maxAttempts = 3;
+
+		/**
+		 * 首次重试的等待时间，之后每次翻倍
+		 */
+		private Duration initialBackoff = Duration.ofSeconds(1);
+
+		/**
+		 * 重试的最大等待时间
+		 */
+		private Duration maxBackoff = Duration.ofSeconds(30);
+
+	}
+
+}
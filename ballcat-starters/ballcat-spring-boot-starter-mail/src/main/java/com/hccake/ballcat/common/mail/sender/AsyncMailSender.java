@@ -0,0 +1,230 @@
+package com.hccake.ballcat.common.mail.sender;
+
+import com.hccake.ballcat.common.mail.MailProperties;
+import com.hccake.ballcat.common.mail.model.MailDetails;
+import com.hccake.ballcat.common.mail.model.MailSendInfo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.mail.MailSendException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import javax.mail.AuthenticationFailedException;
+import javax.mail.MessagingException;
+import javax.mail.SendFailedException;
+import javax.mail.internet.ParseException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 邮件异步发送器，使用有界队列缓冲待发送邮件，因连接等临时性原因发送失败的邮件按指数退避重试，
+ * 收件人地址无效、认证失败等重试也无法成功的邮件不会重试。
+ * <p>
+ * 邮件发送事件只在最终结果确定后发布一次
+ *
+ * @author hccake
+ */
+@Slf4j
+public class AsyncMailSender implements AutoCloseable {
+
+	private final MailSenderImpl mailSender;
+
+	private final MailProperties.Async properties;
+
+	private final ThreadPoolExecutor executor;
+
+	private final ScheduledExecutorService retryScheduler;
+
+	public AsyncMailSender(MailSenderImpl mailSender, MailProperties.Async properties) {
+		this.mailSender = mailSender;
+		this.properties = properties;
+		this.executor = new ThreadPoolExecutor(properties.getThreads(), properties.getThreads(), 0L,
+				TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(properties.getQueueCapacity()),
+				daemonThreadFactory("mail-sender-"));
+		this.retryScheduler = new ScheduledThreadPoolExecutor(1, daemonThreadFactory("mail-retry-"));
+	}
+
+	private static CustomizableThreadFactory daemonThreadFactory(String threadNamePrefix) {
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(threadNamePrefix);
+		threadFactory.setDaemon(true);
+		return threadFactory;
+	}
+
+	/**
+	 * 异步发送邮件
+	 * @param mailDetails 邮件信息
+	 * @return 最终的发送结果
+	 * @throws MailSendException 邮件校验不通过或发送队列已满
+	 */
+	public CompletableFuture<MailSendInfo> sendMailAsync(MailDetails mailDetails) {
+		return sendMailsAsync(Collections.singletonList(mailDetails)).thenApply(list -> list.get(0));
+	}
+
+	/**
+	 * 异步批量发送邮件，同一批邮件通过同一个 smtp 连接发送
+	 * @param mailDetailsList 邮件信息
+	 * @return 与入参顺序一致的最终发送结果
+	 * @throws MailSendException 邮件校验不通过或发送队列已满
+	 */
+	public CompletableFuture<List<MailSendInfo>> sendMailsAsync(List<MailDetails> mailDetailsList) {
+		// 校验失败的邮件重试也无法成功，直接抛出
+		mailDetailsList.forEach(mailSender::checkMail);
+
+		List<CompletableFuture<MailSendInfo>> futures = new ArrayList<>(mailDetailsList.size());
+		for (int i = 0; i < mailDetailsList.size(); i++) {
+			futures.add(new CompletableFuture<>());
+		}
+		submit(new SendTask(new ArrayList<>(mailDetailsList), futures, 1));
+
+		return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).thenApply(v -> {
+			List<MailSendInfo> result = new ArrayList<>(futures.size());
+			futures.forEach(f -> result.add(f.join()));
+			return result;
+		});
+	}
+
+	private void submit(SendTask task) {
+		try {
+			executor.execute(task);
+		}
+		catch (RejectedExecutionException e) {
+			throw new MailSendException("邮件发送队列已满!", e);
+		}
+	}
+
+	long backoffMillis(int attempt) {
+		long initial = properties.getInitialBackoff().toMillis();
+		long max = properties.getMaxBackoff().toMillis();
+		// attempt 从 1 开始，第 n 次重试等待 initial * 2^(n-1)
+		int shift = Math.min(attempt - 1, 30);
+		return Math.min(initial << shift, max);
+	}
+
+	/**
+	 * 判断发送失败是否为临时性的，仅临时性的失败才需要重试
+	 * @param e 发送失败的异常
+	 * @return 是否可以重试
+	 */
+	static boolean isTransient(Throwable e) {
+		if (e instanceof MailSendException) {
+			// 获取 smtp 连接失败、连接池耗尽等
+			Throwable cause = e.getCause();
+			return !(cause instanceof MessagingException) || isTransient(cause);
+		}
+		if (e instanceof MessagingException) {
+			// 收件人地址无效、地址或内容解析失败、认证失败时，重试也无法成功
+			return !(e instanceof SendFailedException || e instanceof ParseException
+					|| e instanceof AuthenticationFailedException);
+		}
+		// 邮件构建失败、认证失败等
+		return false;
+	}
+
+	/**
+	 * 关闭发送器，等待队列中的邮件发送完成，未执行的重试将被放弃
+	 * @param timeout 最大等待时间
+	 * @param unit 时间单位
+	 */
+	public void shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+		retryScheduler.shutdownNow();
+		executor.shutdown();
+		if (!executor.awaitTermination(timeout, unit)) {
+			log.warn("邮件发送队列关闭超时, 剩余 {} 封邮件未发送", executor.getQueue().size());
+			executor.shutdownNow();
+		}
+	}
+
+	@Override
+	public void close() throws InterruptedException {
+		shutdown(10, TimeUnit.SECONDS);
+	}
+
+	private class SendTask implements Runnable {
+
+		private final List<MailDetails> mailDetailsList;
+
+		private final List<CompletableFuture<MailSendInfo>> futures;
+
+		private final int attempt;
+
+		SendTask(List<MailDetails> mailDetailsList, List<CompletableFuture<MailSendInfo>> futures, int attempt) {
+			this.mailDetailsList = mailDetailsList;
+			this.futures = futures;
+			this.attempt = attempt;
+		}
+
+		@Override
+		public void run() {
+			Exception[] errors = new Exception[mailDetailsList.size()];
+			List<MailSendInfo> result = mailSender.doSendMails(mailDetailsList, errors);
+			List<MailDetails> retryMails = new ArrayList<>();
+			List<CompletableFuture<MailSendInfo>> retryFutures = new ArrayList<>();
+			List<MailSendInfo> retryLastResult = new ArrayList<>();
+			boolean canRetry = attempt < properties.getMaxAttempts();
+			for (int i = 0; i < result.size(); i++) {
+				MailSendInfo mailSendInfo = result.get(i);
+				if (canRetry && !Boolean.TRUE.equals(mailSendInfo.getSuccess()) && isTransient(errors[i])) {
+					retryMails.add(mailDetailsList.get(i));
+					retryFutures.add(futures.get(i));
+					retryLastResult.add(mailSendInfo);
+				}
+				else {
+					complete(futures.get(i), mailSendInfo);
+				}
+			}
+			if (!retryMails.isEmpty()) {
+				scheduleRetry(new SendTask(retryMails, retryFutures, attempt + 1), retryLastResult);
+			}
+		}
+
+		private void scheduleRetry(SendTask retryTask, List<MailSendInfo> lastResult) {
+			long delay = backoffMillis(attempt);
+			log.warn("{} 封邮件发送失败, {} ms 后进行第 {} 次发送", retryTask.mailDetailsList.size(), delay, retryTask.attempt);
+			try {
+				retryScheduler.schedule(() -> {
+					try {
+						submit(retryTask);
+					}
+					catch (MailSendException e) {
+						retryTask.giveUp(e);
+					}
+				}, delay, TimeUnit.MILLISECONDS);
+			}
+			catch (RejectedExecutionException e) {
+				// 发送器已关闭, 以最后一次发送结果作为最终结果
+				for (int i = 0; i < lastResult.size(); i++) {
+					complete(retryTask.futures.get(i), lastResult.get(i));
+				}
+			}
+		}
+
+		private void giveUp(Exception e) {
+			for (int i = 0; i < mailDetailsList.size(); i++) {
+				MailSendInfo mailSendInfo = new MailSendInfo(mailDetailsList.get(i));
+				mailSendInfo.setSentDate(LocalDateTime.now());
+				mailSendInfo.setSuccess(false);
+				mailSendInfo.setErrorMsg(e.getMessage());
+				complete(futures.get(i), mailSendInfo);
+			}
+		}
+
+		private void complete(CompletableFuture<MailSendInfo> future, MailSendInfo mailSendInfo) {
+			try {
+				mailSender.publishEvent(mailSendInfo);
+			}
+			catch (Exception e) {
+				log.error("邮件发送事件发布失败", e);
+			}
+			future.complete(mailSendInfo);
+		}
+
+	}
+
+}
@@ -5,6 +5,7 @@ import com.hccake.ballcat.common.mail.model.MailSendInfo;
 import org.springframework.mail.MailSendException;
 import org.springframework.util.StringUtils;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -21,6 +22,19 @@ public interface MailSender {
 	 */
 	MailSendInfo sendMail(MailDetails mailDetails);
 
+	/**
+	 * 批量发送邮件，每封邮件单独返回发送结果
+	 * @param mailDetailsList 邮件信息
+	 * @return 与入参顺序一致的发送结果
+	 */
+	default List<MailSendInfo> sendMails(List<MailDetails> mailDetailsList) {
+		List<MailSendInfo> result = new ArrayList<>(mailDetailsList.size());
+		for (MailDetails mailDetails : mailDetailsList) {
+			result.add(sendMail(mailDetails));
+		}
+		return result;
+	}
+
 	/**
 	 * 发送邮件
 	 * @param subject 主题
@@ -7,13 +7,25 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.util.StringUtils;
 
+import javax.mail.Address;
 import javax.mail.MessagingException;
+import javax.mail.Transport;
+import javax.mail.internet.MimeMessage;
 import java.io.File;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 /**
  * @author Hccake
@@ -28,12 +40,21 @@ public class MailSenderImpl implements MailSender {
 
 	private final ApplicationEventPublisher eventPublisher;
 
+	/**
+	 * smtp 连接池，为空时使用 JavaMailSender 发送
+	 */
+	private final MailTransportPool transportPool;
+
 	/**
 	 * 配置文件中我的qq邮箱
 	 */
 	@Value("${spring.mail.properties.from}")
 	private String defaultFrom;
 
+	public MailSenderImpl(JavaMailSender mailSender, ApplicationEventPublisher eventPublisher) {
+		this(mailSender, eventPublisher, null);
+	}
+
 	/**
 	 * 发送邮件
 	 * @param mailDetails 邮件参数
@@ -41,33 +62,206 @@ public class MailSenderImpl implements MailSender {
 	 */
 	@Override
 	public MailSendInfo sendMail(MailDetails mailDetails) {
-		MailSendInfo mailSendInfo = new MailSendInfo(mailDetails);
-		mailSendInfo.setSentDate(LocalDateTime.now());
+		return sendMails(Collections.singletonList(mailDetails)).get(0);
+	}
+
+	/**
+	 * 批量发送邮件，所有邮件通过同一个 smtp 连接发送
+	 * @param mailDetailsList 邮件信息
+	 * @return 与入参顺序一致的发送结果
+	 */
+	@Override
+	public List<MailSendInfo> sendMails(List<MailDetails> mailDetailsList) {
+		List<MailSendInfo> result = doSendMails(mailDetailsList);
+		// 发布邮件发送事件
+		result.forEach(this::publishEvent);
+		return result;
+	}
+
+	/**
+	 * 发送邮件，但不发布邮件发送事件
+	 * @param mailDetailsList 邮件信息
+	 * @return 与入参顺序一致的发送结果
+	 */
+	List<MailSendInfo> doSendMails(List<MailDetails> mailDetailsList) {
+		return doSendMails(mailDetailsList, new Exception[mailDetailsList.size()]);
+	}
+
+	/**
+	 * 发送邮件，但不发布邮件发送事件
+	 * @param mailDetailsList 邮件信息
+	 * @param errors 与入参顺序一致，记录每封邮件发送失败的异常
+	 * @return 与入参顺序一致的发送结果
+	 */
+	List<MailSendInfo> doSendMails(List<MailDetails> mailDetailsList, Exception[] errors) {
+		int size = mailDetailsList.size();
+		List<MailSendInfo> result = new ArrayList<>(size);
+		MimeMessage[] messages = new MimeMessage[size];
+		LocalDateTime now = LocalDateTime.now();
+		for (int i = 0; i < size; i++) {
+			MailDetails mailDetails = mailDetailsList.get(i);
+			MailSendInfo mailSendInfo = new MailSendInfo(mailDetails);
+			mailSendInfo.setSentDate(now);
+			result.add(mailSendInfo);
+			try {
+				// 1.检测邮件
+				checkMail(mailDetails);
+				// 2.构建邮件
+				messages[i] = createMimeMessage(mailDetails);
+			}
+			catch (Exception e) {
+				errors[i] = e;
+				fail(mailSendInfo, e);
+			}
+		}
+
+		// 3.发送邮件
+		if (transportPool != null) {
+			sendWithPool(messages, result, errors);
+		}
+		else {
+			sendWithMailSender(messages, result, errors);
+		}
+		return result;
+	}
+
+	void publishEvent(MailSendInfo mailSendInfo) {
+		eventPublisher.publishEvent(new MailSendEvent(mailSendInfo));
+	}
+
+	/**
+	 * 使用 JavaMailSender 批量发送，JavaMailSender 会在一个连接中发送所有邮件
+	 */
+	private void sendWithMailSender(MimeMessage[] messages, List<MailSendInfo> result, Exception[] errors) {
+		MimeMessage[] toSend = Arrays.stream(messages).filter(Objects::nonNull).toArray(MimeMessage[]::new);
+		if (toSend.length == 0) {
+			return;
+		}
+		Map<Object, Exception> failedMessages = Collections.emptyMap();
+		MailException exception = null;
+		try {
+			mailSender.send(toSend);
+		}
+		catch (MailSendException e) {
+			failedMessages = e.getFailedMessages();
+			exception = e;
+		}
+		catch (MailException e) {
+			exception = e;
+		}
 
+		for (int i = 0; i < messages.length; i++) {
+			if (messages[i] == null) {
+				continue;
+			}
+			MailSendInfo mailSendInfo = result.get(i);
+			if (exception == null) {
+				succeed(mailSendInfo);
+			}
+			else if (failedMessages.isEmpty()) {
+				// 连接或认证失败，所有邮件均未发送
+				errors[i] = exception;
+				fail(mailSendInfo, exception);
+			}
+			else if (failedMessages.containsKey(messages[i])) {
+				errors[i] = failedMessages.get(messages[i]);
+				fail(mailSendInfo, errors[i]);
+			}
+			else {
+				succeed(mailSendInfo);
+			}
+		}
+	}
+
+	/**
+	 * 从连接池中借出一个已连接的 Transport 批量发送，连接断开时更换连接继续发送。
+	 * 获取连接失败时（如 smtp 服务不可用、连接池耗尽），剩余邮件直接标记为失败，不再逐封等待获取连接
+	 */
+	private void sendWithPool(MimeMessage[] messages, List<MailSendInfo> result, Exception[] errors) {
+		Transport transport = null;
 		try {
-			// 1.检测邮件
-			checkMail(mailDetails);
-			// 2.发送邮件
-			sendMimeMail(mailDetails);
-			mailSendInfo.setSuccess(true);
+			for (int i = 0; i < messages.length; i++) {
+				MimeMessage message = messages[i];
+				if (message == null) {
+					continue;
+				}
+				MailSendInfo mailSendInfo = result.get(i);
+				if (transport == null) {
+					try {
+						transport = transportPool.borrow();
+					}
+					catch (MailException e) {
+						failRemaining(messages, result, errors, i, e);
+						return;
+					}
+				}
+				try {
+					if (message.getSentDate() == null) {
+						message.setSentDate(new Date());
+					}
+					message.saveChanges();
+					Address[] addresses = message.getAllRecipients();
+					transport.sendMessage(message, addresses != null ? addresses : new Address[0]);
+					succeed(mailSendInfo);
+				}
+				catch (Exception e) {
+					errors[i] = e;
+					fail(mailSendInfo, e);
+					if (!transport.isConnected()) {
+						transportPool.invalidate(transport);
+						transport = null;
+					}
+				}
+			}
+		}
+		finally {
+			if (transport != null) {
+				transportPool.release(transport);
+			}
 		}
-		catch (Exception e) {
+	}
+
+	/**
+	 * 获取连接失败时，将从 fromIndex 开始的所有邮件标记为失败，异常堆栈只打印一次
+	 */
+	private void failRemaining(MimeMessage[] messages, List<MailSendInfo> result, Exception[] errors, int fromIndex,
+			MailException e) {
+		int failedCount = 0;
+		for (int i = fromIndex; i < messages.length; i++) {
+			if (messages[i] == null) {
+				continue;
+			}
+			MailSendInfo mailSendInfo = result.get(i);
 			mailSendInfo.setSuccess(false);
 			mailSendInfo.setErrorMsg(e.getMessage());
-			log.error("发送邮件失败: [{}]", mailDetails, e);
+			errors[i] = e;
+			failedCount++;
 		}
-		finally {
-			// 发布邮件发送事件
-			eventPublisher.publishEvent(new MailSendEvent(mailSendInfo));
+		log.error("获取 smtp 连接失败, 剩余 {} 封邮件发送失败", failedCount, e);
+	}
+
+	private void succeed(MailSendInfo mailSendInfo) {
+		mailSendInfo.setSuccess(true);
+		if (log.isDebugEnabled()) {
+			MailDetails mailDetails = mailSendInfo.getMailDetails();
+			log.debug("发送邮件成功：[subject: {}, to: {}]", mailDetails.getSubject(),
+					Arrays.toString(mailDetails.getTo()));
 		}
-		return mailSendInfo;
+	}
+
+	private void fail(MailSendInfo mailSendInfo, Exception e) {
+		mailSendInfo.setSuccess(false);
+		mailSendInfo.setErrorMsg(e.getMessage());
+		MailDetails mailDetails = mailSendInfo.getMailDetails();
+		log.error("发送邮件失败: [subject: {}, to: {}]", mailDetails.getSubject(), Arrays.toString(mailDetails.getTo()),
+				e);
 	}
 
 	/**
 	 * 构建复杂邮件信息类
 	 * @param mailDetails 邮件发送设置
 	 */
-	private void sendMimeMail(MailDetails mailDetails) throws MessagingException {
+	private MimeMessage createMimeMessage(MailDetails mailDetails) throws MessagingException {
 		// true表示支持复杂类型
 		MimeMessageHelper messageHelper = new MimeMessageHelper(mailSender.createMimeMessage(), true);
 		String from = StringUtils.hasText(mailDetails.getFrom()) ? mailDetails.getFrom() : defaultFrom;
@@ -90,9 +284,7 @@ public class MailSenderImpl implements MailSender {
 				messageHelper.addAttachment(file.getName(), file);
 			}
 		}
-
-		mailSender.send(messageHelper.getMimeMessage());
-		log.info("发送邮件成功：[{}]", mailDetails);
+		return messageHelper.getMimeMessage();
 	}
 
 }
@@ -0,0 +1,125 @@
+package com.hccake.ballcat.common.mail.sender;
+
+import com.hccake.ballcat.common.mail.MailProperties;
+import org.apache.commons.pool2.BasePooledObjectFactory;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.impl.DefaultPooledObject;
+import org.apache.commons.pool2.impl.GenericObjectPool;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import javax.mail.MessagingException;
+import javax.mail.Transport;
+
+/**
+ * 已连接的 smtp Transport 连接池
+ *
+ * @author hccake
+ */
+public class MailTransportPool implements AutoCloseable {
+
+	private final GenericObjectPool<Transport> pool;
+
+	public MailTransportPool(JavaMailSenderImpl mailSender, MailProperties.Pool properties) {
+		GenericObjectPoolConfig<Transport> config = new GenericObjectPoolConfig<>();
+		config.setMaxTotal(properties.getMaxTotal());
+		config.setMaxIdle(properties.getMaxIdle());
+		config.setMinIdle(properties.getMinIdle());
+		config.setMaxWait(properties.getMaxWait());
+		config.setTimeBetweenEvictionRuns(properties.getTimeBetweenEvictionRuns());
+		config.setMinEvictableIdleTime(properties.getMinEvictableIdleTime());
+		// 借出时校验连接，smtp 下 isConnected 会发送 NOOP 命令
+		config.setTestOnBorrow(true);
+		config.setJmxEnabled(false);
+		this.pool = new GenericObjectPool<>(new TransportFactory(mailSender), config);
+	}
+
+	/**
+	 * 借出一个已连接的 Transport
+	 * @return Transport
+	 */
+	public Transport borrow() {
+		try {
+			return pool.borrowObject();
+		}
+		catch (Exception e) {
+			throw new MailSendException("获取 smtp 连接失败!", e);
+		}
+	}
+
+	/**
+	 * 归还 Transport，已断开的连接将被销毁
+	 * @param transport Transport
+	 */
+	public void release(Transport transport) {
+		if (transport.isConnected()) {
+			pool.returnObject(transport);
+		}
+		else {
+			invalidate(transport);
+		}
+	}
+
+	/**
+	 * 销毁 Transport
+	 * @param transport Transport
+	 */
+	public void invalidate(Transport transport) {
+		try {
+			pool.invalidateObject(transport);
+		}
+		catch (Exception ignore) {
+			// 销毁失败时连接已不可用，忽略即可
+		}
+	}
+
+	@Override
+	public void close() {
+		pool.close();
+	}
+
+	private static class TransportFactory extends BasePooledObjectFactory<Transport> {
+
+		private final JavaMailSenderImpl mailSender;
+
+		TransportFactory(JavaMailSenderImpl mailSender) {
+			this.mailSender = mailSender;
+		}
+
+		@Override
+		public Transport create() throws MessagingException {
+			String username = mailSender.getUsername();
+			String password = mailSender.getPassword();
+			if ("".equals(username)) {
+				username = null;
+				if ("".equals(password)) {
+					password = null;
+				}
+			}
+			Transport transport = mailSender.getSession().getTransport(mailSender.getProtocol());
+			transport.connect(mailSender.getHost(), mailSender.getPort(), username, password);
+			return transport;
+		}
+
+		@Override
+		public PooledObject<Transport> wrap(Transport transport) {
+			return new DefaultPooledObject<>(transport);
+		}
+
+		@Override
+		public boolean validateObject(PooledObject<Transport> p) {
+			return p.getObject().isConnected();
+		}
+
+		@Override
+		public void destroyObject(PooledObject<Transport> p) throws MessagingException {
+			Transport transport = p.getObject();
+			if (transport.isConnected()) {
+				transport.close();
+			}
+		}
+
+	}
+
+}
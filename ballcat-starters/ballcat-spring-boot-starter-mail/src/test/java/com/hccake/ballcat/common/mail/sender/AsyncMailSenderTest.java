@@ -0,0 +1,200 @@
+package com.hccake.ballcat.common.mail.sender;
+
+import com.hccake.ballcat.common.mail.MailProperties;
+import com.hccake.ballcat.common.mail.model.MailDetails;
+import com.hccake.ballcat.common.mail.model.MailSendInfo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import javax.mail.AuthenticationFailedException;
+import javax.mail.MessagingException;
+import javax.mail.SendFailedException;
+import javax.mail.internet.AddressException;
+import javax.mail.internet.MimeMessage;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * @author hccake
+ */
+class AsyncMailSenderTest {
+
+	private final StubMailSender javaMailSender = new StubMailSender();
+
+	private final List<Object> events = new CopyOnWriteArrayList<>();
+
+	private AsyncMailSender asyncMailSender;
+
+	@AfterEach
+	void after() throws InterruptedException {
+		javaMailSender.block.countDown();
+		if (asyncMailSender != null) {
+			asyncMailSender.close();
+		}
+	}
+
+	private AsyncMailSender createSender(int threads, int queueCapacity) {
+		MailProperties.Async properties = new MailProperties.Async();
+		properties.setThreads(threads);
+		properties.setQueueCapacity(queueCapacity);
+		properties.setMaxAttempts(3);
+		properties.setInitialBackoff(Duration.ofMillis(10));
+		properties.setMaxBackoff(Duration.ofMillis(50));
+		MailSenderImpl mailSender = new MailSenderImpl(javaMailSender, events::add);
+		asyncMailSender = new AsyncMailSender(mailSender, properties);
+		return asyncMailSender;
+	}
+
+	private static MailDetails mail() {
+		MailDetails mailDetails = new MailDetails();
+		mailDetails.setFrom("ballcat@example.com");
+		mailDetails.setTo(new String[] { "user@example.com" });
+		mailDetails.setSubject("subject");
+		mailDetails.setContent("content");
+		return mailDetails;
+	}
+
+	private static MailException connectionFailed(MimeMessage[] messages) {
+		return new MailSendException("Mail server connection failed", new MessagingException("Connection refused"));
+	}
+
+	private static MailException invalidAddress(MimeMessage[] messages) {
+		return new MailSendException(
+				Collections.<Object, Exception>singletonMap(messages[0], new SendFailedException("Invalid Addresses")));
+	}
+
+	@Test
+	void retryTransientFailure() throws Exception {
+		javaMailSender.outcomes.add(AsyncMailSenderTest::connectionFailed);
+		javaMailSender.outcomes.add(AsyncMailSenderTest::connectionFailed);
+
+		MailSendInfo mailSendInfo = createSender(1, 10).sendMailAsync(mail()).get(5, TimeUnit.SECONDS);
+		Assertions.assertTrue(mailSendInfo.getSuccess());
+		Assertions.assertEquals(3, javaMailSender.sendCount.get());
+		// 发送事件只在最终结果确定后发布一次
+		Assertions.assertEquals(1, events.size());
+	}
+
+	@Test
+	void attemptsExhausted() throws Exception {
+		for (int i = 0; i < 3; i++) {
+			javaMailSender.outcomes.add(AsyncMailSenderTest::connectionFailed);
+		}
+
+		MailSendInfo mailSendInfo = createSender(1, 10).sendMailAsync(mail()).get(5, TimeUnit.SECONDS);
+		Assertions.assertFalse(mailSendInfo.getSuccess());
+		Assertions.assertEquals(3, javaMailSender.sendCount.get());
+		Assertions.assertEquals(1, events.size());
+	}
+
+	@Test
+	void permanentFailureNotRetried() throws Exception {
+		javaMailSender.outcomes.add(AsyncMailSenderTest::invalidAddress);
+
+		MailSendInfo mailSendInfo = createSender(1, 10).sendMailAsync(mail()).get(5, TimeUnit.SECONDS);
+		Assertions.assertFalse(mailSendInfo.getSuccess());
+		Assertions.assertEquals(1, javaMailSender.sendCount.get());
+		Assertions.assertEquals(1, events.size());
+	}
+
+	@Test
+	void transientFailures() {
+		Assertions.assertTrue(AsyncMailSender.isTransient(connectionFailed(new MimeMessage[0])));
+		Assertions.assertTrue(AsyncMailSender.isTransient(new MessagingException("Connection reset")));
+		// 连接池耗尽
+		Assertions.assertTrue(AsyncMailSender
+			.isTransient(new MailSendException("获取 smtp 连接失败!", new NoSuchElementException("Timeout waiting"))));
+
+		Assertions.assertFalse(AsyncMailSender.isTransient(new SendFailedException("Invalid Addresses")));
+		Assertions.assertFalse(AsyncMailSender.isTransient(new AddressException("Illegal address")));
+		Assertions.assertFalse(AsyncMailSender.isTransient(new AuthenticationFailedException("535")));
+		Assertions.assertFalse(AsyncMailSender.isTransient(new MailAuthenticationException("535")));
+		Assertions.assertFalse(AsyncMailSender.isTransient(null));
+	}
+
+	@Test
+	void backoffSchedule() {
+		MailProperties.Async properties = new MailProperties.Async();
+		properties.setInitialBackoff(Duration.ofSeconds(1));
+		properties.setMaxBackoff(Duration.ofSeconds(30));
+		asyncMailSender = new AsyncMailSender(new MailSenderImpl(javaMailSender, events::add), properties);
+
+		Assertions.assertEquals(1000, asyncMailSender.backoffMillis(1));
+		Assertions.assertEquals(2000, asyncMailSender.backoffMillis(2));
+		Assertions.assertEquals(4000, asyncMailSender.backoffMillis(3));
+		Assertions.assertEquals(16000, asyncMailSender.backoffMillis(5));
+		// 超出最大等待时间后不再增长，且不会溢出
+		Assertions.assertEquals(30000, asyncMailSender.backoffMillis(6));
+		Assertions.assertEquals(30000, asyncMailSender.backoffMillis(100));
+	}
+
+	@Test
+	void rejectWhenQueueFull() throws Exception {
+		javaMailSender.block = new CountDownLatch(1);
+		AsyncMailSender sender = createSender(1, 1);
+
+		CompletableFuture<MailSendInfo> running = sender.sendMailAsync(mail());
+		Assertions.assertTrue(javaMailSender.started.await(5, TimeUnit.SECONDS));
+		CompletableFuture<MailSendInfo> queued = sender.sendMailAsync(mail());
+		Assertions.assertThrows(MailSendException.class, () -> sender.sendMailAsync(mail()));
+
+		javaMailSender.block.countDown();
+		Assertions.assertTrue(running.get(5, TimeUnit.SECONDS).getSuccess());
+		Assertions.assertTrue(queued.get(5, TimeUnit.SECONDS).getSuccess());
+	}
+
+	@Test
+	void invalidMailRejected() {
+		MailDetails mailDetails = mail();
+		mailDetails.setTo(null);
+		Assertions.assertThrows(MailSendException.class, () -> createSender(1, 10).sendMailAsync(mailDetails));
+		Assertions.assertEquals(0, javaMailSender.sendCount.get());
+	}
+
+	/**
+	 * 按预设结果依次返回的 JavaMailSender，预设结果用完后发送成功
+	 */
+	static class StubMailSender extends JavaMailSenderImpl {
+
+		final Queue<Function<MimeMessage[], MailException>> outcomes = new ConcurrentLinkedQueue<>();
+
+		final AtomicInteger sendCount = new AtomicInteger();
+
+		final CountDownLatch started = new CountDownLatch(1);
+
+		volatile CountDownLatch block = new CountDownLatch(0);
+
+		@Override
+		public void send(MimeMessage... mimeMessages) throws MailException {
+			sendCount.incrementAndGet();
+			started.countDown();
+			try {
+				block.await();
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			Function<MimeMessage[], MailException> outcome = outcomes.poll();
+			if (outcome != null) {
+				throw outcome.apply(mimeMessages);
+			}
+		}
+
+	}
+
+}
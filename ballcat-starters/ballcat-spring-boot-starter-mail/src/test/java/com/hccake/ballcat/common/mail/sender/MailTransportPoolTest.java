@@ -0,0 +1,130 @@
+package com.hccake.ballcat.common.mail.sender;
+
+import com.hccake.ballcat.common.mail.MailProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import javax.mail.Address;
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import javax.mail.Provider;
+import javax.mail.Session;
+import javax.mail.Transport;
+import javax.mail.URLName;
+import java.time.Duration;
+import java.util.Properties;
+
+/**
+ * @author hccake
+ */
+class MailTransportPoolTest {
+
+	private MailTransportPool transportPool;
+
+	@BeforeEach
+	void setUp() {
+		Session session = Session.getInstance(new Properties());
+		session.addProvider(
+				new Provider(Provider.Type.TRANSPORT, "stub", StubTransport.class.getName(), "ballcat", "1.0"));
+		JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+		mailSender.setSession(session);
+		mailSender.setProtocol("stub");
+		mailSender.setHost("localhost");
+
+		MailProperties.Pool properties = new MailProperties.Pool();
+		properties.setMaxTotal(2);
+		properties.setMaxWait(Duration.ofMillis(100));
+		transportPool = new MailTransportPool(mailSender, properties);
+	}
+
+	@AfterEach
+	void after() {
+		transportPool.close();
+		StubTransport.refuseConnect = false;
+	}
+
+	@Test
+	void borrowAndRelease() {
+		Transport transport = transportPool.borrow();
+		Assertions.assertTrue(transport.isConnected());
+		transportPool.release(transport);
+		// 归还后的连接被复用
+		Assertions.assertSame(transport, transportPool.borrow());
+	}
+
+	@Test
+	void disconnectedNotReturned() throws Exception {
+		Transport transport = transportPool.borrow();
+		transport.close();
+		transportPool.release(transport);
+
+		Transport other = transportPool.borrow();
+		Assertions.assertNotSame(transport, other);
+		Assertions.assertTrue(other.isConnected());
+	}
+
+	@Test
+	void idleDisconnectedReplacedOnBorrow() throws Exception {
+		Transport transport = transportPool.borrow();
+		transportPool.release(transport);
+		// 空闲期间被服务端断开
+		transport.close();
+
+		Transport other = transportPool.borrow();
+		Assertions.assertNotSame(transport, other);
+		Assertions.assertTrue(other.isConnected());
+	}
+
+	@Test
+	void invalidate() {
+		Transport transport = transportPool.borrow();
+		transportPool.invalidate(transport);
+		Assertions.assertFalse(transport.isConnected());
+		Assertions.assertNotSame(transport, transportPool.borrow());
+	}
+
+	@Test
+	void exhausted() {
+		transportPool.borrow();
+		transportPool.borrow();
+		Assertions.assertThrows(MailSendException.class, transportPool::borrow);
+	}
+
+	@Test
+	void connectFailed() {
+		StubTransport.refuseConnect = true;
+		Assertions.assertThrows(MailSendException.class, transportPool::borrow);
+	}
+
+	/**
+	 * 不建立网络连接的 Transport
+	 */
+	public static class StubTransport extends Transport {
+
+		static volatile boolean refuseConnect;
+
+		public StubTransport(Session session, URLName urlName) {
+			super(session, urlName);
+		}
+
+		@Override
+		protected boolean protocolConnect(String host, int port, String user, String password)
+				throws MessagingException {
+			if (refuseConnect) {
+				throw new MessagingException("Connection refused");
+			}
+			return true;
+		}
+
+		@Override
+		public void sendMessage(Message message, Address[] addresses) {
+			// 不发送邮件
+		}
+
+	}
+
+}
@@ -1,12 +1,14 @@
 package com.hccake.starter.sms;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hccake.starter.sms.batch.SmsBatchSender;
 import com.hccake.starter.sms.impl.AliyunSenderImpl;
 import com.hccake.starter.sms.impl.TencentSenderImpl;
 import com.hccake.starter.sms.impl.TianYiHongSenderImpl;
 import com.hccake.starter.sms.properties.SmsProperties;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -44,4 +46,11 @@ public class SmsAutoConfiguration {
 		return new AliyunSenderImpl(properties, om);
 	}
 
+	@Bean
+	@ConditionalOnBean(SmsSender.class)
+	@ConditionalOnMissingBean
+	public SmsBatchSender smsBatchSender(SmsSender<SmsSenderParams, SmsSenderResult> smsSender) {
+		return new SmsBatchSender(smsSender, properties.getType(), properties.getBatch());
+	}
+
 }
@@ -0,0 +1,225 @@
+package com.hccake.starter.sms.batch;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.convert.Convert;
+import cn.hutool.core.thread.ThreadFactoryBuilder;
+import com.hccake.ballcat.common.util.JsonUtils;
+import com.hccake.ballcat.common.util.json.TypeReference;
+import com.hccake.starter.sms.SmsSender;
+import com.hccake.starter.sms.SmsSenderParams;
+import com.hccake.starter.sms.SmsSenderResult;
+import com.hccake.starter.sms.enums.TypeEnum;
+import com.hccake.starter.sms.properties.extra.Batch;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 短信批量发送
+ * <p>
+ * 将模板参数相同的短信合并，按平台单次请求的手机号上限拆分为多个请求，通过有界线程池异步发送，每个请求发送前从令牌桶获取令牌，保证不超过平台账号的频率限制。
+ * </p>
+ *
+ * @author hccake
+ */
+@Slf4j
+public class SmsBatchSender implements AutoCloseable {
+
+	/**
+	 * 腾讯云返回结果中每个手机号的发送状态
+	 */
+	private static final String TENCENT_SEND_STATUS_SET = "SendStatusSet";
+
+	private static final String TENCENT_PHONE_NUMBER = "PhoneNumber";
+
+	private static final String TENCENT_CODE = "Code";
+
+	private static final String TENCENT_MESSAGE = "Message";
+
+	private static final String TENCENT_SUCCESS_CODE = "Ok";
+
+	private final SmsSender<SmsSenderParams, SmsSenderResult> smsSender;
+
+	private final TypeEnum type;
+
+	private final int batchSize;
+
+	private final TokenBucketRateLimiter rateLimiter;
+
+	private final ThreadPoolExecutor executor;
+
+	public SmsBatchSender(SmsSender<SmsSenderParams, SmsSenderResult> smsSender, TypeEnum type, Batch batch) {
+		this.smsSender = smsSender;
+		this.type = type;
+		this.batchSize = batch.getSize() > 0 ? Math.min(batch.getSize(), type.getMaxBatchSize())
+				: type.getMaxBatchSize();
+		this.rateLimiter = new TokenBucketRateLimiter(batch.getPermitsPerSecond(), batch.getBurst());
+		int concurrency = Math.max(1, batch.getConcurrency());
+		this.executor = new ThreadPoolExecutor(concurrency, concurrency, 60, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(Math.max(1, batch.getQueueCapacity())),
+				new ThreadFactoryBuilder().setNamePrefix("sms-batch-sender-").setDaemon(true).build());
+		this.executor.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * 批量发送短信
+	 * @param params 发送参数
+	 * @return 每个手机号的发送结果
+	 */
+	public CompletableFuture<List<SmsPhoneResult>> sendBatch(SmsSenderParams params) {
+		return sendBatch(Collections.singletonList(params));
+	}
+
+	/**
+	 * 批量发送短信，模板参数相同的短信会合并后按平台上限拆分发送
+	 * @param paramsList 发送参数
+	 * @return 每个手机号的发送结果，发送异常或队列已满的手机号返回失败结果，不会异常完成
+	 */
+	public CompletableFuture<List<SmsPhoneResult>> sendBatch(Collection<SmsSenderParams> paramsList) {
+		List<SmsSenderParams> requests = split(paramsList);
+		List<CompletableFuture<List<SmsPhoneResult>>> futures = new ArrayList<>(requests.size());
+		for (SmsSenderParams request : requests) {
+			futures.add(submit(request));
+		}
+		return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).thenApply(v -> {
+			List<SmsPhoneResult> results = new ArrayList<>();
+			for (CompletableFuture<List<SmsPhoneResult>> future : futures) {
+				results.addAll(future.join());
+			}
+			return results;
+		});
+	}
+
+	/**
+	 * 按模板参数合并手机号，并按单次请求上限拆分
+	 * @param paramsList 发送参数
+	 * @return 拆分后的请求参数
+	 */
+	List<SmsSenderParams> split(Collection<SmsSenderParams> paramsList) {
+		Map<String, SmsSenderParams> groups = new LinkedHashMap<>();
+		Map<String, LinkedHashSet<String>> groupPhones = new LinkedHashMap<>();
+		for (SmsSenderParams params : paramsList) {
+			if (CollUtil.isEmpty(params.getPhoneNumbers())) {
+				continue;
+			}
+			String key = groupKey(params);
+			groups.putIfAbsent(key, params);
+			groupPhones.computeIfAbsent(key, k -> new LinkedHashSet<>()).addAll(params.getPhoneNumbers());
+		}
+
+		List<SmsSenderParams> requests = new ArrayList<>();
+		for (Map.Entry<String, SmsSenderParams> entry : groups.entrySet()) {
+			SmsSenderParams template = entry.getValue();
+			List<String> phones = new ArrayList<>(groupPhones.get(entry.getKey()));
+			for (List<String> chunk : CollUtil.split(phones, batchSize)) {
+				requests.add(new SmsSenderParams().setPhoneNumbers(new LinkedHashSet<>(chunk))
+					.setTemplateParam(template.getTemplateParam())
+					.setAliyunTemplateParam(template.getAliyunTemplateParam())
+					.setContent(template.getContent())
+					.setCountry(template.getCountry()));
+			}
+		}
+		return requests;
+	}
+
+	private static String groupKey(SmsSenderParams params) {
+		Map<String, Object> aliyunTemplateParam = params.getAliyunTemplateParam() == null ? null
+				: new TreeMap<>(params.getAliyunTemplateParam());
+		return JsonUtils.toJson(Arrays.asList(params.getCountry(), params.getContent(), params.getTemplateParam(),
+				aliyunTemplateParam));
+	}
+
+	private CompletableFuture<List<SmsPhoneResult>> submit(SmsSenderParams request) {
+		CompletableFuture<List<SmsPhoneResult>> future = new CompletableFuture<>();
+		try {
+			executor.execute(() -> future.complete(doSend(request)));
+		}
+		catch (RejectedExecutionException e) {
+			log.warn("[SmsBatchSender] 发送队列已满，{} 个手机号发送失败", request.getPhoneNumbers().size());
+			future.complete(failed(request, "发送队列已满"));
+		}
+		return future;
+	}
+
+	private List<SmsPhoneResult> doSend(SmsSenderParams request) {
+		try {
+			rateLimiter.acquire();
+			return toPhoneResults(request, smsSender.send(request));
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return failed(request, "发送被中断");
+		}
+		catch (Exception e) {
+			log.error("[SmsBatchSender] 短信发送异常", e);
+			return failed(request, "短信发送失败，出现异常:" + e.getMessage());
+		}
+	}
+
+	/**
+	 * 将单个请求的发送结果转换为每个手机号的发送结果，腾讯云返回了每个手机号的状态，其他平台以请求结果为准
+	 * @param request 请求参数
+	 * @param result 请求结果
+	 * @return 每个手机号的发送结果
+	 */
+	List<SmsPhoneResult> toPhoneResults(SmsSenderParams request, SmsSenderResult result) {
+		if (result.isSuccess() && type == TypeEnum.TENCENT && StringUtils.hasText(result.getRes())) {
+			List<SmsPhoneResult> results = tencentPhoneResults(result.getRes());
+			if (!results.isEmpty()) {
+				return results;
+			}
+		}
+		List<SmsPhoneResult> results = new ArrayList<>(request.getPhoneNumbers().size());
+		for (String phoneNumber : request.getPhoneNumbers()) {
+			results.add(new SmsPhoneResult(phoneNumber, result.isSuccess(), result.getMsg()));
+		}
+		return results;
+	}
+
+	private static List<SmsPhoneResult> tencentPhoneResults(String res) {
+		Map<String, Object> resp = JsonUtils.toObj(res, new TypeReference<Map<String, Object>>() {
+		});
+		Object sendStatusSet = resp.get(TENCENT_SEND_STATUS_SET);
+		if (!(sendStatusSet instanceof List)) {
+			return Collections.emptyList();
+		}
+		List<SmsPhoneResult> results = new ArrayList<>();
+		for (Object item : (List<?>) sendStatusSet) {
+			if (item instanceof Map) {
+				Map<?, ?> status = (Map<?, ?>) item;
+				results.add(new SmsPhoneResult(Convert.toStr(status.get(TENCENT_PHONE_NUMBER)),
+						TENCENT_SUCCESS_CODE.equalsIgnoreCase(Convert.toStr(status.get(TENCENT_CODE))),
+						Convert.toStr(status.get(TENCENT_MESSAGE))));
+			}
+		}
+		return results;
+	}
+
+	private static List<SmsPhoneResult> failed(SmsSenderParams request, String msg) {
+		List<SmsPhoneResult> results = new ArrayList<>(request.getPhoneNumbers().size());
+		for (String phoneNumber : request.getPhoneNumbers()) {
+			results.add(new SmsPhoneResult(phoneNumber, false, msg));
+		}
+		return results;
+	}
+
+	@Override
+	public void close() {
+		executor.shutdown();
+	}
+
+}
@@ -0,0 +1,32 @@
+package com.hccake.starter.sms.batch;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * 单个手机号的短信发送结果
+ *
+ * @author hccake
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class SmsPhoneResult {
+
+	/**
+	 * 手机号
+	 */
+	private final String phoneNumber;
+
+	/**
+	 * 是否发送成功
+	 */
+	private final boolean success;
+
+	/**
+	 * 提示信息
+	 */
+	private final String msg;
+
+}
@@ -0,0 +1,60 @@
+package com.hccake.starter.sms.batch;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 令牌桶限流器，令牌按固定速率发放，桶满时丢弃，允许不超过桶容量的突发请求
+ *
+ * @author hccake
+ */
+public class TokenBucketRateLimiter {
+
+	private final double permitsPerNano;
+
+	private final double capacity;
+
+	private double tokens;
+
+	private long lastRefillNanos;
+
+	/**
+	 * @param permitsPerSecond 每秒发放的令牌数
+	 * @param capacity 令牌桶容量
+	 */
+	public TokenBucketRateLimiter(double permitsPerSecond, int capacity) {
+		if (permitsPerSecond <= 0) {
+			throw new IllegalArgumentException("permitsPerSecond must be positive");
+		}
+		this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+		this.capacity = Math.max(1, capacity);
+		this.tokens = this.capacity;
+		this.lastRefillNanos = System.nanoTime();
+	}
+
+	/**
+	 * 获取一个令牌，令牌不足时阻塞等待
+	 * @throws InterruptedException 等待时线程被中断
+	 */
+	public void acquire() throws InterruptedException {
+		long waitNanos;
+		while ((waitNanos = tryAcquire()) > 0) {
+			TimeUnit.NANOSECONDS.sleep(waitNanos);
+		}
+	}
+
+	/**
+	 * 尝试获取一个令牌
+	 * @return 获取成功返回 0，否则返回预计需要等待的纳秒数
+	 */
+	public synchronized long tryAcquire() {
+		long now = System.nanoTime();
+		tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * permitsPerNano);
+		lastRefillNanos = now;
+		if (tokens >= 1) {
+			tokens -= 1;
+			return 0;
+		}
+		return Math.max(1, (long) Math.ceil((1 - tokens) / permitsPerNano));
+	}
+
+}
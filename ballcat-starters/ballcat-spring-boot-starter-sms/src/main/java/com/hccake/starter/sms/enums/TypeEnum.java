@@ -1,23 +1,32 @@
 package com.hccake.starter.sms.enums;
 
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
 /**
  * @author lingting 2020-08-30 22:20
  * @author 疯狂的狮子Li 2022-04-21
  */
-
+@Getter
+@RequiredArgsConstructor
 public enum TypeEnum {
 
 	/**
 	 * 短信发送类型
 	 */
-	CUSTOM,
+	CUSTOM(1),
 
-	TENCENT,
+	TENCENT(200),
 
-	TIAN_YI_HONG,
+	TIAN_YI_HONG(100),
 
-	ALIYUN,
+	ALIYUN(1000),
 
 	;
 
+	/**
+	 * 平台单次请求支持的最大手机号数量
+	 */
+	private final int maxBatchSize;
+
 }
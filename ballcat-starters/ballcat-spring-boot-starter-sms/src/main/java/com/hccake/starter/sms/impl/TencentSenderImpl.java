@@ -36,24 +36,29 @@ public class TencentSenderImpl extends BaseServiceImpl implements SmsSender<SmsS
 
 	private final ObjectMapper om;
 
+	/**
+	 * SmsClient 线程安全，复用同一实例以复用底层连接
+	 */
+	private final SmsClient client;
+
 	public TencentSenderImpl(SmsProperties properties, ObjectMapper om) {
 		this.properties = properties;
 		tencent = properties.getTencent();
 		cred = new Credential(properties.getId(), properties.getKey());
 		this.om = om;
+
+		HttpProfile httpProfile = new HttpProfile();
+		httpProfile.setEndpoint(tencent.getEndpoint());
+
+		ClientProfile clientProfile = new ClientProfile();
+		clientProfile.setHttpProfile(httpProfile);
+
+		client = new SmsClient(cred, tencent.getRegion(), clientProfile);
 	}
 
 	@Override
 	public SmsSenderResult send(SmsSenderParams sp) {
 		try {
-			HttpProfile httpProfile = new HttpProfile();
-			httpProfile.setEndpoint(tencent.getEndpoint());
-
-			ClientProfile clientProfile = new ClientProfile();
-			clientProfile.setHttpProfile(httpProfile);
-
-			SmsClient client = new SmsClient(cred, tencent.getRegion(), clientProfile);
-
 			Map<String, Object> json = new HashMap<>(5);
 			json.put("PhoneNumberSet", sp.getPhoneNumbers());
 
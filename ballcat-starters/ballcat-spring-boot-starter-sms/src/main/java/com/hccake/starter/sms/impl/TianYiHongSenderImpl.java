@@ -26,11 +26,8 @@ public class TianYiHongSenderImpl extends BaseServiceImpl implements SmsSender<S
 
 	private final MD5 md5 = new MD5();
 
-	private final HttpRequest request;
-
 	public TianYiHongSenderImpl(SmsProperties sp) {
 		this.sp = sp;
-		this.request = HttpRequest.get(sp.getUrl());
 	}
 
 	@Override
@@ -48,7 +45,8 @@ public class TianYiHongSenderImpl extends BaseServiceImpl implements SmsSender<S
 					// numbers
 					, CharSequenceUtil.join(",", p.getPhoneNumbers().toArray()));
 
-			String res = request.setUrl(URLEncodeUtil.encode(req)).execute().body();
+			// HttpRequest 非线程安全，每次发送单独创建
+			String res = HttpRequest.get(sp.getUrl()).setUrl(URLEncodeUtil.encode(req)).execute().body();
 			return SmsSenderResult.generateTianYiHong(res, "方法参数:" + p.toString() + " ;请求: " + req,
 					p.getPhoneNumbers());
 		}
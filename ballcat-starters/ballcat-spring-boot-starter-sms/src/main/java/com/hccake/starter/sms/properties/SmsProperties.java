@@ -3,6 +3,7 @@ package com.hccake.starter.sms.properties;
 import com.hccake.starter.sms.enums.TypeEnum;
 import com.hccake.starter.sms.properties.extra.Account;
 import com.hccake.starter.sms.properties.extra.Aliyun;
+import com.hccake.starter.sms.properties.extra.Batch;
 import com.hccake.starter.sms.properties.extra.Tencent;
 import com.hccake.starter.sms.properties.extra.TianYiHong;
 import lombok.Data;
@@ -62,4 +63,10 @@ public class SmsProperties {
 	@NestedConfigurationProperty
 	private Aliyun aliyun;
 
+	/**
+	 * 批量发送配置
+	 */
+	@NestedConfigurationProperty
+	private Batch batch = new Batch();
+
 }
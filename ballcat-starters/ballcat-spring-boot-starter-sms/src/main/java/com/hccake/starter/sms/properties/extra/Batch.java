@@ -0,0 +1,41 @@
+package com.hccake.starter.sms.properties.extra;
+
+import com.hccake.starter.sms.enums.TypeEnum;
+import lombok.Data;
+
+/**
+ * 批量发送配置
+ *
+ * @author hccake
+ */
+@Data
+public class Batch {
+
+	/**
+	 * 单次请求的最大手机号数量，小于等于 0 时使用平台的默认上限
+	 *
+	 * @see TypeEnum#getMaxBatchSize()
+	 */
+	private int size = 0;
+
+	/**
+	 * 每秒允许的请求数，即令牌桶的令牌发放速率
+	 */
+	private double permitsPerSecond = 10;
+
+	/**
+	 * 令牌桶容量，即允许的突发请求数
+	 */
+	private int burst = 10;
+
+	/**
+	 * 最大并发请求数
+	 */
+	private int concurrency = 4;
+
+	/**
+	 * 等待发送的请求队列容量，队列已满时对应的手机号直接返回发送失败
+	 */
+	private int queueCapacity = 1000;
+
+}
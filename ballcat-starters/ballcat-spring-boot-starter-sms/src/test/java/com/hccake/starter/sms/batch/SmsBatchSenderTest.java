@@ -0,0 +1,133 @@
+package com.hccake.starter.sms.batch;
+
+import com.hccake.starter.sms.SmsSender;
+import com.hccake.starter.sms.SmsSenderParams;
+import com.hccake.starter.sms.SmsSenderResult;
+import com.hccake.starter.sms.enums.TypeEnum;
+import com.hccake.starter.sms.properties.extra.Batch;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author hccake
+ */
+class SmsBatchSenderTest {
+
+	private final List<SmsSenderParams> requests = new CopyOnWriteArrayList<>();
+
+	private final SmsSender<SmsSenderParams, SmsSenderResult> recordingSender = p -> {
+		requests.add(p);
+		return SmsSenderResult.generateAliyun("{}", p.toString(), p.getPhoneNumbers());
+	};
+
+	private SmsBatchSender batchSender;
+
+	@AfterEach
+	void after() {
+		if (batchSender != null) {
+			batchSender.close();
+		}
+	}
+
+	@Test
+	void mergeAndSplitByTemplate() throws Exception {
+		Batch batch = new Batch();
+		batch.setSize(3);
+		batch.setPermitsPerSecond(1000);
+		batch.setBurst(1000);
+		batchSender = new SmsBatchSender(recordingSender, TypeEnum.ALIYUN, batch);
+
+		List<SmsSenderParams> paramsList = new ArrayList<>();
+		for (int i = 0; i < 7; i++) {
+			SmsSenderParams params = new SmsSenderParams().addPhone("1380000000" + i);
+			params.getAliyunTemplateParam().put("code", "1234");
+			paramsList.add(params);
+		}
+		SmsSenderParams other = new SmsSenderParams().addPhone("13900000000");
+		other.getAliyunTemplateParam().put("code", "5678");
+		paramsList.add(other);
+
+		List<SmsPhoneResult> results = batchSender.sendBatch(paramsList).get(5, TimeUnit.SECONDS);
+
+		Assertions.assertEquals(8, results.size());
+		Assertions.assertTrue(results.stream().allMatch(SmsPhoneResult::isSuccess));
+		// 相同模板的 7 个号码拆分为 3 + 3 + 1，另一个模板单独 1 个请求
+		Assertions.assertEquals(4, requests.size());
+		Assertions.assertEquals(8, requests.stream().mapToInt(p -> p.getPhoneNumbers().size()).sum());
+		Assertions.assertTrue(requests.stream().allMatch(p -> p.getPhoneNumbers().size() <= 3));
+	}
+
+	@Test
+	void providerLimitCapsBatchSize() {
+		Batch batch = new Batch();
+		batch.setSize(5000);
+		batchSender = new SmsBatchSender(recordingSender, TypeEnum.TENCENT, batch);
+
+		SmsSenderParams params = new SmsSenderParams();
+		for (int i = 0; i < 450; i++) {
+			params.addPhone("+86138" + String.format("%08d", i));
+		}
+		List<SmsSenderParams> split = batchSender.split(Collections.singletonList(params));
+		Assertions.assertEquals(3, split.size());
+		Assertions.assertEquals(TypeEnum.TENCENT.getMaxBatchSize(), split.get(0).getPhoneNumbers().size());
+	}
+
+	@Test
+	void rateLimited() throws Exception {
+		Batch batch = new Batch();
+		batch.setSize(1);
+		batch.setPermitsPerSecond(20);
+		batch.setBurst(1);
+		batch.setConcurrency(4);
+		batchSender = new SmsBatchSender(recordingSender, TypeEnum.ALIYUN, batch);
+
+		SmsSenderParams params = new SmsSenderParams();
+		for (int i = 0; i < 11; i++) {
+			params.addPhone("1380000000" + i);
+		}
+		long start = System.nanoTime();
+		batchSender.sendBatch(params).get(5, TimeUnit.SECONDS);
+		long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+		// 桶容量为 1，其余 10 个请求需按每秒 20 个的速率等待令牌
+		Assertions.assertEquals(11, requests.size());
+		Assertions.assertTrue(elapsedMillis >= 450, "elapsed: " + elapsedMillis);
+	}
+
+	@Test
+	void failureReportedPerNumber() throws Exception {
+		Batch batch = new Batch();
+		batchSender = new SmsBatchSender(p -> {
+			throw new IllegalStateException("provider down");
+		}, TypeEnum.ALIYUN, batch);
+
+		SmsSenderParams params = new SmsSenderParams().addPhone("13800000000").addPhone("13800000001");
+		List<SmsPhoneResult> results = batchSender.sendBatch(params).get(5, TimeUnit.SECONDS);
+
+		Assertions.assertEquals(2, results.size());
+		Assertions.assertTrue(results.stream().noneMatch(SmsPhoneResult::isSuccess));
+	}
+
+	@Test
+	void tencentPhoneResults() {
+		batchSender = new SmsBatchSender(recordingSender, TypeEnum.TENCENT, new Batch());
+		SmsSenderParams params = new SmsSenderParams().addPhone("+8613800000000").addPhone("+8613800000001");
+		String res = "{\"SendStatusSet\":[{\"PhoneNumber\":\"+8613800000000\",\"Code\":\"Ok\",\"Message\":\"send success\"},"
+				+ "{\"PhoneNumber\":\"+8613800000001\",\"Code\":\"LimitExceeded.PhoneNumberDailyLimit\",\"Message\":\"limit\"}]}";
+		SmsSenderResult result = SmsSenderResult.generate(res, params.toString(), params.getPhoneNumbers());
+
+		List<SmsPhoneResult> results = batchSender.toPhoneResults(params, result);
+
+		Assertions.assertEquals(2, results.size());
+		Assertions.assertTrue(results.get(0).isSuccess());
+		Assertions.assertFalse(results.get(1).isSuccess());
+	}
+
+}
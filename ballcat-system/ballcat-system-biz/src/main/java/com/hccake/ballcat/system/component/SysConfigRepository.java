@@ -0,0 +1,259 @@
+package com.hccake.ballcat.system.component;
+
+import com.hccake.ballcat.common.redis.listener.AbstractMessageEventListener;
+import com.hccake.ballcat.common.util.JsonUtils;
+import com.hccake.ballcat.common.util.concurrent.VersionedSnapshot;
+import com.hccake.ballcat.system.constant.SystemRedisKeyConstants;
+import com.hccake.ballcat.system.event.SysConfigChangeEvent;
+import com.hccake.ballcat.system.mapper.SysConfigMapper;
+import com.hccake.ballcat.system.model.entity.SysConfig;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.Topic;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 系统配置的内存仓库
+ * <p>
+ * 启动时一次性加载整张 sys_config 表为不可变快照，配置值在加载时预先解析为整数、布尔值和时长，读取配置无需任何网络 IO。 配置修改时通过
+ * {@link SysConfigChangeEvent} 在事务提交后整体重新加载，并通过 redis 广播至其他节点。
+ * </p>
+ * <p>
+ * 快照由 {@link VersionedSnapshot} 持有，重新加载期间继续使用旧快照，加载完成后整体替换。重新加载失败时由下次读取重试，重试失败则继续使用旧快照。
+ * </p>
+ *
+ * @author hccake
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SysConfigRepository extends AbstractMessageEventListener<String[]>
+		implements SmartInitializingSingleton {
+
+	private final SysConfigMapper sysConfigMapper;
+
+	private final VersionedSnapshot<Snapshot> snapshots = new VersionedSnapshot<>(this::loadSnapshot);
+
+	@Override
+	public void afterSingletonsInstantiated() {
+		try {
+			snapshots.get();
+		}
+		catch (Exception e) {
+			// 预加载失败不影响启动，首次读取时再加载
+			log.warn("[SysConfigRepository] 系统配置预加载失败", e);
+		}
+	}
+
+	/**
+	 * 获取当前的配置快照
+	 * @return Snapshot
+	 */
+	public Snapshot getSnapshot() {
+		try {
+			return snapshots.get();
+		}
+		catch (RuntimeException e) {
+			Snapshot stale = snapshots.getIfPresent();
+			if (stale == null) {
+				throw e;
+			}
+			log.warn("[SysConfigRepository] 系统配置加载失败, 继续使用旧快照", e);
+			return stale;
+		}
+	}
+
+	/**
+	 * 获取配置值
+	 * @param confKey 配置key
+	 * @return 配置值，配置不存在时返回 null
+	 */
+	public String getString(String confKey) {
+		ConfigValue value = getSnapshot().get(confKey);
+		return value == null ? null : value.getValue();
+	}
+
+	/**
+	 * 获取整数类型的配置值
+	 * @param confKey 配置key
+	 * @param defaultValue 配置不存在或者不是整数时的默认值
+	 * @return 配置值
+	 */
+	public Long getLong(String confKey, Long defaultValue) {
+		ConfigValue value = getSnapshot().get(confKey);
+		return value == null || value.getLongValue() == null ? defaultValue : value.getLongValue();
+	}
+
+	/**
+	 * 获取整数类型的配置值
+	 * @param confKey 配置key
+	 * @param defaultValue 配置不存在或者不是 int 范围内的整数时的默认值
+	 * @return 配置值
+	 */
+	public Integer getInteger(String confKey, Integer defaultValue) {
+		ConfigValue value = getSnapshot().get(confKey);
+		return value == null || value.getIntValue() == null ? defaultValue : value.getIntValue();
+	}
+
+	/**
+	 * 获取布尔类型的配置值，仅 true/false（忽略大小写）被视为布尔值
+	 * @param confKey 配置key
+	 * @param defaultValue 配置不存在或者不是布尔值时的默认值
+	 * @return 配置值
+	 */
+	public Boolean getBoolean(String confKey, Boolean defaultValue) {
+		ConfigValue value = getSnapshot().get(confKey);
+		return value == null || value.getBooleanValue() == null ? defaultValue : value.getBooleanValue();
+	}
+
+	/**
+	 * 获取时长类型的配置值，支持 10s、5m 等简单格式和 ISO-8601 格式，纯数字视为毫秒
+	 * @param confKey 配置key
+	 * @param defaultValue 配置不存在或者无法解析为时长时的默认值
+	 * @return 配置值
+	 */
+	public Duration getDuration(String confKey, Duration defaultValue) {
+		ConfigValue value = getSnapshot().get(confKey);
+		return value == null || value.getDurationValue() == null ? defaultValue : value.getDurationValue();
+	}
+
+	private Snapshot loadSnapshot() {
+		return new Snapshot(sysConfigMapper.selectList(null));
+	}
+
+	/**
+	 * 事务提交后重新加载本地快照，并广播至其他节点
+	 * @param event 系统配置修改事件
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onSysConfigChangeEvent(SysConfigChangeEvent event) {
+		String[] confKeys = new String[] { event.getConfKey() };
+		refresh(confKeys);
+		stringRedisTemplate.convertAndSend(SystemRedisKeyConstants.CHANNEL_CONFIG_CHANGED,
+				JsonUtils.toJson(confKeys));
+	}
+
+	@Override
+	protected void handleMessage(String[] confKeys) {
+		refresh(confKeys);
+	}
+
+	/**
+	 * 失效快照并立即重新加载，加载完成前继续使用旧快照，加载失败时由下次读取触发加载
+	 * @param confKeys 修改的配置key
+	 */
+	private void refresh(String[] confKeys) {
+		if (log.isDebugEnabled()) {
+			log.debug("[SysConfigRepository] 系统配置快照已失效, confKeys: {}", String.join(",", confKeys));
+		}
+		try {
+			// 等待其他线程正在进行的加载完成，保证本次修改被加载
+			snapshots.reload();
+		}
+		catch (Exception e) {
+			log.warn("[SysConfigRepository] 系统配置重新加载失败", e);
+		}
+	}
+
+	@Override
+	public Topic topic() {
+		return new ChannelTopic(SystemRedisKeyConstants.CHANNEL_CONFIG_CHANGED);
+	}
+
+	/**
+	 * 不可变的系统配置快照
+	 */
+	public static final class Snapshot {
+
+		/**
+		 * 配置key -> 配置值
+		 */
+		private final Map<String, ConfigValue> values;
+
+		Snapshot(List<SysConfig> sysConfigs) {
+			Map<String, ConfigValue> map = new HashMap<>(sysConfigs.size() * 2);
+			for (SysConfig sysConfig : sysConfigs) {
+				map.put(sysConfig.getConfKey(), new ConfigValue(sysConfig.getConfValue()));
+			}
+			this.values = Collections.unmodifiableMap(map);
+		}
+
+		/**
+		 * 获取配置值
+		 * @param confKey 配置key
+		 * @return 配置值，不存在时返回 null
+		 */
+		public ConfigValue get(String confKey) {
+			return values.get(confKey);
+		}
+
+	}
+
+	/**
+	 * 预先解析的配置值，无法解析为对应类型时，该类型的值为 null
+	 */
+	@Getter
+	public static final class ConfigValue {
+
+		private final String value;
+
+		private final Long longValue;
+
+		private final Integer intValue;
+
+		private final Boolean booleanValue;
+
+		private final Duration durationValue;
+
+		ConfigValue(String value) {
+			this.value = value;
+			String trimmed = value == null ? "" : value.trim();
+			this.longValue = parseLong(trimmed);
+			this.intValue = longValue != null && longValue >= Integer.MIN_VALUE && longValue <= Integer.MAX_VALUE
+					? longValue.intValue() : null;
+			this.booleanValue = parseBoolean(trimmed);
+			this.durationValue = parseDuration(trimmed);
+		}
+
+		private static Long parseLong(String value) {
+			try {
+				return value.isEmpty() ? null : Long.valueOf(value);
+			}
+			catch (NumberFormatException e) {
+				return null;
+			}
+		}
+
+		private static Boolean parseBoolean(String value) {
+			if ("true".equalsIgnoreCase(value)) {
+				return Boolean.TRUE;
+			}
+			if ("false".equalsIgnoreCase(value)) {
+				return Boolean.FALSE;
+			}
+			return null;
+		}
+
+		private static Duration parseDuration(String value) {
+			try {
+				return value.isEmpty() ? null : DurationStyle.detectAndParse(value);
+			}
+			catch (IllegalArgumentException e) {
+				return null;
+			}
+		}
+
+	}
+
+}
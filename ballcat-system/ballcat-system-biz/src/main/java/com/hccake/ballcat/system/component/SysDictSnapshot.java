@@ -0,0 +1,227 @@
+package com.hccake.ballcat.system.component;
+
+import com.hccake.ballcat.common.redis.listener.AbstractMessageEventListener;
+import com.hccake.ballcat.common.util.JsonUtils;
+import com.hccake.ballcat.system.constant.SystemRedisKeyConstants;
+import com.hccake.ballcat.system.converter.SysDictItemConverter;
+import com.hccake.ballcat.system.event.DictChangeEvent;
+import com.hccake.ballcat.system.model.entity.SysDict;
+import com.hccake.ballcat.system.model.entity.SysDictItem;
+import com.hccake.ballcat.system.model.vo.DictDataVO;
+import com.hccake.ballcat.system.model.vo.DictItemVO;
+import com.hccake.ballcat.system.service.SysDictItemService;
+import com.hccake.ballcat.system.service.SysDictService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.Topic;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 字典数据的内存快照
+ * <p>
+ * 以字典标识为粒度缓存字典及其排序后的字典项，字典的 hashCode 即为内容的版本号，未命中的字典通过两次查询批量加载。 字典或字典项变化时，通过
+ * {@link DictChangeEvent} 只失效对应字典标识的快照，并通过 redis 广播至其他节点，其余字典不受影响。
+ * </p>
+ * <p>
+ * 不存在的字典标识也会被记录，避免重复查询数据库，新增字典时同样通过 {@link DictChangeEvent} 失效。
+ * </p>
+ *
+ * @author hccake
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SysDictSnapshot extends AbstractMessageEventListener<String[]> {
+
+	private final SysDictService sysDictService;
+
+	private final SysDictItemService sysDictItemService;
+
+	/**
+	 * 不存在的字典标识的最大记录数量，防止任意字典标识的请求撑满内存
+	 */
+	private static final int MAX_MISSING_CODES = 1024;
+
+	/**
+	 * 字典标识 -> 字典数据，仅缓存存在的字典
+	 */
+	private final Map<String, DictDataVO> snapshot = new ConcurrentHashMap<>();
+
+	/**
+	 * 不存在的字典标识
+	 */
+	private final Set<String> missingCodes = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * 快照的失效次数，用于防止失效前查询出的旧数据在失效后被写入快照
+	 */
+	private volatile long generation;
+
+	/**
+	 * 快照写入锁，失效与加载结果的写入互斥，保证版本检查和写入是原子的
+	 */
+	private final Object lock = new Object();
+
+	/**
+	 * 获取字典数据，按传入的字典标识顺序返回，不存在的字典会被忽略
+	 * @param dictCodes 字典标识
+	 * @return 字典数据列表，元素为共享对象，请勿修改
+	 */
+	public List<DictDataVO> listDictData(String[] dictCodes) {
+		Set<String> codes = new LinkedHashSet<>();
+		Collections.addAll(codes, dictCodes);
+
+		Map<String, DictDataVO> found = new HashMap<>(codes.size() * 2);
+		List<String> unloadedCodes = new ArrayList<>();
+		for (String code : codes) {
+			DictDataVO dictData = snapshot.get(code);
+			if (dictData != null) {
+				found.put(code, dictData);
+			}
+			else if (!missingCodes.contains(code)) {
+				unloadedCodes.add(code);
+			}
+		}
+		if (!unloadedCodes.isEmpty()) {
+			found.putAll(load(unloadedCodes));
+		}
+
+		List<DictDataVO> result = new ArrayList<>(found.size());
+		for (String code : codes) {
+			DictDataVO dictData = found.get(code);
+			if (dictData != null) {
+				result.add(dictData);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * 根据字典数据的 hashCode 计算 ETag，字典内容不变时 ETag 不变
+	 * @param dictDataList 字典数据列表
+	 * @return ETag，不含引号
+	 */
+	public static String computeETag(List<DictDataVO> dictDataList) {
+		StringBuilder sb = new StringBuilder();
+		for (DictDataVO dictData : dictDataList) {
+			sb.append(dictData.getDictCode()).append(':').append(dictData.getHashCode()).append(';');
+		}
+		return DigestUtils.md5DigestAsHex(sb.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * 一次查询字典，一次查询字典项，加载多个字典
+	 * @param dictCodes 字典标识集合
+	 * @return 字典标识 -> 字典数据
+	 */
+	private Map<String, DictDataVO> load(List<String> dictCodes) {
+		long currentGeneration = generation;
+
+		List<SysDict> sysDictList = sysDictService.listByCodes(dictCodes.toArray(new String[0]));
+		if (sysDictList.isEmpty()) {
+			write(currentGeneration, Collections.emptyMap(), dictCodes);
+			return Collections.emptyMap();
+		}
+		Map<String, List<SysDictItem>> dictItemMap = new HashMap<>(sysDictList.size() * 2);
+		for (SysDict sysDict : sysDictList) {
+			dictItemMap.put(sysDict.getCode(), new ArrayList<>());
+		}
+		for (SysDictItem dictItem : sysDictItemService.listByDictCodes(dictItemMap.keySet())) {
+			dictItemMap.get(dictItem.getDictCode()).add(dictItem);
+		}
+
+		Map<String, DictDataVO> result = new HashMap<>(sysDictList.size() * 2);
+		for (SysDict sysDict : sysDictList) {
+			result.put(sysDict.getCode(), toDictData(sysDict, dictItemMap.get(sysDict.getCode())));
+		}
+		write(currentGeneration, result, dictCodes);
+		return result;
+	}
+
+	/**
+	 * 写入加载结果，加载期间快照没有失效过才写入
+	 * @param loadedGeneration 加载前的失效次数
+	 * @param loaded 加载到的字典数据
+	 * @param dictCodes 本次加载的字典标识，未加载到的即为不存在的字典
+	 */
+	private void write(long loadedGeneration, Map<String, DictDataVO> loaded, List<String> dictCodes) {
+		synchronized (lock) {
+			if (generation != loadedGeneration) {
+				return;
+			}
+			snapshot.putAll(loaded);
+			for (String dictCode : dictCodes) {
+				if (!loaded.containsKey(dictCode) && missingCodes.size() < MAX_MISSING_CODES) {
+					missingCodes.add(dictCode);
+				}
+			}
+		}
+	}
+
+	private static DictDataVO toDictData(SysDict sysDict, List<SysDictItem> dictItems) {
+		List<DictItemVO> dictItemVos = new ArrayList<>(dictItems.size());
+		dictItems.sort(Comparator.comparingInt(SysDictItem::getSort));
+		for (SysDictItem dictItem : dictItems) {
+			dictItemVos.add(SysDictItemConverter.INSTANCE.poToItemVo(dictItem));
+		}
+		DictDataVO dictDataVO = new DictDataVO();
+		dictDataVO.setValueType(sysDict.getValueType());
+		dictDataVO.setDictCode(sysDict.getCode());
+		dictDataVO.setHashCode(sysDict.getHashCode());
+		dictDataVO.setDictItems(Collections.unmodifiableList(dictItemVos));
+		return dictDataVO;
+	}
+
+	/**
+	 * 事务提交后失效本地快照中对应的字典，并广播至其他节点
+	 * @param event 字典修改事件
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onDictChangeEvent(DictChangeEvent event) {
+		String[] dictCodes = new String[] { event.getDictCode() };
+		evict(dictCodes);
+		stringRedisTemplate.convertAndSend(SystemRedisKeyConstants.CHANNEL_DICT_CHANGED, JsonUtils.toJson(dictCodes));
+	}
+
+	@Override
+	protected void handleMessage(String[] dictCodes) {
+		evict(dictCodes);
+	}
+
+	/**
+	 * 失效快照
+	 * @param dictCodes 受影响的字典标识
+	 */
+	private void evict(String[] dictCodes) {
+		synchronized (lock) {
+			generation++;
+			for (String dictCode : dictCodes) {
+				snapshot.remove(dictCode);
+				missingCodes.remove(dictCode);
+			}
+		}
+		if (log.isDebugEnabled()) {
+			log.debug("[SysDictSnapshot] 字典快照已失效, dictCodes: {}", String.join(",", dictCodes));
+		}
+	}
+
+	@Override
+	public Topic topic() {
+		return new ChannelTopic(SystemRedisKeyConstants.CHANNEL_DICT_CHANGED);
+	}
+
+}
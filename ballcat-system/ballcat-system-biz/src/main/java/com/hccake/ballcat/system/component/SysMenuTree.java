@@ -0,0 +1,202 @@
+package com.hccake.ballcat.system.component;
+
+import com.hccake.ballcat.common.redis.listener.AbstractMessageEventListener;
+import com.hccake.ballcat.common.util.concurrent.VersionedSnapshot;
+import com.hccake.ballcat.system.constant.SystemRedisKeyConstants;
+import com.hccake.ballcat.system.enums.SysMenuType;
+import com.hccake.ballcat.system.event.SysRoleMenuChangeEvent;
+import com.hccake.ballcat.system.model.entity.SysMenu;
+import com.hccake.ballcat.system.model.entity.SysRoleMenu;
+import com.hccake.ballcat.system.service.SysMenuService;
+import com.hccake.ballcat.system.service.SysRoleMenuService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.Topic;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 菜单的内存快照
+ * <p>
+ * 一次性加载所有菜单及角色菜单关系，菜单按排序值排列，每个角色的菜单预先计算为 {@link BitSet}，查询用户菜单时只需合并用户各角色的位图，无需查询数据库。
+ * 快照不可变，菜单或角色菜单变化时通过 {@link SysRoleMenuChangeEvent} 整体失效，下次访问时重建；跨节点的失效复用
+ * {@link SysRoleMenuIndex} 广播的角色菜单变更消息。
+ * </p>
+ * <p>
+ * 快照由 {@link VersionedSnapshot} 持有，失效时只递增版本号，重建由一个线程完成，重建期间其他线程继续使用旧快照，避免失效瞬间的并发请求同时查询数据库。
+ * </p>
+ *
+ * @author hccake
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SysMenuTree extends AbstractMessageEventListener<String[]> {
+
+	private final SysMenuService sysMenuService;
+
+	private final SysRoleMenuService sysRoleMenuService;
+
+	private final VersionedSnapshot<Snapshot> snapshots = new VersionedSnapshot<>(this::loadSnapshot);
+
+	/**
+	 * 获取当前的菜单快照
+	 * @return Snapshot
+	 */
+	public Snapshot getSnapshot() {
+		return snapshots.get();
+	}
+
+	/**
+	 * 获取多个角色拥有的菜单，包含按钮，按排序值升序
+	 * @param roleCodes 角色标识集合
+	 * @return 菜单列表，元素为共享对象，请勿修改
+	 */
+	public List<SysMenu> listMenus(Collection<String> roleCodes) {
+		Snapshot current = getSnapshot();
+		return current.select(current.union(roleCodes));
+	}
+
+	/**
+	 * 获取多个角色拥有的路由菜单，即排除按钮后的菜单，按排序值升序
+	 * @param roleCodes 角色标识集合
+	 * @return 菜单列表，元素为共享对象，请勿修改
+	 */
+	public List<SysMenu> listRouterMenus(Collection<String> roleCodes) {
+		Snapshot current = getSnapshot();
+		BitSet bits = current.union(roleCodes);
+		bits.and(current.routerBits);
+		return current.select(bits);
+	}
+
+	/**
+	 * 获取角色拥有的菜单ID
+	 * @param roleCode 角色标识
+	 * @return 菜单ID集合
+	 */
+	public List<Integer> listMenuIds(String roleCode) {
+		List<SysMenu> menus = listMenus(Collections.singletonList(roleCode));
+		List<Integer> menuIds = new ArrayList<>(menus.size());
+		for (SysMenu menu : menus) {
+			menuIds.add(menu.getId());
+		}
+		return menuIds;
+	}
+
+	private Snapshot loadSnapshot() {
+		return new Snapshot(new ArrayList<>(sysMenuService.list()), sysRoleMenuService.list());
+	}
+
+	/**
+	 * 事务提交后失效本地快照，其他节点通过 {@link SysRoleMenuIndex} 广播的消息失效
+	 * @param event 角色菜单修改事件
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onSysRoleMenuChangeEvent(SysRoleMenuChangeEvent event) {
+		evict();
+	}
+
+	@Override
+	protected void handleMessage(String[] roleCodes) {
+		evict();
+	}
+
+	private void evict() {
+		snapshots.invalidate();
+		log.debug("[SysMenuTree] 菜单快照已失效");
+	}
+
+	@Override
+	public Topic topic() {
+		return new ChannelTopic(SystemRedisKeyConstants.CHANNEL_ROLE_MENU_CHANGED);
+	}
+
+	/**
+	 * 不可变的菜单快照
+	 */
+	public static final class Snapshot {
+
+		/**
+		 * 所有菜单，按排序值升序，位图中的下标即为菜单在此列表中的位置
+		 */
+		private final List<SysMenu> menus;
+
+		/**
+		 * 非按钮菜单的位图
+		 */
+		private final BitSet routerBits;
+
+		/**
+		 * 角色标识 -> 角色拥有的菜单位图
+		 */
+		private final Map<String, BitSet> roleBits;
+
+		Snapshot(List<SysMenu> menus, List<SysRoleMenu> roleMenus) {
+			menus.sort(Comparator.comparing(SysMenu::getSort, Comparator.nullsLast(Comparator.naturalOrder()))
+				.thenComparing(SysMenu::getId));
+			this.menus = Collections.unmodifiableList(menus);
+
+			Map<Integer, Integer> positions = new HashMap<>(menus.size() * 2);
+			BitSet routers = new BitSet(menus.size());
+			for (int i = 0; i < menus.size(); i++) {
+				SysMenu menu = menus.get(i);
+				positions.put(menu.getId(), i);
+				if (!Integer.valueOf(SysMenuType.BUTTON.getValue()).equals(menu.getType())) {
+					routers.set(i);
+				}
+			}
+			this.routerBits = routers;
+
+			Map<String, BitSet> bitsMap = new HashMap<>();
+			for (SysRoleMenu roleMenu : roleMenus) {
+				// 关联了已删除菜单的数据直接忽略
+				Integer position = positions.get(roleMenu.getMenuId());
+				if (position != null) {
+					bitsMap.computeIfAbsent(roleMenu.getRoleCode(), k -> new BitSet(menus.size())).set(position);
+				}
+			}
+			this.roleBits = bitsMap;
+		}
+
+		/**
+		 * 合并多个角色的菜单位图
+		 * @param roleCodes 角色标识集合
+		 * @return 新的位图，可自由修改
+		 */
+		BitSet union(Collection<String> roleCodes) {
+			BitSet bits = new BitSet(menus.size());
+			for (String roleCode : roleCodes) {
+				BitSet roleMenuBits = roleBits.get(roleCode);
+				if (roleMenuBits != null) {
+					bits.or(roleMenuBits);
+				}
+			}
+			return bits;
+		}
+
+		/**
+		 * 根据位图取出菜单，保持排序
+		 * @param bits 菜单位图
+		 * @return 菜单列表
+		 */
+		List<SysMenu> select(BitSet bits) {
+			List<SysMenu> result = new ArrayList<>(bits.cardinality());
+			for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+				result.add(menus.get(i));
+			}
+			return result;
+		}
+
+	}
+
+}
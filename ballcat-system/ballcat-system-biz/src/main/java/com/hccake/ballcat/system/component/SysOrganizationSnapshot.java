@@ -0,0 +1,78 @@
+package com.hccake.ballcat.system.component;
+
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.hccake.ballcat.common.redis.listener.AbstractMessageEventListener;
+import com.hccake.ballcat.common.util.JsonUtils;
+import com.hccake.ballcat.common.util.concurrent.VersionedSnapshot;
+import com.hccake.ballcat.system.constant.SystemRedisKeyConstants;
+import com.hccake.ballcat.system.event.SysOrganizationChangeEvent;
+import com.hccake.ballcat.system.mapper.SysOrganizationMapper;
+import com.hccake.ballcat.system.model.entity.SysOrganization;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.Topic;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 组织架构的内存快照
+ * <p>
+ * 组织架构数据量小且读多写少，一次性加载后缓存在内存中，树形结构直接基于快照构建，无需查询数据库。 组织修改时通过
+ * {@link SysOrganizationChangeEvent} 在事务提交后失效，并通过 redis 广播至其他节点，下次访问时重建。
+ * </p>
+ * <p>
+ * 快照由 {@link VersionedSnapshot} 持有，失效时只递增版本号，重建由一个线程完成，重建期间其他线程继续使用旧快照。
+ * </p>
+ *
+ * @author hccake
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SysOrganizationSnapshot extends AbstractMessageEventListener<Integer[]> {
+
+	private final SysOrganizationMapper sysOrganizationMapper;
+
+	private final VersionedSnapshot<List<SysOrganization>> organizations = new VersionedSnapshot<>(
+			() -> Collections.unmodifiableList(sysOrganizationMapper.selectList(Wrappers.emptyWrapper())));
+
+	/**
+	 * 获取所有组织
+	 * @return 组织列表，不可修改，元素为共享对象，请勿修改
+	 */
+	public List<SysOrganization> listOrganizations() {
+		return organizations.get();
+	}
+
+	/**
+	 * 事务提交后失效本地快照，并广播至其他节点
+	 * @param event 组织架构修改事件
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onSysOrganizationChangeEvent(SysOrganizationChangeEvent event) {
+		Integer[] organizationIds = new Integer[] { event.getOrganizationId() };
+		evict();
+		stringRedisTemplate.convertAndSend(SystemRedisKeyConstants.CHANNEL_ORGANIZATION_CHANGED,
+				JsonUtils.toJson(organizationIds));
+	}
+
+	@Override
+	protected void handleMessage(Integer[] organizationIds) {
+		evict();
+	}
+
+	private void evict() {
+		organizations.invalidate();
+		log.debug("[SysOrganizationSnapshot] 组织架构快照已失效");
+	}
+
+	@Override
+	public Topic topic() {
+		return new ChannelTopic(SystemRedisKeyConstants.CHANNEL_ORGANIZATION_CHANGED);
+	}
+
+}
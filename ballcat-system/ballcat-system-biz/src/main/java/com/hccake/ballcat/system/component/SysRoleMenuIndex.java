@@ -0,0 +1,217 @@
+package com.hccake.ballcat.system.component;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.text.CharSequenceUtil;
+import com.hccake.ballcat.common.redis.listener.AbstractMessageEventListener;
+import com.hccake.ballcat.common.util.JsonUtils;
+import com.hccake.ballcat.system.constant.SystemRedisKeyConstants;
+import com.hccake.ballcat.system.event.SysRoleMenuChangeEvent;
+import com.hccake.ballcat.system.model.dto.SysRoleMenuDTO;
+import com.hccake.ballcat.system.model.entity.SysMenu;
+import com.hccake.ballcat.system.service.SysMenuService;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.Topic;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 角色 -> 菜单/权限 的内存索引
+ * <p>
+ * 构建用户信息时直接从内存中获取角色对应的菜单和权限标识，未命中的角色通过一次查询批量加载。 角色菜单或菜单发生变化时，通过
+ * {@link SysRoleMenuChangeEvent} 失效本地索引，并通过 redis 广播至其他节点。
+ * </p>
+ *
+ * @author hccake
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SysRoleMenuIndex extends AbstractMessageEventListener<String[]> {
+
+	private final SysMenuService sysMenuService;
+
+	private final Map<String, RoleMenus> index = new ConcurrentHashMap<>();
+
+	/**
+	 * 索引的失效次数，用于防止失效前查询出的旧数据在失效后被写入索引
+	 */
+	private volatile long generation;
+
+	/**
+	 * 索引写入锁，失效与加载结果的写入互斥，保证版本检查和写入是原子的
+	 */
+	private final Object lock = new Object();
+
+	/**
+	 * 获取指定角色的菜单和权限信息
+	 * @param roleCodes 角色标识集合
+	 * @return 角色标识 -> 角色菜单
+	 */
+	public Map<String, RoleMenus> getRoleMenus(Collection<String> roleCodes) {
+		Map<String, RoleMenus> result = new HashMap<>(roleCodes.size() * 2);
+		List<String> missingRoleCodes = new ArrayList<>();
+		for (String roleCode : roleCodes) {
+			RoleMenus roleMenus = index.get(roleCode);
+			if (roleMenus == null) {
+				missingRoleCodes.add(roleCode);
+			}
+			else {
+				result.put(roleCode, roleMenus);
+			}
+		}
+		if (!missingRoleCodes.isEmpty()) {
+			result.putAll(load(missingRoleCodes));
+		}
+		return result;
+	}
+
+	/**
+	 * 一次查询加载多个角色的菜单
+	 * @param roleCodes 角色标识集合
+	 * @return 角色标识 -> 角色菜单
+	 */
+	private Map<String, RoleMenus> load(List<String> roleCodes) {
+		long currentGeneration = generation;
+
+		Map<String, List<SysMenu>> roleMenuMap = new HashMap<>(roleCodes.size() * 2);
+		for (SysRoleMenuDTO roleMenu : sysMenuService.listByRoleCodes(roleCodes)) {
+			roleMenuMap.computeIfAbsent(roleMenu.getRoleCode(), k -> new ArrayList<>()).add(roleMenu.getMenu());
+		}
+
+		Map<String, RoleMenus> result = new HashMap<>(roleCodes.size() * 2);
+		for (String roleCode : roleCodes) {
+			List<SysMenu> menus = roleMenuMap.get(roleCode);
+			if (menus == null) {
+				// 数据库排序规则不区分大小写时，返回的角色标识可能与传入的只有大小写不同
+				menus = getIgnoreCase(roleMenuMap, roleCode);
+			}
+			result.put(roleCode, new RoleMenus(menus));
+		}
+		// 加载期间索引没有失效过，才写入索引
+		synchronized (lock) {
+			if (generation == currentGeneration) {
+				index.putAll(result);
+			}
+		}
+		return result;
+	}
+
+	private static List<SysMenu> getIgnoreCase(Map<String, List<SysMenu>> roleMenuMap, String roleCode) {
+		for (Map.Entry<String, List<SysMenu>> entry : roleMenuMap.entrySet()) {
+			if (roleCode.equalsIgnoreCase(entry.getKey())) {
+				return entry.getValue();
+			}
+		}
+		return Collections.emptyList();
+	}
+
+	/**
+	 * 事务提交后失效本地索引，并广播至其他节点
+	 * @param event 角色菜单修改事件
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onSysRoleMenuChangeEvent(SysRoleMenuChangeEvent event) {
+		String[] roleCodes = event.isAllRoles() ? new String[0] : event.getRoleCodes().toArray(new String[0]);
+		evict(roleCodes);
+		stringRedisTemplate.convertAndSend(SystemRedisKeyConstants.CHANNEL_ROLE_MENU_CHANGED,
+				JsonUtils.toJson(roleCodes));
+	}
+
+	@Override
+	protected void handleMessage(String[] roleCodes) {
+		evict(roleCodes);
+	}
+
+	/**
+	 * 失效索引
+	 * @param roleCodes 受影响的角色，为空时失效全部
+	 */
+	private void evict(String[] roleCodes) {
+		synchronized (lock) {
+			generation++;
+			if (roleCodes == null || roleCodes.length == 0) {
+				index.clear();
+			}
+			else {
+				for (String roleCode : roleCodes) {
+					index.remove(roleCode);
+				}
+			}
+		}
+		if (log.isDebugEnabled()) {
+			log.debug("[SysRoleMenuIndex] 角色菜单索引已失效, roleCodes: {}",
+					roleCodes == null || roleCodes.length == 0 ? "ALL" : String.join(",", roleCodes));
+		}
+	}
+
+	@Override
+	public Topic topic() {
+		return new ChannelTopic(SystemRedisKeyConstants.CHANNEL_ROLE_MENU_CHANGED);
+	}
+
+	/**
+	 * 单个角色的菜单和权限标识，不可变
+	 */
+	@Getter
+	public static final class RoleMenus {
+
+		private final List<SysMenu> menus;
+
+		private final Set<String> permissions;
+
+		RoleMenus(List<SysMenu> menus) {
+			this.menus = Collections.unmodifiableList(menus);
+			Set<String> permissionSet = new LinkedHashSet<>();
+			for (SysMenu menu : menus) {
+				if (CharSequenceUtil.isNotEmpty(menu.getPermission())) {
+					permissionSet.add(menu.getPermission());
+				}
+			}
+			this.permissions = Collections.unmodifiableSet(permissionSet);
+		}
+
+	}
+
+	/**
+	 * 合并多个角色的权限标识
+	 * @param roleMenusCollection 角色菜单集合
+	 * @return 去重后的权限标识
+	 */
+	public static Set<String> mergePermissions(Collection<RoleMenus> roleMenusCollection) {
+		Set<String> permissions = new HashSet<>();
+		for (RoleMenus roleMenus : roleMenusCollection) {
+			permissions.addAll(roleMenus.getPermissions());
+		}
+		return permissions;
+	}
+
+	/**
+	 * 合并多个角色的菜单
+	 * @param roleMenusCollection 角色菜单集合
+	 * @return 去重后的菜单
+	 */
+	public static Set<SysMenu> mergeMenus(Collection<RoleMenus> roleMenusCollection) {
+		Set<SysMenu> menus = new HashSet<>();
+		for (RoleMenus roleMenus : roleMenusCollection) {
+			if (CollUtil.isNotEmpty(roleMenus.getMenus())) {
+				menus.addAll(roleMenus.getMenus());
+			}
+		}
+		return menus;
+	}
+
+}
@@ -1,12 +1,12 @@
 package com.hccake.ballcat.system.manager;
 
-import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.lang.Assert;
 import cn.hutool.core.util.IdUtil;
 import com.hccake.ballcat.common.core.exception.BusinessException;
 import com.hccake.ballcat.common.model.domain.PageParam;
 import com.hccake.ballcat.common.model.domain.PageResult;
 import com.hccake.ballcat.common.model.result.BaseResultCode;
+import com.hccake.ballcat.system.component.SysDictSnapshot;
 import com.hccake.ballcat.system.converter.SysDictItemConverter;
 import com.hccake.ballcat.system.event.DictChangeEvent;
 import com.hccake.ballcat.system.model.dto.SysDictItemDTO;
@@ -14,7 +14,6 @@ import com.hccake.ballcat.system.model.entity.SysDict;
 import com.hccake.ballcat.system.model.entity.SysDictItem;
 import com.hccake.ballcat.system.model.qo.SysDictQO;
 import com.hccake.ballcat.system.model.vo.DictDataVO;
-import com.hccake.ballcat.system.model.vo.DictItemVO;
 import com.hccake.ballcat.system.model.vo.SysDictItemPageVO;
 import com.hccake.ballcat.system.model.vo.SysDictPageVO;
 import com.hccake.ballcat.system.service.SysDictItemService;
@@ -24,8 +23,6 @@ import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -45,6 +42,8 @@ public class SysDictManager {
 
 	private final ApplicationEventPublisher eventPublisher;
 
+	private final SysDictSnapshot sysDictSnapshot;
+
 	/**
 	 * 字典表分页
 	 * @param pageParam 分页参数
@@ -62,7 +61,11 @@ public class SysDictManager {
 	 */
 	public boolean dictSave(SysDict sysDict) {
 		sysDict.setHashCode(IdUtil.fastSimpleUUID());
-		return sysDictService.save(sysDict);
+		boolean result = sysDictService.save(sysDict);
+		if (result) {
+			eventPublisher.publishEvent(new DictChangeEvent(sysDict.getCode()));
+		}
+		return result;
 	}
 
 	/**
@@ -77,6 +80,10 @@ public class SysDictManager {
 		boolean result = sysDictService.updateById(sysDict);
 		if (result) {
 			eventPublisher.publishEvent(new DictChangeEvent(dict.getCode()));
+			// 修改了字典标识时，新标识的快照同样需要失效
+			if (sysDict.getCode() != null && !sysDict.getCode().equals(dict.getCode())) {
+				eventPublisher.publishEvent(new DictChangeEvent(sysDict.getCode()));
+			}
 		}
 		return result;
 	}
@@ -99,6 +106,9 @@ public class SysDictManager {
 		// 删除字典
 		Assert.isTrue(sysDictService.removeById(id),
 				() -> new BusinessException(BaseResultCode.UPDATE_DATABASE_ERROR.getCode(), "字典删除异常"));
+
+		// 发布字典更新事件
+		eventPublisher.publishEvent(new DictChangeEvent(dictCode));
 	}
 
 	/**
@@ -203,36 +213,21 @@ public class SysDictManager {
 	}
 
 	/**
-	 * 查询字典数据
+	 * 查询字典数据，数据来自内存快照
 	 * @param dictCodes 字典标识
 	 * @return DictDataAndHashVO
 	 */
 	public List<DictDataVO> queryDictDataAndHashVO(String[] dictCodes) {
-		// 查询对应hash值，以及字典项数据
-		List<SysDict> sysDictList = sysDictService.listByCodes(dictCodes);
-		if (CollUtil.isEmpty(sysDictList)) {
-			return new ArrayList<>();
-		}
+		return sysDictSnapshot.listDictData(dictCodes);
+	}
 
-		// 填充字典项
-		List<DictDataVO> list = new ArrayList<>();
-		for (SysDict sysDict : sysDictList) {
-			List<SysDictItem> dictItems = sysDictItemService.listByDictCode(sysDict.getCode());
-			// 排序并转换为VO
-			List<DictItemVO> setDictItems = dictItems.stream()
-				.sorted(Comparator.comparingInt(SysDictItem::getSort))
-				.map(SysDictItemConverter.INSTANCE::poToItemVo)
-				.collect(Collectors.toList());
-			// 组装DataVO
-			DictDataVO dictDataVO = new DictDataVO();
-			dictDataVO.setValueType(sysDict.getValueType());
-			dictDataVO.setDictCode(sysDict.getCode());
-			dictDataVO.setHashCode(sysDict.getHashCode());
-			dictDataVO.setDictItems(setDictItems);
-
-			list.add(dictDataVO);
-		}
-		return list;
+	/**
+	 * 计算字典数据的 ETag，用于客户端的条件请求
+	 * @param dictDataList 字典数据
+	 * @return ETag
+	 */
+	public String dictDataETag(List<DictDataVO> dictDataList) {
+		return SysDictSnapshot.computeETag(dictDataList);
 	}
 
 	/**
@@ -242,12 +237,12 @@ public class SysDictManager {
 	 */
 	public List<String> invalidDictHash(Map<String, String> dictHashCode) {
 		// @formatter:off
-		List<SysDict> byCode = sysDictService.listByCodes(dictHashCode.keySet()
+		List<DictDataVO> dictDataList = sysDictSnapshot.listDictData(dictHashCode.keySet()
 				.toArray(new String[] {}));
 		// 过滤相等Hash值的字典项，并返回需要修改的字典项的Code
-		return byCode.stream()
-				.filter(x -> !dictHashCode.get(x.getCode()).equals(x.getHashCode()))
-				.map(SysDict::getCode)
+		return dictDataList.stream()
+				.filter(x -> !x.getHashCode().equals(dictHashCode.get(x.getDictCode())))
+				.map(DictDataVO::getDictCode)
 				.collect(Collectors.toList());
 		// @formatter:on
 	}
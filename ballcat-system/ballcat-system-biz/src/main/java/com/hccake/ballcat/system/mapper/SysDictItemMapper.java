@@ -11,6 +11,7 @@ import com.hccake.ballcat.common.model.domain.PageParam;
 import com.hccake.ballcat.common.model.domain.PageResult;
 import com.hccake.extend.mybatis.plus.mapper.ExtendMapper;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -44,6 +45,15 @@ public interface SysDictItemMapper extends ExtendMapper<SysDictItem> {
 		return this.selectList(Wrappers.<SysDictItem>lambdaQuery().eq(SysDictItem::getDictCode, dictCode));
 	}
 
+	/**
+	 * 根据字典标识批量查询字典项
+	 * @param dictCodes 字典标识集合
+	 * @return List<SysDictItem> 字典项集合
+	 */
+	default List<SysDictItem> listByDictCodes(Collection<String> dictCodes) {
+		return this.selectList(Wrappers.<SysDictItem>lambdaQuery().in(SysDictItem::getDictCode, dictCodes));
+	}
+
 	/**
 	 * 根据字典标识删除对应字典项
 	 * @param dictCode 字典标识
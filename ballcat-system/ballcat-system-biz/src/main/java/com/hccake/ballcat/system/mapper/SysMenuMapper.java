@@ -3,13 +3,16 @@ package com.hccake.ballcat.system.mapper;
 import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.core.toolkit.Wrappers;
 import com.baomidou.mybatisplus.extension.toolkit.SqlHelper;
+import com.hccake.ballcat.system.model.dto.SysRoleMenuDTO;
 import com.hccake.ballcat.system.model.entity.SysMenu;
 import com.hccake.ballcat.system.model.qo.SysMenuQO;
 import com.hccake.extend.mybatis.plus.conditions.query.LambdaQueryWrapperX;
 import com.hccake.extend.mybatis.plus.mapper.ExtendMapper;
 import com.hccake.extend.mybatis.plus.toolkit.WrappersX;
+import org.apache.ibatis.annotations.Param;
 
 import java.io.Serializable;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -41,6 +44,13 @@ public interface SysMenuMapper extends ExtendMapper<SysMenu> {
 	 */
 	List<SysMenu> listByRoleCode(String roleCode);
 
+	/**
+	 * 根据多个角色标识一次查询对应的菜单
+	 * @param roleCodes 角色标识集合
+	 * @return List<SysRoleMenuDTO> 角色和菜单的对应关系
+	 */
+	List<SysRoleMenuDTO> listByRoleCodes(@Param("roleCodes") Collection<String> roleCodes);
+
 	/**
 	 * 查询指定权限的下级权限总数
 	 * @param id 权限ID
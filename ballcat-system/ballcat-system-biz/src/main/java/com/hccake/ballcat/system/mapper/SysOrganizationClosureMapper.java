@@ -0,0 +1,91 @@
+package com.hccake.ballcat.system.mapper;
+
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.hccake.ballcat.system.model.entity.SysOrganization;
+import com.hccake.ballcat.system.model.entity.SysOrganizationClosure;
+import com.hccake.extend.mybatis.plus.mapper.ExtendMapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * 组织架构闭包表
+ *
+ * @author hccake
+ */
+public interface SysOrganizationClosureMapper extends ExtendMapper<SysOrganizationClosure> {
+
+	/**
+	 * 插入新组织节点的闭包关系：父节点的所有祖先关系深度加一，以及自身关系
+	 * @param organizationId 组织ID
+	 * @param parentId 父级组织ID
+	 */
+	void insertNode(@Param("organizationId") Integer organizationId, @Param("parentId") Integer parentId);
+
+	/**
+	 * 断开子树与其原祖先之间的关系，子树内部的关系保持不变
+	 * @param organizationId 子树根节点组织ID
+	 */
+	void detachSubtree(@Param("organizationId") Integer organizationId);
+
+	/**
+	 * 将子树挂载到新的父节点下，为子树的每个节点建立与新父节点所有祖先的关系
+	 * @param organizationId 子树根节点组织ID
+	 * @param parentId 新的父级组织ID
+	 */
+	void attachSubtree(@Param("organizationId") Integer organizationId, @Param("parentId") Integer parentId);
+
+	/**
+	 * 查询组织的所有子孙组织，不包含自身
+	 * @param organizationId 组织ID
+	 * @return 子孙组织集合
+	 */
+	List<SysOrganization> listDescendants(@Param("organizationId") Integer organizationId);
+
+	/**
+	 * 统计闭包关系不完整的组织数量，即缺少自身关系，或父级组织存在但缺少与父级组织直接关系的未删除组织
+	 * @return 关系不完整的组织数量
+	 */
+	long countBrokenNodes();
+
+	/**
+	 * 判断 ancestor 是否为 descendant 的祖先或者自身
+	 * @param ancestor 祖先组织ID
+	 * @param descendant 后代组织ID
+	 * @return 是祖先或自身时返回 true
+	 */
+	default boolean isAncestorOrSelf(Integer ancestor, Integer descendant) {
+		return this.selectCount(Wrappers.<SysOrganizationClosure>lambdaQuery()
+			.eq(SysOrganizationClosure::getAncestor, ancestor)
+			.eq(SysOrganizationClosure::getDescendant, descendant)) > 0;
+	}
+
+	/**
+	 * 判断组织下是否存在子孙组织
+	 * @param organizationId 组织ID
+	 * @return 存在返回 true
+	 */
+	default boolean existsDescendant(Integer organizationId) {
+		return !this.selectList(Wrappers.<SysOrganizationClosure>lambdaQuery()
+			.eq(SysOrganizationClosure::getAncestor, organizationId)
+			.gt(SysOrganizationClosure::getDepth, 0)
+			.last("limit 1")).isEmpty();
+	}
+
+	/**
+	 * 删除组织作为后代的所有关系，仅用于删除叶子节点
+	 * @param organizationId 组织ID
+	 */
+	default void deleteByDescendant(Integer organizationId) {
+		this.delete(Wrappers.<SysOrganizationClosure>lambdaQuery()
+			.eq(SysOrganizationClosure::getDescendant, organizationId));
+	}
+
+	/**
+	 * 清空闭包表
+	 */
+	default void deleteAll() {
+		this.delete(Wrappers.emptyWrapper());
+	}
+
+}
@@ -1,11 +1,15 @@
 package com.hccake.ballcat.system.mapper;
 
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.core.toolkit.Wrappers;
 import com.hccake.ballcat.system.model.entity.SysRoleMenu;
 import com.hccake.extend.mybatis.plus.mapper.ExtendMapper;
 
 import java.io.Serializable;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * <p>
@@ -33,6 +37,36 @@ public interface SysRoleMenuMapper extends ExtendMapper<SysRoleMenu> {
 		this.delete(Wrappers.<SysRoleMenu>query().lambda().eq(SysRoleMenu::getRoleCode, roleCode));
 	}
 
+	/**
+	 * 查询角色绑定的菜单ID，并对该角色的绑定关系加锁，防止并发修改同一角色时增量计算出错
+	 * @param roleCode 角色标识
+	 * @return 菜单ID集合
+	 */
+	default List<Integer> listMenuIdsByRoleCodeForUpdate(String roleCode) {
+		// @formatter:off
+		LambdaQueryWrapper<SysRoleMenu> wrapper = Wrappers.lambdaQuery(SysRoleMenu.class)
+				.select(SysRoleMenu::getMenuId)
+				.eq(SysRoleMenu::getRoleCode, roleCode)
+				.last("for update");
+		// @formatter:on
+		return this.selectList(wrapper).stream().map(SysRoleMenu::getMenuId).collect(Collectors.toList());
+	}
+
+	/**
+	 * 删除角色与指定菜单的绑定关系
+	 * @param roleCode 角色标识
+	 * @param menuIds 菜单ID集合
+	 * @return 删除的条数
+	 */
+	default int deleteByRoleCodeAndMenuIds(String roleCode, Collection<Integer> menuIds) {
+		// @formatter:off
+		LambdaQueryWrapper<SysRoleMenu> wrapper = Wrappers.lambdaQuery(SysRoleMenu.class)
+				.eq(SysRoleMenu::getRoleCode, roleCode)
+				.in(SysRoleMenu::getMenuId, menuIds);
+		// @formatter:on
+		return this.delete(wrapper);
+	}
+
 	/**
 	 * 更新某个菜单的 id
 	 * @param originalId 原菜单ID
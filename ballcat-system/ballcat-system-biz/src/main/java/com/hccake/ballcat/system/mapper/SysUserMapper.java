@@ -129,6 +129,31 @@ public interface SysUserMapper extends ExtendMapper<SysUser> {
 	 */
 	List<SysUser> listByRoleCodes(@Param("roleCodes") Collection<String> roleCodes);
 
+	/**
+	 * 按用户 id 升序分批查询通知接收者，只查询用户 id 及联系方式
+	 * @param wrapper 筛选条件
+	 * @param lastUserId 上一批次最后一个用户的 id，查询首批时为 null
+	 * @param limit 每批数量
+	 * @return 用户集合
+	 */
+	default List<SysUser> listRecipients(LambdaQueryWrapper<SysUser> wrapper, Integer lastUserId, int limit) {
+		wrapper.select(SysUser::getUserId, SysUser::getEmail, SysUser::getPhone)
+			.gt(lastUserId != null, SysUser::getUserId, lastUserId)
+			.orderByAsc(SysUser::getUserId)
+			.last("limit " + limit);
+		return this.selectList(wrapper);
+	}
+
+	/**
+	 * 按用户 id 升序分批查询拥有指定角色的通知接收者，只查询用户 id 及联系方式
+	 * @param roleCodes 角色标识
+	 * @param lastUserId 上一批次最后一个用户的 id，查询首批时为 null
+	 * @param limit 每批数量
+	 * @return 用户集合
+	 */
+	List<SysUser> listRecipientsByRoleCodes(@Param("roleCodes") Collection<String> roleCodes,
+			@Param("lastUserId") Integer lastUserId, @Param("limit") int limit);
+
 	/**
 	 * 返回用户的select数据 name=> username value => userId
 	 * @param userTypes 用户类型
@@ -14,7 +14,9 @@ import com.hccake.extend.mybatis.plus.toolkit.WrappersX;
 import org.apache.ibatis.annotations.Param;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * <p>
@@ -36,6 +38,30 @@ public interface SysUserRoleMapper extends ExtendMapper<SysUserRole> {
 		return SqlHelper.retBool(i);
 	}
 
+	/**
+	 * 删除用户与指定角色的关联关系
+	 * @param userId 用户ID
+	 * @param roleCodes 角色标识集合
+	 * @return 删除的条数
+	 */
+	default int deleteByUserIdAndRoleCodes(Integer userId, Collection<String> roleCodes) {
+		return this.delete(Wrappers.lambdaQuery(SysUserRole.class)
+			.eq(SysUserRole::getUserId, userId)
+			.in(SysUserRole::getRoleCode, roleCodes));
+	}
+
+	/**
+	 * 查询用户绑定的角色标识
+	 * @param userId 用户ID
+	 * @return 角色标识集合
+	 */
+	default List<String> listRoleCodesByUserId(Integer userId) {
+		List<SysUserRole> list = this.selectList(Wrappers.lambdaQuery(SysUserRole.class)
+			.select(SysUserRole::getRoleCode)
+			.eq(SysUserRole::getUserId, userId));
+		return list.stream().map(SysUserRole::getRoleCode).collect(Collectors.toList());
+	}
+
 	/**
 	 * 插入用户角色关联关系
 	 * @param list 用户角色关联集合
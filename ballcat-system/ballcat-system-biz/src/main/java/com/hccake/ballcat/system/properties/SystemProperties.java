@@ -27,6 +27,11 @@ public class SystemProperties {
 	 */
 	private String passwordRule;
 
+	/**
+	 * 组织架构的配置
+	 */
+	private Organization organization = new Organization();
+
 	@Getter
 	@Setter
 	public static class Administrator {
@@ -43,4 +48,17 @@ public class SystemProperties {
 
 	}
 
+	@Getter
+	@Setter
+	public static class Organization {
+
+		/**
+		 * 是否启用组织架构闭包表 sys_organization_closure，启用后子孙组织的查询和移动通过闭包表完成，启用前需先执行一次层级校正以初始化闭包表数据
+		 * <p>
+		 * 启动时会校验闭包表数据，数据不完整时回退为基于层级字段的查询，直至执行层级校正
+		 */
+		private boolean closureTableEnabled = false;
+
+	}
+
 }
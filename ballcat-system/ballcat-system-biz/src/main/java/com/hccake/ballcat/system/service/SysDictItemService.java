@@ -6,6 +6,7 @@ import com.hccake.ballcat.common.model.domain.PageParam;
 import com.hccake.ballcat.common.model.domain.PageResult;
 import com.hccake.extend.mybatis.plus.service.ExtendService;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -31,6 +32,13 @@ public interface SysDictItemService extends ExtendService<SysDictItem> {
 	 */
 	List<SysDictItem> listByDictCode(String dictCode);
 
+	/**
+	 * 根据字典标识批量查询字典项
+	 * @param dictCodes 字典标识集合
+	 * @return 字典项集合
+	 */
+	List<SysDictItem> listByDictCodes(Collection<String> dictCodes);
+
 	/**
 	 * 根据字典标识删除对应字典项
 	 * @param dictCode 字典标识
@@ -2,10 +2,12 @@ package com.hccake.ballcat.system.service;
 
 import com.hccake.ballcat.system.model.dto.SysMenuCreateDTO;
 import com.hccake.ballcat.system.model.dto.SysMenuUpdateDTO;
+import com.hccake.ballcat.system.model.dto.SysRoleMenuDTO;
 import com.hccake.ballcat.system.model.entity.SysMenu;
 import com.hccake.ballcat.system.model.qo.SysMenuQO;
 import com.hccake.extend.mybatis.plus.service.ExtendService;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -35,6 +37,13 @@ public interface SysMenuService extends ExtendService<SysMenu> {
 	 */
 	List<SysMenu> listByRoleCode(String roleCode);
 
+	/**
+	 * 根据多个角色标识一次查询对应的菜单
+	 * @param roleCodes 角色标识集合
+	 * @return List<SysRoleMenuDTO> 角色和菜单的对应关系
+	 */
+	List<SysRoleMenuDTO> listByRoleCodes(Collection<String> roleCodes);
+
 	/**
 	 * 新建菜单权限
 	 * @param sysMenuCreateDTO 菜单全新新建传输对象
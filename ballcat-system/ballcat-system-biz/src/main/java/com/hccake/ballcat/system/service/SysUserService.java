@@ -135,6 +135,50 @@ public interface SysUserService extends ExtendService<SysUser> {
 	 */
 	List<SysUser> listByUserIds(Collection<Integer> userIds);
 
+	/**
+	 * 按用户 id 升序分批查询所有通知接收者，只包含用户 id 及联系方式
+	 * @param lastUserId 上一批次最后一个用户的 id，查询首批时为 null
+	 * @param limit 每批数量
+	 * @return 用户集合
+	 */
+	List<SysUser> listRecipients(Integer lastUserId, int limit);
+
+	/**
+	 * 按用户 id 升序分批查询指定角色的通知接收者，只包含用户 id 及联系方式
+	 * @param roleCodes 角色标识集合
+	 * @param lastUserId 上一批次最后一个用户的 id，查询首批时为 null
+	 * @param limit 每批数量
+	 * @return 用户集合
+	 */
+	List<SysUser> listRecipientsByRoleCodes(Collection<String> roleCodes, Integer lastUserId, int limit);
+
+	/**
+	 * 按用户 id 升序分批查询指定组织的通知接收者，只包含用户 id 及联系方式
+	 * @param organizationIds 组织机构id集合
+	 * @param lastUserId 上一批次最后一个用户的 id，查询首批时为 null
+	 * @param limit 每批数量
+	 * @return 用户集合
+	 */
+	List<SysUser> listRecipientsByOrganizationIds(Collection<Integer> organizationIds, Integer lastUserId, int limit);
+
+	/**
+	 * 按用户 id 升序分批查询指定用户类型的通知接收者，只包含用户 id 及联系方式
+	 * @param userTypes 用户类型集合
+	 * @param lastUserId 上一批次最后一个用户的 id，查询首批时为 null
+	 * @param limit 每批数量
+	 * @return 用户集合
+	 */
+	List<SysUser> listRecipientsByUserTypes(Collection<Integer> userTypes, Integer lastUserId, int limit);
+
+	/**
+	 * 按用户 id 升序分批查询指定用户的通知接收者，只包含用户 id 及联系方式
+	 * @param userIds 用户Id集合
+	 * @param lastUserId 上一批次最后一个用户的 id，查询首批时为 null
+	 * @param limit 每批数量
+	 * @return 用户集合
+	 */
+	List<SysUser> listRecipientsByUserIds(Collection<Integer> userIds, Integer lastUserId, int limit);
+
 	/**
 	 * 返回用户的select数据
 	 * @param type 为空时返回所有客户为1返回系统客户 name=> username value => userId
@@ -9,6 +9,7 @@ import com.hccake.ballcat.common.model.domain.PageResult;
 import com.hccake.extend.mybatis.plus.service.impl.ExtendServiceImpl;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -42,6 +43,16 @@ public class SysDictItemServiceImpl extends ExtendServiceImpl<SysDictItemMapper,
 		return baseMapper.listByDictCode(dictCode);
 	}
 
+	/**
+	 * 根据字典标识批量查询字典项
+	 * @param dictCodes 字典标识集合
+	 * @return 字典项集合
+	 */
+	@Override
+	public List<SysDictItem> listByDictCodes(Collection<String> dictCodes) {
+		return baseMapper.listByDictCodes(dictCodes);
+	}
+
 	/**
 	 * 根据字典标识删除对应字典项
 	 * @param dictCode 字典标识
@@ -8,9 +8,11 @@ import com.hccake.ballcat.common.i18n.I18nMessage;
 import com.hccake.ballcat.common.i18n.I18nMessageCreateEvent;
 import com.hccake.ballcat.common.model.result.BaseResultCode;
 import com.hccake.ballcat.system.converter.SysMenuConverter;
+import com.hccake.ballcat.system.event.SysRoleMenuChangeEvent;
 import com.hccake.ballcat.system.mapper.SysMenuMapper;
 import com.hccake.ballcat.system.model.dto.SysMenuCreateDTO;
 import com.hccake.ballcat.system.model.dto.SysMenuUpdateDTO;
+import com.hccake.ballcat.system.model.dto.SysRoleMenuDTO;
 import com.hccake.ballcat.system.model.entity.SysMenu;
 import com.hccake.ballcat.system.model.qo.SysMenuQO;
 import com.hccake.ballcat.system.service.SysMenuService;
@@ -23,6 +25,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -111,6 +115,9 @@ public class SysMenuServiceImpl extends ExtendServiceImpl<SysMenuMapper, SysMenu
 			return new BusinessException(BaseResultCode.UPDATE_DATABASE_ERROR.getCode(), "更新菜单权限时，sql 执行异常");
 		});
 
+		// 菜单的授权标识等信息可能变化，失效所有角色的菜单权限
+		eventPublisher.publishEvent(SysRoleMenuChangeEvent.ofAllRoles());
+
 		// 如果未修改过 菜单id 直接返回
 		Integer menuId = sysMenuUpdateDTO.getId();
 		if (originalId.equals(menuId)) {
@@ -143,4 +150,17 @@ public class SysMenuServiceImpl extends ExtendServiceImpl<SysMenuMapper, SysMenu
 		return baseMapper.listByRoleCode(roleCode);
 	}
 
+	/**
+	 * 根据多个角色标识一次查询对应的菜单
+	 * @param roleCodes 角色标识集合
+	 * @return List<SysRoleMenuDTO> 角色和菜单的对应关系
+	 */
+	@Override
+	public List<SysRoleMenuDTO> listByRoleCodes(Collection<String> roleCodes) {
+		if (CollUtil.isEmpty(roleCodes)) {
+			return new ArrayList<>();
+		}
+		return baseMapper.listByRoleCodes(roleCodes);
+	}
+
 }
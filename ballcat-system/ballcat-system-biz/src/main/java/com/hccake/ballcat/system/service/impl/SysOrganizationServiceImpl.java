@@ -12,24 +12,37 @@ import com.hccake.ballcat.common.core.constant.GlobalConstants;
 import com.hccake.ballcat.common.core.exception.BusinessException;
 import com.hccake.ballcat.common.model.result.BaseResultCode;
 import com.hccake.ballcat.common.util.tree.TreeUtils;
+import com.hccake.ballcat.system.component.SysOrganizationSnapshot;
 import com.hccake.ballcat.system.converter.SysOrganizationConverter;
+import com.hccake.ballcat.system.event.SysOrganizationChangeEvent;
+import com.hccake.ballcat.system.mapper.SysOrganizationClosureMapper;
 import com.hccake.ballcat.system.mapper.SysOrganizationMapper;
 import com.hccake.ballcat.system.model.dto.OrganizationMoveChildParam;
 import com.hccake.ballcat.system.model.dto.SysOrganizationDTO;
 import com.hccake.ballcat.system.model.entity.SysOrganization;
+import com.hccake.ballcat.system.model.entity.SysOrganizationClosure;
 import com.hccake.ballcat.system.model.qo.SysOrganizationQO;
 import com.hccake.ballcat.system.model.vo.SysOrganizationTree;
+import com.hccake.ballcat.system.properties.SystemProperties;
 import com.hccake.ballcat.system.service.SysOrganizationService;
 import com.hccake.ballcat.system.service.SysUserService;
 import com.hccake.extend.mybatis.plus.service.impl.ExtendServiceImpl;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.io.Serializable;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -37,13 +50,64 @@ import java.util.stream.Collectors;
  *
  * @author hccake 2020-09-23 12:09:43
  */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class SysOrganizationServiceImpl extends ExtendServiceImpl<SysOrganizationMapper, SysOrganization>
-		implements SysOrganizationService {
+		implements SysOrganizationService, SmartInitializingSingleton {
+
+	/**
+	 * 重建闭包表时每批插入的数据量
+	 */
+	private static final int CLOSURE_INSERT_BATCH_SIZE = 1000;
 
 	private final SysUserService sysUserService;
 
+	private final SysOrganizationClosureMapper sysOrganizationClosureMapper;
+
+	private final SysOrganizationSnapshot sysOrganizationSnapshot;
+
+	private final SystemProperties systemProperties;
+
+	private final ApplicationEventPublisher eventPublisher;
+
+	/**
+	 * 闭包表数据是否完整，启动时校验，不完整时回退为基于层级字段的查询，直至层级校正重建闭包表。
+	 * <p>
+	 * 该标记只决定查询方式，开启闭包表后无论标记如何，写操作都会维护闭包表，保证集群中其他节点查询到的闭包表数据不会过期
+	 */
+	private volatile boolean closureTableAvailable;
+
+	@Override
+	public void afterSingletonsInstantiated() {
+		if (!closureTableEnabled()) {
+			return;
+		}
+		try {
+			closureTableAvailable = isClosureTableConsistent();
+		}
+		catch (RuntimeException e) {
+			log.error("[SysOrganization] 闭包表 sys_organization_closure 校验失败", e);
+		}
+		if (!closureTableAvailable) {
+			log.warn("[SysOrganization] 闭包表 sys_organization_closure 数据不完整，暂时回退为基于层级字段的查询，请执行一次组织层级校正以重建闭包表");
+		}
+	}
+
+	/**
+	 * 校验闭包表数据：每个未删除的组织都需有自身关系，父级组织存在时还需有与父级组织的直接关系
+	 * @return 数据完整返回 true
+	 */
+	private boolean isClosureTableConsistent() {
+		// 关系数量少于组织数量时必然缺少自身关系，无需再关联查询
+		Long organizationCount = baseMapper.selectCount(Wrappers.emptyWrapper());
+		Long closureCount = sysOrganizationClosureMapper.selectCount(Wrappers.emptyWrapper());
+		if (closureCount < organizationCount) {
+			return false;
+		}
+		return sysOrganizationClosureMapper.countBrokenNodes() == 0;
+	}
+
 	/**
 	 * 返回组织架构的树形结构
 	 * @param sysOrganizationQO 组织机构查询条件
@@ -51,7 +115,7 @@ public class SysOrganizationServiceImpl extends ExtendServiceImpl<SysOrganizatio
 	 */
 	@Override
 	public List<SysOrganizationTree> listTree(SysOrganizationQO sysOrganizationQO) {
-		List<SysOrganization> list = this.list();
+		List<SysOrganization> list = sysOrganizationSnapshot.listOrganizations();
 		List<SysOrganizationTree> tree = TreeUtils.buildTree(list, GlobalConstants.TREE_ROOT_ID,
 				SysOrganizationConverter.INSTANCE::poToTree);
 
@@ -70,6 +134,7 @@ public class SysOrganizationServiceImpl extends ExtendServiceImpl<SysOrganizatio
 	 * @return boolean 创建成功/失败
 	 */
 	@Override
+	@Transactional(rollbackFor = Exception.class)
 	public boolean create(SysOrganizationDTO sysOrganizationDTO) {
 		sysOrganizationDTO.setId(null);
 		SysOrganization sysOrganization = SysOrganizationConverter.INSTANCE.dtoToPo(sysOrganizationDTO);
@@ -79,7 +144,14 @@ public class SysOrganizationServiceImpl extends ExtendServiceImpl<SysOrganizatio
 		// 填充层级和深度
 		fillDepthAndHierarchy(sysOrganization, parentId);
 
-		return SqlHelper.retBool(baseMapper.insert(sysOrganization));
+		boolean result = SqlHelper.retBool(baseMapper.insert(sysOrganization));
+		if (result) {
+			if (closureTableEnabled()) {
+				sysOrganizationClosureMapper.insertNode(sysOrganization.getId(), parentId);
+			}
+			eventPublisher.publishEvent(new SysOrganizationChangeEvent(sysOrganization.getId()));
+		}
+		return result;
 	}
 
 	/**
@@ -98,13 +170,22 @@ public class SysOrganizationServiceImpl extends ExtendServiceImpl<SysOrganizatio
 		// 如果没有移动父节点，则直接更新
 		Integer targetParentId = sysOrganizationDTO.getParentId();
 		if (originSysOrganization.getParentId().equals(targetParentId)) {
-			return SqlHelper.retBool(baseMapper.updateById(newSysOrganization));
+			boolean result = SqlHelper.retBool(baseMapper.updateById(newSysOrganization));
+			if (result) {
+				eventPublisher.publishEvent(new SysOrganizationChangeEvent(organizationId));
+			}
+			return result;
 		}
 
 		// 移动了父节点，先判断不是选择自己作为父节点
 		Assert.isFalse(targetParentId.equals(organizationId), "父节点不能是自己！");
 		// 再判断是否是自己的子节点，根节点跳过判断
-		if (!GlobalConstants.TREE_ROOT_ID.equals(targetParentId)) {
+		if (closureTableReadable()) {
+			if (sysOrganizationClosureMapper.isAncestorOrSelf(organizationId, targetParentId)) {
+				throw new BusinessException(BaseResultCode.LOGIC_CHECK_ERROR.getCode(), "父节点不能是自己的子节点！");
+			}
+		}
+		else if (!GlobalConstants.TREE_ROOT_ID.equals(targetParentId)) {
 			SysOrganization targetParentOrganization = baseMapper.selectById(targetParentId);
 			String[] targetParentHierarchy = targetParentOrganization.getHierarchy().split("-");
 			if (ArrayUtil.contains(targetParentHierarchy, String.valueOf(organizationId))) {
@@ -117,8 +198,15 @@ public class SysOrganizationServiceImpl extends ExtendServiceImpl<SysOrganizatio
 		// 更新其子节点的数据
 		OrganizationMoveChildParam param = getOrganizationMoveChildParam(newSysOrganization, originSysOrganization);
 		baseMapper.followMoveChildNode(param);
+		// 闭包表中整棵子树的移动只需两条语句：断开与原祖先的关系，再挂载到新的父节点下
+		if (closureTableEnabled()) {
+			sysOrganizationClosureMapper.detachSubtree(organizationId);
+			sysOrganizationClosureMapper.attachSubtree(organizationId, targetParentId);
+		}
 		// 更新组织节点信息
-		return SqlHelper.retBool(baseMapper.updateById(newSysOrganization));
+		boolean result = SqlHelper.retBool(baseMapper.updateById(newSysOrganization));
+		eventPublisher.publishEvent(new SysOrganizationChangeEvent(organizationId));
+		return result;
 	}
 
 	private OrganizationMoveChildParam getOrganizationMoveChildParam(SysOrganization newSysOrganization,
@@ -159,6 +247,9 @@ public class SysOrganizationServiceImpl extends ExtendServiceImpl<SysOrganizatio
 	 */
 	@Override
 	public List<SysOrganization> listChildOrganization(Integer organizationId) {
+		if (closureTableReadable()) {
+			return sysOrganizationClosureMapper.listDescendants(organizationId);
+		}
 		return baseMapper.listChildOrganization(organizationId);
 	}
 
@@ -179,9 +270,77 @@ public class SysOrganizationServiceImpl extends ExtendServiceImpl<SysOrganizatio
 		String hierarchy = "0";
 		updateChildHierarchyAndPath(map, parentId, depth, hierarchy);
 
+		// 根据父子关系重建闭包表，事务提交后启用
+		if (closureTableEnabled()) {
+			rebuildClosure(map);
+			markClosureTableAvailable();
+		}
+		eventPublisher.publishEvent(new SysOrganizationChangeEvent(parentId));
 		return true;
 	}
 
+	private void markClosureTableAvailable() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					closureTableAvailable = true;
+				}
+			});
+		}
+		else {
+			closureTableAvailable = true;
+		}
+	}
+
+	private void rebuildClosure(Map<Integer, List<SysOrganization>> map) {
+		sysOrganizationClosureMapper.deleteAll();
+		List<SysOrganizationClosure> closures = collectClosure(map);
+		for (List<SysOrganizationClosure> batch : CollUtil.split(closures, CLOSURE_INSERT_BATCH_SIZE)) {
+			sysOrganizationClosureMapper.insertBatchSomeColumn(batch);
+		}
+	}
+
+	/**
+	 * 根据父子关系计算所有组织的闭包关系，父级组织不存在的组织视为根节点，与 countBrokenNodes 的校验规则保持一致
+	 * @param map 父级组织ID -> 子组织列表
+	 * @return 闭包关系列表
+	 */
+	static List<SysOrganizationClosure> collectClosure(Map<Integer, List<SysOrganization>> map) {
+		Set<Integer> organizationIds = map.values()
+			.stream()
+			.flatMap(List::stream)
+			.map(SysOrganization::getId)
+			.collect(Collectors.toSet());
+		List<SysOrganizationClosure> closures = new ArrayList<>();
+		for (Integer parentId : map.keySet()) {
+			if (GlobalConstants.TREE_ROOT_ID.equals(parentId) || !organizationIds.contains(parentId)) {
+				collectClosure(map, parentId, new ArrayDeque<>(), closures);
+			}
+		}
+		return closures;
+	}
+
+	private static void collectClosure(Map<Integer, List<SysOrganization>> map, Integer parentId,
+			Deque<Integer> ancestors, List<SysOrganizationClosure> closures) {
+		List<SysOrganization> sysOrganizations = map.get(parentId);
+		if (CollUtil.isEmpty(sysOrganizations)) {
+			return;
+		}
+		for (SysOrganization sysOrganization : sysOrganizations) {
+			Integer organizationId = sysOrganization.getId();
+			// ancestors 栈顶为最近的祖先
+			closures.add(new SysOrganizationClosure(organizationId, organizationId, 0));
+			int depth = 1;
+			for (Integer ancestor : ancestors) {
+				closures.add(new SysOrganizationClosure(ancestor, organizationId, depth++));
+			}
+			ancestors.push(organizationId);
+			collectClosure(map, organizationId, ancestors, closures);
+			ancestors.pop();
+		}
+	}
+
 	private void updateChildHierarchyAndPath(Map<Integer, List<SysOrganization>> map, Integer parentId, int depth,
 			String hierarchy) {
 		// 获取对应 parentId 下的所有子节点
@@ -205,16 +364,40 @@ public class SysOrganizationServiceImpl extends ExtendServiceImpl<SysOrganizatio
 	 * @return 删除成功: true
 	 */
 	@Override
+	@Transactional(rollbackFor = Exception.class)
 	public boolean removeById(Serializable id) {
 		Integer organizationId = (Integer) id;
-		Boolean existsChildOrganization = baseMapper.existsChildOrganization(organizationId);
+		Boolean existsChildOrganization = closureTableReadable()
+				? sysOrganizationClosureMapper.existsDescendant(organizationId)
+				: baseMapper.existsChildOrganization(organizationId);
 		if (Boolean.TRUE.equals(existsChildOrganization)) {
 			throw new BusinessException(BaseResultCode.LOGIC_CHECK_ERROR.getCode(), "该组织机构拥有下级组织，不能删除！");
 		}
 		if (sysUserService.existsForOrganization(organizationId)) {
 			throw new BusinessException(BaseResultCode.LOGIC_CHECK_ERROR.getCode(), "该组织机构拥有关联用户，不能删除！");
 		}
-		return SqlHelper.retBool(baseMapper.deleteById(id));
+		boolean result = SqlHelper.retBool(baseMapper.deleteById(id));
+		if (result) {
+			if (closureTableEnabled()) {
+				sysOrganizationClosureMapper.deleteByDescendant(organizationId);
+			}
+			eventPublisher.publishEvent(new SysOrganizationChangeEvent(organizationId));
+		}
+		return result;
+	}
+
+	/**
+	 * 是否开启了闭包表，开启后所有写操作都需要维护闭包表
+	 */
+	private boolean closureTableEnabled() {
+		return systemProperties.getOrganization().isClosureTableEnabled();
+	}
+
+	/**
+	 * 是否可以基于闭包表查询，闭包表数据不完整时使用层级字段查询
+	 */
+	private boolean closureTableReadable() {
+		return closureTableAvailable && closureTableEnabled();
 	}
 
 	/**
@@ -2,16 +2,23 @@
 package com.hccake.ballcat.system.service.impl;
 
 import com.baomidou.mybatisplus.extension.toolkit.SqlHelper;
+import com.hccake.ballcat.system.event.SysRoleMenuChangeEvent;
 import com.hccake.ballcat.system.mapper.SysRoleMenuMapper;
 import com.hccake.ballcat.system.model.entity.SysRoleMenu;
 import com.hccake.ballcat.system.service.SysRoleMenuService;
 import com.hccake.extend.mybatis.plus.service.impl.ExtendServiceImpl;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.Serializable;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -22,10 +29,14 @@ import java.util.stream.Collectors;
  * @author hccake
  */
 @Service
+@RequiredArgsConstructor
 public class SysRoleMenuServiceImpl extends ExtendServiceImpl<SysRoleMenuMapper, SysRoleMenu>
 		implements SysRoleMenuService {
 
+	private final ApplicationEventPublisher eventPublisher;
+
 	/**
+	 * 保存角色的菜单权限，只增删有变化的绑定关系
 	 * @param roleCode 角色
 	 * @param menuIds 权限ID集合
 	 * @return boolean
@@ -33,18 +44,34 @@ public class SysRoleMenuServiceImpl extends ExtendServiceImpl<SysRoleMenuMapper,
 	@Override
 	@Transactional(rollbackFor = Exception.class)
 	public Boolean saveRoleMenus(String roleCode, Integer[] menuIds) {
-		// 1、先删除旧数据
-		baseMapper.deleteByRoleCode(roleCode);
-		if (menuIds == null || menuIds.length == 0) {
-			return Boolean.TRUE;
-		}
+		Set<Integer> currentMenuIds = new HashSet<>(baseMapper.listMenuIdsByRoleCodeForUpdate(roleCode));
+		Set<Integer> targetMenuIds = menuIds == null ? new LinkedHashSet<>()
+				: new LinkedHashSet<>(Arrays.asList(menuIds));
 
-		// 2、再批量插入新数据
-		List<SysRoleMenu> list = Arrays.stream(menuIds)
+		List<Integer> removedMenuIds = currentMenuIds.stream()
+			.filter(menuId -> !targetMenuIds.contains(menuId))
+			.collect(Collectors.toList());
+		List<SysRoleMenu> addedRoleMenus = targetMenuIds.stream()
+			.filter(menuId -> !currentMenuIds.contains(menuId))
 			.map(menuId -> new SysRoleMenu(roleCode, menuId))
 			.collect(Collectors.toList());
-		int i = baseMapper.insertBatchSomeColumn(list);
-		return SqlHelper.retBool(i);
+		if (removedMenuIds.isEmpty() && addedRoleMenus.isEmpty()) {
+			return Boolean.TRUE;
+		}
+
+		if (!removedMenuIds.isEmpty()) {
+			baseMapper.deleteByRoleCodeAndMenuIds(roleCode, removedMenuIds);
+		}
+		if (!addedRoleMenus.isEmpty()) {
+			int i = baseMapper.insertBatchSomeColumn(addedRoleMenus);
+			if (!SqlHelper.retBool(i)) {
+				return Boolean.FALSE;
+			}
+		}
+
+		// 角色菜单变化，事务提交后失效该角色的菜单权限
+		eventPublisher.publishEvent(new SysRoleMenuChangeEvent(Collections.singletonList(roleCode)));
+		return Boolean.TRUE;
 	}
 
 	/**
@@ -54,6 +81,7 @@ public class SysRoleMenuServiceImpl extends ExtendServiceImpl<SysRoleMenuMapper,
 	@Override
 	public void deleteByMenuId(Serializable menuId) {
 		baseMapper.deleteByMenuId(menuId);
+		eventPublisher.publishEvent(SysRoleMenuChangeEvent.ofAllRoles());
 	}
 
 	/**
@@ -63,6 +91,7 @@ public class SysRoleMenuServiceImpl extends ExtendServiceImpl<SysRoleMenuMapper,
 	@Override
 	public void deleteByRoleCode(String roleCode) {
 		baseMapper.deleteByRoleCode(roleCode);
+		eventPublisher.publishEvent(new SysRoleMenuChangeEvent(Collections.singletonList(roleCode)));
 	}
 
 	/**
@@ -73,7 +102,11 @@ public class SysRoleMenuServiceImpl extends ExtendServiceImpl<SysRoleMenuMapper,
 	 */
 	@Override
 	public int updateMenuId(Integer originalId, Integer menuId) {
-		return baseMapper.updateMenuId(originalId, menuId);
+		int updatedCount = baseMapper.updateMenuId(originalId, menuId);
+		if (updatedCount > 0) {
+			eventPublisher.publishEvent(SysRoleMenuChangeEvent.ofAllRoles());
+		}
+		return updatedCount;
 	}
 
 }
@@ -1,8 +1,8 @@
 package com.hccake.ballcat.system.service.impl;
 
-import cn.hutool.core.collection.CollectionUtil;
 import cn.hutool.core.lang.Assert;
 import com.baomidou.mybatisplus.extension.toolkit.SqlHelper;
+import com.hccake.ballcat.system.event.UserRoleChangeEvent;
 import com.hccake.ballcat.system.mapper.SysUserRoleMapper;
 import com.hccake.ballcat.system.model.entity.SysRole;
 import com.hccake.ballcat.system.model.entity.SysUserRole;
@@ -14,13 +14,19 @@ import com.hccake.ballcat.common.model.domain.PageParam;
 import com.hccake.ballcat.common.model.domain.PageResult;
 import com.hccake.ballcat.common.model.result.BaseResultCode;
 import com.hccake.extend.mybatis.plus.service.impl.ExtendServiceImpl;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * 用户角色关联关系表
@@ -29,9 +35,12 @@ import java.util.List;
  */
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class SysUserRoleServiceImpl extends ExtendServiceImpl<SysUserRoleMapper, SysUserRole>
 		implements SysUserRoleService {
 
+	private final ApplicationEventPublisher eventPublisher;
+
 	/**
 	 * 根据UserId删除该用户角色关联关系
 	 * @param userId 用户ID
@@ -50,23 +59,35 @@ public class SysUserRoleServiceImpl extends ExtendServiceImpl<SysUserRoleMapper,
 	@Override
 	@Transactional(rollbackFor = Exception.class)
 	public boolean updateUserRoles(@NonNull Integer userId, @NonNull List<String> roleCodes) {
-		// 是否存在用户角色绑定关系，存在则先清空
-		boolean existsRoleBind = baseMapper.existsRoleBind(userId, null);
-		if (existsRoleBind) {
-			boolean deleteSuccess = baseMapper.deleteByUserId(userId);
-			Assert.isTrue(deleteSuccess, () -> {
-				log.error("[updateUserRoles] 删除用户角色关联关系失败，userId：{}，roleCodes：{}", userId, roleCodes);
+		Set<String> currentRoleCodes = new HashSet<>(baseMapper.listRoleCodesByUserId(userId));
+		Set<String> targetRoleCodes = new LinkedHashSet<>(roleCodes);
+
+		List<String> removedRoleCodes = currentRoleCodes.stream()
+			.filter(roleCode -> !targetRoleCodes.contains(roleCode))
+			.collect(Collectors.toList());
+		List<String> addedRoleCodes = targetRoleCodes.stream()
+			.filter(roleCode -> !currentRoleCodes.contains(roleCode))
+			.collect(Collectors.toList());
+		if (removedRoleCodes.isEmpty() && addedRoleCodes.isEmpty()) {
+			return true;
+		}
+
+		// 只删除不再授权的角色
+		if (!removedRoleCodes.isEmpty()) {
+			int deleted = baseMapper.deleteByUserIdAndRoleCodes(userId, removedRoleCodes);
+			Assert.isTrue(deleted > 0, () -> {
+				log.error("[updateUserRoles] 删除用户角色关联关系失败，userId：{}，roleCodes：{}", userId, removedRoleCodes);
 				return new BusinessException(BaseResultCode.UPDATE_DATABASE_ERROR.getCode(), "删除用户角色关联关系失败");
 			});
 		}
 
-		// 没有的新授权的角色直接返回
-		if (CollectionUtil.isEmpty(roleCodes)) {
-			return true;
+		// 只插入新授权的角色
+		if (!addedRoleCodes.isEmpty()) {
+			addUserRoles(userId, addedRoleCodes);
 		}
 
-		// 保存新的用户角色关联关系
-		return addUserRoles(userId, roleCodes);
+		eventPublisher.publishEvent(new UserRoleChangeEvent(userId, addedRoleCodes, removedRoleCodes));
+		return true;
 	}
 
 	/**
@@ -4,7 +4,8 @@ import cn.hutool.core.io.FileUtil;
 import cn.hutool.core.lang.Assert;
 import cn.hutool.core.text.StrPool;
 import cn.hutool.core.util.IdUtil;
-import cn.hutool.core.util.StrUtil;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
 import com.baomidou.mybatisplus.extension.toolkit.SqlHelper;
 import com.hccake.ballcat.common.core.exception.BusinessException;
 import com.hccake.ballcat.common.model.domain.PageParam;
@@ -14,6 +15,7 @@ import com.hccake.ballcat.common.model.result.BaseResultCode;
 import com.hccake.ballcat.file.service.FileService;
 import com.hccake.ballcat.system.checker.AdminUserChecker;
 import com.hccake.ballcat.system.component.PasswordHelper;
+import com.hccake.ballcat.system.component.SysRoleMenuIndex;
 import com.hccake.ballcat.system.constant.SysUserConst;
 import com.hccake.ballcat.system.converter.SysUserConverter;
 import com.hccake.ballcat.system.event.UserCreatedEvent;
@@ -22,12 +24,10 @@ import com.hccake.ballcat.system.mapper.SysUserMapper;
 import com.hccake.ballcat.system.model.dto.SysUserDTO;
 import com.hccake.ballcat.system.model.dto.SysUserScope;
 import com.hccake.ballcat.system.model.dto.UserInfoDTO;
-import com.hccake.ballcat.system.model.entity.SysMenu;
 import com.hccake.ballcat.system.model.entity.SysRole;
 import com.hccake.ballcat.system.model.entity.SysUser;
 import com.hccake.ballcat.system.model.qo.SysUserQO;
 import com.hccake.ballcat.system.model.vo.SysUserPageVO;
-import com.hccake.ballcat.system.service.SysMenuService;
 import com.hccake.ballcat.system.service.SysRoleService;
 import com.hccake.ballcat.system.service.SysUserRoleService;
 import com.hccake.ballcat.system.service.SysUserService;
@@ -59,7 +59,7 @@ public class SysUserServiceImpl extends ExtendServiceImpl<SysUserMapper, SysUser
 
 	private final FileService fileService;
 
-	private final SysMenuService sysMenuService;
+	private final SysRoleMenuIndex sysRoleMenuIndex;
 
 	private final SysUserRoleService sysUserRoleService;
 
@@ -119,20 +119,10 @@ public class SysUserServiceImpl extends ExtendServiceImpl<SysUserMapper, SysUser
 		userInfoDTO.setRoles(new HashSet<>(roleList));
 		userInfoDTO.setRoleCodes(roleCodes);
 
-		// 设置权限列表（permission）
-		Set<String> permissions = new HashSet<>();
-		Set<SysMenu> menus = new HashSet<>();
-		for (String roleCode : roleCodes) {
-			List<SysMenu> sysMenuList = sysMenuService.listByRoleCode(roleCode);
-			menus.addAll(sysMenuList);
-			List<String> permissionList = sysMenuList.stream()
-				.map(SysMenu::getPermission)
-				.filter(StrUtil::isNotEmpty)
-				.collect(Collectors.toList());
-			permissions.addAll(permissionList);
-		}
-		userInfoDTO.setMenus(menus);
-		userInfoDTO.setPermissions(permissions);
+		// 设置权限列表（permission），从角色菜单索引中获取，索引未命中的角色一次查询批量加载
+		Collection<SysRoleMenuIndex.RoleMenus> roleMenus = sysRoleMenuIndex.getRoleMenus(roleCodes).values();
+		userInfoDTO.setMenus(SysRoleMenuIndex.mergeMenus(roleMenus));
+		userInfoDTO.setPermissions(SysRoleMenuIndex.mergePermissions(roleMenus));
 
 		return userInfoDTO;
 	}
@@ -337,6 +327,36 @@ public class SysUserServiceImpl extends ExtendServiceImpl<SysUserMapper, SysUser
 
 	}
 
+	@Override
+	public List<SysUser> listRecipients(Integer lastUserId, int limit) {
+		return baseMapper.listRecipients(Wrappers.lambdaQuery(SysUser.class), lastUserId, limit);
+	}
+
+	@Override
+	public List<SysUser> listRecipientsByRoleCodes(Collection<String> roleCodes, Integer lastUserId, int limit) {
+		return baseMapper.listRecipientsByRoleCodes(roleCodes, lastUserId, limit);
+	}
+
+	@Override
+	public List<SysUser> listRecipientsByOrganizationIds(Collection<Integer> organizationIds, Integer lastUserId,
+			int limit) {
+		LambdaQueryWrapper<SysUser> wrapper = Wrappers.lambdaQuery(SysUser.class)
+			.in(SysUser::getOrganizationId, organizationIds);
+		return baseMapper.listRecipients(wrapper, lastUserId, limit);
+	}
+
+	@Override
+	public List<SysUser> listRecipientsByUserTypes(Collection<Integer> userTypes, Integer lastUserId, int limit) {
+		LambdaQueryWrapper<SysUser> wrapper = Wrappers.lambdaQuery(SysUser.class).in(SysUser::getType, userTypes);
+		return baseMapper.listRecipients(wrapper, lastUserId, limit);
+	}
+
+	@Override
+	public List<SysUser> listRecipientsByUserIds(Collection<Integer> userIds, Integer lastUserId, int limit) {
+		LambdaQueryWrapper<SysUser> wrapper = Wrappers.lambdaQuery(SysUser.class).in(SysUser::getUserId, userIds);
+		return baseMapper.listRecipients(wrapper, lastUserId, limit);
+	}
+
 	/**
 	 * 返回用户的select数据 name=> username value => userId
 	 * @return List<SelectData>
@@ -0,0 +1,100 @@
+package com.hccake.ballcat.system.component;
+
+import com.hccake.ballcat.system.mapper.SysConfigMapper;
+import com.hccake.ballcat.system.model.entity.SysConfig;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @author hccake
+ */
+class SysConfigRepositoryTest {
+
+	private final SysConfigMapper sysConfigMapper = Mockito.mock(SysConfigMapper.class);
+
+	private final SysConfigRepository repository = new SysConfigRepository(sysConfigMapper);
+
+	private static List<SysConfig> configs(String confKey, String confValue) {
+		SysConfig sysConfig = new SysConfig();
+		sysConfig.setConfKey(confKey);
+		sysConfig.setConfValue(confValue);
+		return Collections.singletonList(sysConfig);
+	}
+
+	@Test
+	void parseInteger() {
+		SysConfigRepository.ConfigValue value = new SysConfigRepository.ConfigValue(" 42 ");
+		Assertions.assertEquals(" 42 ", value.getValue());
+		Assertions.assertEquals(42L, value.getLongValue());
+		Assertions.assertEquals(42, value.getIntValue());
+		Assertions.assertNull(value.getBooleanValue());
+		// 纯数字视为毫秒
+		Assertions.assertEquals(Duration.ofMillis(42), value.getDurationValue());
+	}
+
+	@Test
+	void parseLongOutOfIntRange() {
+		SysConfigRepository.ConfigValue value = new SysConfigRepository.ConfigValue("3000000000");
+		Assertions.assertEquals(3000000000L, value.getLongValue());
+		Assertions.assertNull(value.getIntValue());
+	}
+
+	@Test
+	void parseBoolean() {
+		Assertions.assertEquals(Boolean.TRUE, new SysConfigRepository.ConfigValue("TRUE").getBooleanValue());
+		Assertions.assertEquals(Boolean.FALSE, new SysConfigRepository.ConfigValue("false").getBooleanValue());
+		Assertions.assertNull(new SysConfigRepository.ConfigValue("1").getBooleanValue());
+		Assertions.assertNull(new SysConfigRepository.ConfigValue("yes").getBooleanValue());
+	}
+
+	@Test
+	void parseDuration() {
+		Assertions.assertEquals(Duration.ofMinutes(5), new SysConfigRepository.ConfigValue("5m").getDurationValue());
+		Assertions.assertEquals(Duration.ofHours(1), new SysConfigRepository.ConfigValue("PT1H").getDurationValue());
+		Assertions.assertNull(new SysConfigRepository.ConfigValue("5 minutes").getDurationValue());
+	}
+
+	@Test
+	void parseBlankOrNull() {
+		for (String raw : new String[] { null, "", "  " }) {
+			SysConfigRepository.ConfigValue value = new SysConfigRepository.ConfigValue(raw);
+			Assertions.assertEquals(raw, value.getValue());
+			Assertions.assertNull(value.getLongValue());
+			Assertions.assertNull(value.getIntValue());
+			Assertions.assertNull(value.getBooleanValue());
+			Assertions.assertNull(value.getDurationValue());
+		}
+	}
+
+	@Test
+	void refreshSwapsSnapshot() {
+		Mockito.when(sysConfigMapper.selectList(null)).thenReturn(configs("site.name", "ballcat"));
+		Assertions.assertEquals("ballcat", repository.getString("site.name"));
+
+		Mockito.when(sysConfigMapper.selectList(null)).thenReturn(configs("site.name", "ballcat-admin"));
+		repository.handleMessage(new String[] { "site.name" });
+		Assertions.assertEquals("ballcat-admin", repository.getString("site.name"));
+		Mockito.verify(sysConfigMapper, Mockito.times(2)).selectList(null);
+	}
+
+	@Test
+	void failedRefreshKeepsOldSnapshot() {
+		Mockito.when(sysConfigMapper.selectList(null)).thenReturn(configs("site.name", "ballcat"));
+		Assertions.assertEquals("ballcat", repository.getString("site.name"));
+
+		Mockito.when(sysConfigMapper.selectList(null)).thenThrow(new IllegalStateException("db down"));
+		repository.handleMessage(new String[] { "site.name" });
+		Assertions.assertEquals("ballcat", repository.getString("site.name"));
+
+		// 数据库恢复后，下次读取时重新加载
+		Mockito.reset(sysConfigMapper);
+		Mockito.when(sysConfigMapper.selectList(null)).thenReturn(configs("site.name", "ballcat-admin"));
+		Assertions.assertEquals("ballcat-admin", repository.getString("site.name"));
+	}
+
+}
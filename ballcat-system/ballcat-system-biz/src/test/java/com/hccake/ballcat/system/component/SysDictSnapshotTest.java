@@ -0,0 +1,62 @@
+package com.hccake.ballcat.system.component;
+
+import com.hccake.ballcat.system.model.entity.SysDict;
+import com.hccake.ballcat.system.model.vo.DictDataVO;
+import com.hccake.ballcat.system.service.SysDictItemService;
+import com.hccake.ballcat.system.service.SysDictService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @author hccake
+ */
+class SysDictSnapshotTest {
+
+	private final SysDictService sysDictService = Mockito.mock(SysDictService.class);
+
+	private final SysDictItemService sysDictItemService = Mockito.mock(SysDictItemService.class);
+
+	private final SysDictSnapshot dictSnapshot = new SysDictSnapshot(sysDictService, sysDictItemService);
+
+	private static SysDict dict(String code, String hashCode) {
+		SysDict sysDict = new SysDict();
+		sysDict.setCode(code);
+		sysDict.setHashCode(hashCode);
+		return sysDict;
+	}
+
+	@Test
+	void missingCodeCached() {
+		Mockito.when(sysDictService.listByCodes(Mockito.any())).thenReturn(Collections.emptyList());
+
+		Assertions.assertTrue(dictSnapshot.listDictData(new String[] { "unknown" }).isEmpty());
+		Assertions.assertTrue(dictSnapshot.listDictData(new String[] { "unknown" }).isEmpty());
+		Mockito.verify(sysDictService, Mockito.times(1)).listByCodes(Mockito.any());
+
+		// 新增字典后失效
+		Mockito.when(sysDictService.listByCodes(Mockito.any()))
+			.thenReturn(Collections.singletonList(dict("unknown", "v1")));
+		dictSnapshot.handleMessage(new String[] { "unknown" });
+		List<DictDataVO> dictDataList = dictSnapshot.listDictData(new String[] { "unknown" });
+		Assertions.assertEquals(1, dictDataList.size());
+		Assertions.assertEquals("v1", dictDataList.get(0).getHashCode());
+	}
+
+	@Test
+	void evictDuringLoadDiscardsResult() {
+		Mockito.when(sysDictService.listByCodes(Mockito.any())).thenAnswer(invocation -> {
+			// 查询完成前字典被修改
+			dictSnapshot.handleMessage(new String[] { "gender" });
+			return Collections.singletonList(dict("gender", "v1"));
+		}).thenReturn(Collections.singletonList(dict("gender", "v2")));
+
+		Assertions.assertEquals("v1", dictSnapshot.listDictData(new String[] { "gender" }).get(0).getHashCode());
+		Assertions.assertEquals("v2", dictSnapshot.listDictData(new String[] { "gender" }).get(0).getHashCode());
+		Mockito.verify(sysDictService, Mockito.times(2)).listByCodes(Mockito.any());
+	}
+
+}
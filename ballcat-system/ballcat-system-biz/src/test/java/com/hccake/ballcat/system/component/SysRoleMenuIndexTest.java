@@ -0,0 +1,90 @@
+package com.hccake.ballcat.system.component;
+
+import com.hccake.ballcat.system.model.dto.SysRoleMenuDTO;
+import com.hccake.ballcat.system.model.entity.SysMenu;
+import com.hccake.ballcat.system.service.SysMenuService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * @author hccake
+ */
+class SysRoleMenuIndexTest {
+
+	private final SysMenuService sysMenuService = Mockito.mock(SysMenuService.class);
+
+	private final SysRoleMenuIndex roleMenuIndex = new SysRoleMenuIndex(sysMenuService);
+
+	private static SysRoleMenuDTO roleMenu(String roleCode, String permission) {
+		SysMenu sysMenu = new SysMenu();
+		sysMenu.setPermission(permission);
+		SysRoleMenuDTO roleMenu = new SysRoleMenuDTO();
+		roleMenu.setRoleCode(roleCode);
+		roleMenu.setMenu(sysMenu);
+		return roleMenu;
+	}
+
+	private Map<String, SysRoleMenuIndex.RoleMenus> getRoleMenus(String... roleCodes) {
+		return roleMenuIndex.getRoleMenus(Arrays.asList(roleCodes));
+	}
+
+	private Set<String> permissions(String roleCode) {
+		return getRoleMenus(roleCode).get(roleCode).getPermissions();
+	}
+
+	@Test
+	void loadOnceAndCache() {
+		Mockito.when(sysMenuService.listByRoleCodes(Mockito.any()))
+			.thenReturn(Arrays.asList(roleMenu("ROLE_ADMIN", "system:user:read"),
+					roleMenu("ROLE_ADMIN", "system:user:edit")));
+
+		Map<String, SysRoleMenuIndex.RoleMenus> roleMenus = getRoleMenus("ROLE_ADMIN", "ROLE_EMPTY");
+		Assertions.assertEquals(2, roleMenus.get("ROLE_ADMIN").getPermissions().size());
+		// 没有菜单的角色同样会被缓存
+		Assertions.assertTrue(roleMenus.get("ROLE_EMPTY").getMenus().isEmpty());
+
+		getRoleMenus("ROLE_ADMIN", "ROLE_EMPTY");
+		Mockito.verify(sysMenuService, Mockito.times(1)).listByRoleCodes(Mockito.any());
+	}
+
+	@Test
+	void roleCodeCaseMismatch() {
+		Mockito.when(sysMenuService.listByRoleCodes(Mockito.any()))
+			.thenReturn(Collections.singletonList(roleMenu("role_admin", "system:user:read")));
+
+		Assertions.assertEquals(Collections.singleton("system:user:read"), permissions("ROLE_ADMIN"));
+	}
+
+	@Test
+	void evictReloads() {
+		List<SysRoleMenuDTO> before = Collections.singletonList(roleMenu("ROLE_ADMIN", "system:user:read"));
+		List<SysRoleMenuDTO> after = Collections.singletonList(roleMenu("ROLE_ADMIN", "system:user:edit"));
+		Mockito.when(sysMenuService.listByRoleCodes(Mockito.any())).thenReturn(before, after);
+
+		Assertions.assertTrue(permissions("ROLE_ADMIN").contains("system:user:read"));
+		roleMenuIndex.handleMessage(new String[] { "ROLE_ADMIN" });
+		Assertions.assertTrue(permissions("ROLE_ADMIN").contains("system:user:edit"));
+	}
+
+	@Test
+	void evictDuringLoadDiscardsResult() {
+		Mockito.when(sysMenuService.listByRoleCodes(Mockito.any())).thenAnswer(invocation -> {
+			// 查询完成前角色菜单被修改
+			roleMenuIndex.handleMessage(new String[0]);
+			return Collections.singletonList(roleMenu("ROLE_ADMIN", "system:user:read"));
+		}).thenReturn(Collections.singletonList(roleMenu("ROLE_ADMIN", "system:user:edit")));
+
+		Assertions.assertTrue(permissions("ROLE_ADMIN").contains("system:user:read"));
+		// 加载期间发生了失效，旧结果没有写入索引
+		Assertions.assertTrue(permissions("ROLE_ADMIN").contains("system:user:edit"));
+		Mockito.verify(sysMenuService, Mockito.times(2)).listByRoleCodes(Mockito.any());
+	}
+
+}
@@ -0,0 +1,219 @@
+package com.hccake.ballcat.system.service.impl;
+
+import com.hccake.ballcat.common.core.constant.GlobalConstants;
+import com.hccake.ballcat.system.model.entity.SysOrganization;
+import com.hccake.ballcat.system.model.entity.SysOrganizationClosure;
+import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 组织架构闭包表的计算及子树移动 SQL 测试
+ *
+ * @author hccake
+ */
+class SysOrganizationClosureTest {
+
+	private static final String STATEMENT_PREFIX = "com.hccake.ballcat.system.mapper.SysOrganizationClosureMapper.";
+
+	private JdbcDataSource dataSource;
+
+	private SqlSessionFactory sqlSessionFactory;
+
+	/**
+	 * 组织ID -> 父级组织ID
+	 */
+	private final Map<Integer, Integer> parents = new HashMap<>();
+
+	@BeforeEach
+	void setUp() throws Exception {
+		dataSource = new JdbcDataSource();
+		dataSource.setURL("jdbc:h2:mem:sys_organization_closure;MODE=MySQL;DB_CLOSE_DELAY=-1");
+		try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+			statement.execute("CREATE TABLE sys_organization_closure (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+					+ "ancestor INT NOT NULL, descendant INT NOT NULL, depth INT NOT NULL, "
+					+ "UNIQUE (ancestor, descendant))");
+		}
+
+		Configuration configuration = new Configuration(
+				new Environment("test", new JdbcTransactionFactory(), dataSource));
+		String resource = "mapper/SysOrganizationClosureMapper.xml";
+		try (InputStream inputStream = Resources.getResourceAsStream(resource)) {
+			new XMLMapperBuilder(inputStream, configuration, resource, configuration.getSqlFragments()).parse();
+		}
+		sqlSessionFactory = new SqlSessionFactoryBuilder().build(configuration);
+
+		// 1 - 2 - 3 - 4，5
+		parents.put(1, GlobalConstants.TREE_ROOT_ID);
+		parents.put(2, 1);
+		parents.put(3, 2);
+		parents.put(4, 3);
+		parents.put(5, GlobalConstants.TREE_ROOT_ID);
+		insertClosures(SysOrganizationServiceImpl.collectClosure(childrenMap()));
+	}
+
+	@AfterEach
+	void after() throws Exception {
+		try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+			statement.execute("DROP TABLE sys_organization_closure");
+			statement.execute("DROP TABLE IF EXISTS sys_organization");
+		}
+	}
+
+	@Test
+	void collectClosure() {
+		Set<String> closures = toStrings(SysOrganizationServiceImpl.collectClosure(childrenMap()));
+		Set<String> expected = new HashSet<>();
+		expected.add("1-1-0");
+		expected.add("2-2-0");
+		expected.add("1-2-1");
+		expected.add("3-3-0");
+		expected.add("2-3-1");
+		expected.add("1-3-2");
+		expected.add("4-4-0");
+		expected.add("3-4-1");
+		expected.add("2-4-2");
+		expected.add("1-4-3");
+		expected.add("5-5-0");
+		Assertions.assertEquals(expected, closures);
+	}
+
+	@Test
+	void orphanTreatedAsRoot() throws Exception {
+		// 6 的父级组织不存在，7 为 6 的子组织
+		parents.put(6, 99);
+		parents.put(7, 6);
+		Set<String> closures = toStrings(SysOrganizationServiceImpl.collectClosure(childrenMap()));
+		Assertions.assertTrue(closures.contains("6-6-0"));
+		Assertions.assertTrue(closures.contains("7-7-0"));
+		Assertions.assertTrue(closures.contains("6-7-1"));
+		Assertions.assertEquals(14, closures.size());
+
+		// 重建后的闭包表能通过启动时的校验
+		try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+			statement.execute("CREATE TABLE sys_organization (id INT PRIMARY KEY, parent_id INT NOT NULL, "
+					+ "deleted BIGINT NOT NULL DEFAULT 0)");
+			for (Map.Entry<Integer, Integer> entry : parents.entrySet()) {
+				statement.execute("INSERT INTO sys_organization (id, parent_id) VALUES (" + entry.getKey() + ", "
+						+ entry.getValue() + ")");
+			}
+			statement.execute("DELETE FROM sys_organization_closure");
+		}
+		insertClosures(SysOrganizationServiceImpl.collectClosure(childrenMap()));
+		Assertions.assertEquals(0L, countBrokenNodes());
+
+		// 父级组织存在时缺少直接关系则校验失败
+		try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+			statement.execute("DELETE FROM sys_organization_closure WHERE ancestor = 6 AND descendant = 7");
+		}
+		Assertions.assertEquals(1L, countBrokenNodes());
+	}
+
+	private long countBrokenNodes() {
+		try (SqlSession sqlSession = sqlSessionFactory.openSession(true)) {
+			Long count = sqlSession.selectOne(STATEMENT_PREFIX + "countBrokenNodes");
+			return count;
+		}
+	}
+
+	@Test
+	void moveSubtree() throws Exception {
+		moveAndVerify(3, 5);
+	}
+
+	@Test
+	void moveSubtreeToRoot() throws Exception {
+		moveAndVerify(2, GlobalConstants.TREE_ROOT_ID);
+	}
+
+	@Test
+	void moveLeaf() throws Exception {
+		moveAndVerify(4, 1);
+	}
+
+	private void moveAndVerify(Integer organizationId, Integer parentId) throws Exception {
+		Map<String, Object> param = new HashMap<>();
+		param.put("organizationId", organizationId);
+		param.put("parentId", parentId);
+		try (SqlSession sqlSession = sqlSessionFactory.openSession(true)) {
+			sqlSession.delete(STATEMENT_PREFIX + "detachSubtree", param);
+			sqlSession.insert(STATEMENT_PREFIX + "attachSubtree", param);
+		}
+
+		// 移动后的闭包表应与按新的父子关系重新计算的结果一致
+		parents.put(organizationId, parentId);
+		Assertions.assertEquals(toStrings(SysOrganizationServiceImpl.collectClosure(childrenMap())),
+				toStrings(selectClosures()));
+	}
+
+	private Map<Integer, List<SysOrganization>> childrenMap() {
+		List<SysOrganization> sysOrganizations = new ArrayList<>();
+		parents.forEach((id, parentId) -> {
+			SysOrganization sysOrganization = new SysOrganization();
+			sysOrganization.setId(id);
+			sysOrganization.setParentId(parentId);
+			sysOrganizations.add(sysOrganization);
+		});
+		return sysOrganizations.stream().collect(Collectors.groupingBy(SysOrganization::getParentId));
+	}
+
+	private void insertClosures(List<SysOrganizationClosure> closures) throws Exception {
+		try (Connection connection = dataSource.getConnection();
+				PreparedStatement statement = connection.prepareStatement(
+						"INSERT INTO sys_organization_closure (ancestor, descendant, depth) VALUES (?, ?, ?)")) {
+			for (SysOrganizationClosure closure : closures) {
+				statement.setInt(1, closure.getAncestor());
+				statement.setInt(2, closure.getDescendant());
+				statement.setInt(3, closure.getDepth());
+				statement.addBatch();
+			}
+			statement.executeBatch();
+		}
+	}
+
+	private List<SysOrganizationClosure> selectClosures() throws Exception {
+		List<SysOrganizationClosure> closures = new ArrayList<>();
+		try (Connection connection = dataSource.getConnection();
+				Statement statement = connection.createStatement();
+				ResultSet resultSet = statement
+					.executeQuery("SELECT ancestor, descendant, depth FROM sys_organization_closure")) {
+			while (resultSet.next()) {
+				closures.add(new SysOrganizationClosure(resultSet.getInt(1), resultSet.getInt(2), resultSet.getInt(3)));
+			}
+		}
+		return closures;
+	}
+
+	private static Set<String> toStrings(List<SysOrganizationClosure> closures) {
+		Set<String> result = new HashSet<>();
+		for (SysOrganizationClosure closure : closures) {
+			String relation = closure.getAncestor() + "-" + closure.getDescendant() + "-" + closure.getDepth();
+			Assertions.assertTrue(result.add(relation), "重复的闭包关系: " + relation);
+		}
+		return result;
+	}
+
+}
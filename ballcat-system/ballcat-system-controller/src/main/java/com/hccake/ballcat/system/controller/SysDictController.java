@@ -31,6 +31,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.validation.groups.Default;
 import java.util.List;
@@ -52,13 +53,18 @@ public class SysDictController {
 	private final SysDictManager sysDictManager;
 
 	/**
-	 * 通过字典标识查找对应字典项
+	 * 通过字典标识查找对应字典项，支持 If-None-Match 条件请求，字典未变化时返回 304
 	 * @param dictCodes 字典标识列表
+	 * @param webRequest 当前请求
 	 * @return 同类型字典
 	 */
 	@GetMapping("/data")
-	public R<List<DictDataVO>> getDictData(@RequestParam("dictCodes") String[] dictCodes) {
-		return R.ok(sysDictManager.queryDictDataAndHashVO(dictCodes));
+	public R<List<DictDataVO>> getDictData(@RequestParam("dictCodes") String[] dictCodes, WebRequest webRequest) {
+		List<DictDataVO> dictDataList = sysDictManager.queryDictDataAndHashVO(dictCodes);
+		if (webRequest.checkNotModified(sysDictManager.dictDataETag(dictDataList))) {
+			return null;
+		}
+		return R.ok(dictDataList);
 	}
 
 	/**
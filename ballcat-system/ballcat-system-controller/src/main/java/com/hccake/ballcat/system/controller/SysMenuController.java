@@ -9,8 +9,8 @@ import com.hccake.ballcat.common.model.result.R;
 import com.hccake.ballcat.common.security.constant.UserAttributeNameConstants;
 import com.hccake.ballcat.common.security.userdetails.User;
 import com.hccake.ballcat.common.security.util.SecurityUtils;
+import com.hccake.ballcat.system.component.SysMenuTree;
 import com.hccake.ballcat.system.converter.SysMenuConverter;
-import com.hccake.ballcat.system.enums.SysMenuType;
 import com.hccake.ballcat.system.model.dto.SysMenuCreateDTO;
 import com.hccake.ballcat.system.model.dto.SysMenuUpdateDTO;
 import com.hccake.ballcat.system.model.entity.SysMenu;
@@ -42,6 +42,8 @@ public class SysMenuController {
 
 	private final SysMenuService sysMenuService;
 
+	private final SysMenuTree sysMenuTree;
+
 	/**
 	 * 返回当前用户的路由集合
 	 * @return 当前用户的路由
@@ -64,14 +66,9 @@ public class SysMenuController {
 			return R.ok(new ArrayList<>());
 		}
 
-		// 获取符合条件的权限
-		Set<SysMenu> all = new HashSet<>();
-		roleCodes.forEach(roleCode -> all.addAll(sysMenuService.listByRoleCode(roleCode)));
-
-		// 筛选出菜单
-		List<SysMenuRouterVO> menuVOList = all.stream()
-			.filter(menuVo -> SysMenuType.BUTTON.getValue() != menuVo.getType())
-			.sorted(Comparator.comparingInt(SysMenu::getSort))
+		// 从内存菜单快照中获取角色对应的非按钮菜单，已按排序值排列
+		List<SysMenuRouterVO> menuVOList = sysMenuTree.listRouterMenus(roleCodes)
+			.stream()
 			.map(SysMenuConverter.INSTANCE::poToRouterVo)
 			.collect(Collectors.toList());
 
@@ -8,16 +8,15 @@ import com.hccake.ballcat.common.model.domain.PageResult;
 import com.hccake.ballcat.common.model.domain.SelectData;
 import com.hccake.ballcat.common.model.result.BaseResultCode;
 import com.hccake.ballcat.common.model.result.R;
+import com.hccake.ballcat.system.component.SysMenuTree;
 import com.hccake.ballcat.system.constant.SysRoleConst;
 import com.hccake.ballcat.system.converter.SysRoleConverter;
 import com.hccake.ballcat.system.model.dto.SysRoleUpdateDTO;
-import com.hccake.ballcat.system.model.entity.SysMenu;
 import com.hccake.ballcat.system.model.entity.SysRole;
 import com.hccake.ballcat.system.model.qo.RoleBindUserQO;
 import com.hccake.ballcat.system.model.qo.SysRoleQO;
 import com.hccake.ballcat.system.model.vo.RoleBindUserVO;
 import com.hccake.ballcat.system.model.vo.SysRolePageVO;
-import com.hccake.ballcat.system.service.SysMenuService;
 import com.hccake.ballcat.system.service.SysRoleMenuService;
 import com.hccake.ballcat.system.service.SysRoleService;
 import com.hccake.ballcat.system.service.SysUserRoleService;
@@ -38,7 +37,6 @@ import org.springframework.web.bind.annotation.RestController;
 
 import javax.validation.Valid;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * @author Hccake
@@ -51,7 +49,7 @@ public class SysRoleController {
 
 	private final SysRoleService sysRoleService;
 
-	private final SysMenuService sysMenuService;
+	private final SysMenuTree sysMenuTree;
 
 	private final SysUserRoleService sysUserRoleService;
 
@@ -157,9 +155,7 @@ public class SysRoleController {
 	 */
 	@GetMapping("/permission/code/{roleCode}")
 	public R<List<Integer>> getPermissionIds(@PathVariable("roleCode") String roleCode) {
-		List<SysMenu> sysMenus = sysMenuService.listByRoleCode(roleCode);
-		List<Integer> menuIds = sysMenus.stream().map(SysMenu::getId).collect(Collectors.toList());
-		return R.ok(menuIds);
+		return R.ok(sysMenuTree.listMenuIds(roleCode));
 	}
 
 	/**
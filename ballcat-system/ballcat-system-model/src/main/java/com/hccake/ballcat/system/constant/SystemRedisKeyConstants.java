@@ -16,4 +16,24 @@ public final class SystemRedisKeyConstants {
 	 */
 	public static final String SYSTEM_CONFIG_PREFIX = "system-config";
 
+	/**
+	 * 角色菜单变更消息的 channel 名
+	 */
+	public static final String CHANNEL_ROLE_MENU_CHANGED = "channel:system-role-menu-changed";
+
+	/**
+	 * 字典变更消息的 channel 名
+	 */
+	public static final String CHANNEL_DICT_CHANGED = "channel:system-dict-changed";
+
+	/**
+	 * 系统配置变更消息的 channel 名
+	 */
+	public static final String CHANNEL_CONFIG_CHANGED = "channel:system-config-changed";
+
+	/**
+	 * 组织架构变更消息的 channel 名
+	 */
+	public static final String CHANNEL_ORGANIZATION_CHANGED = "channel:system-organization-changed";
+
 }
@@ -0,0 +1,26 @@
+package com.hccake.ballcat.system.event;
+
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * 系统配置修改事件，配置新增、修改或删除时发布
+ *
+ * @author hccake
+ */
+@Getter
+@ToString
+public class SysConfigChangeEvent extends ApplicationEvent {
+
+	/**
+	 * 修改的配置key
+	 */
+	private final String confKey;
+
+	public SysConfigChangeEvent(String confKey) {
+		super(confKey);
+		this.confKey = confKey;
+	}
+
+}
@@ -0,0 +1,26 @@
+package com.hccake.ballcat.system.event;
+
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * 组织架构修改事件，组织新增、修改、移动或删除时发布
+ *
+ * @author hccake
+ */
+@Getter
+@ToString
+public class SysOrganizationChangeEvent extends ApplicationEvent {
+
+	/**
+	 * 修改的组织ID
+	 */
+	private final Integer organizationId;
+
+	public SysOrganizationChangeEvent(Integer organizationId) {
+		super(organizationId);
+		this.organizationId = organizationId;
+	}
+
+}
@@ -0,0 +1,45 @@
+package com.hccake.ballcat.system.event;
+
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * 角色菜单修改事件，角色的菜单绑定关系或者菜单本身发生变化时发布
+ *
+ * @author hccake
+ */
+@Getter
+@ToString
+public class SysRoleMenuChangeEvent extends ApplicationEvent {
+
+	/**
+	 * 受影响的角色标识，为空时表示所有角色都受影响
+	 */
+	private final Collection<String> roleCodes;
+
+	public SysRoleMenuChangeEvent(Collection<String> roleCodes) {
+		super(roleCodes);
+		this.roleCodes = roleCodes;
+	}
+
+	/**
+	 * 所有角色都受影响的修改事件，比如菜单本身的修改
+	 * @return SysRoleMenuChangeEvent
+	 */
+	public static SysRoleMenuChangeEvent ofAllRoles() {
+		return new SysRoleMenuChangeEvent(Collections.emptyList());
+	}
+
+	/**
+	 * 是否所有角色都受影响
+	 * @return boolean
+	 */
+	public boolean isAllRoles() {
+		return roleCodes == null || roleCodes.isEmpty();
+	}
+
+}
@@ -0,0 +1,31 @@
+package com.hccake.ballcat.system.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.util.Collection;
+
+/**
+ * 用户角色变更事件，仅在用户的角色绑定关系实际发生变化时发布
+ *
+ * @author hccake
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class UserRoleChangeEvent {
+
+	private final Integer userId;
+
+	/**
+	 * 新增的角色标识
+	 */
+	private final Collection<String> addedRoleCodes;
+
+	/**
+	 * 移除的角色标识
+	 */
+	private final Collection<String> removedRoleCodes;
+
+}
@@ -0,0 +1,34 @@
+package com.hccake.ballcat.system.model.dto;
+
+import com.hccake.ballcat.system.model.entity.SysMenu;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+/**
+ * 角色与其绑定的菜单
+ *
+ * @author hccake
+ */
+@Data
+@Schema(title = "角色菜单")
+public class SysRoleMenuDTO {
+
+	/**
+	 * 角色 Code
+	 */
+	@Schema(title = "角色 Code")
+	private String roleCode;
+
+	/**
+	 * 菜单ID
+	 */
+	@Schema(title = "菜单ID")
+	private Integer menuId;
+
+	/**
+	 * 菜单
+	 */
+	@Schema(title = "菜单")
+	private SysMenu menu;
+
+}
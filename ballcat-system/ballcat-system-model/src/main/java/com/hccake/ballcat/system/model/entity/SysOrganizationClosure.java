@@ -0,0 +1,48 @@
+package com.hccake.ballcat.system.model.entity;
+
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+/**
+ * 组织架构闭包表，记录每个组织与其所有祖先（包括自身）的关系
+ *
+ * @author hccake
+ */
+@Data
+@TableName("sys_organization_closure")
+@Schema(title = "组织架构闭包")
+public class SysOrganizationClosure {
+
+	public SysOrganizationClosure() {
+	}
+
+	public SysOrganizationClosure(Integer ancestor, Integer descendant, Integer depth) {
+		this.ancestor = ancestor;
+		this.descendant = descendant;
+		this.depth = depth;
+	}
+
+	@TableId
+	private Long id;
+
+	/**
+	 * 祖先组织ID
+	 */
+	@Schema(title = "祖先组织ID")
+	private Integer ancestor;
+
+	/**
+	 * 后代组织ID
+	 */
+	@Schema(title = "后代组织ID")
+	private Integer descendant;
+
+	/**
+	 * 后代与祖先的距离，自身为 0
+	 */
+	@Schema(title = "后代与祖先的距离")
+	private Integer depth;
+
+}
@@ -122,6 +122,25 @@ CREATE TABLE `notify_user_announcement`  (
   UNIQUE INDEX `uk_user_id_anno_id`(`user_id`, `announcement_id`) USING BTREE
 ) ENGINE = InnoDB AUTO_INCREMENT = 38 CHARACTER SET = utf8mb4 COLLATE = utf8mb4_general_ci COMMENT = '用户公告表' ROW_FORMAT = DYNAMIC;
 
+-- ----------------------------
+-- Table structure for notify_push_outbox
+-- ----------------------------
+DROP TABLE IF EXISTS `notify_push_outbox`;
+CREATE TABLE `notify_push_outbox`  (
+  `id` bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+  `notify_channel` tinyint(1) NULL DEFAULT NULL COMMENT '推送渠道',
+  `notify_info_type` varchar(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_general_ci NULL DEFAULT NULL COMMENT '通知信息类型',
+  `notify_info` longtext CHARACTER SET utf8mb4 COLLATE utf8mb4_general_ci NULL COMMENT '通知信息',
+  `user_ids` mediumtext CHARACTER SET utf8mb4 COLLATE utf8mb4_general_ci NULL COMMENT '推送失败的用户ID',
+  `retry_count` int(11) NOT NULL DEFAULT 0 COMMENT '已重试次数',
+  `next_retry_time` datetime NULL DEFAULT NULL COMMENT '下次重试时间',
+  `last_error` varchar(500) CHARACTER SET utf8mb4 COLLATE utf8mb4_general_ci NULL DEFAULT NULL COMMENT '最近一次失败原因',
+  `create_time` datetime NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  `update_time` datetime NULL DEFAULT NULL ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`id`) USING BTREE,
+  INDEX `idx_next_retry_time`(`next_retry_time`) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8mb4 COLLATE = utf8mb4_general_ci COMMENT = '通知推送失败重试表' ROW_FORMAT = DYNAMIC;
+
 -- ----------------------------
 -- Table structure for sys_config
 -- ----------------------------
@@ -380,6 +399,45 @@ INSERT INTO `sys_organization` VALUES (12, 'treflip高手', 10, '0-6-10', 3, 2,
 INSERT INTO `sys_organization` VALUES (13, 'impossible', 10, '0-6-10', 3, 2, NULL, 0, NULL, NULL, '2020-09-24 18:11:53', NULL);
 INSERT INTO `sys_organization` VALUES (14, '测试', 12, '0-6-10-12', 4, 1, NULL, 0, NULL, NULL, '2021-06-22 18:32:02', '2021-06-22 22:19:06');
 
+-- ----------------------------
+-- Table structure for sys_organization_closure
+-- ----------------------------
+DROP TABLE IF EXISTS `sys_organization_closure`;
+CREATE TABLE `sys_organization_closure`  (
+  `id` bigint(20) NOT NULL AUTO_INCREMENT,
+  `ancestor` int(11) NOT NULL COMMENT '祖先组织ID',
+  `descendant` int(11) NOT NULL COMMENT '后代组织ID',
+  `depth` int(11) NOT NULL COMMENT '后代与祖先的距离，自身为 0',
+  PRIMARY KEY (`id`) USING BTREE,
+  UNIQUE INDEX `uk_ancestor_descendant`(`ancestor`, `descendant`) USING BTREE,
+  INDEX `idx_descendant`(`descendant`) USING BTREE
+) ENGINE = InnoDB AUTO_INCREMENT = 22 CHARACTER SET = utf8mb4 COLLATE = utf8mb4_general_ci COMMENT = '组织架构闭包表' ROW_FORMAT = DYNAMIC;
+
+-- ----------------------------
+-- Records of sys_organization_closure
+-- ----------------------------
+INSERT INTO `sys_organization_closure` VALUES (1, 6, 6, 0);
+INSERT INTO `sys_organization_closure` VALUES (2, 6, 10, 1);
+INSERT INTO `sys_organization_closure` VALUES (3, 6, 11, 2);
+INSERT INTO `sys_organization_closure` VALUES (4, 6, 12, 2);
+INSERT INTO `sys_organization_closure` VALUES (5, 6, 13, 2);
+INSERT INTO `sys_organization_closure` VALUES (6, 6, 14, 3);
+INSERT INTO `sys_organization_closure` VALUES (7, 7, 7, 0);
+INSERT INTO `sys_organization_closure` VALUES (8, 7, 8, 1);
+INSERT INTO `sys_organization_closure` VALUES (9, 7, 9, 1);
+INSERT INTO `sys_organization_closure` VALUES (10, 8, 8, 0);
+INSERT INTO `sys_organization_closure` VALUES (11, 9, 9, 0);
+INSERT INTO `sys_organization_closure` VALUES (12, 10, 10, 0);
+INSERT INTO `sys_organization_closure` VALUES (13, 10, 11, 1);
+INSERT INTO `sys_organization_closure` VALUES (14, 10, 12, 1);
+INSERT INTO `sys_organization_closure` VALUES (15, 10, 13, 1);
+INSERT INTO `sys_organization_closure` VALUES (16, 10, 14, 2);
+INSERT INTO `sys_organization_closure` VALUES (17, 11, 11, 0);
+INSERT INTO `sys_organization_closure` VALUES (18, 12, 12, 0);
+INSERT INTO `sys_organization_closure` VALUES (19, 12, 14, 1);
+INSERT INTO `sys_organization_closure` VALUES (20, 13, 13, 0);
+INSERT INTO `sys_organization_closure` VALUES (21, 14, 14, 0);
+
 -- ----------------------------
 -- Table structure for sys_role
 -- ----------------------------
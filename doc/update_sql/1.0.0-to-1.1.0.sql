@@ -0,0 +1,32 @@
+-- 通知推送失败重试表，开启 ballcat.notify.outbox.enabled 前需要执行
+-- ----------------------------
+-- Table structure for notify_push_outbox
+-- ----------------------------
+CREATE TABLE IF NOT EXISTS `notify_push_outbox`  (
+  `id` bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+  `notify_channel` tinyint(1) NULL DEFAULT NULL COMMENT '推送渠道',
+  `notify_info_type` varchar(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_general_ci NULL DEFAULT NULL COMMENT '通知信息类型',
+  `notify_info` longtext CHARACTER SET utf8mb4 COLLATE utf8mb4_general_ci NULL COMMENT '通知信息',
+  `user_ids` mediumtext CHARACTER SET utf8mb4 COLLATE utf8mb4_general_ci NULL COMMENT '推送失败的用户ID',
+  `retry_count` int(11) NOT NULL DEFAULT 0 COMMENT '已重试次数',
+  `next_retry_time` datetime NULL DEFAULT NULL COMMENT '下次重试时间',
+  `last_error` varchar(500) CHARACTER SET utf8mb4 COLLATE utf8mb4_general_ci NULL DEFAULT NULL COMMENT '最近一次失败原因',
+  `create_time` datetime NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  `update_time` datetime NULL DEFAULT NULL ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`id`) USING BTREE,
+  INDEX `idx_next_retry_time`(`next_retry_time`) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8mb4 COLLATE = utf8mb4_general_ci COMMENT = '通知推送失败重试表' ROW_FORMAT = DYNAMIC;
+
+-- 组织架构闭包表，开启 ballcat.system.organization.closure-table-enabled 前需要执行，并执行一次组织层级校正以初始化数据
+-- ----------------------------
+-- Table structure for sys_organization_closure
+-- ----------------------------
+CREATE TABLE IF NOT EXISTS `sys_organization_closure`  (
+  `id` bigint(20) NOT NULL AUTO_INCREMENT,
+  `ancestor` int(11) NOT NULL COMMENT '祖先组织ID',
+  `descendant` int(11) NOT NULL COMMENT '后代组织ID',
+  `depth` int(11) NOT NULL COMMENT '后代与祖先的距离，自身为 0',
+  PRIMARY KEY (`id`) USING BTREE,
+  UNIQUE INDEX `uk_ancestor_descendant`(`ancestor`, `descendant`) USING BTREE,
+  INDEX `idx_descendant`(`descendant`) USING BTREE
+) ENGINE = InnoDB CHARACTER SET = utf8mb4 COLLATE = utf8mb4_general_ci COMMENT = '组织架构闭包表' ROW_FORMAT = DYNAMIC;